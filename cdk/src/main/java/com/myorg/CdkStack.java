@@ -1,11 +1,13 @@
 package com.myorg;
 
 import software.amazon.awscdk.Duration;
+import software.amazon.awscdk.Size;
 import software.amazon.awscdk.services.lambda.*;
 import software.amazon.awscdk.services.apigateway.*;
 import software.amazon.awscdk.Stack;
 import software.amazon.awscdk.StackProps;
 import software.amazon.awscdk.services.lambda.Runtime;
+import software.amazon.awscdk.services.lambda.eventsources.DynamoEventSource;
 import software.constructs.Construct;
 import software.amazon.awscdk.services.dynamodb.*;
 
@@ -34,11 +36,42 @@ public class CdkStack extends Stack {
 
         // Grant Lambda function permissions to read and write to the DynamoDB table
         dynamoDbStack.coursesTable.grantReadWriteData(proxyLambdaFunction);
+        dynamoDbStack.aggregatesTable.grantReadData(proxyLambdaFunction);
+        dynamoDbStack.reviewShardsTable.grantReadWriteData(proxyLambdaFunction);
+        dynamoDbStack.idempotencyTable.grantReadWriteData(proxyLambdaFunction);
+
+        // Define the Lambda function that consumes the Courses and CourseReviewShards streams and maintains the
+        // course change log and department stats
+        Function streamLambdaFunction = Function.Builder.create(this, "StreamLambdaFunction")
+                .runtime(Runtime.JAVA_17)
+                .handler("com.example.lambda.StreamApp::handleRequest")
+                .code(Code.fromAsset("../lambda/target/lambda-1.0-SNAPSHOT.jar"))
+                .memorySize(512)
+                .timeout(Duration.seconds(60))
+                .build();
+
+        streamLambdaFunction.addEventSource(DynamoEventSource.Builder.create(dynamoDbStack.coursesTable)
+                .startingPosition(StartingPosition.TRIM_HORIZON)
+                .batchSize(100)
+                .bisectBatchOnError(true)
+                .reportBatchItemFailures(true) // Retry from the first failed record instead of the whole batch
+                .retryAttempts(10)
+                .build());
+        streamLambdaFunction.addEventSource(DynamoEventSource.Builder.create(dynamoDbStack.reviewShardsTable)
+                .startingPosition(StartingPosition.TRIM_HORIZON)
+                .batchSize(100)
+                .bisectBatchOnError(true)
+                .reportBatchItemFailures(true)
+                .retryAttempts(10)
+                .build());
+        dynamoDbStack.aggregatesTable.grantReadWriteData(streamLambdaFunction);
 
         // Define the API Gateway
         RestApi api = RestApi.Builder.create(this, "CourseReviewApi")
                 .restApiName("Course Review Service")
                 .description("An API Gateway for managing courses, reviews, and authentication.")
+                .binaryMediaTypes(List.of("application/x-course-catalog")) // Binary catalog bodies, returned base64 by the Lambda
+                .minCompressionSize(Size.bytes(1024)) // API Gateway gzips larger responses for clients that accept it
                 .build();
 
         // Define the Lambda integration
@@ -64,7 +97,79 @@ public class CdkStack extends Stack {
                         .responseParameters(Map.of(
                                 "method.response.header.Access-Control-Allow-Origin", "'*'",
                                 "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET,POST,PUT,DELETE'",
-                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token'"
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
+                        ))
+                        .build()))
+                .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
+                .requestTemplates(Map.of("application/json", "{\"statusCode\": 200}"))
+                .build()), MethodOptions.builder()
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true,
+                                "method.response.header.Access-Control-Allow-Headers", true
+                        ))
+                        .build()))
+                .build());
+
+        // Define the /courses/changes resource (delta sync)
+        Resource courseChangesResource = coursesResource.addResource("changes");
+        courseChangesResource.addMethod("GET", proxyIntegration, MethodOptions.builder()
+                .authorizationType(AuthorizationType.NONE)
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true
+                        ))
+                        .build()))
+                .build());
+
+        // Enable CORS for the OPTIONS method on /courses/changes
+        courseChangesResource.addMethod("OPTIONS", new MockIntegration(IntegrationOptions.builder()
+                .integrationResponses(List.of(IntegrationResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", "'*'",
+                                "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET'",
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
+                        ))
+                        .build()))
+                .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
+                .requestTemplates(Map.of("application/json", "{\"statusCode\": 200}"))
+                .build()), MethodOptions.builder()
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true,
+                                "method.response.header.Access-Control-Allow-Headers", true
+                        ))
+                        .build()))
+                .build());
+
+        // Define the /courses/similar resource (similar-course recommendations)
+        Resource courseSimilarResource = coursesResource.addResource("similar");
+        courseSimilarResource.addMethod("GET", proxyIntegration, MethodOptions.builder()
+                .authorizationType(AuthorizationType.NONE)
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true
+                        ))
+                        .build()))
+                .build());
+
+        // Enable CORS for the OPTIONS method on /courses/similar
+        courseSimilarResource.addMethod("OPTIONS", new MockIntegration(IntegrationOptions.builder()
+                .integrationResponses(List.of(IntegrationResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", "'*'",
+                                "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET'",
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
                         ))
                         .build()))
                 .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
@@ -100,7 +205,152 @@ public class CdkStack extends Stack {
                         .responseParameters(Map.of(
                                 "method.response.header.Access-Control-Allow-Origin", "'*'",
                                 "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET,POST,PUT,DELETE'",
-                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token'"
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
+                        ))
+                        .build()))
+                .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
+                .requestTemplates(Map.of("application/json", "{\"statusCode\": 200}"))
+                .build()), MethodOptions.builder()
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true,
+                                "method.response.header.Access-Control-Allow-Headers", true
+                        ))
+                        .build()))
+                .build());
+
+        // Define the /professors/{name}/courses resource
+        Resource professorCoursesResource = api.getRoot().addResource("professors")
+                .addResource("{name}")
+                .addResource("courses");
+        professorCoursesResource.addMethod("GET", proxyIntegration, MethodOptions.builder()
+                .authorizationType(AuthorizationType.NONE)
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true
+                        ))
+                        .build()))
+                .build());
+
+        // Enable CORS for the OPTIONS method on /professors/{name}/courses
+        professorCoursesResource.addMethod("OPTIONS", new MockIntegration(IntegrationOptions.builder()
+                .integrationResponses(List.of(IntegrationResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", "'*'",
+                                "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET'",
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
+                        ))
+                        .build()))
+                .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
+                .requestTemplates(Map.of("application/json", "{\"statusCode\": 200}"))
+                .build()), MethodOptions.builder()
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true,
+                                "method.response.header.Access-Control-Allow-Headers", true
+                        ))
+                        .build()))
+                .build());
+
+        // Define the /prerequisites and /prerequisites/plan resources
+        Resource prerequisitesResource = api.getRoot().addResource("prerequisites");
+        prerequisitesResource.addMethod("GET", proxyIntegration, MethodOptions.builder()
+                .authorizationType(AuthorizationType.NONE)
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true
+                        ))
+                        .build()))
+                .build());
+
+        // Enable CORS for the OPTIONS method on /prerequisites
+        prerequisitesResource.addMethod("OPTIONS", new MockIntegration(IntegrationOptions.builder()
+                .integrationResponses(List.of(IntegrationResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", "'*'",
+                                "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET'",
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
+                        ))
+                        .build()))
+                .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
+                .requestTemplates(Map.of("application/json", "{\"statusCode\": 200}"))
+                .build()), MethodOptions.builder()
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true,
+                                "method.response.header.Access-Control-Allow-Headers", true
+                        ))
+                        .build()))
+                .build());
+
+        Resource prerequisitePlanResource = prerequisitesResource.addResource("plan");
+        prerequisitePlanResource.addMethod("GET", proxyIntegration, MethodOptions.builder()
+                .authorizationType(AuthorizationType.NONE)
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true
+                        ))
+                        .build()))
+                .build());
+
+        // Enable CORS for the OPTIONS method on /prerequisites/plan
+        prerequisitePlanResource.addMethod("OPTIONS", new MockIntegration(IntegrationOptions.builder()
+                .integrationResponses(List.of(IntegrationResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", "'*'",
+                                "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET'",
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
+                        ))
+                        .build()))
+                .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
+                .requestTemplates(Map.of("application/json", "{\"statusCode\": 200}"))
+                .build()), MethodOptions.builder()
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true,
+                                "method.response.header.Access-Control-Allow-Headers", true
+                        ))
+                        .build()))
+                .build());
+
+        // Define the /stats resource
+        Resource statsResource = api.getRoot().addResource("stats");
+        statsResource.addMethod("GET", proxyIntegration, MethodOptions.builder()
+                .authorizationType(AuthorizationType.NONE)
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true
+                        ))
+                        .build()))
+                .build());
+
+        // Enable CORS for the OPTIONS method on /stats
+        statsResource.addMethod("OPTIONS", new MockIntegration(IntegrationOptions.builder()
+                .integrationResponses(List.of(IntegrationResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", "'*'",
+                                "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET'",
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
                         ))
                         .build()))
                 .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
@@ -140,7 +390,43 @@ public class CdkStack extends Stack {
                         .responseParameters(Map.of(
                                 "method.response.header.Access-Control-Allow-Origin", "'*'",
                                 "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET'",
-                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token'"
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
+                        ))
+                        .build()))
+                .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
+                .requestTemplates(Map.of("application/json", "{\"statusCode\": 200}"))
+                .build()), MethodOptions.builder()
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true,
+                                "method.response.header.Access-Control-Allow-Headers", true
+                        ))
+                        .build()))
+                .build());
+
+        // Define the /search/reviews resource (review text search)
+        Resource reviewSearchResource = searchResource.addResource("reviews");
+        reviewSearchResource.addMethod("GET", proxyIntegration, MethodOptions.builder()
+                .authorizationType(AuthorizationType.NONE)
+                .methodResponses(List.of(MethodResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", true,
+                                "method.response.header.Access-Control-Allow-Methods", true
+                        ))
+                        .build()))
+                .build());
+
+        // Enable CORS for the OPTIONS method on /search/reviews
+        reviewSearchResource.addMethod("OPTIONS", new MockIntegration(IntegrationOptions.builder()
+                .integrationResponses(List.of(IntegrationResponse.builder()
+                        .statusCode("200")
+                        .responseParameters(Map.of(
+                                "method.response.header.Access-Control-Allow-Origin", "'*'",
+                                "method.response.header.Access-Control-Allow-Methods", "'OPTIONS,GET'",
+                                "method.response.header.Access-Control-Allow-Headers", "'Content-Type,Authorization,X-Amz-Date,X-Api-Key,X-Amz-Security-Token,Idempotency-Key'"
                         ))
                         .build()))
                 .passthroughBehavior(PassthroughBehavior.WHEN_NO_MATCH)
@@ -8,6 +8,10 @@ import software.constructs.Construct;
 
 public class DynamoDbStack extends Stack {
     public final Table coursesTable;
+    public final Table aggregatesTable;
+    public final Table reviewShardsTable;
+    public final Table idempotencyTable;
+    public final Table migrationCheckpointsTable;
 
     public DynamoDbStack(final Construct scope, final String id) {
         this(scope, id, null);
@@ -28,6 +32,7 @@ public class DynamoDbStack extends Stack {
                         .build())
                 .tableName("Courses")
                 .billingMode(BillingMode.PAY_PER_REQUEST)  // Adjust as needed
+                .stream(StreamViewType.NEW_AND_OLD_IMAGES) // Feeds StreamApp, which diffs the inline reviews for stats
                 .build();
 
         // GSI for querying by createdBy
@@ -70,5 +75,56 @@ public class DynamoDbStack extends Stack {
                 .projectionType(ProjectionType.ALL) // Include all fields in the query result
                 .build());
 
+        // Change log for delta sync and department stats, maintained from the Courses and CourseReviewShards
+        // streams; change log entries and sequence markers expire through TTL on expiresAt
+        aggregatesTable = Table.Builder.create(this, "CourseAggregatesTable")
+                .partitionKey(Attribute.builder()
+                        .name("pk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .sortKey(Attribute.builder()
+                        .name("sk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .tableName("CourseAggregates")
+                .timeToLiveAttribute("expiresAt")
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build();
+
+        // Write-sharded reviews and per-shard counters for hot courses (pk is "<name>#<code>#<shard>")
+        reviewShardsTable = Table.Builder.create(this, "CourseReviewShardsTable")
+                .partitionKey(Attribute.builder()
+                        .name("pk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .sortKey(Attribute.builder()
+                        .name("sk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .tableName("CourseReviewShards")
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .stream(StreamViewType.NEW_AND_OLD_IMAGES) // Feeds StreamApp with the reviews of sharded courses
+                .build();
+
+        // Idempotency-Key records for POST retries; expiresAt lets DynamoDB TTL clear them out
+        idempotencyTable = Table.Builder.create(this, "IdempotencyKeysTable")
+                .partitionKey(Attribute.builder()
+                        .name("pk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .tableName("IdempotencyKeys")
+                .timeToLiveAttribute("expiresAt")
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build();
+
+        // Per-segment progress of Courses migrations (see the lambda module's migration.Migrations)
+        migrationCheckpointsTable = Table.Builder.create(this, "MigrationCheckpointsTable")
+                .partitionKey(Attribute.builder()
+                        .name("pk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .tableName("MigrationCheckpoints")
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build();
     }
 }
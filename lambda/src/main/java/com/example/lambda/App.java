@@ -5,13 +5,23 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.example.lambda.dao.CourseDao;
+import com.example.lambda.dao.IdempotencyStore;
 import com.example.lambda.handlers.CoursesHandler;
+import com.example.lambda.handlers.PrerequisitesHandler;
+import com.example.lambda.handlers.ProfessorsHandler;
 import com.example.lambda.handlers.ReviewsHandler;
 import com.example.lambda.handlers.SearchHandler;
+import com.example.lambda.handlers.StatsHandler;
+import com.example.lambda.util.AdmissionPolicy;
+import com.example.lambda.util.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 
 public class App implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
@@ -24,6 +34,19 @@ public class App implements RequestHandler<APIGatewayProxyRequestEvent, APIGatew
     private final CoursesHandler coursesHandler = new CoursesHandler(courseDao);
     private final ReviewsHandler reviewsHandler = new ReviewsHandler(courseDao);
     private final SearchHandler searchHandler = new SearchHandler(courseDao);
+    private final ProfessorsHandler professorsHandler = new ProfessorsHandler(courseDao);
+    private final PrerequisitesHandler prerequisitesHandler = new PrerequisitesHandler(courseDao);
+    private final StatsHandler statsHandler = new StatsHandler(courseDao);
+
+    // Admission control: per-client token buckets, charged by route, checked before any handler runs
+    private final RateLimiter rateLimiter = RateLimiter.fromEnv();
+    private final AdmissionPolicy admissionPolicy = AdmissionPolicy.fromEnv();
+    private final boolean rateLimitEnabled = !"false".equalsIgnoreCase(System.getenv("RATE_LIMIT_ENABLED"));
+
+    // Dedupe records for POST requests that carry an Idempotency-Key header
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(
+            DynamoDbClient.builder().region(Region.US_EAST_1).build(),
+            idempotencyTtlSeconds(), System::currentTimeMillis);
 
 
     @Override
@@ -37,6 +60,23 @@ public class App implements RequestHandler<APIGatewayProxyRequestEvent, APIGatew
         logger.info("HTTP Method: {}", httpMethod);
         logger.info("Body: {}", body);
 
+        // Reject over-budget clients before doing any work
+        if (rateLimitEnabled) {
+            String client = clientKey(input);
+            long retryAfterMillis = rateLimiter.tryAcquire(client, admissionPolicy.costOf(httpMethod, path));
+            if (retryAfterMillis > 0) {
+                logger.warn("Rate limited {} {} for client {}", httpMethod, path, client);
+                APIGatewayProxyResponseEvent limited = new APIGatewayProxyResponseEvent();
+                limited.setStatusCode(429);
+                limited.setBody("Too Many Requests");
+                Map<String, String> headers = new HashMap<>();
+                headers.put("Retry-After", Long.toString(Math.max(1, (retryAfterMillis + 999) / 1000)));
+                limited.setHeaders(headers);
+                addCorsHeaders(limited);
+                return limited;
+            }
+        }
+
         String courseId = null;
         String reviewId = null;
         String courseName = null;
@@ -61,17 +101,46 @@ public class App implements RequestHandler<APIGatewayProxyRequestEvent, APIGatew
         // Log the extracted courseId
         logger.info("Extracted courseId: {}", courseId);
 
+        // A retried create with the same Idempotency-Key replays the first response instead of writing again
+        IdempotencyStore.Claim claim = null;
+        String idempotencyKey = header(input, "Idempotency-Key");
+        if (idempotencyKey != null && "POST".equalsIgnoreCase(httpMethod)
+                && (path.startsWith("/courses") || path.startsWith("/reviews"))) {
+            claim = claimIdempotencyKey(path, idempotencyKey,
+                    IdempotencyStore.fingerprint(courseName, courseCode, reviewId, body));
+            if (claim != null && claim.getOutcome() != IdempotencyStore.Outcome.CLAIMED) {
+                APIGatewayProxyResponseEvent replay = idempotentResponse(claim);
+                addCorsHeaders(replay);
+                return replay;
+            }
+        }
+
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
         response.setStatusCode(200); // Default success status
 
         // Route the request based on path
         if (path.startsWith("/courses")) {
-            response = coursesHandler.handleCoursesRequest(httpMethod, body, courseName, courseCode);
+            response = coursesHandler.handleCoursesRequest(httpMethod, path, body, courseName, courseCode,
+                    input.getQueryStringParameters(), headers(input));
         } else if (path.startsWith("/reviews")) {
-            response = reviewsHandler.handleReviewsRequest(httpMethod, body, courseName, courseCode, reviewId);
+            response = reviewsHandler.handleReviewsRequest(httpMethod, body, courseName, courseCode, reviewId,
+                    input.getQueryStringParameters());
+        }
+        else if (path.startsWith("/search/reviews")) {
+            response = searchHandler.handleReviewSearchRequest(httpMethod, input.getQueryStringParameters());
         }
         else if (path.startsWith("/search")) {
             response = searchHandler.handleSearchRequest(body);
+        }
+        else if (path.startsWith("/professors")) {
+            String professorName = input.getPathParameters() != null ? input.getPathParameters().get("name") : null;
+            response = professorsHandler.handleProfessorsRequest(httpMethod, path, professorName);
+        }
+        else if (path.startsWith("/prerequisites")) {
+            response = prerequisitesHandler.handlePrerequisitesRequest(httpMethod, path, input.getQueryStringParameters());
+        }
+        else if (path.startsWith("/stats")) {
+            response = statsHandler.handleStatsRequest(httpMethod, input.getQueryStringParameters());
         }
          else {
             // If the path does not match any known endpoint, return a 404 response
@@ -80,18 +149,106 @@ public class App implements RequestHandler<APIGatewayProxyRequestEvent, APIGatew
             logger.warn("Unknown path: {}", path);
         }
 
+        if (claim != null) {
+            idempotencyStore.complete(claim, response);
+        }
+
         // Add CORS headers to the response
         addCorsHeaders(response);
 
         return response;
     }
 
-    // Helper method to add CORS headers to the response
+    private IdempotencyStore.Claim claimIdempotencyKey(String path, String idempotencyKey, String fingerprint) {
+        try {
+            return idempotencyStore.claim(path, idempotencyKey, fingerprint);
+        } catch (Exception e) {
+            // Without the dedupe table the request still runs, just without retry protection
+            logger.error("Idempotency check failed for key {}: {}", idempotencyKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private static APIGatewayProxyResponseEvent idempotentResponse(IdempotencyStore.Claim claim) {
+        APIGatewayProxyResponseEvent response;
+        Map<String, String> headers = new HashMap<>();
+        switch (claim.getOutcome()) {
+            case REPLAY:
+                // Keep the headers the original response was stored with
+                response = claim.getResponse();
+                if (response.getHeaders() != null) {
+                    headers.putAll(response.getHeaders());
+                }
+                headers.put("Idempotent-Replayed", "true");
+                break;
+            case IN_PROGRESS:
+                response = new APIGatewayProxyResponseEvent();
+                response.setStatusCode(409);
+                response.setBody("A request with this Idempotency-Key is still in progress");
+                headers.put("Retry-After", "1");
+                break;
+            default:
+                response = new APIGatewayProxyResponseEvent();
+                response.setStatusCode(422);
+                response.setBody("Idempotency-Key was already used for a different request");
+                break;
+        }
+        response.setHeaders(headers);
+        return response;
+    }
+
+    // Header lookup ignoring case, since clients and API Gateway differ in how they send it
+    private static String header(APIGatewayProxyRequestEvent input, String name) {
+        String value = headers(input).get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static Map<String, String> headers(APIGatewayProxyRequestEvent input) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (input.getHeaders() != null) {
+            input.getHeaders().forEach((name, value) -> {
+                if (name != null && value != null) {
+                    headers.put(name, value);
+                }
+            });
+        }
+        return headers;
+    }
+
+    private static long idempotencyTtlSeconds() {
+        String value = System.getenv("IDEMPOTENCY_TTL_SECONDS");
+        if (value == null || value.isBlank()) {
+            return IdempotencyStore.DEFAULT_TTL_SECONDS;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid IDEMPOTENCY_TTL_SECONDS '{}', using default", value);
+            return IdempotencyStore.DEFAULT_TTL_SECONDS;
+        }
+    }
+
+    // Helper method to add CORS headers to the response, keeping any headers the handler already set
     private void addCorsHeaders(APIGatewayProxyResponseEvent response) {
-        response.setHeaders(Map.of(
-                "Access-Control-Allow-Origin", "*", // Allow requests from any origin
-                "Access-Control-Allow-Methods", "OPTIONS,GET,POST,PUT,DELETE", // Allow methods
-                "Access-Control-Allow-Headers", "Content-Type,Authorization" // Allow headers
-        ));
+        Map<String, String> headers = response.getHeaders() == null ? new HashMap<>() : new HashMap<>(response.getHeaders());
+        headers.put("Access-Control-Allow-Origin", "*"); // Allow requests from any origin
+        headers.put("Access-Control-Allow-Methods", "OPTIONS,GET,POST,PUT,DELETE"); // Allow methods
+        headers.put("Access-Control-Allow-Headers", "Content-Type,Authorization,Idempotency-Key"); // Allow headers
+        response.setHeaders(headers);
+    }
+
+    // Identify the caller by API key when one was used, otherwise by source IP
+    private static String clientKey(APIGatewayProxyRequestEvent input) {
+        APIGatewayProxyRequestEvent.ProxyRequestContext context = input.getRequestContext();
+        if (context != null && context.getIdentity() != null) {
+            APIGatewayProxyRequestEvent.RequestIdentity identity = context.getIdentity();
+            if (identity.getApiKey() != null && !identity.getApiKey().isEmpty()) {
+                return "key:" + identity.getApiKey();
+            }
+            if (identity.getSourceIp() != null && !identity.getSourceIp().isEmpty()) {
+                return "ip:" + identity.getSourceIp();
+            }
+        }
+        return "anonymous";
     }
 }
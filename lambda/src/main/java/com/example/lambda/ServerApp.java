@@ -0,0 +1,311 @@
+package com.example.lambda;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.util.CatalogCodec;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Long-lived HTTP entry point for running the backend in a container behind a load balancer.
+// Each request is turned into the same APIGatewayProxyRequestEvent API Gateway would send and routed
+// through one shared App, so the DAO, catalog cache, search cache and rate limiter are shared by all requests.
+//
+//   java -cp target/lambda-1.0-SNAPSHOT.jar com.example.lambda.ServerApp
+//
+// SERVER_PORT (8080), SERVER_MAX_CONCURRENCY (256), SERVER_QUEUE_TIMEOUT_MILLIS (1000),
+// SERVER_KEEP_ALIVE_SECONDS (30), SERVER_DRAIN_SECONDS (20) and TRUST_FORWARDED_FOR (false) configure it. Like
+// API Gateway with minCompressionSize, responses of MIN_COMPRESSION_SIZE bytes or more are gzipped for clients
+// that accept it.
+public class ServerApp {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerApp.class);
+
+    static final String HEALTH_PATH = "/health";
+    static final int MIN_COMPRESSION_SIZE = 1024;
+    // Set on the thread that answers requests the platform-thread pool had no room for
+    static final ThreadLocal<Boolean> SHEDDING = ThreadLocal.withInitial(() -> false);
+
+    private final App app;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long queueTimeoutMillis;
+    private final boolean trustForwardedFor;
+    private volatile boolean draining;
+
+    // trustForwardedFor says a load balancer that appends X-Forwarded-For sits in front; without one, the header is
+    // whatever the client sent and the peer address is used instead
+    public ServerApp(App app, int port, int maxConcurrency, long queueTimeoutMillis, boolean trustForwardedFor)
+            throws IOException {
+        this.app = app;
+        this.trustForwardedFor = trustForwardedFor;
+        this.permits = new Semaphore(maxConcurrency);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.executor = newRequestExecutor(maxConcurrency);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        // The JDK server keeps HTTP/1.1 connections open between requests; this bounds how long an idle one lives
+        System.setProperty("sun.net.httpserver.idleInterval", Integer.toString(intFromEnv("SERVER_KEEP_ALIVE_SECONDS", 30)));
+
+        ServerApp serverApp = new ServerApp(new App(),
+                intFromEnv("SERVER_PORT", 8080),
+                Math.max(1, intFromEnv("SERVER_MAX_CONCURRENCY", 256)),
+                Math.max(0, intFromEnv("SERVER_QUEUE_TIMEOUT_MILLIS", 1000)),
+                Boolean.parseBoolean(System.getenv("TRUST_FORWARDED_FOR")));
+        int drainSeconds = Math.max(0, intFromEnv("SERVER_DRAIN_SECONDS", 20));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> serverApp.stop(drainSeconds), "server-shutdown"));
+        serverApp.start();
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Listening on port {}", server.getAddress().getPort());
+    }
+
+    // Graceful shutdown: fail health checks so the load balancer stops sending traffic, stop accepting
+    // connections, then give in-flight requests up to drainSeconds to finish
+    public void stop(int drainSeconds) {
+        logger.info("Draining for up to {}s", drainSeconds);
+        draining = true;
+        server.stop(drainSeconds);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(drainSeconds, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Server stopped");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (HEALTH_PATH.equals(exchange.getRequestURI().getPath())) {
+                send(exchange, draining ? 503 : 200, Map.of(), (draining ? "Draining" : "OK").getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            // Bound the work in flight; a request that cannot get a permit quickly is shed rather than queued forever
+            if (SHEDDING.get() || !permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                send(exchange, 503, Map.of("Retry-After", "1"), "Server busy".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            try {
+                APIGatewayProxyResponseEvent response = app.handleRequest(toEvent(exchange, trustForwardedFor), null);
+                Map<String, String> headers = response.getHeaders() == null ? new HashMap<>() : new HashMap<>(response.getHeaders());
+                byte[] body = bodyOf(response);
+                if (shouldCompress(exchange.getRequestHeaders().getFirst("Accept-Encoding"), headers, body.length)) {
+                    body = gzip(body);
+                    headers.put("Content-Encoding", "gzip");
+                    headers.merge("Vary", "Accept-Encoding", (existing, added) -> existing + ", " + added);
+                }
+                send(exchange, response.getStatusCode() == null ? 200 : response.getStatusCode(), headers, body);
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send(exchange, 503, Map.of(), new byte[0]);
+        } catch (RuntimeException e) {
+            logger.error("Unhandled error for {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            send(exchange, 500, Map.of(), "Internal Server Error".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Build the event API Gateway's proxy integration would produce for this request
+    static APIGatewayProxyRequestEvent toEvent(HttpExchange exchange, boolean trustForwardedFor) throws IOException {
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        String path = exchange.getRequestURI().getPath();
+        event.setHttpMethod(exchange.getRequestMethod());
+        event.setPath(path);
+        event.setQueryStringParameters(parseQuery(exchange.getRequestURI().getRawQuery()));
+        event.setPathParameters(pathParameters(path));
+
+        Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+        event.setHeaders(headers);
+
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            event.setBody(body.length == 0 ? null : new String(body, StandardCharsets.UTF_8));
+        }
+
+        String forwardedFor = exchange.getRequestHeaders().getFirst("X-Forwarded-For");
+        event.setRequestContext(new APIGatewayProxyRequestEvent.ProxyRequestContext()
+                .withIdentity(new APIGatewayProxyRequestEvent.RequestIdentity()
+                        .withSourceIp(sourceIp(forwardedFor, exchange.getRemoteAddress(), trustForwardedFor))));
+        return event;
+    }
+
+    // Like API Gateway, a missing query string is null rather than an empty map
+    static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return null;
+        }
+        Map<String, String> parameters = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            parameters.put(name, value);
+        }
+        return parameters;
+    }
+
+    // The only templated resource in the API is /professors/{name}/courses
+    static Map<String, String> pathParameters(String path) {
+        String[] segments = path.split("/");
+        if (segments.length == 4 && segments[1].equals("professors") && segments[3].equals("courses")) {
+            return Map.of("name", segments[2]);
+        }
+        return null;
+    }
+
+    // The rate limiter keys on this, so a client must not be able to choose it. Behind a trusted load balancer the
+    // peer is the balancer and the client is the last address it appended; otherwise it is the peer itself.
+    static String sourceIp(String forwardedFor, InetSocketAddress remote, boolean trustForwardedFor) {
+        if (trustForwardedFor && forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] hops = forwardedFor.split(",");
+            return hops[hops.length - 1].trim();
+        }
+        return remote == null ? null : remote.getAddress().getHostAddress();
+    }
+
+    static boolean shouldCompress(String acceptEncoding, Map<String, String> headers, int length) {
+        return length >= MIN_COMPRESSION_SIZE && !headers.containsKey("Content-Encoding")
+                && CatalogCodec.accepts(acceptEncoding, "gzip");
+    }
+
+    static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] bodyOf(APIGatewayProxyResponseEvent response) {
+        if (response.getBody() == null) {
+            return new byte[0];
+        }
+        if (Boolean.TRUE.equals(response.getIsBase64Encoded())) {
+            return Base64.getDecoder().decode(response.getBody());
+        }
+        return response.getBody().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, String> headers, byte[] body) throws IOException {
+        headers.forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        if (body.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // A virtual thread per request when the JVM has them (21+); the build targets 11 and Lambda runs 17,
+    // so otherwise a bounded pool of platform threads is used
+    private static ExecutorService newRequestExecutor(int maxConcurrency) {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("Serving requests on virtual threads");
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            logger.info("Virtual threads unavailable, serving requests on {} platform threads", 2 * maxConcurrency);
+            return newPlatformExecutor(maxConcurrency);
+        }
+    }
+
+    // Twice as many threads as permits, so up to maxConcurrency requests can wait out the queue timeout for a
+    // permit and be shed by the semaphore, and a queue of maxConcurrency more behind them. A request that finds
+    // even the queue full is handed to a single shedding thread, where handle() answers 503 without waiting.
+    // The shedding thread's queue is bounded too. Past it, or once the pool is shut down, the request is shed on
+    // the server's dispatcher thread. A rejected task is never dropped, because the task is the server's
+    // exchange and dropping it would leave the connection open with no response. Shedding on the dispatcher
+    // also stops it accepting new connections for that long, which pushes the overload back to the clients.
+    static ExecutorService newPlatformExecutor(int maxConcurrency) {
+        ThreadPoolExecutor shed = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxConcurrency), task -> new Thread(() -> {
+                    SHEDDING.set(true);
+                    task.run();
+                }, "server-shed"), (task, pool) -> shedInline(task));
+        return new ThreadPoolExecutor(2 * maxConcurrency, 2 * maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxConcurrency), (task, pool) -> {
+                    if (pool.isShutdown()) {
+                        shedInline(task);
+                    } else {
+                        shed.execute(task);
+                    }
+                }) {
+            @Override
+            protected void terminated() {
+                shed.shutdown();
+            }
+        };
+    }
+
+    // Run a rejected exchange on the calling thread in shedding mode, so it is answered 503 and closed
+    private static void shedInline(Runnable task) {
+        SHEDDING.set(true);
+        try {
+            task.run();
+        } finally {
+            SHEDDING.remove();
+        }
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid {} '{}', using default", name, value);
+            return defaultValue;
+        }
+    }
+}
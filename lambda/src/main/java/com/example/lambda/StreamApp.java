@@ -0,0 +1,36 @@
+package com.example.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.example.lambda.streams.CourseStreamProcessor;
+import com.example.lambda.streams.DynamoDbAggregateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Entry point for the Courses and CourseReviewShards table streams; keeps the course change log and the department
+// stats in CourseAggregates up to date
+public class StreamApp implements RequestHandler<DynamodbEvent, StreamsEventResponse> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamApp.class);
+
+    private final CourseStreamProcessor processor = new CourseStreamProcessor(new DynamoDbAggregateStore());
+
+    @Override
+    public StreamsEventResponse handleRequest(DynamodbEvent event, Context context) {
+        int size = event.getRecords() == null ? 0 : event.getRecords().size();
+        logger.info("Received {} stream records", size);
+
+        // Report the first failed record so Lambda retries the batch from there (ReportBatchItemFailures)
+        List<StreamsEventResponse.BatchItemFailure> failures = new ArrayList<>();
+        String failedSequence = processor.process(event.getRecords());
+        if (failedSequence != null) {
+            failures.add(new StreamsEventResponse.BatchItemFailure(failedSequence));
+        }
+        return new StreamsEventResponse(failures);
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.lambda.dao;
+
+import com.example.lambda.models.CourseChanges;
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.CourseTombstone;
+import com.example.lambda.streams.CourseChange;
+import com.example.lambda.util.CatalogFootprint;
+import com.example.lambda.util.CatalogSnapshot;
+import com.example.lambda.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Keeps the course catalog and its search index in memory for the lifetime of the container.
+// On a cold start it maps a binary snapshot instead of scanning the table. A snapshot older than the allowed
+// age is brought up to date from the course change log; only one older than the log itself costs a scan.
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+    static final String SNAPSHOT_FILE = "catalog.snapshot";
+    private static final String BY_KEY = "coursesByKey";
+    // Past this many pages of changes a scan is cheaper than catching up
+    static final int MAX_CATCH_UP_PAGES = 20;
+
+    private final Supplier<List<CourseOutput>> loader;
+    private final Function<String, CourseChanges> changes;
+    private final long ttlMillis;
+    private final long snapshotMaxAgeMillis;
+    private final List<Path> snapshotPaths;
+    private final Path writePath;
+    private final LongSupplier clock;
+
+    private volatile CatalogSnapshot current;
+
+    // changes answers a delta sync from a since cursor, like GET /courses/changes; null disables catching up
+    public CatalogCache(Supplier<List<CourseOutput>> loader, Function<String, CourseChanges> changes) {
+        this(loader, changes,
+                millisFromEnv("CATALOG_TTL_SECONDS", DEFAULT_TTL_MILLIS),
+                millisFromEnv("CATALOG_SNAPSHOT_MAX_AGE_SECONDS", millisFromEnv("CATALOG_TTL_SECONDS", DEFAULT_TTL_MILLIS)),
+                defaultSnapshotPaths(),
+                Paths.get(System.getProperty("java.io.tmpdir"), SNAPSHOT_FILE),
+                System::currentTimeMillis);
+    }
+
+    public CatalogCache(Supplier<List<CourseOutput>> loader, Function<String, CourseChanges> changes,
+                        long ttlMillis, long snapshotMaxAgeMillis, List<Path> snapshotPaths, Path writePath,
+                        LongSupplier clock) {
+        this.loader = loader;
+        this.changes = changes;
+        this.ttlMillis = ttlMillis;
+        this.snapshotMaxAgeMillis = snapshotMaxAgeMillis;
+        this.snapshotPaths = snapshotPaths;
+        this.writePath = writePath;
+        this.clock = clock;
+    }
+
+    // Returns the cached catalog, reloading it once it is older than the TTL
+    public CatalogSnapshot get() {
+        CatalogSnapshot catalog = current;
+        if (catalog != null && clock.getAsLong() - catalog.getVersion() <= ttlMillis) {
+            return catalog;
+        }
+
+        synchronized (this) {
+            catalog = current;
+            long now = clock.getAsLong();
+            if (catalog != null && now - catalog.getVersion() <= ttlMillis) {
+                return catalog;
+            }
+
+            if (catalog == null) {
+                catalog = loadSnapshot(now);
+                if (catalog != null) {
+                    // No footprint report here: it would decode every lazily mapped course up front
+                    current = catalog;
+                    return catalog;
+                }
+            }
+
+            // Full scan; stamp with the time the scan started so the data is never reported fresher than it is
+            List<CourseOutput> courses = loader.get();
+            catalog = new CatalogSnapshot(now, List.copyOf(courses), TrigramIndex.build(courses));
+            current = catalog;
+            logFootprint(catalog);
+            writeSnapshot(catalog);
+            return catalog;
+        }
+    }
+
+    // Apply a write made through this container without rescanning the table
+    public void applySave(CourseOutput course) {
+        applySaves(List.of(course));
+    }
+
+    // Apply several writes at once: one copy of the course list and one index rebuild however many there are
+    public synchronized void applySaves(Collection<CourseOutput> saved) {
+        CatalogSnapshot catalog = current;
+        if (catalog == null || saved.isEmpty()) {
+            return;
+        }
+        Map<String, CourseOutput> updates = new LinkedHashMap<>();
+        for (CourseOutput course : saved) {
+            updates.put(keyOf(course.getName(), course.getCode()), course);
+        }
+        current = merge(catalog, catalog.getVersion(), updates);
+    }
+
+    // A new snapshot at version with the given courses replaced or added, and those mapped to null removed
+    private static CatalogSnapshot merge(CatalogSnapshot catalog, long version, Map<String, CourseOutput> updates) {
+        Map<String, CourseOutput> added = new LinkedHashMap<>(updates);
+        List<CourseOutput> courses = new ArrayList<>(catalog.getCourses().size() + updates.size());
+        for (CourseOutput course : catalog.getCourses()) {
+            String key = keyOf(course.getName(), course.getCode());
+            if (!updates.containsKey(key)) {
+                courses.add(course);
+            } else if (added.remove(key) != null) {
+                courses.add(updates.get(key));
+            }
+        }
+        added.values().removeIf(Objects::isNull);
+        courses.addAll(added.values());
+        return new CatalogSnapshot(version, List.copyOf(courses), TrigramIndex.build(courses));
+    }
+
+    // The cached copy of a course, or null if it is not cached; never loads the catalog
+    public CourseOutput peek(String name, String code) {
+        CatalogSnapshot catalog = current;
+        return catalog == null ? null : lookup(catalog, name, code);
+    }
+
+    // The given snapshot's copy of a course, or null if it does not have one
+    static CourseOutput lookup(CatalogSnapshot catalog, String name, String code) {
+        return catalog.derived(BY_KEY, CatalogCache::byKey).get(keyOf(name, code));
+    }
+
+    // For CatalogSnapshot.derived: courses by "name#code"
+    private static Map<String, CourseOutput> byKey(CatalogSnapshot catalog) {
+        Map<String, CourseOutput> courses = new HashMap<>(catalog.getCourses().size() * 2);
+        for (CourseOutput course : catalog.getCourses()) {
+            courses.put(keyOf(course.getName(), course.getCode()), course);
+        }
+        return courses;
+    }
+
+    // Apply a delete made through this container without rescanning the table
+    public synchronized void applyDelete(String name, String code) {
+        CatalogSnapshot catalog = current;
+        if (catalog == null) {
+            return;
+        }
+        List<CourseOutput> courses = new ArrayList<>(catalog.getCourses());
+        int position = indexOf(courses, name, code);
+        if (position < 0) {
+            return;
+        }
+        courses.remove(position);
+        current = new CatalogSnapshot(catalog.getVersion(), List.copyOf(courses), TrigramIndex.build(courses));
+    }
+
+    private CatalogSnapshot loadSnapshot(long now) {
+        for (Path path : snapshotPaths) {
+            if (!Files.isReadable(path)) {
+                continue;
+            }
+            CatalogSnapshot snapshot;
+            try {
+                snapshot = CatalogSnapshot.read(path);
+            } catch (Exception e) {
+                logger.warn("Failed to read catalog snapshot {}: {}", path, e.getMessage());
+                continue;
+            }
+            logger.info("Loaded catalog snapshot {} with {} courses (version {})",
+                    path, snapshot.getCourses().size(), snapshot.getVersion());
+            if (now - snapshot.getVersion() <= snapshotMaxAgeMillis) {
+                return snapshot;
+            }
+            CatalogSnapshot caughtUp = catchUp(snapshot);
+            if (caughtUp != null) {
+                writeSnapshot(caughtUp);
+                return caughtUp;
+            }
+            logger.info("Ignoring stale catalog snapshot {} (version {})", path, snapshot.getVersion());
+        }
+        return null;
+    }
+
+    // Apply the changes logged since the snapshot was taken; null if the log no longer reaches back that far
+    // (the 410 of GET /courses/changes) or there are too many changes to be worth it
+    private CatalogSnapshot catchUp(CatalogSnapshot snapshot) {
+        if (changes == null) {
+            return null;
+        }
+        String since = Long.toString(snapshot.getVersion());
+        Map<String, CourseOutput> updates = new LinkedHashMap<>();
+        for (int page = 0; ; page++) {
+            if (page == MAX_CATCH_UP_PAGES) {
+                logger.info("More than {} pages of changes since version {}", MAX_CATCH_UP_PAGES, snapshot.getVersion());
+                return null;
+            }
+            CourseChanges delta;
+            try {
+                delta = changes.apply(since);
+            } catch (IllegalStateException e) {
+                logger.info("Cannot catch up from version {}: {}", snapshot.getVersion(), e.getMessage());
+                return null;
+            }
+            for (CourseOutput course : delta.getUpserted()) {
+                updates.put(keyOf(course.getName(), course.getCode()), course);
+            }
+            for (CourseTombstone tombstone : delta.getDeleted()) {
+                updates.put(keyOf(tombstone.getName(), tombstone.getCode()), null);
+            }
+            since = delta.getNextSince();
+            if (!delta.isHasMore()) {
+                break;
+            }
+        }
+
+        // A position cursor is mid-millisecond; settle on the millisecond before so a later catch-up replays it
+        long version = CourseChange.isPosition(since) ? CourseChange.millisOf(since) - 1 : Long.parseLong(since);
+        logger.info("Caught catalog snapshot up from version {} to {} with {} changed courses",
+                snapshot.getVersion(), version, updates.size());
+        return updates.isEmpty() ? new CatalogSnapshot(version, snapshot.getCourses(), snapshot.getIndex())
+                : merge(snapshot, version, updates);
+    }
+
+    // Estimated heap held by the catalog, against the container's limit. Walking the whole catalog is slow and
+    // this runs while get() holds the lock, so it is diagnostic output only; the main() tool reports it too.
+    private static void logFootprint(CatalogSnapshot catalog) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        try {
+            logger.debug("Catalog footprint: {} (max heap {}MB)", CatalogFootprint.of(catalog),
+                    Runtime.getRuntime().maxMemory() / 1048576);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to measure catalog footprint: {}", e.getMessage());
+        }
+    }
+
+    private void writeSnapshot(CatalogSnapshot catalog) {
+        if (writePath == null) {
+            return;
+        }
+        try {
+            catalog.writeTo(writePath);
+        } catch (Exception e) {
+            // The snapshot is only an optimization for the next cold start
+            logger.warn("Failed to write catalog snapshot {}: {}", writePath, e.getMessage());
+        }
+    }
+
+    private static String keyOf(String name, String code) {
+        return name + "#" + code;
+    }
+
+    private static int indexOf(List<CourseOutput> courses, String name, String code) {
+        for (int i = 0; i < courses.size(); i++) {
+            CourseOutput course = courses.get(i);
+            if (Objects.equals(course.getName(), name) && Objects.equals(course.getCode(), code)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Snapshot written by this container, then one bundled with the deployment package
+    private static List<Path> defaultSnapshotPaths() {
+        List<Path> paths = new ArrayList<>();
+        String configured = System.getenv("CATALOG_SNAPSHOT_PATH");
+        if (configured != null && !configured.isBlank()) {
+            paths.add(Paths.get(configured));
+        }
+        paths.add(Paths.get(System.getProperty("java.io.tmpdir"), SNAPSHOT_FILE));
+        String taskRoot = System.getenv("LAMBDA_TASK_ROOT");
+        if (taskRoot != null) {
+            paths.add(Paths.get(taskRoot, SNAPSHOT_FILE));
+        }
+        return paths;
+    }
+
+    static long millisFromEnv(String name, long defaultMillis) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultMillis;
+        }
+        try {
+            return Long.parseLong(value.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid {} '{}', using default", name, value);
+            return defaultMillis;
+        }
+    }
+
+    // Generate a snapshot to bundle with the deployment package: CatalogCache [output path]
+    public static void main(String[] args) throws Exception {
+        Path output = Paths.get(args.length > 0 ? args[0] : SNAPSHOT_FILE);
+        List<CourseOutput> courses = new CourseDao().getAllCourses();
+        new CatalogSnapshot(System.currentTimeMillis(), courses, TrigramIndex.build(courses)).writeTo(output);
+        logger.info("Wrote {} courses to {}", courses.size(), output);
+        logger.info("Catalog footprint: {}", CatalogFootprint.measure(courses));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.lambda.dao;
+
+import com.example.lambda.models.Review;
+
+// Additive rating totals, as kept in each review shard's counter item and in the stream-maintained stats;
+// averages are derived on read
+public class CourseAggregate {
+
+    public static final CourseAggregate EMPTY = new CourseAggregate(0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final long courseCount;
+    private final long reviewCount;
+    private final double overallSum;
+    private final long overallCount;
+    private final double difficultySum;
+    private final long difficultyCount;
+    private final double usefulnessSum;
+    private final long usefulnessCount;
+
+    public CourseAggregate(long courseCount, long reviewCount,
+                           double overallSum, long overallCount,
+                           double difficultySum, long difficultyCount,
+                           double usefulnessSum, long usefulnessCount) {
+        this.courseCount = courseCount;
+        this.reviewCount = reviewCount;
+        this.overallSum = overallSum;
+        this.overallCount = overallCount;
+        this.difficultySum = difficultySum;
+        this.difficultyCount = difficultyCount;
+        this.usefulnessSum = usefulnessSum;
+        this.usefulnessCount = usefulnessCount;
+    }
+
+    // One review's contribution; ratings it left blank are not counted
+    public static CourseAggregate of(Review review) {
+        return new CourseAggregate(0, 1,
+                review.getOverall() == null ? 0 : review.getOverall(), review.getOverall() == null ? 0 : 1,
+                review.getDifficulty() == null ? 0 : review.getDifficulty(), review.getDifficulty() == null ? 0 : 1,
+                review.getUsefulness() == null ? 0 : review.getUsefulness(), review.getUsefulness() == null ? 0 : 1);
+    }
+
+    public CourseAggregate plus(CourseAggregate other) {
+        return new CourseAggregate(courseCount + other.courseCount, reviewCount + other.reviewCount,
+                overallSum + other.overallSum, overallCount + other.overallCount,
+                difficultySum + other.difficultySum, difficultyCount + other.difficultyCount,
+                usefulnessSum + other.usefulnessSum, usefulnessCount + other.usefulnessCount);
+    }
+
+    public CourseAggregate minus(CourseAggregate other) {
+        return new CourseAggregate(courseCount - other.courseCount, reviewCount - other.reviewCount,
+                overallSum - other.overallSum, overallCount - other.overallCount,
+                difficultySum - other.difficultySum, difficultyCount - other.difficultyCount,
+                usefulnessSum - other.usefulnessSum, usefulnessCount - other.usefulnessCount);
+    }
+
+    public boolean isZero() {
+        return courseCount == 0 && reviewCount == 0 && overallCount == 0 && difficultyCount == 0
+                && usefulnessCount == 0 && overallSum == 0 && difficultySum == 0 && usefulnessSum == 0;
+    }
+
+    public long getCourseCount() {
+        return courseCount;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public double getOverallSum() {
+        return overallSum;
+    }
+
+    public long getOverallCount() {
+        return overallCount;
+    }
+
+    public double getDifficultySum() {
+        return difficultySum;
+    }
+
+    public long getDifficultyCount() {
+        return difficultyCount;
+    }
+
+    public double getUsefulnessSum() {
+        return usefulnessSum;
+    }
+
+    public long getUsefulnessCount() {
+        return usefulnessCount;
+    }
+
+    public Double getAverageOverall() {
+        return overallCount == 0 ? null : overallSum / overallCount;
+    }
+
+    public Double getAverageDifficulty() {
+        return difficultyCount == 0 ? null : difficultySum / difficultyCount;
+    }
+
+    public Double getAverageUsefulness() {
+        return usefulnessCount == 0 ? null : usefulnessSum / usefulnessCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseAggregate{" +
+                "courseCount=" + courseCount +
+                ", reviewCount=" + reviewCount +
+                ", averageOverall=" + getAverageOverall() +
+                ", averageDifficulty=" + getAverageDifficulty() +
+                ", averageUsefulness=" + getAverageUsefulness() +
+                '}';
+    }
+}
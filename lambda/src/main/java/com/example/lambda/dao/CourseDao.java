@@ -1,38 +1,112 @@
 package com.example.lambda.dao;
 
 import com.example.lambda.models.Course;
+import com.example.lambda.models.CourseChanges;
 import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.CourseTombstone;
+import com.example.lambda.models.DepartmentStats;
+import com.example.lambda.models.Review;
+import com.example.lambda.models.ReviewPage;
+import com.example.lambda.streams.AggregateStore;
+import com.example.lambda.streams.CourseChange;
+import com.example.lambda.streams.DynamoDbAggregateStore;
+import com.example.lambda.util.CatalogArtifact;
+import com.example.lambda.util.CatalogSnapshot;
 import com.example.lambda.util.CourseConverter;
 import com.example.lambda.util.CourseSearch;
+import com.example.lambda.util.HotKeyTracker;
+import com.example.lambda.util.PrerequisiteGraph;
+import com.example.lambda.util.SimilarityIndex;
+import com.example.lambda.util.StringListAttributeConverter;
+import com.example.lambda.util.StringPool;
+import com.example.lambda.util.ReviewPager;
+import com.example.lambda.util.ReviewViews;
+import com.example.lambda.util.SearchPlan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.enhanced.dynamodb.*;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class CourseDao {
     private static final Logger logger = LoggerFactory.getLogger(CourseDao.class);
+    private static final int BATCH_SIZE = 25;
+
+    private final DynamoDbEnhancedClient enhancedClient;
     private final DynamoDbTable<Course> courseTable;
 
+    // Catalog generation counter, bumped on every write so derived caches can tell when they are stale
+    private final AtomicLong catalogGeneration = new AtomicLong();
+
+    // In-memory catalog and search index used by free-text search; a stale snapshot catches up from the change log
+    private static final int CATALOG_CATCH_UP_PAGE = 500;
+    private final CatalogCache catalogCache = new CatalogCache(this::getAllCourses, this::catalogChangesSince);
+
+    // Prerequisite graph built from the cached catalog, patched in place by saveCourse and caught up on reloads
+    private volatile PrerequisiteGraph prerequisiteGraph;
+    // Shared instances of the professor names, majors, author IDs and codes repeated across cached courses;
+    // replaced by a fresh pool on every full scan, so values of deleted or edited courses do not pile up
+    private volatile StringPool stringPool = new StringPool();
+    // TF-IDF neighbor lists built from the cached catalog, patched in place and caught up on reloads like the graph
+    private volatile SimilarityIndex similarityIndex;
+
+    // Write-sharded review storage for courses whose review write rate crosses the threshold
+    private final DynamoDbClient ddb;
+    private final ReviewShardStore reviewShardStore;
+    private static final StringListAttributeConverter PROFESSOR_LIST = new StringListAttributeConverter();
+    private final HotKeyTracker reviewWriteTracker = new HotKeyTracker(10_000, System::currentTimeMillis);
+    private final int reviewShardCount = Math.max(2, Math.min(ReviewShardStore.MAX_SHARDS, intFromEnv("REVIEW_SHARD_COUNT", 8)));
+    private final int reviewShardThreshold = Math.max(1, intFromEnv("REVIEW_SHARD_WRITES_PER_MINUTE", 30));
+
+    // Course change log and department stats written by the stream processor, read by delta sync and /stats
+    private static final long CHANGE_LOG_SETTLE_MILLIS = 5_000;
+    private final AggregateStore aggregates;
+    private final long changeLogRetentionMillis = DynamoDbAggregateStore.retentionDaysFromEnv() * 24L * 60 * 60 * 1000;
+
     // Constructor to initialize the DynamoDbEnhancedClient and table
     public CourseDao() {
         // Initialize the DynamoDbClient with the correct region (no explicit credentials needed in Lambda)
-        DynamoDbClient ddb = DynamoDbClient.builder()
+        this(DynamoDbClient.builder()
                 .region(Region.US_EAST_1)
-                .build();
+                .build());
+    }
+
+    private CourseDao(DynamoDbClient ddb) {
+        this(ddb, new DynamoDbAggregateStore(ddb));
+    }
+
+    // A DAO over the given client and stream aggregates, e.g. DynamoDB Local or a test double
+    public CourseDao(DynamoDbClient ddb, AggregateStore aggregates) {
+        this.ddb = ddb;
+        this.reviewShardStore = new ReviewShardStore(ddb);
+        this.aggregates = aggregates;
 
         // Create the DynamoDbEnhancedClient
-        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+        this.enhancedClient = DynamoDbEnhancedClient.builder()
                 .dynamoDbClient(ddb)
                 .build();
 
@@ -44,7 +118,19 @@ public class CourseDao {
     public void saveCourse(Course course) {
         try {
             // Save the course directly to DynamoDB
-            courseTable.putItem(course);
+            course.setUpdatedAt(System.currentTimeMillis());
+            CourseOutput saved = CourseConverter.convertToCourseOutput(course, stringPool);
+            putCourse(course, saved);
+            catalogCache.applySave(saved);
+            PrerequisiteGraph graph = prerequisiteGraph;
+            if (graph != null && graph.updateCourse(saved.getCode(), saved.getPrerequisites())) {
+                logger.info("Updated prerequisite graph for {}", saved.getCode());
+            }
+            SimilarityIndex similarity = similarityIndex;
+            if (similarity != null && similarity.updateCourse(saved)) {
+                logger.info("Updated similar courses for {}", saved.getCode());
+            }
+            catalogGeneration.incrementAndGet();
             logger.info("Successfully saved course: " + course.getTitle());
         } catch (Exception e) {
             logger.error("Failed to save course", e);
@@ -53,6 +139,269 @@ public class CourseDao {
         }
     }
 
+    // Sharded courses keep their reviews in CourseReviewShards, never inline. A put from a caller that does not
+    // know the course is sharded is conditional, and on conflict it is redone with the shard count preserved.
+    private void putCourse(Course course, CourseOutput saved) {
+        if (course.getReviewShards() == null) {
+            try {
+                courseTable.putItem(PutItemEnhancedRequest.builder(Course.class)
+                        .item(course)
+                        .conditionExpression(Expression.builder().expression("attribute_not_exists(reviewShards)").build())
+                        .build());
+                return;
+            } catch (ConditionalCheckFailedException e) {
+                Course stored = courseTable.getItem(Key.builder().partitionValue(course.getName()).sortValue(course.getCode()).build());
+                Integer shards = stored == null ? null : stored.getReviewShards();
+                course.setReviewShards(shards);
+                saved.setReviewShards(shards);
+                withShardedReviews(saved);
+            }
+        }
+        if (course.getReviewShards() != null) {
+            course.setReviews(null);
+        }
+        courseTable.putItem(course);
+    }
+
+    // Save many courses with BatchWriteItem (25 per request), resubmitting anything reported as unprocessed.
+    // Later entries for the same name and code replace earlier ones, as they would with individual puts.
+    public void saveCourses(List<Course> courses) {
+        Map<String, Course> unique = new LinkedHashMap<>();
+        for (Course course : courses) {
+            unique.put(course.getName() + "#" + course.getCode(), course);
+        }
+        List<Course> pending = new ArrayList<>(unique.values());
+        long updatedAt = System.currentTimeMillis();
+        pending.forEach(course -> course.setUpdatedAt(updatedAt));
+
+        // Batch puts cannot be conditional, so look up which of these courses keep their reviews in shards first
+        Map<String, Integer> sharded = shardedCourses(pending);
+        for (Course course : pending) {
+            Integer shards = sharded.get(ReviewShardStore.courseKey(course.getName(), course.getCode()));
+            if (shards != null) {
+                course.setReviewShards(shards);
+                course.setReviews(null);
+            }
+        }
+
+        for (int start = 0; start < pending.size(); start += BATCH_SIZE) {
+            List<Course> chunk = pending.subList(start, Math.min(start + BATCH_SIZE, pending.size()));
+            int attempt = 0;
+            while (!chunk.isEmpty()) {
+                WriteBatch.Builder<Course> batch = WriteBatch.builder(Course.class).mappedTableResource(courseTable);
+                chunk.forEach(batch::addPutItem);
+                BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                        .writeBatches(batch.build())
+                        .build());
+                chunk = result.unprocessedPutItemsForTable(courseTable);
+                if (!chunk.isEmpty()) {
+                    backoff(++attempt);
+                }
+            }
+        }
+
+        List<CourseOutput> savedCourses = new ArrayList<>(pending.size());
+        for (Course course : pending) {
+            CourseOutput saved = CourseConverter.convertToCourseOutput(course);
+            if (saved.getReviewShards() != null) {
+                // The import did not touch the shards, so the cached reviews are still current; read them only
+                // for a course this container has not cached
+                CourseOutput cached = catalogCache.peek(saved.getName(), saved.getCode());
+                if (cached != null) {
+                    saved.setReviews(cached.getReviews());
+                } else {
+                    withShardedReviews(saved);
+                }
+            }
+            saved = CourseConverter.canonicalize(saved, stringPool);
+            savedCourses.add(saved);
+            PrerequisiteGraph graph = prerequisiteGraph;
+            if (graph != null) {
+                graph.updateCourse(saved.getCode(), saved.getPrerequisites());
+            }
+            SimilarityIndex similarity = similarityIndex;
+            if (similarity != null) {
+                similarity.updateCourse(saved);
+            }
+        }
+        catalogCache.applySaves(savedCourses);
+        catalogGeneration.incrementAndGet();
+        logger.info("Successfully saved {} courses", pending.size());
+    }
+
+    private Map<String, Integer> shardedCourses(List<Course> courses) {
+        Map<String, Integer> sharded = new HashMap<>();
+        for (int start = 0; start < courses.size(); start += 100) {
+            ReadBatch.Builder<Course> batch = ReadBatch.builder(Course.class).mappedTableResource(courseTable);
+            for (Course course : courses.subList(start, Math.min(start + 100, courses.size()))) {
+                batch.addGetItem(Key.builder().partitionValue(course.getName()).sortValue(course.getCode()).build());
+            }
+            ReadBatch readBatch = batch.build();
+            enhancedClient.batchGetItem(request -> request.readBatches(readBatch))
+                    .resultsForTable(courseTable)
+                    .forEach(stored -> {
+                        if (stored.getReviewShards() != null) {
+                            sharded.put(ReviewShardStore.courseKey(stored.getName(), stored.getCode()), stored.getReviewShards());
+                        }
+                    });
+        }
+        return sharded;
+    }
+
+    // Record a review write and decide where it goes: courses that are already sharded, or that have just
+    // crossed the write-rate threshold in this container, take new reviews through the shards
+    public boolean routesReviewsToShards(CourseOutput course) {
+        if (course.getReviewShards() != null) {
+            return true;
+        }
+        return reviewWriteTracker.record(ReviewShardStore.courseKey(course.getName(), course.getCode())) >= reviewShardThreshold;
+    }
+
+    // Add a review through the shards, promoting the course first if needed; returns false for a duplicate reviewId
+    public boolean addShardedReview(CourseOutput course, Review review) {
+        int shards = ensureSharded(course);
+        if (!reviewShardStore.putReview(ReviewShardStore.courseKey(course.getName(), course.getCode()), shards, review)) {
+            return false;
+        }
+        addProfessorIfMissing(course, review.getProfessor());
+        List<Review> reviews;
+        if (course.getReviews() != null) {
+            reviews = new ArrayList<>(course.getReviews());
+        } else {
+            // Read without its reviews (getCourseWithoutReviews): extend the cached copy's list, or leave the
+            // catalog to pick the review up on its next refresh
+            CourseOutput cached = catalogCache.peek(course.getName(), course.getCode());
+            if (cached == null || cached.getReviews() == null) {
+                catalogGeneration.incrementAndGet();
+                return true;
+            }
+            reviews = new ArrayList<>(cached.getReviews());
+        }
+        reviews.add(review);
+        course.setReviews(reviews);
+        applyReviewChange(course);
+        return true;
+    }
+
+    // Replace a review on a sharded course; returns false if it does not exist
+    public boolean updateShardedReview(CourseOutput course, Review review) {
+        if (!reviewShardStore.replaceReview(ReviewShardStore.courseKey(course.getName(), course.getCode()),
+                course.getReviewShards(), review)) {
+            return false;
+        }
+        addProfessorIfMissing(course, review.getProfessor());
+        List<Review> reviews = new ArrayList<>();
+        for (Review existing : course.getReviews() == null ? List.<Review>of() : course.getReviews()) {
+            reviews.add(review.getReviewId().equals(existing.getReviewId()) ? review : existing);
+        }
+        course.setReviews(reviews);
+        applyReviewChange(course);
+        return true;
+    }
+
+    // Delete a review from a sharded course; returns false if it does not exist
+    public boolean deleteShardedReview(CourseOutput course, String reviewId) {
+        if (!reviewShardStore.removeReview(ReviewShardStore.courseKey(course.getName(), course.getCode()),
+                course.getReviewShards(), reviewId)) {
+            return false;
+        }
+        List<Review> reviews = course.getReviews() == null ? new ArrayList<>() : new ArrayList<>(course.getReviews());
+        reviews.removeIf(existing -> reviewId.equals(existing.getReviewId()));
+        course.setReviews(reviews);
+        applyReviewChange(course);
+        return true;
+    }
+
+    // Promote the course to sharded review storage unless it already is; returns its shard count
+    private int ensureSharded(CourseOutput course) {
+        Key key = Key.builder().partitionValue(course.getName()).sortValue(course.getCode()).build();
+        for (int attempt = 0; attempt < 3 && course.getReviewShards() == null; attempt++) {
+            // Read the raw item: the promotion is conditional on the reviews attribute exactly as stored,
+            // which may be a native list or a legacy JSON string
+            Map<String, AttributeValue> item = ddb.getItem(GetItemRequest.builder()
+                    .tableName(ReviewShardStore.COURSES_TABLE)
+                    .key(key.primaryKeyMap(courseTable.tableSchema()))
+                    .consistentRead(true)
+                    .build()).item();
+            Course stored = item == null || item.isEmpty() ? null : courseTable.tableSchema().mapToItem(item);
+            if (stored == null) {
+                throw new RuntimeException("No course Found");
+            }
+            if (stored.getReviewShards() != null) {
+                // Another container promoted it first
+                course.setReviewShards(stored.getReviewShards());
+                withShardedReviews(course);
+                break;
+            }
+            List<Review> inline = CourseConverter.convertToCourseOutput(stored).getReviews();
+            inline = inline == null ? new ArrayList<>() : new ArrayList<>(inline);
+            if (reviewShardStore.promote(course.getName(), course.getCode(), item.get("reviews"), inline, reviewShardCount)) {
+                course.setReviewShards(reviewShardCount);
+                course.setReviews(inline);
+            }
+        }
+        if (course.getReviewShards() == null) {
+            throw new IllegalStateException("Could not move reviews for " + course.getTitle() + " to shards");
+        }
+        return course.getReviewShards();
+    }
+
+    // New professors still go on the course item, but only the professors attribute is written, and only when it changes
+    private void addProfessorIfMissing(CourseOutput course, String professor) {
+        List<String> professors = course.getProfessors() == null ? new ArrayList<>() : new ArrayList<>(course.getProfessors());
+        if (professor == null || professor.isBlank() || professors.contains(professor)) {
+            return;
+        }
+        professors.add(professor);
+        long updatedAt = System.currentTimeMillis();
+        ddb.updateItem(UpdateItemRequest.builder()
+                .tableName(ReviewShardStore.COURSES_TABLE)
+                .key(Map.of("name", AttributeValue.builder().s(course.getName()).build(),
+                        "code", AttributeValue.builder().s(course.getCode()).build()))
+                .updateExpression("SET professors = :professors, updatedAt = :updatedAt")
+                .expressionAttributeValues(Map.of(":professors", PROFESSOR_LIST.transformFrom(professors),
+                        ":updatedAt", AttributeValue.builder().n(Long.toString(updatedAt)).build()))
+                .build());
+        course.setProfessors(professors);
+        course.setUpdatedAt(updatedAt);
+    }
+
+    private void applyReviewChange(CourseOutput course) {
+        catalogCache.applySave(CourseConverter.canonicalize(course, stringPool));
+        catalogGeneration.incrementAndGet();
+    }
+
+    // Sharded courses keep their reviews in CourseReviewShards; gather them from every shard
+    private CourseOutput withShardedReviews(CourseOutput course) {
+        Integer shards = course.getReviewShards();
+        if (shards != null && shards > 0) {
+            course.setReviews(reviewShardStore.getReviews(ReviewShardStore.courseKey(course.getName(), course.getCode()), shards));
+        }
+        return course;
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid {} '{}', using default", name, value);
+            return defaultValue;
+        }
+    }
+
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(Math.min(1000L, 25L << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
     // Get all courses created by a specific user using the "CreatedByIndex" GSI
     public List<CourseOutput> getCoursesByCreatedBy(String createdBy) {
         DynamoDbIndex<Course> createdByIndex = courseTable.index("CreatedByIndex");
@@ -68,7 +417,7 @@ public class CourseDao {
 
         while (results.hasNext()) {
             Page<Course> page = results.next();
-            page.items().forEach(course -> courseOutputs.add(CourseConverter.convertToCourseOutput(course)));
+            page.items().forEach(course -> courseOutputs.add(withShardedReviews(CourseConverter.convertToCourseOutput(course))));
         }
 
         return courseOutputs;
@@ -80,36 +429,274 @@ public class CourseDao {
         ScanEnhancedRequest scanRequest = ScanEnhancedRequest.builder().build();
 
         // Use the scan operation to get all courses
+        StringPool pool = new StringPool();
         List<CourseOutput> courseOutputs = new ArrayList<>();
-        courseTable.scan(scanRequest).items().forEach(course -> courseOutputs.add(CourseConverter.convertToCourseOutput(course)));
+        courseTable.scan(scanRequest).items().forEach(course -> courseOutputs.add(CourseConverter.convertToCourseOutput(course, pool)));
 
+        // Reviews of sharded courses are read with one scan of the shard table rather than per course
+        if (courseOutputs.stream().anyMatch(course -> course.getReviewShards() != null)) {
+            Map<String, List<Review>> shardedReviews = reviewShardStore.scanAll();
+            for (CourseOutput course : courseOutputs) {
+                if (course.getReviewShards() != null) {
+                    course.setReviews(shardedReviews.getOrDefault(
+                            ReviewShardStore.courseKey(course.getName(), course.getCode()), new ArrayList<>()));
+                    CourseConverter.canonicalizeReviews(course.getReviews(), pool);
+                }
+            }
+        }
+
+        // Later writes share strings with this scan; the previous pool goes with the catalog it built
+        stringPool = pool;
+        logger.info("Scanned {} courses; string pool holds {} values and has shared {} duplicates",
+                courseOutputs.size(), pool.size(), pool.getHits());
         return courseOutputs;  // Return the list of all courses
     }
 
-    // Method to delete a course using DynamoDbEnhancedClient
-    public void deleteCourse(String name, String code) {
+    // Delete a course in one conditional round trip; returns false if there was no such course.
+    // The deleted item comes back with the response, so a sharded course's reviews can be cleaned up without
+    // reading the course first. The change log entry follows from the stream's REMOVE record.
+    public boolean deleteCourse(String name, String code) {
+        Map<String, AttributeValue> deleted;
         try {
-            // Delete the course by using both the partition key (name) and sort key (code)
-            courseTable.deleteItem(Key.builder()
-                    .partitionValue(name)  // Use name as partition key
-                    .sortValue(code)       // Use code as sort key
-                    .build());
+            deleted = ddb.deleteItem(DeleteItemRequest.builder()
+                    .tableName(ReviewShardStore.COURSES_TABLE)
+                    .key(Map.of("name", AttributeValue.builder().s(name).build(),
+                            "code", AttributeValue.builder().s(code).build()))
+                    .conditionExpression("attribute_exists(#name)")
+                    .expressionAttributeNames(Map.of("#name", "name"))  // "name" is a reserved word
+                    .returnValues(ReturnValue.ALL_OLD)
+                    .build()).attributes();
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
 
-            logger.info("Successfully deleted course with name: " + name + " and code: " + code);
-        } catch (Exception e) {
-            logger.error("Failed to delete course with name: " + name + " and code: " + code, e);
+        catalogCache.applyDelete(name, code);
+        PrerequisiteGraph graph = prerequisiteGraph;
+        if (graph != null) {
+            graph.removeCourse(code);
+        }
+        SimilarityIndex similarity = similarityIndex;
+        if (similarity != null) {
+            similarity.removeCourse(name, code);
+        }
+        catalogGeneration.incrementAndGet();
+
+        AttributeValue shards = deleted == null ? null : deleted.get("reviewShards");
+        if (shards != null && shards.n() != null) {
+            String courseKey = ReviewShardStore.courseKey(name, code);
+            try {
+                int removed = reviewShardStore.deleteAll(courseKey, Integer.parseInt(shards.n()));
+                logger.info("Deleted {} review shard items for {}", removed, courseKey);
+            } catch (Exception e) {
+                // The course itself is gone; leftover shard items are unreachable until a course with this key is sharded again
+                logger.error("Failed to delete review shards for {}", courseKey, e);
+            }
+        }
+
+        logger.info("Successfully deleted course with name: " + name + " and code: " + code);
+        return true;
+    }
+
+    // Courses changed after `since`, which is either epoch millis or the nextSince cursor of a previous sync.
+    // The log is folded to the latest change per course: upserts come back as the current item, deletions as
+    // tombstones. Entries from the last few seconds are held back so an in-flight stream write cannot be skipped.
+    public CourseChanges getChangesSince(String since, int limit) {
+        String after;
+        if (CourseChange.isPosition(since)) {
+            after = since;
+        } else {
+            long millis = Long.parseLong(since);
+            if (millis < 0) {
+                throw new IllegalArgumentException("since must not be negative");
+            }
+            after = CourseChange.positionAfter(millis);
+        }
+
+        long now = System.currentTimeMillis();
+        if (CourseChange.millisOf(after) < now - changeLogRetentionMillis) {
+            throw new IllegalStateException("since is older than the change log; download the full catalog");
+        }
+        long until = now - CHANGE_LOG_SETTLE_MILLIS;
+        if (CourseChange.millisOf(after) > until) {
+            return new CourseChanges(since, since, false, List.of(), List.of());
+        }
+
+        List<CourseChange> changes = aggregates.findChanges(after, until, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        String nextSince = hasMore ? changes.get(changes.size() - 1).getPosition() : Long.toString(until);
+
+        Map<String, CourseChange> latest = new LinkedHashMap<>();
+        changes.forEach(change -> latest.put(change.getCourseKey(), change));
+
+        List<CourseTombstone> deleted = new ArrayList<>();
+        List<CourseChange> upserts = new ArrayList<>();
+        for (CourseChange change : latest.values()) {
+            if (change.isDeleted()) {
+                deleted.add(new CourseTombstone(change.getName(), change.getCode(), change.getChangedAt()));
+            } else {
+                upserts.add(change);
+            }
+        }
+
+        // Read the current items in batches of 100; one that has vanished since was deleted after `until`
+        Map<String, CourseOutput> current = new HashMap<>();
+        for (int start = 0; start < upserts.size(); start += 100) {
+            ReadBatch.Builder<Course> batch = ReadBatch.builder(Course.class).mappedTableResource(courseTable);
+            for (CourseChange change : upserts.subList(start, Math.min(start + 100, upserts.size()))) {
+                batch.addGetItem(Key.builder().partitionValue(change.getName()).sortValue(change.getCode()).build());
+            }
+            ReadBatch readBatch = batch.build();
+            enhancedClient.batchGetItem(request -> request.readBatches(readBatch))
+                    .resultsForTable(courseTable)
+                    .forEach(stored -> current.put(ReviewShardStore.courseKey(stored.getName(), stored.getCode()),
+                            withShardedReviews(CourseConverter.convertToCourseOutput(stored))));
+        }
+        List<CourseOutput> upserted = new ArrayList<>();
+        for (CourseChange change : upserts) {
+            CourseOutput course = current.get(change.getCourseKey());
+            if (course != null) {
+                upserted.add(course);
+            } else {
+                deleted.add(new CourseTombstone(change.getName(), change.getCode(), change.getChangedAt()));
+            }
+        }
+
+        logger.info("Delta sync since {}: {} upserted, {} deleted, hasMore={}", since, upserted.size(), deleted.size(), hasMore);
+        return new CourseChanges(since, nextSince, hasMore, upserted, deleted);
+    }
+
+    // Department stats as the stream processor last left them, for every department with courses
+    public List<DepartmentStats> getDepartmentStats() {
+        return aggregates.getDepartmentStats();
+    }
+
+    // Stored stats for one department prefix (any case), or null if it has no courses
+    public DepartmentStats getDepartmentStats(String department) {
+        return aggregates.getDepartmentStats(department);
+    }
+
+    // One page of changes for catching a catalog snapshot up, sharing strings with the rest of the catalog
+    private CourseChanges catalogChangesSince(String since) {
+        CourseChanges changes = getChangesSince(since, CATALOG_CATCH_UP_PAGE);
+        changes.getUpserted().forEach(course -> CourseConverter.canonicalize(course, stringPool));
+        return changes;
+    }
+
+    // Current catalog generation; changes whenever a course is saved or deleted through this DAO
+    public long getCatalogGeneration() {
+        return catalogGeneration.get();
+    }
+
+    // Prerequisite graph for the current catalog. It is built once; a reloaded catalog is caught up to by patching
+    // only the courses whose prerequisites changed, so a reload costs a comparison per course, not a rebuild.
+    public PrerequisiteGraph getPrerequisiteGraph() {
+        CatalogSnapshot catalog = getCatalog();
+        PrerequisiteGraph graph = prerequisiteGraph;
+        if (graph == null || graph.getCatalogVersion() != catalog.getVersion()) {
+            synchronized (this) {
+                graph = prerequisiteGraph;
+                if (graph == null) {
+                    graph = PrerequisiteGraph.build(catalog.getCourses(), catalog.getVersion());
+                    prerequisiteGraph = graph;
+                    logger.info("Built prerequisite graph with {} courses", graph.size());
+                } else if (graph.getCatalogVersion() != catalog.getVersion()) {
+                    int patched = graph.catchUp(catalog.getCourses(), catalog.getVersion());
+                    logger.info("Caught prerequisite graph up to catalog {}, {} courses changed", catalog.getVersion(), patched);
+                }
+            }
+        }
+        return graph;
+    }
+
+    // Similar-course index for the current catalog. A reloaded catalog is caught up to by patching the courses
+    // whose text changed; the index is only rebuilt when so much has changed that its IDF is stale.
+    public SimilarityIndex getSimilarityIndex() {
+        CatalogSnapshot catalog = getCatalog();
+        SimilarityIndex index = similarityIndex;
+        if (index == null || index.getCatalogVersion() != catalog.getVersion()) {
+            synchronized (this) {
+                index = similarityIndex;
+                if (index != null && index.getCatalogVersion() != catalog.getVersion()
+                        && index.catchUp(catalog.getCourses(), catalog.getVersion())) {
+                    logger.info("Caught similarity index up to catalog {}", catalog.getVersion());
+                } else if (index == null || index.getCatalogVersion() != catalog.getVersion()) {
+                    index = SimilarityIndex.build(catalog.getCourses(), catalog.getVersion());
+                    similarityIndex = index;
+                    logger.info("Built similarity index with {} courses", index.size());
+                }
+            }
         }
+        return index;
     }
 
-    // Updated search method to filter and rank courses
+    // Search courses, routing code- and title-shaped queries to their GSIs and scanning only for free text
     public List<CourseOutput> searchCourses(String searchString) {
-        // Retrieve all courses (scanning the whole table)
-        List<CourseOutput> allCourses = getAllCourses();
-        if(allCourses.isEmpty()) {
+        SearchPlan plan = SearchPlan.plan(searchString);
+        logger.info("Search plan: {}", plan);
+
+        switch (plan.getType()) {
+            case CODE: {
+                // Exact code lookups are a single-partition read on CodeIndex; lettered variants such as an
+                // honors "CSDS 101H" are only matched when the exact code is missing and the scan runs
+                List<CourseOutput> byCode = getCoursesByCode(plan.getKey());
+                if (!byCode.isEmpty()) {
+                    return byCode;
+                }
+                break;
+            }
+            case TITLE: {
+                List<CourseOutput> byTitle = getCoursesByTitle(plan.getKey());
+                if (!byTitle.isEmpty()) {
+                    return byTitle;
+                }
+                break;
+            }
+            default:
+                break;
+        }
+
+        // Free text (or an index miss, e.g. a legacy item stored without the canonical spacing) falls back to a scan
+        return scanAndSearch(plan.getQuery());
+    }
+
+    private List<CourseOutput> scanAndSearch(String searchString) {
+        // Use the cached catalog; it is only rescanned once its TTL has passed
+        CatalogSnapshot catalog = getCatalog();
+        if(catalog.getCourses().isEmpty()) {
             logger.info("No courses found in the database");
             throw new RuntimeException("No courses found in the database");
         }
-        return CourseSearch.searchCourses(allCourses, searchString);
+        return CourseSearch.searchCourses(catalog, searchString);
+    }
+
+    // The in-memory catalog, loaded from a snapshot or a table scan on first use
+    public CatalogSnapshot getCatalog() {
+        return catalogCache.get();
+    }
+
+    // The pre-rendered GET /courses response for the current catalog snapshot
+    public CatalogArtifact getCatalogArtifact() {
+        return getCatalog().derived(CatalogArtifact.class, CatalogArtifact::of);
+    }
+
+    // The course as the catalog caches it, or read from the table if the catalog does not have it yet.
+    // A cached course is shared with other requests, so copy it (CourseConverter.shallowCopy) before changing it.
+    public CourseOutput getCourseForRead(String name, String code) {
+        CourseOutput cached = CatalogCache.lookup(getCatalog(), name, code);
+        return cached != null ? cached : getCourseByNameAndCode(name, code);
+    }
+
+    // A page of the course's reviews. A course from the catalog is paged from its pre-sorted view (ReviewViews),
+    // so neither conversion nor sorting grows with its review count; any other course is sorted on the spot.
+    public ReviewPage getReviewPage(CourseOutput course, ReviewPager.Sort sort, int limit, String cursor) {
+        CatalogSnapshot catalog = getCatalog();
+        List<Review> sorted = CatalogCache.lookup(catalog, course.getName(), course.getCode()) == course
+                ? catalog.derived(ReviewViews.class, ReviewViews::of).sorted(course, sort)
+                : ReviewPager.sorted(course.getReviews(), sort);
+        return ReviewPager.pageSorted(sorted, sort, limit, cursor);
     }
 
     public CourseOutput getCourseByNameAndCode(String name, String code) {
@@ -128,35 +715,73 @@ public class CourseDao {
             Page<Course> page = results.next();
             Course course = page.items().get(0); // Assuming we only expect one item
 
-            // Convert the Course object to CourseOutput
-            return CourseConverter.convertToCourseOutput(course);
+            // Convert the Course object to CourseOutput, gathering sharded reviews if it has any
+            return withShardedReviews(CourseConverter.convertToCourseOutput(course));
         } else {
             logger.error("No course Found");
             throw new RuntimeException("No course Found");
         }
     }
 
+    // The course item with every attribute but its reviews, or null if there is no such course. One small read
+    // however many reviews a sharded course has: enough for the review write path to check the course exists
+    // and find its shard count, where getCourseByNameAndCode would gather every shard.
+    public CourseOutput getCourseWithoutReviews(String name, String code) {
+        Map<String, String> names = new HashMap<>();
+        List<String> projection = new ArrayList<>();
+        for (String attribute : courseTable.tableSchema().attributeNames()) {
+            if (!attribute.equals("reviews")) {
+                String placeholder = "#a" + names.size();
+                names.put(placeholder, attribute);
+                projection.add(placeholder);
+            }
+        }
+        Map<String, AttributeValue> item = ddb.getItem(GetItemRequest.builder()
+                .tableName(ReviewShardStore.COURSES_TABLE)
+                .key(Map.of("name", AttributeValue.builder().s(name).build(),
+                        "code", AttributeValue.builder().s(code).build()))
+                .projectionExpression(String.join(", ", projection))
+                .expressionAttributeNames(names)
+                .build()).item();
+        if (item == null || item.isEmpty()) {
+            return null;
+        }
+        return CourseConverter.convertToCourseOutput(courseTable.tableSchema().mapToItem(item));
+    }
+
     // Search for courses by name
     public List<CourseOutput> getCoursesByName(String name) {
-        DynamoDbIndex<Course> nameIndex = courseTable.index("NameIndex");
+        return queryIndex("NameIndex", name);
+    }
+
+    // Look up courses by canonical code ("CSDS 101") using the "CodeIndex" GSI
+    public List<CourseOutput> getCoursesByCode(String code) {
+        return queryIndex("CodeIndex", code);
+    }
+
+    // Look up courses by exact title ("CSDS 101 Discrete Mathematics") using the "TitleIndex" GSI
+    public List<CourseOutput> getCoursesByTitle(String title) {
+        return queryIndex("TitleIndex", title);
+    }
+
+    // Query a single-attribute GSI for all items with the given partition value
+    private List<CourseOutput> queryIndex(String indexName, String partitionValue) {
+        DynamoDbIndex<Course> index = courseTable.index(indexName);
 
         QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
                 .queryConditional(QueryConditional.keyEqualTo(Key.builder()
-                        .partitionValue(name)
+                        .partitionValue(partitionValue)
                         .build()))
                 .build();
 
         List<CourseOutput> courseOutputs = new ArrayList<>();
-        Iterator<Page<Course>> results = nameIndex.query(queryRequest).iterator();
+        Iterator<Page<Course>> results = index.query(queryRequest).iterator();
 
         while (results.hasNext()) {
             Page<Course> page = results.next();
-            page.items().forEach(course -> courseOutputs.add(CourseConverter.convertToCourseOutput(course)));
+            page.items().forEach(course -> courseOutputs.add(withShardedReviews(CourseConverter.convertToCourseOutput(course))));
         }
 
         return courseOutputs;
     }
-
-
-
 }
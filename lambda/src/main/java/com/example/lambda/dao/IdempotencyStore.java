@@ -0,0 +1,187 @@
+package com.example.lambda.dao;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Dedupe records for requests carrying an Idempotency-Key, in the "IdempotencyKeys" table (pk).
+// The first request claims the key with a conditional put and holds it for a short lease while it runs;
+// completing it stores the response's status, body and headers for the TTL, and any retry with the same key
+// replays that response.
+// expiresAt doubles as the table's TTL attribute; it is also checked on claim because TTL deletion lags.
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final String TABLE_NAME = "IdempotencyKeys";
+    public static final long DEFAULT_TTL_SECONDS = 24 * 60 * 60;
+    public static final long LEASE_SECONDS = 60;
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+
+    public enum Outcome {
+        CLAIMED,        // First time this key is seen: run the request
+        REPLAY,         // Already completed: return the stored response
+        IN_PROGRESS,    // Another attempt holds the key right now
+        MISMATCH        // Key reused with a different request
+    }
+
+    public static final class Claim {
+        private final Outcome outcome;
+        private final String key;
+        private final APIGatewayProxyResponseEvent response;
+
+        private Claim(Outcome outcome, String key, APIGatewayProxyResponseEvent response) {
+            this.outcome = outcome;
+            this.key = key;
+            this.response = response;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        // The stored response, for REPLAY
+        public APIGatewayProxyResponseEvent getResponse() {
+            return response;
+        }
+    }
+
+    private final DynamoDbClient ddb;
+    private final long ttlSeconds;
+    private final LongSupplier clock;
+
+    public IdempotencyStore(DynamoDbClient ddb, long ttlSeconds, LongSupplier clock) {
+        this.ddb = ddb;
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+    }
+
+    // Claim scope + key for a request with the given fingerprint (see fingerprint())
+    public Claim claim(String scope, String idempotencyKey, String fingerprint) {
+        String key = scope + "#" + idempotencyKey;
+        long now = nowSeconds();
+
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("pk", string(key));
+        item.put("status", string(IN_PROGRESS));
+        item.put("fingerprint", string(fingerprint));
+        item.put("expiresAt", number(now + LEASE_SECONDS));
+
+        try {
+            ddb.putItem(PutItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .item(item)
+                    .conditionExpression("attribute_not_exists(pk) OR expiresAt < :now")
+                    .expressionAttributeValues(Map.of(":now", number(now)))
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                    .build());
+            return new Claim(Outcome.CLAIMED, key, null);
+        } catch (ConditionalCheckFailedException e) {
+            Map<String, AttributeValue> existing = e.hasItem() ? e.item() : Map.of();
+            if (!fingerprint.equals(text(existing, "fingerprint"))) {
+                return new Claim(Outcome.MISMATCH, key, null);
+            }
+            if (!COMPLETED.equals(text(existing, "status"))) {
+                return new Claim(Outcome.IN_PROGRESS, key, null);
+            }
+            APIGatewayProxyResponseEvent stored = new APIGatewayProxyResponseEvent();
+            stored.setStatusCode(Integer.parseInt(existing.get("statusCode").n()));
+            stored.setBody(text(existing, "body"));
+            if (existing.containsKey("responseHeaders")) {
+                Map<String, String> headers = new HashMap<>();
+                existing.get("responseHeaders").m().forEach((name, value) -> headers.put(name, value.s()));
+                stored.setHeaders(headers);
+            }
+            return new Claim(Outcome.REPLAY, key, stored);
+        }
+    }
+
+    // Store the response for replay. Server errors release the key instead, so the client's retry runs again.
+    public void complete(Claim claim, APIGatewayProxyResponseEvent response) {
+        try {
+            if (response.getStatusCode() == null || response.getStatusCode() >= 500) {
+                ddb.deleteItem(DeleteItemRequest.builder()
+                        .tableName(TABLE_NAME)
+                        .key(Map.of("pk", string(claim.key)))
+                        .build());
+                return;
+            }
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":completed", string(COMPLETED));
+            values.put(":statusCode", number(response.getStatusCode()));
+            values.put(":expiresAt", number(nowSeconds() + ttlSeconds));
+            String update = "SET #status = :completed, statusCode = :statusCode, expiresAt = :expiresAt";
+            if (response.getBody() != null) {
+                values.put(":body", string(response.getBody()));
+                update += ", body = :body";
+            }
+            if (response.getHeaders() != null && !response.getHeaders().isEmpty()) {
+                Map<String, AttributeValue> headers = new HashMap<>();
+                response.getHeaders().forEach((name, value) -> headers.put(name, string(value)));
+                values.put(":headers", AttributeValue.builder().m(headers).build());
+                update += ", responseHeaders = :headers";
+            }
+            ddb.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of("pk", string(claim.key)))
+                    .updateExpression(update)
+                    .expressionAttributeNames(Map.of("#status", "status"))
+                    .expressionAttributeValues(values)
+                    .build());
+        } catch (Exception e) {
+            // The write itself succeeded; a retry will just find the lease and, after it lapses, run again
+            logger.error("Failed to record idempotent response for {}: {}", claim.key, e.getMessage());
+        }
+    }
+
+    // SHA-256 over the parts that identify a request, so a reused key with a different payload is detected
+    public static String fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update((part == null ? "" : part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long nowSeconds() {
+        return clock.getAsLong() / 1000;
+    }
+
+    private static String text(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null ? null : value.s();
+    }
+
+    private static AttributeValue string(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue number(long value) {
+        return AttributeValue.builder().n(Long.toString(value)).build();
+    }
+}
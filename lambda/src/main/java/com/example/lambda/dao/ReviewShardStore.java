@@ -0,0 +1,462 @@
+package com.example.lambda.dao;
+
+import com.example.lambda.models.Review;
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Write-sharded review storage for hot courses, in the "CourseReviewShards" table (pk/sk):
+//   <name>#<code>#<shard> / R#<reviewId>   one item per review, holding the review as JSON
+//   <name>#<code>#<shard> / COUNTER        review count and rating sums for that shard
+// A review's shard is a hash of its reviewId, so concurrent writers to one course land on N
+// different partition keys, and an update or delete goes straight to the right shard.
+// Every review write and its counter change commit together in one transaction.
+public class ReviewShardStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewShardStore.class);
+
+    public static final String TABLE_NAME = "CourseReviewShards";
+    public static final String COURSES_TABLE = "Courses";
+    public static final int MAX_SHARDS = 32;
+
+    private static final String COUNTER = "COUNTER";
+    public static final String REVIEW_PREFIX = "R#";
+    private static final int BATCH_SIZE = 25;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DynamoDbClient ddb;
+    private final Gson gson = new Gson();
+
+    // Scatter-gather reads run one query per shard in parallel. The pool is capped at MAX_SHARDS threads, enough
+    // for one course's shards at once; concurrent reads queue behind it instead of each adding a thread per shard.
+    private final ExecutorService readers = newReaderPool();
+
+    public ReviewShardStore(DynamoDbClient ddb) {
+        this.ddb = ddb;
+    }
+
+    private static ExecutorService newReaderPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_SHARDS, MAX_SHARDS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "review-shard-reader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Idle readers exit, so a container that never reads a sharded course holds no threads
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public static String courseKey(String name, String code) {
+        return name + "#" + code;
+    }
+
+    static int shardOf(String reviewId, int shards) {
+        int hash = reviewId.hashCode();
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, shards);
+    }
+
+    // Move a course's inline reviews into shards and mark the course as sharded. The course item update is
+    // conditional on its reviews being exactly what was read, so a concurrent inline write makes this return
+    // false instead of losing that review. Review items are written first; they are invisible until the flip.
+    public boolean promote(String name, String code, AttributeValue observedReviews, List<Review> reviews, int shards) {
+        String courseKey = courseKey(name, code);
+
+        // Inline reviews were never checked for unique ids; the last copy of a duplicate wins,
+        // and legacy reviews without an id are given one so they can be addressed in a shard
+        Map<String, Review> unique = new LinkedHashMap<>();
+        for (Review review : reviews) {
+            if (review.getReviewId() == null || review.getReviewId().isBlank()) {
+                review.setReviewId(UUID.randomUUID().toString());
+            }
+            unique.put(review.getReviewId(), review);
+        }
+
+        List<WriteRequest> puts = new ArrayList<>();
+        CourseAggregate[] totals = new CourseAggregate[shards];
+        for (Review review : unique.values()) {
+            int shard = shardOf(review.getReviewId(), shards);
+            puts.add(WriteRequest.builder().putRequest(PutRequest.builder().item(reviewItem(courseKey, shard, review)).build()).build());
+            totals[shard] = totals[shard] == null ? totalsOf(review) : totals[shard].plus(totalsOf(review));
+        }
+        batchWrite(puts);
+
+        Map<String, AttributeValue> courseKeyValues = new HashMap<>();
+        courseKeyValues.put("name", string(name));
+        courseKeyValues.put("code", string(code));
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":shards", AttributeValue.builder().n(Integer.toString(shards)).build());
+        String condition = "attribute_not_exists(reviewShards) AND ";
+        if (observedReviews == null) {
+            condition += "attribute_not_exists(reviews)";
+        } else {
+            condition += "reviews = :observed";
+            values.put(":observed", observedReviews);
+        }
+
+        List<TransactWriteItem> writes = new ArrayList<>();
+        writes.add(TransactWriteItem.builder().update(Update.builder()
+                .tableName(COURSES_TABLE)
+                .key(courseKeyValues)
+                .updateExpression("SET reviewShards = :shards REMOVE reviews")
+                .conditionExpression(condition)
+                .expressionAttributeValues(values)
+                .build()).build());
+        for (int shard = 0; shard < shards; shard++) {
+            if (totals[shard] != null) {
+                writes.add(counterUpdate(courseKey, shard, totals[shard]));
+            }
+        }
+
+        try {
+            ddb.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(writes).build());
+            logger.info("Promoted {} to {} review shards with {} existing reviews", courseKey, shards, unique.size());
+            return true;
+        } catch (TransactionCanceledException e) {
+            if (isConditionFailure(e)) {
+                // Another writer changed the course first; withdraw the copies so a later promotion starts clean
+                List<WriteRequest> deletes = new ArrayList<>();
+                for (Review review : unique.values()) {
+                    Map<String, AttributeValue> key = key(partition(courseKey, shardOf(review.getReviewId(), shards)),
+                            REVIEW_PREFIX + review.getReviewId());
+                    deletes.add(WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build()).build());
+                }
+                batchWrite(deletes);
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // Add a new review; returns false if a review with this id already exists
+    public boolean putReview(String courseKey, int shards, Review review) {
+        int shard = shardOf(review.getReviewId(), shards);
+        try {
+            ddb.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(
+                    TransactWriteItem.builder().put(Put.builder()
+                            .tableName(TABLE_NAME)
+                            .item(reviewItem(courseKey, shard, review))
+                            .conditionExpression("attribute_not_exists(sk)")
+                            .build()).build(),
+                    counterUpdate(courseKey, shard, totalsOf(review))).build());
+            return true;
+        } catch (TransactionCanceledException e) {
+            if (isConditionFailure(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // Replace an existing review; returns false if there is no review with this id
+    public boolean replaceReview(String courseKey, int shards, Review review) {
+        int shard = shardOf(review.getReviewId(), shards);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String current = currentJson(courseKey, shard, review.getReviewId());
+            if (current == null) {
+                return false;
+            }
+            CourseAggregate delta = totalsOf(review).minus(totalsOf(gson.fromJson(current, Review.class)));
+            try {
+                // Conditional on the review still being the one we read, so the counter delta is exact
+                ddb.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(
+                        TransactWriteItem.builder().put(Put.builder()
+                                .tableName(TABLE_NAME)
+                                .item(reviewItem(courseKey, shard, review))
+                                .conditionExpression("review = :current")
+                                .expressionAttributeValues(Map.of(":current", string(current)))
+                                .build()).build(),
+                        counterUpdate(courseKey, shard, delta)).build());
+                return true;
+            } catch (TransactionCanceledException e) {
+                if (!isConditionFailure(e)) {
+                    throw e;
+                }
+            }
+        }
+        throw new IllegalStateException("Review " + review.getReviewId() + " is being modified concurrently");
+    }
+
+    // Delete a review; returns false if there is no review with this id
+    public boolean removeReview(String courseKey, int shards, String reviewId) {
+        int shard = shardOf(reviewId, shards);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String current = currentJson(courseKey, shard, reviewId);
+            if (current == null) {
+                return false;
+            }
+            CourseAggregate delta = CourseAggregate.EMPTY.minus(totalsOf(gson.fromJson(current, Review.class)));
+            try {
+                ddb.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(
+                        TransactWriteItem.builder().delete(Delete.builder()
+                                .tableName(TABLE_NAME)
+                                .key(key(partition(courseKey, shard), REVIEW_PREFIX + reviewId))
+                                .conditionExpression("review = :current")
+                                .expressionAttributeValues(Map.of(":current", string(current)))
+                                .build()).build(),
+                        counterUpdate(courseKey, shard, delta)).build());
+                return true;
+            } catch (TransactionCanceledException e) {
+                if (!isConditionFailure(e)) {
+                    throw e;
+                }
+            }
+        }
+        throw new IllegalStateException("Review " + reviewId + " is being modified concurrently");
+    }
+
+    // Scatter-gather: query every shard in parallel and merge the results in shard order
+    public List<Review> getReviews(String courseKey, int shards) {
+        List<Future<List<Review>>> futures = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            String partition = partition(courseKey, shard);
+            futures.add(readers.submit(() -> queryShard(partition)));
+        }
+
+        List<Review> reviews = new ArrayList<>();
+        for (Future<List<Review>> future : futures) {
+            try {
+                reviews.addAll(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to read review shard for " + courseKey, e);
+            }
+        }
+        return reviews;
+    }
+
+    // Sum of the per-shard counters (courseCount is always 0)
+    public CourseAggregate getTotals(String courseKey, int shards) {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            keys.add(key(partition(courseKey, shard), COUNTER));
+        }
+
+        CourseAggregate totals = CourseAggregate.EMPTY;
+        Map<String, KeysAndAttributes> pending = Map.of(TABLE_NAME, KeysAndAttributes.builder().keys(keys).build());
+        while (!pending.isEmpty()) {
+            BatchGetItemResponse response = ddb.batchGetItem(BatchGetItemRequest.builder().requestItems(pending).build());
+            for (Map<String, AttributeValue> item : response.responses().getOrDefault(TABLE_NAME, List.of())) {
+                totals = totals.plus(new CourseAggregate(0,
+                        longValue(item, "reviewCount"),
+                        doubleValue(item, "overallSum"), longValue(item, "overallCount"),
+                        doubleValue(item, "difficultySum"), longValue(item, "difficultyCount"),
+                        doubleValue(item, "usefulnessSum"), longValue(item, "usefulnessCount")));
+            }
+            pending = response.hasUnprocessedKeys() ? response.unprocessedKeys() : Map.of();
+        }
+        return totals;
+    }
+
+    // Every sharded review in the table, grouped by course key; used when the whole catalog is loaded
+    public Map<String, List<Review>> scanAll() {
+        Map<String, List<Review>> byCourse = new HashMap<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ScanRequest.Builder request = ScanRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .filterExpression("begins_with(sk, :prefix)")
+                    .expressionAttributeValues(Map.of(":prefix", string(REVIEW_PREFIX)));
+            if (startKey != null) {
+                request.exclusiveStartKey(startKey);
+            }
+            ScanResponse response = ddb.scan(request.build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                String pk = item.get("pk").s();
+                String courseKey = pk.substring(0, pk.lastIndexOf('#'));
+                byCourse.computeIfAbsent(courseKey, ignored -> new ArrayList<>())
+                        .add(gson.fromJson(item.get("review").s(), Review.class));
+            }
+            startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (startKey != null);
+        return byCourse;
+    }
+
+    // Delete every item (reviews and counters) in the course's shards; returns how many were deleted
+    public int deleteAll(String courseKey, int shards) {
+        List<WriteRequest> deletes = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            Map<String, AttributeValue> startKey = null;
+            do {
+                QueryRequest.Builder request = QueryRequest.builder()
+                        .tableName(TABLE_NAME)
+                        .keyConditionExpression("pk = :pk")
+                        .expressionAttributeValues(Map.of(":pk", string(partition(courseKey, shard))))
+                        .projectionExpression("pk, sk");
+                if (startKey != null) {
+                    request.exclusiveStartKey(startKey);
+                }
+                QueryResponse response = ddb.query(request.build());
+                response.items().forEach(item -> deletes.add(WriteRequest.builder()
+                        .deleteRequest(DeleteRequest.builder().key(item).build())
+                        .build()));
+                startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                        ? response.lastEvaluatedKey() : null;
+            } while (startKey != null);
+        }
+        batchWrite(deletes);
+        return deletes.size();
+    }
+
+    private List<Review> queryShard(String partition) {
+        List<Review> reviews = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryRequest.Builder request = QueryRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .keyConditionExpression("pk = :pk AND begins_with(sk, :prefix)")
+                    .expressionAttributeValues(Map.of(":pk", string(partition), ":prefix", string(REVIEW_PREFIX)));
+            if (startKey != null) {
+                request.exclusiveStartKey(startKey);
+            }
+            QueryResponse response = ddb.query(request.build());
+            response.items().forEach(item -> reviews.add(gson.fromJson(item.get("review").s(), Review.class)));
+            startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (startKey != null);
+        return reviews;
+    }
+
+    private String currentJson(String courseKey, int shard, String reviewId) {
+        var response = ddb.getItem(GetItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(key(partition(courseKey, shard), REVIEW_PREFIX + reviewId))
+                .consistentRead(true)
+                .build());
+        return response.hasItem() && response.item().containsKey("review") ? response.item().get("review").s() : null;
+    }
+
+    private Map<String, AttributeValue> reviewItem(String courseKey, int shard, Review review) {
+        Map<String, AttributeValue> item = key(partition(courseKey, shard), REVIEW_PREFIX + review.getReviewId());
+        item.put("review", string(gson.toJson(review)));
+        return item;
+    }
+
+    private static TransactWriteItem counterUpdate(String courseKey, int shard, CourseAggregate delta) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":reviewCount", number(Long.toString(delta.getReviewCount())));
+        values.put(":overallSum", number(BigDecimal.valueOf(delta.getOverallSum()).toPlainString()));
+        values.put(":overallCount", number(Long.toString(delta.getOverallCount())));
+        values.put(":difficultySum", number(BigDecimal.valueOf(delta.getDifficultySum()).toPlainString()));
+        values.put(":difficultyCount", number(Long.toString(delta.getDifficultyCount())));
+        values.put(":usefulnessSum", number(BigDecimal.valueOf(delta.getUsefulnessSum()).toPlainString()));
+        values.put(":usefulnessCount", number(Long.toString(delta.getUsefulnessCount())));
+        return TransactWriteItem.builder().update(Update.builder()
+                .tableName(TABLE_NAME)
+                .key(key(partition(courseKey, shard), COUNTER))
+                .updateExpression("ADD reviewCount :reviewCount, overallSum :overallSum, overallCount :overallCount, "
+                        + "difficultySum :difficultySum, difficultyCount :difficultyCount, "
+                        + "usefulnessSum :usefulnessSum, usefulnessCount :usefulnessCount")
+                .expressionAttributeValues(values)
+                .build()).build();
+    }
+
+    private static CourseAggregate totalsOf(Review review) {
+        return CourseAggregate.of(review);
+    }
+
+    // BatchWriteItem in chunks of 25, resubmitting anything DynamoDB reports as unprocessed
+    private void batchWrite(List<WriteRequest> requests) {
+        for (int start = 0; start < requests.size(); start += BATCH_SIZE) {
+            List<WriteRequest> chunk = requests.subList(start, Math.min(start + BATCH_SIZE, requests.size()));
+            Map<String, List<WriteRequest>> pending = Map.of(TABLE_NAME, chunk);
+            int attempt = 0;
+            while (!pending.isEmpty()) {
+                BatchWriteItemResponse response = ddb.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(pending)
+                        .build());
+                pending = response.hasUnprocessedItems() ? response.unprocessedItems() : Map.of();
+                if (!pending.isEmpty()) {
+                    try {
+                        Thread.sleep(Math.min(1000L, 25L << Math.min(++attempt, 6)));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isConditionFailure(TransactionCanceledException e) {
+        if (!e.hasCancellationReasons()) {
+            return false;
+        }
+        for (CancellationReason reason : e.cancellationReasons()) {
+            if ("ConditionalCheckFailed".equals(reason.code())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String partition(String courseKey, int shard) {
+        return courseKey + "#" + shard;
+    }
+
+    private static long longValue(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null || value.n() == null ? 0 : (long) Double.parseDouble(value.n());
+    }
+
+    private static double doubleValue(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null || value.n() == null ? 0 : Double.parseDouble(value.n());
+    }
+
+    private static Map<String, AttributeValue> key(String pk, String sk) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("pk", string(pk));
+        key.put("sk", string(sk));
+        return key;
+    }
+
+    private static AttributeValue string(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue number(String value) {
+        return AttributeValue.builder().n(value).build();
+    }
+}
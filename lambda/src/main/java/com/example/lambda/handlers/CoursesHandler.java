@@ -3,20 +3,36 @@ package com.example.lambda.handlers;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.example.lambda.dao.CourseDao;
 import com.example.lambda.models.Course;
+import com.example.lambda.models.CourseChanges;
 import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.ReviewPage;
+import com.example.lambda.models.SimilarCourse;
+import com.example.lambda.util.CatalogArtifact;
+import com.example.lambda.util.CatalogCodec;
 import com.example.lambda.util.CourseConverter;
+import com.example.lambda.util.ReviewPager;
+import com.example.lambda.util.SimilarityIndex;
+import com.example.lambda.validators.BatchValidationResult;
 import com.example.lambda.validators.CourseValidator;
 import com.google.gson.Gson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class CoursesHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(CoursesHandler.class);
 
+    static final int DEFAULT_CHANGES_LIMIT = 500;
+    static final int MAX_CHANGES_LIMIT = 1000;
+    static final int DEFAULT_SIMILAR_LIMIT = 5;
+
     private final Gson gson;
     private final CourseDao courseDao;
     // Instantiate the validator
@@ -28,10 +44,21 @@ public class CoursesHandler {
         validator = new CourseValidator();
     }
 
-    public APIGatewayProxyResponseEvent handleCoursesRequest(String httpMethod, String body, String name, String code) {
+    public APIGatewayProxyResponseEvent handleCoursesRequest(String httpMethod, String path, String body, String name, String code,
+                                                             Map<String, String> queryParameters, Map<String, String> headers) {
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 
-        if ("POST".equalsIgnoreCase(httpMethod)) {
+        if (path != null && path.startsWith("/courses/changes")) {
+            if ("GET".equalsIgnoreCase(httpMethod)) {
+                return getChanges(queryParameters == null ? Map.of() : queryParameters);
+            }
+        }
+        else if (path != null && path.startsWith("/courses/similar")) {
+            if ("GET".equalsIgnoreCase(httpMethod)) {
+                return getSimilarCourses(name, code, queryParameters == null ? Map.of() : queryParameters);
+            }
+        }
+        else if ("POST".equalsIgnoreCase(httpMethod)) {
             // Handle course creation
             return createCourse(body);
         }
@@ -45,7 +72,7 @@ public class CoursesHandler {
                 return getSingleCourse(name, code);
             } else {
                 // If no courseId is provided, fetch all courses
-                return getAllCourses();
+                return getAllCourses(headers == null ? Map.of() : headers);
             }
         }
 
@@ -55,8 +82,12 @@ public class CoursesHandler {
         return response;
     }
 
-    // Handle course creation or update
+    // Handle course creation or update; a JSON array body is treated as a bulk import
     private APIGatewayProxyResponseEvent createCourse(String body) {
+        if (body != null && body.stripLeading().startsWith("[")) {
+            return importCourses(body);
+        }
+
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 
         try {
@@ -68,12 +99,10 @@ public class CoursesHandler {
 
             logger.info("Parsed Body: {}", courseOutput);
 
-            Course course = CourseConverter.convertToCourse(courseOutput);
-
-            logger.info("course to post: {}", course);
-
-            // Validate the course
-            List<String> validationErrors = validator.validateCourse(course);
+            // Validate the parsed course before converting it for storage
+            List<String> validationErrors = courseOutput == null
+                    ? List.of("Request body is required.")
+                    : validator.validateCourse(courseOutput);
 
             if (!validationErrors.isEmpty()) {
                 // If there are errors, return a 400 Bad Request response with the error messages
@@ -81,6 +110,9 @@ public class CoursesHandler {
                 response.setBody(String.join(", ", validationErrors));  // Combine errors into a single string
                 return response;
             }
+
+                Course course = CourseConverter.convertToCourse(courseOutput);
+
                 // Save the new course
                 courseDao.saveCourse(course);
 
@@ -102,14 +134,70 @@ public class CoursesHandler {
         return response;
     }
 
+    // Handle a bulk import: every course is validated (in parallel for large payloads) before anything is written,
+    // and the whole import is rejected with structured errors if any course is invalid
+    private APIGatewayProxyResponseEvent importCourses(String body) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        List<CourseOutput> courses;
+        try {
+            CourseOutput[] parsed = gson.fromJson(body, CourseOutput[].class);
+            courses = parsed == null ? List.of() : Arrays.asList(parsed);
+        } catch (Exception e) {
+            logger.error("Error parsing course import: {}", e.getMessage());
+            response.setStatusCode(400);
+            response.setBody("Invalid request format.");
+            return response;
+        }
+
+        if (courses.isEmpty()) {
+            response.setStatusCode(400);
+            response.setBody(serialize("No courses to import."));
+            return response;
+        }
+
+        BatchValidationResult result = validator.validateBatch(courses);
+        if (!result.isValid()) {
+            logger.info("Rejected import of {} courses with {} errors", courses.size(), result.getErrors().size());
+            response.setStatusCode(400);
+            response.setBody(serialize(result));
+            return response;
+        }
+
+        try {
+            List<Course> toSave = new ArrayList<>(courses.size());
+            for (CourseOutput courseOutput : courses) {
+                toSave.add(CourseConverter.convertToCourse(courseOutput));
+            }
+            courseDao.saveCourses(toSave);
+
+            logger.info("Imported {} courses", toSave.size());
+            response.setStatusCode(201);  // Created
+            response.setBody(serialize(Map.of("imported", toSave.size())));
+        } catch (Exception e) {
+            logger.error("Error importing courses: {}", e.getMessage());
+            response.setStatusCode(500);
+            response.setBody("Error importing courses.");
+        }
+
+        return response;
+    }
+
     // Handle getting a single course by courseId
     private APIGatewayProxyResponseEvent getSingleCourse(String name, String code) {
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 
         try {
-            // Get a single course by courseId
-            CourseOutput course = courseDao.getCourseByNameAndCode(name, code);
-            if (course != null) {
+            // Get a single course by courseId, from the catalog when it has it
+            CourseOutput cached = courseDao.getCourseForRead(name, code);
+            if (cached != null) {
+                // Inline only the first page of reviews; the rest are fetched through GET /reviews
+                ReviewPage firstPage = courseDao.getReviewPage(cached, ReviewPager.Sort.CREATED_AT,
+                        ReviewPager.DEFAULT_LIMIT, null);
+                CourseOutput course = CourseConverter.shallowCopy(cached);
+                course.setReviews(firstPage.getReviews());
+                course.setReviewCount(firstPage.getReviewCount());
+                course.setNextReviewCursor(firstPage.getNextCursor());
                 response.setStatusCode(200);
                 response.setBody(serialize(course));
             } else {
@@ -125,19 +213,41 @@ public class CoursesHandler {
         return response;
     }
 
-    // Handle getting all courses
-    private APIGatewayProxyResponseEvent getAllCourses() {
+    // Handle getting all courses. The response is rendered once per catalog snapshot (see CatalogArtifact), so this
+    // only picks a representation: the binary catalog when Accept asks for it, JSON otherwise. Gzip is left to
+    // API Gateway (minCompressionSize) or ServerApp. A matching If-None-Match gets 304 with no body.
+    private APIGatewayProxyResponseEvent getAllCourses(Map<String, String> requestHeaders) {
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Vary", "Accept");
+        response.setHeaders(headers);
 
         try {
-            // Get all courses
-            List<CourseOutput> courses = courseDao.getAllCourses();
-            if (!courses.isEmpty()) {
-                response.setStatusCode(200);
-                response.setBody(serialize(courses));  // Serialize the list of courses
-            } else {
+            CatalogArtifact catalog = courseDao.getCatalogArtifact();
+            if (catalog.getCourseCount() == 0) {
                 response.setStatusCode(404);
                 response.setBody("No courses found");
+                return response;
+            }
+
+            String encoding = CatalogCodec.isAccepted(requestHeaders.get("Accept")) ? "bin" : null;
+            String etag = catalog.etag(encoding);
+            headers.put("ETag", etag);
+            headers.put("Cache-Control", "no-cache");  // Cache, but revalidate with If-None-Match
+
+            if (CatalogArtifact.matches(requestHeaders.get("If-None-Match"), etag)) {
+                response.setStatusCode(304);
+                return response;
+            }
+
+            response.setStatusCode(200);
+            if ("bin".equals(encoding)) {
+                response.setBody(catalog.getBinaryBase64());
+                response.setIsBase64Encoded(true);
+                headers.put("Content-Type", CatalogCodec.MEDIA_TYPE);
+            } else {
+                response.setBody(catalog.getJson());
+                headers.put("Content-Type", "application/json");
             }
         } catch (Exception e) {
             logger.error("Error fetching all courses: {}", e.getMessage());
@@ -148,18 +258,95 @@ public class CoursesHandler {
         return response;
     }
 
-    // Handle deleting a course by courseId
-    private APIGatewayProxyResponseEvent deleteCourse(String name, String code) {
+    // Handle delta sync: the courses upserted and deleted since the client's last sync
+    private APIGatewayProxyResponseEvent getChanges(Map<String, String> params) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        String since = params.get("since");
+        if (since == null || since.isBlank()) {
+            response.setStatusCode(400);
+            response.setBody(serialize("since is required"));
+            return response;
+        }
+
+        try {
+            int limit = DEFAULT_CHANGES_LIMIT;
+            if (params.get("limit") != null) {
+                limit = Integer.parseInt(params.get("limit").trim());
+                if (limit < 1 || limit > MAX_CHANGES_LIMIT) {
+                    throw new IllegalArgumentException("limit must be between 1 and " + MAX_CHANGES_LIMIT);
+                }
+            }
+            CourseChanges changes = courseDao.getChangesSince(since.trim(), limit);
+            response.setStatusCode(200);
+            response.setBody(serialize(changes));
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setBody(serialize(e.getMessage()));
+        } catch (IllegalStateException e) {
+            // Too old for the change log; the client has to fall back to a full GET /courses
+            response.setStatusCode(410);
+            response.setBody(serialize(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error fetching course changes: {}", e.getMessage());
+            response.setStatusCode(500);
+            response.setBody("Error fetching course changes.");
+        }
+
+        return response;
+    }
+
+    // GET /courses/similar?name=...&code=...&limit=5, answered from the precomputed neighbor lists
+    private APIGatewayProxyResponseEvent getSimilarCourses(String name, String code, Map<String, String> params) {
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 
+        if (name == null || name.isEmpty() || code == null || code.isEmpty()) {
+            response.setStatusCode(400);
+            response.setBody(serialize("name and code are required"));
+            return response;
+        }
+
         try {
-            // Check if the course exists
-            CourseOutput course = courseDao.getCourseByNameAndCode(name, code);
+            int limit = DEFAULT_SIMILAR_LIMIT;
+            if (params.get("limit") != null) {
+                limit = Integer.parseInt(params.get("limit").trim());
+                if (limit < 1 || limit > SimilarityIndex.NEIGHBORS) {
+                    throw new IllegalArgumentException("limit must be between 1 and " + SimilarityIndex.NEIGHBORS);
+                }
+            }
+            List<SimilarCourse> similar = courseDao.getSimilarityIndex().similarTo(name, code, limit);
+            if (similar == null) {
+                response.setStatusCode(404);
+                response.setBody(serialize("Course not found"));
+                return response;
+            }
+            response.setStatusCode(200);
+            response.setBody(serialize(similar));
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setBody(serialize(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error fetching similar courses: {}", e.getMessage());
+            response.setStatusCode(500);
+            response.setBody("Error fetching similar courses.");
+        }
 
-            if (course != null) {
-                // Delete the course
-                courseDao.deleteCourse(name, code);
+        return response;
+    }
 
+    // Handle deleting a course by courseId
+    private APIGatewayProxyResponseEvent deleteCourse(String name, String code) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        if (name == null || name.isEmpty() || code == null || code.isEmpty()) {
+            response.setStatusCode(400);
+            response.setBody(serialize("name and code are required"));
+            return response;
+        }
+
+        try {
+            // One conditional delete: false means there was nothing to delete
+            if (courseDao.deleteCourse(name, code)) {
                 // Set response success message for deletion
                 response.setStatusCode(200);  // OK
                 response.setBody(serialize("Course deleted successfully!"));
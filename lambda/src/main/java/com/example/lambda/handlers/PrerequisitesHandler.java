@@ -0,0 +1,131 @@
+package com.example.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.dao.CourseDao;
+import com.example.lambda.models.PrerequisiteSummary;
+import com.example.lambda.models.SemesterPlan;
+import com.example.lambda.util.CourseCodes;
+import com.example.lambda.util.PrerequisiteGraph;
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+public class PrerequisitesHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrerequisitesHandler.class);
+    private static final int DEFAULT_MAX_PER_SEMESTER = 4;
+
+    private final CourseDao courseDao;
+    private final Gson gson;
+
+    public PrerequisitesHandler(CourseDao courseDao) {
+        this.courseDao = courseDao;
+        this.gson = new Gson();
+    }
+
+    // GET /prerequisites?code=CSDS 395            -> direct and transitive prerequisites and unlocks
+    // GET /prerequisites/plan?code=CSDS 395&...   -> semester plan (maxPerSemester, completed=CSDS 132,CSDS 133)
+    public APIGatewayProxyResponseEvent handlePrerequisitesRequest(String httpMethod, String path, Map<String, String> queryParameters) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        if (!"GET".equalsIgnoreCase(httpMethod)) {
+            response.setStatusCode(405);
+            response.setBody(serialize("Method Not Allowed"));
+            return response;
+        }
+
+        Map<String, String> params = queryParameters == null ? Map.of() : queryParameters;
+        String code = CourseCodes.canonicalize(params.get("code"));
+        if (code == null) {
+            response.setStatusCode(400);
+            response.setBody(serialize("A valid course code is required, e.g. ?code=CSDS 395"));
+            return response;
+        }
+
+        if (path != null && path.startsWith("/prerequisites/plan")) {
+            return getPlan(code, params);
+        }
+        return getSummary(code);
+    }
+
+    private APIGatewayProxyResponseEvent getSummary(String code) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        try {
+            PrerequisiteGraph graph = courseDao.getPrerequisiteGraph();
+            if (!graph.contains(code)) {
+                response.setStatusCode(404);
+                response.setBody(serialize("Course not found"));
+                return response;
+            }
+
+            PrerequisiteSummary summary = new PrerequisiteSummary();
+            summary.setCode(code);
+            summary.setPrerequisites(graph.directPrerequisites(code));
+            summary.setAllPrerequisites(graph.allPrerequisites(code));
+            summary.setUnlocks(graph.directUnlocks(code));
+            summary.setAllUnlocks(graph.allUnlocks(code));
+
+            response.setStatusCode(200);
+            response.setBody(serialize(summary));
+        } catch (Exception e) {
+            logger.error("Error fetching prerequisites: {}", e.getMessage());
+            response.setStatusCode(500);
+            response.setBody(serialize("Error fetching prerequisites."));
+        }
+
+        return response;
+    }
+
+    private APIGatewayProxyResponseEvent getPlan(String code, Map<String, String> params) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        int maxPerSemester;
+        try {
+            String value = params.get("maxPerSemester");
+            maxPerSemester = value == null || value.isBlank() ? DEFAULT_MAX_PER_SEMESTER : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            response.setStatusCode(400);
+            response.setBody(serialize("maxPerSemester must be a number."));
+            return response;
+        }
+
+        String completedParam = params.get("completed");
+        List<String> completed = completedParam == null ? List.of() : CourseCodes.extractAll(completedParam);
+
+        try {
+            PrerequisiteGraph graph = courseDao.getPrerequisiteGraph();
+            if (!graph.contains(code)) {
+                response.setStatusCode(404);
+                response.setBody(serialize("Course not found"));
+                return response;
+            }
+
+            List<List<String>> semesters = graph.plan(code, maxPerSemester, completed);
+            response.setStatusCode(200);
+            response.setBody(serialize(new SemesterPlan(code, maxPerSemester, semesters)));
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setBody(serialize(e.getMessage()));
+        } catch (IllegalStateException e) {
+            // The catalog contains a prerequisite cycle, so no valid ordering exists
+            logger.warn("Cannot plan {}: {}", code, e.getMessage());
+            response.setStatusCode(409);
+            response.setBody(serialize(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error planning prerequisites: {}", e.getMessage());
+            response.setStatusCode(500);
+            response.setBody(serialize("Error planning prerequisites."));
+        }
+
+        return response;
+    }
+
+    // Method to serialize an object to JSON string using Gson
+    private <T> String serialize(T object) {
+        return gson.toJson(object);
+    }
+}
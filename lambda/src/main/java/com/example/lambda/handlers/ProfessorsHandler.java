@@ -0,0 +1,136 @@
+package com.example.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.dao.CourseDao;
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.ProfessorCourse;
+import com.example.lambda.models.ProfessorCourses;
+import com.example.lambda.models.Review;
+import com.example.lambda.util.ProfessorIndex;
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProfessorsHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfessorsHandler.class);
+    private final CourseDao courseDao;
+    private final Gson gson;
+
+    public ProfessorsHandler(CourseDao courseDao) {
+        this.courseDao = courseDao;
+        this.gson = new Gson();
+    }
+
+    // Handles GET /professors/{name}/courses
+    public APIGatewayProxyResponseEvent handleProfessorsRequest(String httpMethod, String path, String name) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        if (!"GET".equalsIgnoreCase(httpMethod)) {
+            response.setStatusCode(405);
+            response.setBody(serialize("Method Not Allowed"));
+            return response;
+        }
+
+        // Fall back to the raw path when API Gateway did not extract {name}
+        String professor = name != null ? name : professorFromPath(path);
+        if (professor == null || professor.trim().isEmpty()) {
+            response.setStatusCode(400);
+            response.setBody(serialize("Professor name is required."));
+            return response;
+        }
+
+        return getProfessorCourses(professor);
+    }
+
+    private APIGatewayProxyResponseEvent getProfessorCourses(String professor) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        try {
+            ProfessorIndex index = ProfessorIndex.of(courseDao.getCatalog());
+            List<CourseOutput> courses = index.coursesFor(professor);
+
+            if (courses.isEmpty()) {
+                response.setStatusCode(404);
+                response.setBody(serialize("No courses found for professor " + professor));
+                return response;
+            }
+
+            String key = ProfessorIndex.normalize(professor);
+            List<ProfessorCourse> summaries = new ArrayList<>(courses.size());
+            for (CourseOutput course : courses) {
+                summaries.add(summarize(course, key));
+            }
+
+            response.setStatusCode(200);
+            response.setBody(serialize(new ProfessorCourses(index.displayName(professor), summaries)));
+        } catch (Exception e) {
+            logger.error("Error fetching courses for professor: {}", e.getMessage());
+            response.setStatusCode(500);
+            response.setBody(serialize("Error fetching professor courses."));
+        }
+
+        return response;
+    }
+
+    // Rating averages over only the reviews written for this professor
+    private static ProfessorCourse summarize(CourseOutput course, String professorKey) {
+        int reviewCount = 0;
+        double overallSum = 0, difficultySum = 0, usefulnessSum = 0;
+        int overallCount = 0, difficultyCount = 0, usefulnessCount = 0;
+
+        if (course.getReviews() != null) {
+            for (Review review : course.getReviews()) {
+                if (!professorKey.equals(ProfessorIndex.normalize(review.getProfessor()))) {
+                    continue;
+                }
+                reviewCount++;
+                if (review.getOverall() != null) {
+                    overallSum += review.getOverall();
+                    overallCount++;
+                }
+                if (review.getDifficulty() != null) {
+                    difficultySum += review.getDifficulty();
+                    difficultyCount++;
+                }
+                if (review.getUsefulness() != null) {
+                    usefulnessSum += review.getUsefulness();
+                    usefulnessCount++;
+                }
+            }
+        }
+
+        ProfessorCourse summary = new ProfessorCourse();
+        summary.setName(course.getName());
+        summary.setCode(course.getCode());
+        summary.setTitle(course.getTitle());
+        summary.setReviewCount(reviewCount);
+        summary.setAverageOverall(overallCount == 0 ? null : overallSum / overallCount);
+        summary.setAverageDifficulty(difficultyCount == 0 ? null : difficultySum / difficultyCount);
+        summary.setAverageUsefulness(usefulnessCount == 0 ? null : usefulnessSum / usefulnessCount);
+        return summary;
+    }
+
+    // Extract {name} from /professors/{name}/courses
+    static String professorFromPath(String path) {
+        if (path == null) {
+            return null;
+        }
+        String[] segments = path.split("/");
+        // ["", "professors", "{name}", "courses"]
+        if (segments.length >= 3 && "professors".equals(segments[1])) {
+            return URLDecoder.decode(segments[2], StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    // Method to serialize an object to JSON string using Gson
+    private <T> String serialize(T object) {
+        return gson.toJson(object);
+    }
+}
@@ -4,7 +4,9 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
 import com.example.lambda.dao.CourseDao;
 import com.example.lambda.models.CourseOutput;
 import com.example.lambda.models.Review;
+import com.example.lambda.models.ReviewPage;
 import com.example.lambda.util.CourseConverter;
+import com.example.lambda.util.ReviewPager;
 import com.example.lambda.validators.ReviewValidator;
 import com.google.gson.Gson;
 import org.slf4j.Logger;
@@ -25,11 +27,14 @@ public class ReviewsHandler {
         this.gson = new Gson();
     }
 
-    public APIGatewayProxyResponseEvent handleReviewsRequest(String httpMethod, String body, String name, String code, String reviewId) {
+    public APIGatewayProxyResponseEvent handleReviewsRequest(String httpMethod, String body, String name, String code, String reviewId,
+                                                             Map<String, String> queryParameters) {
         logger.info("entered handleReviewsRequest");
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 
         switch (httpMethod) {
+            case "GET":
+                return getReviews(name, code, queryParameters == null ? Map.of() : queryParameters);
             case "POST":
                 return createReview(body, name, code);
             case "PUT":
@@ -45,6 +50,52 @@ public class ReviewsHandler {
         return response;
     }
 
+    // Page through a course's reviews: GET /reviews?name=&code=&limit=10&sort=createdAt|overall|difficulty&cursor=
+    private APIGatewayProxyResponseEvent getReviews(String name, String code, Map<String, String> params) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        if (name == null || name.isEmpty() || code == null || code.isEmpty()) {
+            response.setStatusCode(400);
+            response.setBody(serialize("Course name and code are required"));
+            return response;
+        }
+
+        ReviewPager.Sort sort;
+        int limit;
+        try {
+            sort = ReviewPager.Sort.parse(params.get("sort"));
+            limit = ReviewPager.parseLimit(params.get("limit"));
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setBody(serialize(e.getMessage()));
+            return response;
+        }
+
+        CourseOutput courseOutput;
+        try {
+            courseOutput = courseDao.getCourseForRead(name, code);
+        } catch (Exception e) {
+            logger.error("Error fetching course for reviews: {}", e.getMessage());
+            courseOutput = null;
+        }
+        if (courseOutput == null) {
+            response.setStatusCode(404);
+            response.setBody(serialize("Course not found"));
+            return response;
+        }
+
+        try {
+            ReviewPage page = courseDao.getReviewPage(courseOutput, sort, limit, params.get("cursor"));
+            response.setStatusCode(200);
+            response.setBody(serialize(page));
+        } catch (IllegalArgumentException e) {
+            // Malformed cursor, or one issued for a different sort order
+            response.setStatusCode(400);
+            response.setBody(serialize(e.getMessage()));
+        }
+        return response;
+    }
+
     private APIGatewayProxyResponseEvent createReview(String body, String name, String code) {
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
         try {
@@ -63,8 +114,8 @@ public class ReviewsHandler {
                 return response;
             }
 
-            // Get the course by name and code
-            CourseOutput courseOutput = courseDao.getCourseByNameAndCode(name, code);
+            // Only the course item, not its reviews: a sharded course's reviews are never read on this path
+            CourseOutput courseOutput = courseDao.getCourseWithoutReviews(name, code);
 
             if (courseOutput == null) {
                 response.setStatusCode(404);
@@ -72,18 +123,44 @@ public class ReviewsHandler {
                 return response;
             }
 
+            // Hot or already sharded courses take the review through the write shards instead of rewriting the course item
+            if (courseDao.routesReviewsToShards(courseOutput)) {
+                if (!courseDao.addShardedReview(courseOutput, newReview)) {
+                    response.setStatusCode(409);  // Conflict
+                    response.setBody(serialize("Review already exists"));
+                    return response;
+                }
+                response.setStatusCode(201);  // Created
+                response.setBody(serialize("Review added successfully"));
+                return response;
+            }
+
+            // An inline course is rewritten whole, so it needs its reviews after all
+            courseOutput = courseDao.getCourseByNameAndCode(name, code);
+
+            // A retried submission of the same review is a conflict, not a second copy
+            List<Review> reviews = courseOutput.getReviews() == null ? new ArrayList<>() : courseOutput.getReviews();
+            for (Review existing : reviews) {
+                if (Objects.equals(newReview.getReviewId(), existing.getReviewId())) {
+                    response.setStatusCode(409);  // Conflict
+                    response.setBody(serialize("Review already exists"));
+                    return response;
+                }
+            }
+
             // Extract professor from the new review and update the professors list if necessary
             String professorName = newReview.getProfessor();
-            List<String> professorList = courseOutput.getProfessors();
+            List<String> professorList = courseOutput.getProfessors() == null ? new ArrayList<>() : courseOutput.getProfessors();
 
             // Add the professor to the list if it's not already there
-             professorList.add(professorName);
+            if (professorName != null && !professorList.contains(professorName)) {
+                professorList.add(professorName);
+            }
 
             // Update the professors list in the course output
             courseOutput.setProfessors(professorList);
 
             // Add the new review to the course
-            List<Review> reviews = courseOutput.getReviews();
             reviews.add(newReview);
             courseOutput.setReviews(reviews);
 
@@ -128,6 +205,14 @@ public class ReviewsHandler {
                 return response;
             }
 
+            // Sharded courses keep every review in the shards
+            if (courseOutput.getReviewShards() != null) {
+                boolean updated = courseDao.updateShardedReview(courseOutput, updatedReview);
+                response.setStatusCode(updated ? 200 : 404);
+                response.setBody(serialize(updated ? "Review updated successfully" : "Review not found"));
+                return response;
+            }
+
             // Find and update the review in the course's reviews list
             List<Review> reviews = courseOutput.getReviews();
             boolean reviewFound = false;
@@ -186,6 +271,14 @@ public class ReviewsHandler {
                 return response;
             }
 
+            // Sharded courses keep every review in the shards
+            if (courseOutput.getReviewShards() != null) {
+                boolean deleted = courseDao.deleteShardedReview(courseOutput, reviewId);
+                response.setStatusCode(deleted ? 200 : 404);
+                response.setBody(serialize(deleted ? "Review deleted successfully" : "Review not found"));
+                return response;
+            }
+
             // Remove the review from the course's reviews list
             List<Review> reviews = courseOutput.getReviews();
             boolean reviewFound = reviews.removeIf(review -> review.getReviewId().equals(reviewId));
@@ -3,23 +3,36 @@ package com.example.lambda.handlers;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.example.lambda.dao.CourseDao;
 import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.ReviewSearchResults;
+import com.example.lambda.util.ReviewTextIndex;
+import com.example.lambda.util.SearchCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.gson.Gson;
 
 import java.util.List;
+import java.util.Map;
 
 
 
 public class SearchHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(SearchHandler.class);
+    static final int DEFAULT_REVIEW_SEARCH_LIMIT = 10;
+    static final int MAX_REVIEW_SEARCH_LIMIT = 50;
+
     private final CourseDao courseDao;
     private final Gson gson;
+    private final SearchCache searchCache;
 
     public SearchHandler(CourseDao courseDao) {
+        this(courseDao, new SearchCache(cacheSizeFromEnv(), SearchCache.DEFAULT_MAX_AGE_MILLIS, System::currentTimeMillis));
+    }
+
+    public SearchHandler(CourseDao courseDao, SearchCache searchCache) {
         this.courseDao = courseDao;
         this.gson = new Gson();
+        this.searchCache = searchCache;
     }
 
     // Method to handle search requests via POST with string body
@@ -44,8 +57,16 @@ public class SearchHandler {
 
             logger.info("Searching for: " +  queryString);
 
-            // Search courses using the provided search string
-            List<CourseOutput> courses = courseDao.searchCourses(queryString);
+            // Answer hot queries from the cache; it is invalidated whenever the catalog generation moves
+            long generation = courseDao.getCatalogGeneration();
+            List<CourseOutput> courses = searchCache.get(queryString, generation);
+
+            if (courses == null) {
+                // Search courses using the provided search string
+                courses = courseDao.searchCourses(queryString);
+                searchCache.put(queryString, generation, courses);
+            }
+            searchCache.logMetrics();
 
             // If courses are found, return them as a JSON response
             if (!courses.isEmpty()) {
@@ -65,11 +86,73 @@ public class SearchHandler {
         return response;
     }
 
+    // GET /search/reviews?q=...&offset=0&limit=10 over review tips and comments, answered from the review text index
+    public APIGatewayProxyResponseEvent handleReviewSearchRequest(String httpMethod, Map<String, String> queryParameters) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        if (!"GET".equalsIgnoreCase(httpMethod)) {
+            response.setStatusCode(405);
+            response.setBody(serialize("Method Not Allowed"));
+            return response;
+        }
+
+        Map<String, String> params = queryParameters == null ? Map.of() : queryParameters;
+        String query = params.get("q");
+        if (query == null || query.trim().isEmpty()) {
+            response.setStatusCode(400);
+            response.setBody(serialize("q is required"));
+            return response;
+        }
+
+        try {
+            int offset = intParam(params, "offset", 0, 0, Integer.MAX_VALUE);
+            int limit = intParam(params, "limit", DEFAULT_REVIEW_SEARCH_LIMIT, 1, MAX_REVIEW_SEARCH_LIMIT);
+            ReviewSearchResults results = ReviewTextIndex.of(courseDao.getCatalog()).search(query.trim(), offset, limit);
+            response.setStatusCode(200);
+            response.setBody(serialize(results));
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setBody(serialize(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error searching reviews: {}", e.getMessage());
+            response.setStatusCode(500);
+            response.setBody(serialize("Error searching reviews."));
+        }
+
+        return response;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue, int min, int max) {
+        String value = params.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+        }
+        return parsed;
+    }
+
     // Method to serialize an object to JSON string using Gson
     private <T> String serialize(T object) {
         return gson.toJson(object);
     }
 
+    // Cache size can be tuned per deployment through the SEARCH_CACHE_SIZE environment variable
+    private static int cacheSizeFromEnv() {
+        String value = System.getenv("SEARCH_CACHE_SIZE");
+        if (value == null || value.isBlank()) {
+            return SearchCache.DEFAULT_MAX_ENTRIES;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid SEARCH_CACHE_SIZE '{}', using default", value);
+            return SearchCache.DEFAULT_MAX_ENTRIES;
+        }
+    }
+
     private static class Query{
         private String query;
 
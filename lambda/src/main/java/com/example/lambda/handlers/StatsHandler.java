@@ -0,0 +1,92 @@
+package com.example.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.dao.CatalogCache;
+import com.example.lambda.dao.CourseDao;
+import com.example.lambda.models.DepartmentStats;
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Serves the department stats the stream processor maintains in CourseAggregates, so a request reads a few
+// precomputed items instead of folding every review in the catalog
+public class StatsHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsHandler.class);
+
+    // The full report reads every department; it is rendered at most this often, as fresh as the catalog is
+    static final long REPORT_TTL_MILLIS = CatalogCache.DEFAULT_TTL_MILLIS;
+
+    private final CourseDao courseDao;
+    private final Gson gson;
+    private final LongSupplier clock;
+    private volatile String reportJson;
+    private volatile long reportRenderedAt;
+
+    public StatsHandler(CourseDao courseDao) {
+        this(courseDao, System::currentTimeMillis);
+    }
+
+    StatsHandler(CourseDao courseDao, LongSupplier clock) {
+        this.courseDao = courseDao;
+        this.gson = new Gson();
+        this.clock = clock;
+    }
+
+    // GET /stats                   -> rollups for every department
+    // GET /stats?department=CSDS   -> rollup for one department
+    public APIGatewayProxyResponseEvent handleStatsRequest(String httpMethod, Map<String, String> queryParameters) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        if (!"GET".equalsIgnoreCase(httpMethod)) {
+            response.setStatusCode(405);
+            response.setBody(serialize("Method Not Allowed"));
+            return response;
+        }
+
+        String department = queryParameters == null ? null : queryParameters.get("department");
+
+        try {
+            if (department == null || department.trim().isEmpty()) {
+                response.setStatusCode(200);
+                response.setBody(report());
+                return response;
+            }
+
+            DepartmentStats stats = courseDao.getDepartmentStats(department);
+            if (stats == null) {
+                response.setStatusCode(404);
+                response.setBody(serialize("No courses found for department " + department));
+                return response;
+            }
+            response.setStatusCode(200);
+            response.setBody(serialize(stats));
+        } catch (Exception e) {
+            logger.error("Error computing department stats: {}", e.getMessage());
+            response.setStatusCode(500);
+            response.setBody(serialize("Error computing department stats."));
+        }
+
+        return response;
+    }
+
+    // Every department's stats as JSON, re-read from the store once the last rendering is older than the TTL
+    private String report() {
+        long now = clock.getAsLong();
+        String json = reportJson;
+        if (json == null || now - reportRenderedAt > REPORT_TTL_MILLIS) {
+            json = serialize(courseDao.getDepartmentStats());
+            reportJson = json;
+            reportRenderedAt = now;
+        }
+        return json;
+    }
+
+    // Method to serialize an object to JSON string using Gson
+    private <T> String serialize(T object) {
+        return gson.toJson(object);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.lambda.migration;
+
+// Where the migration runner records each segment's progress so an interrupted run can resume
+public interface CheckpointStore {
+
+    // The last checkpoint saved for this migration and segment, or null if it has not started
+    SegmentCheckpoint load(String migration, int segment);
+
+    void save(String migration, int segment, SegmentCheckpoint checkpoint);
+}
@@ -0,0 +1,51 @@
+package com.example.lambda.migration;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// CheckpointStore backed by the "MigrationCheckpoints" table (pk = "<migration>#<segment>").
+// lastEvaluatedKey is stored as a native map, so it round-trips exactly whatever the key types are.
+public class DynamoDbCheckpointStore implements CheckpointStore {
+
+    public static final String TABLE_NAME = "MigrationCheckpoints";
+
+    private final DynamoDbClient ddb;
+
+    public DynamoDbCheckpointStore(DynamoDbClient ddb) {
+        this.ddb = ddb;
+    }
+
+    @Override
+    public SegmentCheckpoint load(String migration, int segment) {
+        Map<String, AttributeValue> item = ddb.getItem(GetItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(Map.of("pk", AttributeValue.builder().s(migration + "#" + segment).build()))
+                .consistentRead(true)
+                .build()).item();
+        if (item == null || item.isEmpty()) {
+            return null;
+        }
+        AttributeValue lastKey = item.get("lastEvaluatedKey");
+        return new SegmentCheckpoint(Integer.parseInt(item.get("totalSegments").n()),
+                lastKey == null ? null : lastKey.m(),
+                Boolean.TRUE.equals(item.get("done").bool()));
+    }
+
+    @Override
+    public void save(String migration, int segment, SegmentCheckpoint checkpoint) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("pk", AttributeValue.builder().s(migration + "#" + segment).build());
+        item.put("totalSegments", AttributeValue.builder().n(Integer.toString(checkpoint.getTotalSegments())).build());
+        item.put("done", AttributeValue.builder().bool(checkpoint.isDone()).build());
+        item.put("savedAt", AttributeValue.builder().n(Long.toString(System.currentTimeMillis())).build());
+        if (checkpoint.getLastEvaluatedKey() != null) {
+            item.put("lastEvaluatedKey", AttributeValue.builder().m(checkpoint.getLastEvaluatedKey()).build());
+        }
+        ddb.putItem(PutItemRequest.builder().tableName(TABLE_NAME).item(item).build());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.lambda.migration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// CheckpointStore for tests and local dry runs
+public class InMemoryCheckpointStore implements CheckpointStore {
+
+    private final Map<String, SegmentCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public SegmentCheckpoint load(String migration, int segment) {
+        return checkpoints.get(migration + "#" + segment);
+    }
+
+    @Override
+    public void save(String migration, int segment, SegmentCheckpoint checkpoint) {
+        checkpoints.put(migration + "#" + segment, checkpoint);
+    }
+}
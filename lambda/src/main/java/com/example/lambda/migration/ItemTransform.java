@@ -0,0 +1,15 @@
+package com.example.lambda.migration;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+// One migration step applied to every item of a table. Given the item as read, return it as it should be
+// stored, or null to leave it alone. The runner writes only the attributes that differ, and only if they
+// still hold what was read, so a transform must be idempotent: it is re-run on items already migrated after
+// a resume, and on the fresh copy when a live write got there first. Key attributes must not change.
+@FunctionalInterface
+public interface ItemTransform {
+
+    Map<String, AttributeValue> apply(Map<String, AttributeValue> item);
+}
@@ -0,0 +1,72 @@
+package com.example.lambda.migration;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+// Counters for one run of a migration, updated by every segment worker
+public class MigrationReport {
+
+    final AtomicLong scanned = new AtomicLong();
+    final AtomicLong changed = new AtomicLong();      // Items the transform changed (written, or would be in a dry run)
+    final AtomicLong written = new AtomicLong();
+    final AtomicLong retried = new AtomicLong();      // Writes that lost to a live write and were redone on a fresh read
+    final AtomicLong conflicts = new AtomicLong();    // Items still contended after every attempt; a rerun picks them up
+    final AtomicLong vanished = new AtomicLong();     // Items deleted between the scan and the write
+    final AtomicLong segmentsSkipped = new AtomicLong();
+    final AtomicLong segmentsFailed = new AtomicLong();
+    final DoubleAdder readCapacity = new DoubleAdder();
+    final DoubleAdder writeCapacity = new DoubleAdder();
+
+    public long getScanned() {
+        return scanned.get();
+    }
+
+    public long getChanged() {
+        return changed.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getRetried() {
+        return retried.get();
+    }
+
+    public long getConflicts() {
+        return conflicts.get();
+    }
+
+    public long getVanished() {
+        return vanished.get();
+    }
+
+    public long getSegmentsSkipped() {
+        return segmentsSkipped.get();
+    }
+
+    public long getSegmentsFailed() {
+        return segmentsFailed.get();
+    }
+
+    public double getReadCapacity() {
+        return readCapacity.sum();
+    }
+
+    public double getWriteCapacity() {
+        return writeCapacity.sum();
+    }
+
+    // True when every segment finished and no item was left behind
+    public boolean isComplete() {
+        return segmentsFailed.get() == 0 && conflicts.get() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("scanned=%d changed=%d written=%d retried=%d conflicts=%d vanished=%d "
+                        + "segmentsSkipped=%d segmentsFailed=%d readCapacity=%.1f writeCapacity=%.1f",
+                getScanned(), getChanged(), getWritten(), getRetried(), getConflicts(), getVanished(),
+                getSegmentsSkipped(), getSegmentsFailed(), getReadCapacity(), getWriteCapacity());
+    }
+}
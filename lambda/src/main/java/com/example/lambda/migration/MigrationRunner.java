@@ -0,0 +1,288 @@
+package com.example.lambda.migration;
+
+import com.example.lambda.util.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+
+// Applies an ItemTransform to every item of a table while it stays online.
+//
+// The table is read with a parallel scan, one worker per segment. Each changed item is written with an
+// UpdateItem that touches only the attributes the transform changed, conditional on those attributes still
+// holding what was read (and on the item still existing). A live write that lands in between fails the
+// condition; the item is then re-read and transformed again, so production writes are never clobbered.
+//
+// Reads and writes are paced against separate capacity budgets (units per second) with the same token
+// bucket the API uses for clients, charged with the capacity DynamoDB reports, so a migration cannot take
+// the capacity production traffic needs. After every page a segment saves its lastEvaluatedKey; a rerun with
+// the same migration name resumes each segment from there and skips finished ones. Transforms must be
+// idempotent, since the page in flight at a crash is transformed again.
+//
+// A dry run scans and transforms but writes nothing, not even checkpoints, and logs a few sample changes.
+public class MigrationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationRunner.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int DRY_RUN_SAMPLES = 5;
+    private static final String BUDGET = "migration";
+    // The token bucket stores at most ~8388 tokens; a larger budget still refills at its full rate
+    private static final double MAX_BURST = 8000;
+
+    private final DynamoDbClient ddb;
+    private final String tableName;
+    private final List<String> keyAttributes;
+    private final CheckpointStore checkpoints;
+    private final int segments;
+    private final int pageSize;
+    private final boolean dryRun;
+    private final RateLimiter readBudget;
+    private final RateLimiter writeBudget;
+    private final AtomicInteger samplesLogged = new AtomicInteger();
+
+    public MigrationRunner(DynamoDbClient ddb, String tableName, List<String> keyAttributes, CheckpointStore checkpoints,
+                           int segments, int pageSize, double readCapacityPerSecond, double writeCapacityPerSecond,
+                           boolean dryRun) {
+        if (segments < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("segments and pageSize must be positive");
+        }
+        this.ddb = ddb;
+        this.tableName = tableName;
+        this.keyAttributes = List.copyOf(keyAttributes);
+        this.checkpoints = checkpoints;
+        this.segments = segments;
+        this.pageSize = pageSize;
+        this.dryRun = dryRun;
+        this.readBudget = budget(readCapacityPerSecond);
+        this.writeBudget = budget(writeCapacityPerSecond);
+    }
+
+    public MigrationReport run(String migration, ItemTransform transform) {
+        // Segment numbers only line up with the segment count they were started with
+        if (!dryRun) {
+            for (int segment = 0; segment < segments; segment++) {
+                SegmentCheckpoint checkpoint = checkpoints.load(migration, segment);
+                if (checkpoint != null && checkpoint.getTotalSegments() != segments) {
+                    throw new IllegalStateException("Migration " + migration + " was started with "
+                            + checkpoint.getTotalSegments() + " segments, not " + segments);
+                }
+            }
+        }
+
+        logger.info("{} {} on {} with {} segments", dryRun ? "Dry run of" : "Running", migration, tableName, segments);
+        MigrationReport report = new MigrationReport();
+        ExecutorService workers = Executors.newFixedThreadPool(segments);
+        for (int segment = 0; segment < segments; segment++) {
+            int current = segment;
+            workers.submit(() -> {
+                try {
+                    runSegment(migration, transform, current, report);
+                } catch (RuntimeException e) {
+                    // The last saved checkpoint stands, so a rerun continues this segment from its last full page
+                    report.segmentsFailed.incrementAndGet();
+                    logger.error("Segment {} of {} failed", current, migration, e);
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("{} {}: {}", migration, dryRun ? "dry run finished" : "finished", report);
+        return report;
+    }
+
+    private void runSegment(String migration, ItemTransform transform, int segment, MigrationReport report) {
+        SegmentCheckpoint checkpoint = dryRun ? null : checkpoints.load(migration, segment);
+        if (checkpoint != null && checkpoint.isDone()) {
+            report.segmentsSkipped.incrementAndGet();
+            return;
+        }
+        Map<String, AttributeValue> startKey = checkpoint == null ? null : checkpoint.getLastEvaluatedKey();
+        do {
+            ScanResponse page = ddb.scan(ScanRequest.builder()
+                    .tableName(tableName)
+                    .segment(segment)
+                    .totalSegments(segments)
+                    .limit(pageSize)
+                    .exclusiveStartKey(startKey)
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build());
+            // Without a reported figure, assume small items read eventually consistent (half a unit each)
+            charge(readBudget, report.readCapacity, page.consumedCapacity(), Math.max(1, page.items().size() * 0.5));
+
+            for (Map<String, AttributeValue> item : page.items()) {
+                report.scanned.incrementAndGet();
+                migrateItem(transform, item, report);
+            }
+
+            startKey = page.hasLastEvaluatedKey() && !page.lastEvaluatedKey().isEmpty() ? page.lastEvaluatedKey() : null;
+            if (!dryRun) {
+                checkpoints.save(migration, segment, new SegmentCheckpoint(segments, startKey, startKey == null));
+            }
+        } while (startKey != null);
+    }
+
+    private void migrateItem(ItemTransform transform, Map<String, AttributeValue> item, MigrationReport report) {
+        Map<String, AttributeValue> current = item;
+        for (int attempt = 1; ; attempt++) {
+            Map<String, AttributeValue> target = transform.apply(current);
+            if (target == null || target.equals(current)) {
+                return;
+            }
+            for (String key : keyAttributes) {
+                if (!Objects.equals(current.get(key), target.get(key))) {
+                    throw new IllegalStateException("Transform changed key attribute " + key);
+                }
+            }
+            if (attempt == 1) {
+                report.changed.incrementAndGet();
+            }
+            if (dryRun) {
+                if (samplesLogged.getAndIncrement() < DRY_RUN_SAMPLES) {
+                    logger.info("Would update {}: {}", keyOf(current), changedAttributes(current, target));
+                }
+                return;
+            }
+
+            try {
+                write(current, target, report);
+                report.written.incrementAndGet();
+                return;
+            } catch (ConditionalCheckFailedException e) {
+                // A failed condition still costs a write
+                charge(writeBudget, report.writeCapacity, null, 1);
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    report.conflicts.incrementAndGet();
+                    logger.warn("Gave up on {} after {} conflicting writes", keyOf(current), attempt);
+                    return;
+                }
+                report.retried.incrementAndGet();
+                GetItemResponse fresh = ddb.getItem(GetItemRequest.builder()
+                        .tableName(tableName)
+                        .key(keyOf(current))
+                        .consistentRead(true)
+                        .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                        .build());
+                charge(readBudget, report.readCapacity, fresh.consumedCapacity(), 1);
+                if (!fresh.hasItem() || fresh.item().isEmpty()) {
+                    report.vanished.incrementAndGet();
+                    return;
+                }
+                current = fresh.item();
+            }
+        }
+    }
+
+    // SET the attributes the transform added or changed and REMOVE the ones it dropped, provided each still
+    // holds its value as read
+    private void write(Map<String, AttributeValue> current, Map<String, AttributeValue> target, MigrationReport report) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> sets = new ArrayList<>();
+        List<String> removes = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+
+        names.put("#k0", keyAttributes.get(0));
+        conditions.add("attribute_exists(#k0)");
+
+        int i = 0;
+        for (String attribute : changedAttributes(current, target)) {
+            String name = "#a" + i;
+            names.put(name, attribute);
+            AttributeValue before = current.get(attribute);
+            AttributeValue after = target.get(attribute);
+            if (after == null) {
+                removes.add(name);
+            } else {
+                sets.add(name + " = :v" + i);
+                values.put(":v" + i, after);
+            }
+            if (before == null) {
+                conditions.add("attribute_not_exists(" + name + ")");
+            } else {
+                conditions.add(name + " = :o" + i);
+                values.put(":o" + i, before);
+            }
+            i++;
+        }
+
+        String update = (sets.isEmpty() ? "" : "SET " + String.join(", ", sets))
+                + (removes.isEmpty() ? "" : (sets.isEmpty() ? "" : " ") + "REMOVE " + String.join(", ", removes));
+        UpdateItemResponse response = ddb.updateItem(UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(keyOf(current))
+                .updateExpression(update)
+                .conditionExpression(String.join(" AND ", conditions))
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values.isEmpty() ? null : values)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .build());
+        charge(writeBudget, report.writeCapacity, response.consumedCapacity(), 1);
+    }
+
+    private Set<String> changedAttributes(Map<String, AttributeValue> current, Map<String, AttributeValue> target) {
+        Set<String> attributes = new LinkedHashSet<>(current.keySet());
+        attributes.addAll(target.keySet());
+        attributes.removeIf(attribute -> keyAttributes.contains(attribute)
+                || Objects.equals(current.get(attribute), target.get(attribute)));
+        return attributes;
+    }
+
+    private Map<String, AttributeValue> keyOf(Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        for (String attribute : keyAttributes) {
+            key.put(attribute, item.get(attribute));
+        }
+        return key;
+    }
+
+    // Record what a request consumed and wait until the budget has room for it again
+    private static void charge(RateLimiter budget, DoubleAdder total, ConsumedCapacity consumed, double estimate) {
+        double units = consumed != null && consumed.capacityUnits() != null ? consumed.capacityUnits() : estimate;
+        total.add(units);
+        try {
+            long waitMillis;
+            while ((waitMillis = budget.tryAcquire(BUDGET, units)) > 0) {
+                Thread.sleep(waitMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for capacity", e);
+        }
+    }
+
+    private static RateLimiter budget(double unitsPerSecond) {
+        if (unitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity budgets must be positive");
+        }
+        return new RateLimiter(1, Math.min(unitsPerSecond, MAX_BURST), unitsPerSecond, System::currentTimeMillis);
+    }
+}
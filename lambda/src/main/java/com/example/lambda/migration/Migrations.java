@@ -0,0 +1,112 @@
+package com.example.lambda.migration;
+
+import com.example.lambda.dao.ReviewShardStore;
+import com.example.lambda.util.ReviewListAttributeConverter;
+import com.example.lambda.util.StringListAttributeConverter;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The Courses table migrations, runnable from a workstation or a one-off task:
+//
+//   java -cp target/lambda-1.0-SNAPSHOT.jar com.example.lambda.migration.Migrations <name>
+//        [--dry-run] [--segments 8] [--read-capacity 200] [--write-capacity 100]
+//
+//   native-lists        rewrite aliases, prerequisites, professors and reviews stored as JSON strings as native lists
+//   backfill-updated-at give items written before updatedAt existed one, so delta sync reports them once
+//
+// Progress is kept in MigrationCheckpoints under the migration name; rerunning the same command resumes it.
+public class Migrations {
+
+    static final List<String> COURSE_KEY = List.of("name", "code");
+
+    private Migrations() {
+    }
+
+    public static ItemTransform named(String name, long now) {
+        switch (name) {
+            case "native-lists":
+                return nativeLists();
+            case "backfill-updated-at":
+                return backfillUpdatedAt(now);
+            default:
+                throw new IllegalArgumentException("Unknown migration " + name);
+        }
+    }
+
+    // Re-encode legacy JSON string lists with the native converters; items already migrated are left alone
+    static ItemTransform nativeLists() {
+        StringListAttributeConverter strings = new StringListAttributeConverter(false);
+        ReviewListAttributeConverter reviews = new ReviewListAttributeConverter(false);
+        return item -> {
+            Map<String, AttributeValue> migrated = new HashMap<>(item);
+            for (String attribute : List.of("aliases", "prerequisites", "professors")) {
+                AttributeValue value = item.get(attribute);
+                if (value != null && value.s() != null) {
+                    migrated.put(attribute, strings.transformFrom(strings.transformTo(value)));
+                }
+            }
+            AttributeValue value = item.get("reviews");
+            if (value != null && value.s() != null) {
+                migrated.put("reviews", reviews.transformFrom(reviews.transformTo(value)));
+            }
+            return migrated;
+        };
+    }
+
+    static ItemTransform backfillUpdatedAt(long now) {
+        return item -> {
+            if (item.containsKey("updatedAt")) {
+                return null;
+            }
+            Map<String, AttributeValue> migrated = new HashMap<>(item);
+            migrated.put("updatedAt", AttributeValue.builder().n(Long.toString(now)).build());
+            return migrated;
+        };
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: Migrations <native-lists|backfill-updated-at> [--dry-run] [--segments N]"
+                    + " [--read-capacity UNITS] [--write-capacity UNITS]");
+            System.exit(2);
+        }
+        String name = args[0];
+        boolean dryRun = false;
+        int segments = 8;
+        double readCapacity = 200;
+        double writeCapacity = 100;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dry-run":
+                    dryRun = true;
+                    break;
+                case "--segments":
+                    segments = Integer.parseInt(args[++i]);
+                    break;
+                case "--read-capacity":
+                    readCapacity = Double.parseDouble(args[++i]);
+                    break;
+                case "--write-capacity":
+                    writeCapacity = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        DynamoDbClient ddb = DynamoDbClient.builder()
+                .region(Region.US_EAST_1)
+                .build();
+        MigrationRunner runner = new MigrationRunner(ddb, ReviewShardStore.COURSES_TABLE, COURSE_KEY,
+                new DynamoDbCheckpointStore(ddb), segments, MigrationRunner.DEFAULT_PAGE_SIZE,
+                readCapacity, writeCapacity, dryRun);
+        MigrationReport report = runner.run(name, named(name, System.currentTimeMillis()));
+        System.out.println(report);
+        System.exit(report.isComplete() ? 0 : 1);
+    }
+}
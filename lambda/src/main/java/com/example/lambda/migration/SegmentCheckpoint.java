@@ -0,0 +1,32 @@
+package com.example.lambda.migration;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+// Progress of one scan segment: the key to resume after (null before the first page) and whether it is done.
+// totalSegments is recorded because a segment number only means something for the count it was started with.
+public class SegmentCheckpoint {
+
+    private final int totalSegments;
+    private final Map<String, AttributeValue> lastEvaluatedKey;
+    private final boolean done;
+
+    public SegmentCheckpoint(int totalSegments, Map<String, AttributeValue> lastEvaluatedKey, boolean done) {
+        this.totalSegments = totalSegments;
+        this.lastEvaluatedKey = lastEvaluatedKey;
+        this.done = done;
+    }
+
+    public int getTotalSegments() {
+        return totalSegments;
+    }
+
+    public Map<String, AttributeValue> getLastEvaluatedKey() {
+        return lastEvaluatedKey;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+}
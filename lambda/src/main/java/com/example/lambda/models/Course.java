@@ -1,9 +1,15 @@
 package com.example.lambda.models;
 
+import com.example.lambda.util.ReviewListAttributeConverter;
+import com.example.lambda.util.StringListAttributeConverter;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
+
+import java.util.List;
 
 @DynamoDbBean
 public class Course {
@@ -13,36 +19,59 @@ public class Course {
     private String createdBy;
     private String createdAt;
     private String description;
-    private String aliases;
-    private String prerequisites;
-    private String reviews;
+    // List attributes are native L items; legacy items holding JSON strings are still read (see ListAttributeConverter)
+    private List<String> aliases;
+    private List<String> prerequisites;
+    private List<Review> reviews;
     private String title;
-    private String professors;
+    private List<String> professors;
+    private Integer reviewShards;  // Set once the course's reviews have moved to CourseReviewShards
+    private Long updatedAt;        // Epoch millis of the last write through CourseDao
 
     @DynamoDbSortKey
+    @DynamoDbSecondaryPartitionKey(indexNames = "CodeIndex")
     @DynamoDbAttribute("code")
     public String getCode() {
         return code;
     }
 
-    public String getProfessors() {
+    @DynamoDbConvertedBy(StringListAttributeConverter.class)
+    public List<String> getProfessors() {
         return professors;
     }
 
-    public void setProfessors(String professors) {
+    public void setProfessors(List<String> professors) {
         this.professors = professors;
     }
 
+    public Integer getReviewShards() {
+        return reviewShards;
+    }
+
+    public void setReviewShards(Integer reviewShards) {
+        this.reviewShards = reviewShards;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public void setCode(String code) {
         this.code = code;
     }
 
     @DynamoDbPartitionKey
+    @DynamoDbSecondaryPartitionKey(indexNames = "NameIndex")
     @DynamoDbAttribute("name")
     public String getName() {
         return name;
     }
 
+    @DynamoDbSecondaryPartitionKey(indexNames = "TitleIndex")
     public String getTitle() {
         return title;
     }
@@ -63,6 +92,7 @@ public class Course {
         this.courseId = courseId;
     }
 
+    @DynamoDbSecondaryPartitionKey(indexNames = "CreatedByIndex")
     public String getCreatedBy() {
         return createdBy;
     }
@@ -87,27 +117,30 @@ public class Course {
         this.description = description;
     }
 
-    public String getAliases() {
+    @DynamoDbConvertedBy(StringListAttributeConverter.class)
+    public List<String> getAliases() {
         return aliases;
     }
 
-    public void setAliases(String aliases) {
+    public void setAliases(List<String> aliases) {
         this.aliases = aliases;
     }
 
-    public String getPrerequisites() {
+    @DynamoDbConvertedBy(StringListAttributeConverter.class)
+    public List<String> getPrerequisites() {
         return prerequisites;
     }
 
-    public void setPrerequisites(String prerequisites) {
+    public void setPrerequisites(List<String> prerequisites) {
         this.prerequisites = prerequisites;
     }
 
-    public String getReviews() {
+    @DynamoDbConvertedBy(ReviewListAttributeConverter.class)
+    public List<Review> getReviews() {
         return reviews;
     }
 
-    public void setReviews(String reviews) {
+    public void setReviews(List<Review> reviews) {
         this.reviews = reviews;
     }
 
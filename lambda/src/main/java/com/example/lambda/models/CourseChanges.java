@@ -0,0 +1,65 @@
+package com.example.lambda.models;
+
+import java.util.List;
+
+// Response of GET /courses/changes: everything that changed after `since`, up to `nextSince`
+public class CourseChanges {
+    private String since;
+    private String nextSince;            // Pass back as ?since= on the next sync
+    private boolean hasMore;             // More changes are waiting; sync again right away with nextSince
+    private List<CourseOutput> upserted;
+    private List<CourseTombstone> deleted;
+
+    public CourseChanges() {
+        // Default constructor
+    }
+
+    public CourseChanges(String since, String nextSince, boolean hasMore,
+                         List<CourseOutput> upserted, List<CourseTombstone> deleted) {
+        this.since = since;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+        this.upserted = upserted;
+        this.deleted = deleted;
+    }
+
+    public String getSince() {
+        return since;
+    }
+
+    public void setSince(String since) {
+        this.since = since;
+    }
+
+    public String getNextSince() {
+        return nextSince;
+    }
+
+    public void setNextSince(String nextSince) {
+        this.nextSince = nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<CourseOutput> getUpserted() {
+        return upserted;
+    }
+
+    public void setUpserted(List<CourseOutput> upserted) {
+        this.upserted = upserted;
+    }
+
+    public List<CourseTombstone> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<CourseTombstone> deleted) {
+        this.deleted = deleted;
+    }
+}
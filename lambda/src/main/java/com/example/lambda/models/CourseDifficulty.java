@@ -0,0 +1,51 @@
+package com.example.lambda.models;
+
+public class CourseDifficulty {
+    private String name;
+    private String code;
+    private int reviewCount;
+    private double averageDifficulty;
+
+    public CourseDifficulty() {
+        // Default constructor
+    }
+
+    public CourseDifficulty(String name, String code, int reviewCount, double averageDifficulty) {
+        this.name = name;
+        this.code = code;
+        this.reviewCount = reviewCount;
+        this.averageDifficulty = averageDifficulty;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(int reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public double getAverageDifficulty() {
+        return averageDifficulty;
+    }
+
+    public void setAverageDifficulty(double averageDifficulty) {
+        this.averageDifficulty = averageDifficulty;
+    }
+}
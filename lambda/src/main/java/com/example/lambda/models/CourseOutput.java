@@ -14,6 +14,11 @@ public class CourseOutput {
     private List<Review> reviews;
     private String title;
     private List<String> professors;
+    private Integer reviewCount;        // Set on detail responses, where reviews holds only the first page
+    private String nextReviewCursor;    // Cursor for GET /reviews to continue after that first page
+    private Long updatedAt;             // Epoch millis of the last write
+    private Double score;               // BM25 relevance, set only on ranked /search results
+    private transient Integer reviewShards;  // Storage detail, never serialized: reviews live in N shards when set
 
     public CourseOutput() {
         // Default constructor
@@ -100,6 +105,46 @@ public class CourseOutput {
         this.prerequisites = prerequisites;
     }
 
+    public Integer getReviewShards() {
+        return reviewShards;
+    }
+
+    public void setReviewShards(Integer reviewShards) {
+        this.reviewShards = reviewShards;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Integer getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(Integer reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public String getNextReviewCursor() {
+        return nextReviewCursor;
+    }
+
+    public void setNextReviewCursor(String nextReviewCursor) {
+        this.nextReviewCursor = nextReviewCursor;
+    }
+
     public List<Review> getReviews() {
         return reviews;
     }
@@ -0,0 +1,42 @@
+package com.example.lambda.models;
+
+// A course deleted since the client's last sync
+public class CourseTombstone {
+    private String name;
+    private String code;
+    private long deletedAt;   // Epoch millis the deletion was logged
+
+    public CourseTombstone() {
+        // Default constructor
+    }
+
+    public CourseTombstone(String name, String code, long deletedAt) {
+        this.name = name;
+        this.code = code;
+        this.deletedAt = deletedAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public long getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(long deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
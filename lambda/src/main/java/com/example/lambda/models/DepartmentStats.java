@@ -0,0 +1,83 @@
+package com.example.lambda.models;
+
+import java.util.List;
+import java.util.Map;
+
+public class DepartmentStats {
+    private String department;                 // Prefix of the course code, e.g. "CSDS"
+    private int courseCount;
+    private long reviewCount;
+    private Double averageOverall;             // Null when no review in the department rated it
+    private Double averageDifficulty;
+    private Double averageUsefulness;
+    private Map<String, Long> reviewsByMajor;  // Most reviewed first
+    private List<CourseDifficulty> hardestCourses;
+
+    public DepartmentStats() {
+        // Default constructor
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    public void setCourseCount(int courseCount) {
+        this.courseCount = courseCount;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public Double getAverageOverall() {
+        return averageOverall;
+    }
+
+    public void setAverageOverall(Double averageOverall) {
+        this.averageOverall = averageOverall;
+    }
+
+    public Double getAverageDifficulty() {
+        return averageDifficulty;
+    }
+
+    public void setAverageDifficulty(Double averageDifficulty) {
+        this.averageDifficulty = averageDifficulty;
+    }
+
+    public Double getAverageUsefulness() {
+        return averageUsefulness;
+    }
+
+    public void setAverageUsefulness(Double averageUsefulness) {
+        this.averageUsefulness = averageUsefulness;
+    }
+
+    public Map<String, Long> getReviewsByMajor() {
+        return reviewsByMajor;
+    }
+
+    public void setReviewsByMajor(Map<String, Long> reviewsByMajor) {
+        this.reviewsByMajor = reviewsByMajor;
+    }
+
+    public List<CourseDifficulty> getHardestCourses() {
+        return hardestCourses;
+    }
+
+    public void setHardestCourses(List<CourseDifficulty> hardestCourses) {
+        this.hardestCourses = hardestCourses;
+    }
+}
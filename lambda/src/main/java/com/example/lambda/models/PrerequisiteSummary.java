@@ -0,0 +1,55 @@
+package com.example.lambda.models;
+
+import java.util.List;
+
+public class PrerequisiteSummary {
+    private String code;
+    private List<String> prerequisites;     // Direct prerequisites
+    private List<String> allPrerequisites;  // Everything needed before the course, transitively
+    private List<String> unlocks;           // Courses that list this one directly
+    private List<String> allUnlocks;        // Everything this course eventually leads to
+
+    public PrerequisiteSummary() {
+        // Default constructor
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public List<String> getPrerequisites() {
+        return prerequisites;
+    }
+
+    public void setPrerequisites(List<String> prerequisites) {
+        this.prerequisites = prerequisites;
+    }
+
+    public List<String> getAllPrerequisites() {
+        return allPrerequisites;
+    }
+
+    public void setAllPrerequisites(List<String> allPrerequisites) {
+        this.allPrerequisites = allPrerequisites;
+    }
+
+    public List<String> getUnlocks() {
+        return unlocks;
+    }
+
+    public void setUnlocks(List<String> unlocks) {
+        this.unlocks = unlocks;
+    }
+
+    public List<String> getAllUnlocks() {
+        return allUnlocks;
+    }
+
+    public void setAllUnlocks(List<String> allUnlocks) {
+        this.allUnlocks = allUnlocks;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.lambda.models;
+
+public class ProfessorCourse {
+    private String name;
+    private String code;
+    private String title;
+    private int reviewCount;
+    private Double averageOverall;
+    private Double averageDifficulty;
+    private Double averageUsefulness;
+
+    public ProfessorCourse() {
+        // Default constructor
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(int reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public Double getAverageOverall() {
+        return averageOverall;
+    }
+
+    public void setAverageOverall(Double averageOverall) {
+        this.averageOverall = averageOverall;
+    }
+
+    public Double getAverageDifficulty() {
+        return averageDifficulty;
+    }
+
+    public void setAverageDifficulty(Double averageDifficulty) {
+        this.averageDifficulty = averageDifficulty;
+    }
+
+    public Double getAverageUsefulness() {
+        return averageUsefulness;
+    }
+
+    public void setAverageUsefulness(Double averageUsefulness) {
+        this.averageUsefulness = averageUsefulness;
+    }
+
+    @Override
+    public String toString() {
+        return "ProfessorCourse{" +
+                "title='" + title + '\'' +
+                ", reviewCount=" + reviewCount +
+                ", averageOverall=" + averageOverall +
+                ", averageDifficulty=" + averageDifficulty +
+                ", averageUsefulness=" + averageUsefulness +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.lambda.models;
+
+import java.util.List;
+
+public class ProfessorCourses {
+    private String professor;
+    private List<ProfessorCourse> courses;
+
+    public ProfessorCourses() {
+        // Default constructor
+    }
+
+    public ProfessorCourses(String professor, List<ProfessorCourse> courses) {
+        this.professor = professor;
+        this.courses = courses;
+    }
+
+    public String getProfessor() {
+        return professor;
+    }
+
+    public void setProfessor(String professor) {
+        this.professor = professor;
+    }
+
+    public List<ProfessorCourse> getCourses() {
+        return courses;
+    }
+
+    public void setCourses(List<ProfessorCourse> courses) {
+        this.courses = courses;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.lambda.models;
+
+import java.util.List;
+
+public class ReviewPage {
+    private List<Review> reviews;
+    private int reviewCount;     // Total reviews on the course, not just this page
+    private String sort;
+    private String nextCursor;   // Null on the last page
+
+    public ReviewPage() {
+        // Default constructor
+    }
+
+    public ReviewPage(List<Review> reviews, int reviewCount, String sort, String nextCursor) {
+        this.reviews = reviews;
+        this.reviewCount = reviewCount;
+        this.sort = sort;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Review> getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(List<Review> reviews) {
+        this.reviews = reviews;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(int reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.lambda.models;
+
+import java.util.List;
+
+public class ReviewSearchHit {
+    private String name;
+    private String code;
+    private String title;
+    private int matchCount;                // Matching reviews on the course; snippets holds at most a few
+    private List<ReviewSnippet> snippets;
+
+    public ReviewSearchHit() {
+        // Default constructor
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public void setMatchCount(int matchCount) {
+        this.matchCount = matchCount;
+    }
+
+    public List<ReviewSnippet> getSnippets() {
+        return snippets;
+    }
+
+    public void setSnippets(List<ReviewSnippet> snippets) {
+        this.snippets = snippets;
+    }
+}
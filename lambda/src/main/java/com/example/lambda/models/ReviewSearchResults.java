@@ -0,0 +1,53 @@
+package com.example.lambda.models;
+
+import java.util.List;
+
+public class ReviewSearchResults {
+    private String query;
+    private int courseCount;             // Courses with at least one matching review, across all pages
+    private List<ReviewSearchHit> results;
+    private Integer nextOffset;          // Null on the last page
+
+    public ReviewSearchResults() {
+        // Default constructor
+    }
+
+    public ReviewSearchResults(String query, int courseCount, List<ReviewSearchHit> results, Integer nextOffset) {
+        this.query = query;
+        this.courseCount = courseCount;
+        this.results = results;
+        this.nextOffset = nextOffset;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    public void setCourseCount(int courseCount) {
+        this.courseCount = courseCount;
+    }
+
+    public List<ReviewSearchHit> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ReviewSearchHit> results) {
+        this.results = results;
+    }
+
+    public Integer getNextOffset() {
+        return nextOffset;
+    }
+
+    public void setNextOffset(Integer nextOffset) {
+        this.nextOffset = nextOffset;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.lambda.models;
+
+import java.util.List;
+
+public class ReviewSnippet {
+    private String reviewId;
+    private String field;              // "tips" or "additionalComments"
+    private String text;               // Excerpt around the first match
+    private List<int[]> highlights;    // [start, end) character ranges of matched words within text
+
+    public ReviewSnippet() {
+        // Default constructor
+    }
+
+    public ReviewSnippet(String reviewId, String field, String text, List<int[]> highlights) {
+        this.reviewId = reviewId;
+        this.field = field;
+        this.text = text;
+        this.highlights = highlights;
+    }
+
+    public String getReviewId() {
+        return reviewId;
+    }
+
+    public void setReviewId(String reviewId) {
+        this.reviewId = reviewId;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public List<int[]> getHighlights() {
+        return highlights;
+    }
+
+    public void setHighlights(List<int[]> highlights) {
+        this.highlights = highlights;
+    }
+}
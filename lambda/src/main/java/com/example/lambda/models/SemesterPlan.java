@@ -0,0 +1,43 @@
+package com.example.lambda.models;
+
+import java.util.List;
+
+public class SemesterPlan {
+    private String code;
+    private int maxPerSemester;
+    private List<List<String>> semesters;
+
+    public SemesterPlan() {
+        // Default constructor
+    }
+
+    public SemesterPlan(String code, int maxPerSemester, List<List<String>> semesters) {
+        this.code = code;
+        this.maxPerSemester = maxPerSemester;
+        this.semesters = semesters;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public int getMaxPerSemester() {
+        return maxPerSemester;
+    }
+
+    public void setMaxPerSemester(int maxPerSemester) {
+        this.maxPerSemester = maxPerSemester;
+    }
+
+    public List<List<String>> getSemesters() {
+        return semesters;
+    }
+
+    public void setSemesters(List<List<String>> semesters) {
+        this.semesters = semesters;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.lambda.models;
+
+public class SimilarCourse {
+    private String name;
+    private String code;
+    private String title;
+    private double score;  // Cosine similarity of the two courses' TF-IDF vectors, 0..1
+
+    public SimilarCourse() {
+        // Default constructor
+    }
+
+    public SimilarCourse(String name, String code, String title, double score) {
+        this.name = name;
+        this.code = code;
+        this.title = title;
+        this.score = score;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.lambda.streams;
+
+import com.example.lambda.models.DepartmentStats;
+
+import java.util.List;
+
+// Persistence for the views derived from the Courses and CourseReviewShards streams: the course change log and
+// the department stats behind GET /stats
+public interface AggregateStore {
+
+    // Append an entry to the course change log
+    void recordChange(CourseChange change);
+
+    // Change log entries positioned after `after` and recorded no later than `until`, oldest first, at most limit
+    List<CourseChange> findChanges(String after, long until, int limit);
+
+    // Add a delta to the course, its department and its majors, all together and at most once per stream
+    // sequence number of the changed item (`source` names it, e.g. "Courses#<name>#<code>")
+    void applyStats(String source, String sequenceNumber, StatsDelta delta);
+
+    // Stats for every department that has courses, in department order
+    List<DepartmentStats> getDepartmentStats();
+
+    // Stats for one department prefix, or null if it has no courses
+    DepartmentStats getDepartmentStats(String department);
+}
@@ -0,0 +1,71 @@
+package com.example.lambda.streams;
+
+// One entry of the course change log: a course was upserted or deleted at changedAt (when the log recorded it).
+// Entries are ordered by position, "<13-digit changedAt>#<name>#<code>", which is also the sync cursor.
+public class CourseChange {
+
+    public static final int DEFAULT_RETENTION_DAYS = 30;
+
+    private final String name;
+    private final String code;
+    private final boolean deleted;
+    private final long changedAt;
+
+    public CourseChange(String name, String code, boolean deleted, long changedAt) {
+        this.name = name;
+        this.code = code;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public long getChangedAt() {
+        return changedAt;
+    }
+
+    public String getCourseKey() {
+        return name + "#" + code;
+    }
+
+    public String getPosition() {
+        return timestamp(changedAt) + "#" + getCourseKey();
+    }
+
+    // Sorts after every entry recorded at or before millis ('$' follows the '#' separator)
+    public static String positionAfter(long millis) {
+        return timestamp(millis) + "$";
+    }
+
+    // The changedAt a position starts with
+    public static long millisOf(String position) {
+        return Long.parseLong(position.substring(0, 13));
+    }
+
+    // True for strings shaped like a position, i.e. a cursor handed out by a previous sync
+    public static boolean isPosition(String value) {
+        if (value == null || value.length() < 14 || (value.charAt(13) != '#' && value.charAt(13) != '$')) {
+            return false;
+        }
+        for (int i = 0; i < 13; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String timestamp(long millis) {
+        return String.format("%013d", millis);
+    }
+}
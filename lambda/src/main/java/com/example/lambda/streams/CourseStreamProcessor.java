@@ -0,0 +1,112 @@
+package com.example.lambda.streams;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import com.example.lambda.dao.ReviewShardStore;
+import com.example.lambda.models.Review;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// Applies Courses and CourseReviewShards stream records to the views derived from them: the course change log read
+// by delta sync (GET /courses/changes) and the department stats read by GET /stats. Each record costs one change
+// log put and at most one small stats transaction, independent of catalog size. Hot courses keep their reviews
+// in CourseReviewShards, so their review changes arrive on that table's stream rather than in Courses images.
+public class CourseStreamProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseStreamProcessor.class);
+
+    private final AggregateStore store;
+    private final LongSupplier clock;
+
+    public CourseStreamProcessor(AggregateStore store) {
+        this(store, System::currentTimeMillis);
+    }
+
+    public CourseStreamProcessor(AggregateStore store, LongSupplier clock) {
+        this.store = store;
+        this.clock = clock;
+    }
+
+    // Process records in order and return the sequence number of the first failure, or null if all succeeded.
+    // Stopping at the first failure keeps per-course ordering intact when Lambda retries from that record.
+    public String process(List<DynamodbEvent.DynamodbStreamRecord> records) {
+        if (records == null) {
+            return null;
+        }
+        for (DynamodbEvent.DynamodbStreamRecord record : records) {
+            try {
+                apply(record);
+            } catch (Exception e) {
+                String sequenceNumber = record.getDynamodb() == null ? null : record.getDynamodb().getSequenceNumber();
+                logger.error("Failed to apply stream record {}: {}", sequenceNumber, e.getMessage());
+                return sequenceNumber;
+            }
+        }
+        return null;
+    }
+
+    public void apply(DynamodbEvent.DynamodbStreamRecord record) {
+        if (isReviewShardRecord(record)) {
+            applyShardReview(record);
+            return;
+        }
+        StreamRecord change = record.getDynamodb();
+        String name = StreamImages.string(change.getKeys(), "name");
+        String code = StreamImages.string(change.getKeys(), "code");
+        boolean removed = "REMOVE".equals(record.getEventName());
+        logger.info("Recording {} for {} at sequence {}", record.getEventName(),
+                StreamImages.courseKey(change.getKeys()), change.getSequenceNumber());
+
+        // Promoting a course to shards removes its inline reviews here and adds them back as shard records,
+        // so the two streams together never count a review twice or lose one
+        StatsDelta delta = StatsDelta.between(name, code,
+                !"INSERT".equals(record.getEventName()), StreamImages.reviews(change.getOldImage()),
+                !removed, removed ? null : StreamImages.reviews(change.getNewImage()));
+        applyStats(ReviewShardStore.COURSES_TABLE + "#" + StreamImages.courseKey(change.getKeys()),
+                change.getSequenceNumber(), delta);
+
+        // Stamped with the time it is logged rather than the item's updatedAt, so an entry delayed in the stream
+        // still lands after any sync cursor handed out before it was written. A redelivered record adds a second
+        // entry for the same course, which sync folds away.
+        store.recordChange(new CourseChange(name, code, removed, clock.getAsLong()));
+    }
+
+    // A review item in CourseReviewShards was added, replaced or deleted; shard counters are skipped, since the
+    // review images carry everything the stats need
+    private void applyShardReview(DynamodbEvent.DynamodbStreamRecord record) {
+        StreamRecord change = record.getDynamodb();
+        String pk = StreamImages.string(change.getKeys(), "pk");
+        String sk = StreamImages.string(change.getKeys(), "sk");
+        if (pk == null || sk == null || !sk.startsWith(ReviewShardStore.REVIEW_PREFIX)) {
+            return;
+        }
+        // pk is "<name>#<code>#<shard>" and codes never contain '#'
+        String courseKey = pk.substring(0, pk.lastIndexOf('#'));
+        int split = courseKey.lastIndexOf('#');
+        Review before = StreamImages.shardReview(change.getOldImage());
+        Review after = "REMOVE".equals(record.getEventName()) ? null : StreamImages.shardReview(change.getNewImage());
+        logger.info("Applying {} of review {} for {} at sequence {}", record.getEventName(),
+                sk.substring(ReviewShardStore.REVIEW_PREFIX.length()), courseKey, change.getSequenceNumber());
+
+        StatsDelta delta = StatsDelta.between(courseKey.substring(0, split), courseKey.substring(split + 1),
+                false, before == null ? null : List.of(before), false, after == null ? null : List.of(after));
+        applyStats(ReviewShardStore.TABLE_NAME + "#" + pk + "#" + sk, change.getSequenceNumber(), delta);
+    }
+
+    private void applyStats(String source, String sequenceNumber, StatsDelta delta) {
+        // Edits that leave the reviews alone change no stats and cost no write
+        if (!delta.isZero()) {
+            store.applyStats(source, sequenceNumber, delta);
+        }
+    }
+
+    // Records name their table in the event source ARN ("...:table/CourseReviewShards/stream/..."); replayed
+    // events without one are Courses records
+    static boolean isReviewShardRecord(DynamodbEvent.DynamodbStreamRecord record) {
+        String arn = record.getEventSourceARN();
+        return arn != null && arn.contains(":table/" + ReviewShardStore.TABLE_NAME + "/");
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.lambda.streams;
+
+import com.example.lambda.dao.CourseAggregate;
+import com.example.lambda.models.CourseDifficulty;
+import com.example.lambda.models.DepartmentStats;
+import com.example.lambda.util.DepartmentRollup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One department's stored totals, read back from an AggregateStore and turned into the same DepartmentStats
+// the catalog rollup reports
+class DepartmentTotals {
+
+    private final String department;
+    private final CourseAggregate totals;
+    private final Map<String, Long> reviewsByMajor;
+    private final List<CourseDifficulty> rankable = new ArrayList<>();
+
+    DepartmentTotals(String department, CourseAggregate totals, Map<String, Long> reviewsByMajor) {
+        this.department = department;
+        this.totals = totals;
+        this.reviewsByMajor = reviewsByMajor;
+    }
+
+    // A course's totals; it competes for hardest only with enough difficulty ratings
+    void addCourse(String name, String code, CourseAggregate course) {
+        if (course.getDifficultyCount() >= DepartmentRollup.MIN_RATINGS_TO_RANK) {
+            rankable.add(new CourseDifficulty(name, code, (int) course.getReviewCount(), course.getAverageDifficulty()));
+        }
+    }
+
+    boolean hasCourses() {
+        return totals.getCourseCount() > 0;
+    }
+
+    DepartmentStats toStats() {
+        DepartmentStats stats = new DepartmentStats();
+        stats.setDepartment(department);
+        stats.setCourseCount((int) totals.getCourseCount());
+        stats.setReviewCount(totals.getReviewCount());
+        stats.setAverageOverall(totals.getAverageOverall());
+        stats.setAverageDifficulty(totals.getAverageDifficulty());
+        stats.setAverageUsefulness(totals.getAverageUsefulness());
+
+        // Most reviewed major first, ties by name
+        List<Map.Entry<String, Long>> majors = new ArrayList<>();
+        reviewsByMajor.entrySet().stream().filter(entry -> entry.getValue() > 0).forEach(majors::add);
+        majors.sort((a, b) -> !a.getValue().equals(b.getValue())
+                ? Long.compare(b.getValue(), a.getValue())
+                : a.getKey().compareTo(b.getKey()));
+        Map<String, Long> byMajor = new LinkedHashMap<>();
+        majors.forEach(entry -> byMajor.put(entry.getKey(), entry.getValue()));
+        stats.setReviewsByMajor(byMajor);
+
+        stats.setHardestCourses(DepartmentRollup.hardest(rankable));
+        return stats;
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.lambda.streams;
+
+import com.example.lambda.dao.CourseAggregate;
+import com.example.lambda.models.DepartmentStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// AggregateStore backed by the "CourseAggregates" table (pk/sk), which holds four kinds of item:
+//   CHANGES#<yyyy-MM-dd> / <position>  change log, one partition per UTC day so "since" reads are range
+//                                     queries over a handful of partitions; expiresAt (TTL) drops old days
+//   DEPTS                / <prefix>    department totals plus one "major:<major>" review count per major,
+//                                     so the department list is a single partition
+//   DEPT#<prefix>        / <name>#<code>  per-course totals, read to rank the department's hardest courses
+//   SEQ#<source>         / SEQ         last stream sequence applied for one item, which makes redelivered
+//                                     records no-ops; expires once the stream could no longer redeliver it
+// Totals are only ever changed with atomic ADD deltas, so each record costs one three-item transaction.
+public class DynamoDbAggregateStore implements AggregateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbAggregateStore.class);
+
+    public static final String TABLE_NAME = "CourseAggregates";
+
+    private static final String CHANGES = "CHANGES#";
+    private static final String DEPARTMENTS = "DEPTS";
+    private static final String DEPARTMENT = "DEPT#";
+    private static final String SEQUENCE = "SEQ";
+    private static final String MAJOR = "major:";
+    // Streams keep records for 24 hours; a sequence marker outlives any redelivery by a day
+    private static final long SEQUENCE_RETENTION_SECONDS = 2 * 24 * 60 * 60;
+    private static final String TOTALS = "courseCount :courseCount, reviewCount :reviewCount, "
+            + "overallSum :overallSum, overallCount :overallCount, "
+            + "difficultySum :difficultySum, difficultyCount :difficultyCount, "
+            + "usefulnessSum :usefulnessSum, usefulnessCount :usefulnessCount";
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final DynamoDbClient ddb;
+    private final int retentionDays;
+
+    public DynamoDbAggregateStore() {
+        this(DynamoDbClient.builder()
+                .region(Region.US_EAST_1)
+                .build());
+    }
+
+    public DynamoDbAggregateStore(DynamoDbClient ddb) {
+        this(ddb, retentionDaysFromEnv());
+    }
+
+    public DynamoDbAggregateStore(DynamoDbClient ddb, int retentionDays) {
+        this.ddb = ddb;
+        this.retentionDays = retentionDays;
+    }
+
+    // CHANGE_LOG_RETENTION_DAYS, shared by the stream writer (TTL) and the API (oldest "since" it accepts)
+    public static int retentionDaysFromEnv() {
+        String value = System.getenv("CHANGE_LOG_RETENTION_DAYS");
+        if (value == null || value.isBlank()) {
+            return CourseChange.DEFAULT_RETENTION_DAYS;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid CHANGE_LOG_RETENTION_DAYS '{}', using default", value);
+            return CourseChange.DEFAULT_RETENTION_DAYS;
+        }
+    }
+
+    @Override
+    public void recordChange(CourseChange change) {
+        Map<String, AttributeValue> item = key(changesPartition(change.getChangedAt()), change.getPosition());
+        item.put("name", string(change.getName()));
+        item.put("code", string(change.getCode()));
+        item.put("deleted", AttributeValue.builder().bool(change.isDeleted()).build());
+        item.put("changedAt", number(change.getChangedAt()));
+        item.put("expiresAt", number(change.getChangedAt() / 1000 + retentionDays * (DAY_MILLIS / 1000)));
+        ddb.putItem(PutItemRequest.builder().tableName(TABLE_NAME).item(item).build());
+    }
+
+    @Override
+    public List<CourseChange> findChanges(String after, long until, int limit) {
+        List<CourseChange> changes = new ArrayList<>();
+        String upper = CourseChange.positionAfter(until);
+        for (long day = CourseChange.millisOf(after) / DAY_MILLIS; day <= until / DAY_MILLIS && changes.size() < limit; day++) {
+            Map<String, AttributeValue> startKey = null;
+            do {
+                Map<String, AttributeValue> values = new HashMap<>();
+                values.put(":pk", string(changesPartition(day * DAY_MILLIS)));
+                values.put(":after", string(after));
+                values.put(":upper", string(upper));
+                QueryRequest.Builder request = QueryRequest.builder()
+                        .tableName(TABLE_NAME)
+                        .keyConditionExpression("pk = :pk AND sk BETWEEN :after AND :upper")
+                        .expressionAttributeValues(values)
+                        .limit(limit - changes.size() + 1);
+                if (startKey != null) {
+                    request.exclusiveStartKey(startKey);
+                }
+                var response = ddb.query(request.build());
+                for (Map<String, AttributeValue> item : response.items()) {
+                    // BETWEEN is inclusive, and the cursor entry itself was already returned
+                    if (!item.get("sk").s().equals(after) && changes.size() < limit) {
+                        changes.add(new CourseChange(item.get("name").s(), item.get("code").s(),
+                                Boolean.TRUE.equals(item.get("deleted").bool()), longValue(item, "changedAt")));
+                    }
+                }
+                startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                        ? response.lastEvaluatedKey() : null;
+            } while (startKey != null && changes.size() < limit);
+        }
+        return changes;
+    }
+
+    @Override
+    public void applyStats(String source, String sequenceNumber, StatsDelta delta) {
+        String department = delta.getDepartment();
+
+        Map<String, AttributeValue> sequenceValues = new HashMap<>();
+        sequenceValues.put(":seq", string(paddedSequence(sequenceNumber)));
+        sequenceValues.put(":expires", number(System.currentTimeMillis() / 1000 + SEQUENCE_RETENTION_SECONDS));
+        TransactWriteItem sequence = TransactWriteItem.builder().update(Update.builder()
+                .tableName(TABLE_NAME)
+                .key(key(SEQUENCE + "#" + source, SEQUENCE))
+                .updateExpression("SET seq = :seq, expiresAt = :expires")
+                .conditionExpression("attribute_not_exists(seq) OR seq < :seq")
+                .expressionAttributeValues(sequenceValues)
+                .build()).build();
+
+        // Major names become attribute names through placeholders, one ADD per major the record touched
+        StringBuilder departmentUpdate = new StringBuilder("ADD ").append(TOTALS);
+        Map<String, String> majorNames = new HashMap<>();
+        Map<String, AttributeValue> departmentValues = totals(delta.getTotals());
+        int i = 0;
+        for (Map.Entry<String, Long> major : delta.getReviewsByMajor().entrySet()) {
+            departmentUpdate.append(", #m").append(i).append(" :m").append(i);
+            majorNames.put("#m" + i, MAJOR + major.getKey());
+            departmentValues.put(":m" + i, number(major.getValue()));
+            i++;
+        }
+        Update.Builder departmentTotals = Update.builder()
+                .tableName(TABLE_NAME)
+                .key(key(DEPARTMENTS, department))
+                .updateExpression(departmentUpdate.toString())
+                .expressionAttributeValues(departmentValues);
+        if (!majorNames.isEmpty()) {
+            departmentTotals.expressionAttributeNames(majorNames);
+        }
+
+        Map<String, AttributeValue> courseValues = totals(delta.getTotals());
+        courseValues.put(":name", string(delta.getName()));
+        courseValues.put(":code", string(delta.getCode()));
+        TransactWriteItem course = TransactWriteItem.builder().update(Update.builder()
+                .tableName(TABLE_NAME)
+                .key(key(DEPARTMENT + department, delta.getCourseKey()))
+                .updateExpression("SET #name = :name, code = :code ADD " + TOTALS)
+                .expressionAttributeNames(Map.of("#name", "name"))
+                .expressionAttributeValues(courseValues)
+                .build()).build();
+
+        try {
+            ddb.transactWriteItems(TransactWriteItemsRequest.builder()
+                    .transactItems(sequence, TransactWriteItem.builder().update(departmentTotals.build()).build(), course)
+                    .build());
+        } catch (TransactionCanceledException e) {
+            if (isConditionFailure(e)) {
+                logger.info("Skipping already applied stats for {} at sequence {}", source, sequenceNumber);
+                return;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<DepartmentStats> getDepartmentStats() {
+        List<DepartmentStats> stats = new ArrayList<>();
+        for (Map<String, AttributeValue> item : query(DEPARTMENTS, null)) {
+            DepartmentTotals totals = departmentTotals(item);
+            if (totals.hasCourses()) {
+                stats.add(withCourses(totals, item.get("sk").s()).toStats());
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public DepartmentStats getDepartmentStats(String department) {
+        String prefix = department.trim().toUpperCase(Locale.ROOT);
+        var response = ddb.getItem(GetItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(key(DEPARTMENTS, prefix))
+                .build());
+        if (!response.hasItem() || response.item().isEmpty()) {
+            return null;
+        }
+        DepartmentTotals totals = departmentTotals(response.item());
+        return totals.hasCourses() ? withCourses(totals, prefix).toStats() : null;
+    }
+
+    private DepartmentTotals withCourses(DepartmentTotals totals, String department) {
+        for (Map<String, AttributeValue> item : query(DEPARTMENT + department,
+                "#name, code, reviewCount, difficultySum, difficultyCount")) {
+            totals.addCourse(item.get("name").s(), item.get("code").s(), aggregate(item));
+        }
+        return totals;
+    }
+
+    private static DepartmentTotals departmentTotals(Map<String, AttributeValue> item) {
+        Map<String, Long> majors = new HashMap<>();
+        item.forEach((name, value) -> {
+            if (name.startsWith(MAJOR)) {
+                majors.put(name.substring(MAJOR.length()), longValue(item, name));
+            }
+        });
+        return new DepartmentTotals(item.get("sk").s(), aggregate(item), majors);
+    }
+
+    // Every item in one partition, following pagination; projection may name "#name"
+    private List<Map<String, AttributeValue>> query(String pk, String projection) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryRequest.Builder request = QueryRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .keyConditionExpression("pk = :pk")
+                    .expressionAttributeValues(Map.of(":pk", string(pk)));
+            if (projection != null) {
+                request.projectionExpression(projection).expressionAttributeNames(Map.of("#name", "name"));
+            }
+            if (startKey != null) {
+                request.exclusiveStartKey(startKey);
+            }
+            var response = ddb.query(request.build());
+            items.addAll(response.items());
+            startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (startKey != null);
+        return items;
+    }
+
+    // Stream sequence numbers can exceed the 38 digits a DynamoDB number holds, so compare them as padded strings
+    static String paddedSequence(String sequenceNumber) {
+        StringBuilder padded = new StringBuilder(48);
+        for (int i = sequenceNumber.length(); i < 48; i++) {
+            padded.append('0');
+        }
+        return padded.append(sequenceNumber).toString();
+    }
+
+    private static boolean isConditionFailure(TransactionCanceledException e) {
+        if (!e.hasCancellationReasons()) {
+            return false;
+        }
+        for (CancellationReason reason : e.cancellationReasons()) {
+            if ("ConditionalCheckFailed".equals(reason.code())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, AttributeValue> totals(CourseAggregate aggregate) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":courseCount", number(aggregate.getCourseCount()));
+        values.put(":reviewCount", number(aggregate.getReviewCount()));
+        values.put(":overallSum", number(aggregate.getOverallSum()));
+        values.put(":overallCount", number(aggregate.getOverallCount()));
+        values.put(":difficultySum", number(aggregate.getDifficultySum()));
+        values.put(":difficultyCount", number(aggregate.getDifficultyCount()));
+        values.put(":usefulnessSum", number(aggregate.getUsefulnessSum()));
+        values.put(":usefulnessCount", number(aggregate.getUsefulnessCount()));
+        return values;
+    }
+
+    private static CourseAggregate aggregate(Map<String, AttributeValue> item) {
+        return new CourseAggregate(
+                longValue(item, "courseCount"), longValue(item, "reviewCount"),
+                doubleValue(item, "overallSum"), longValue(item, "overallCount"),
+                doubleValue(item, "difficultySum"), longValue(item, "difficultyCount"),
+                doubleValue(item, "usefulnessSum"), longValue(item, "usefulnessCount"));
+    }
+
+    private static String changesPartition(long millis) {
+        return CHANGES + LocalDate.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private static long longValue(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null || value.n() == null ? 0 : (long) Double.parseDouble(value.n());
+    }
+
+    private static double doubleValue(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null || value.n() == null ? 0 : Double.parseDouble(value.n());
+    }
+
+    private static Map<String, AttributeValue> key(String pk, String sk) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("pk", string(pk));
+        key.put("sk", string(sk));
+        return key;
+    }
+
+    private static AttributeValue string(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue number(long value) {
+        return AttributeValue.builder().n(Long.toString(value)).build();
+    }
+
+    private static AttributeValue number(double value) {
+        return AttributeValue.builder().n(BigDecimal.valueOf(value).toPlainString()).build();
+    }
+}
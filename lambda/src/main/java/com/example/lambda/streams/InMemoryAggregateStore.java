@@ -0,0 +1,83 @@
+package com.example.lambda.streams;
+
+import com.example.lambda.dao.CourseAggregate;
+import com.example.lambda.models.DepartmentStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// AggregateStore kept in memory, used by the local stream replayer and in tests
+public class InMemoryAggregateStore implements AggregateStore {
+
+    private final TreeMap<String, CourseChange> changes = new TreeMap<>();
+    private final Map<String, String> appliedSequences = new HashMap<>();
+    private final TreeMap<String, CourseAggregate> departments = new TreeMap<>();
+    private final Map<String, Map<String, Long>> majors = new HashMap<>();
+    private final Map<String, Map<String, CourseAggregate>> courses = new HashMap<>();
+
+    @Override
+    public synchronized void recordChange(CourseChange change) {
+        changes.put(change.getPosition(), change);
+    }
+
+    @Override
+    public synchronized List<CourseChange> findChanges(String after, long until, int limit) {
+        return changes.subMap(after, false, CourseChange.positionAfter(until), false).values().stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized void applyStats(String source, String sequenceNumber, StatsDelta delta) {
+        String sequence = DynamoDbAggregateStore.paddedSequence(sequenceNumber);
+        String applied = appliedSequences.get(source);
+        if (applied != null && applied.compareTo(sequence) >= 0) {
+            return;
+        }
+        appliedSequences.put(source, sequence);
+
+        String department = delta.getDepartment();
+        departments.merge(department, delta.getTotals(), CourseAggregate::plus);
+        Map<String, Long> byMajor = majors.computeIfAbsent(department, ignored -> new HashMap<>());
+        delta.getReviewsByMajor().forEach((major, count) -> byMajor.merge(major, count, Long::sum));
+        courses.computeIfAbsent(department, ignored -> new HashMap<>())
+                .merge(delta.getCourseKey(), delta.getTotals(), CourseAggregate::plus);
+    }
+
+    @Override
+    public synchronized List<DepartmentStats> getDepartmentStats() {
+        List<DepartmentStats> stats = new ArrayList<>();
+        for (String department : departments.keySet()) {
+            DepartmentTotals totals = totals(department);
+            if (totals.hasCourses()) {
+                stats.add(totals.toStats());
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public synchronized DepartmentStats getDepartmentStats(String department) {
+        String prefix = department.trim().toUpperCase(Locale.ROOT);
+        if (!departments.containsKey(prefix)) {
+            return null;
+        }
+        DepartmentTotals totals = totals(prefix);
+        return totals.hasCourses() ? totals.toStats() : null;
+    }
+
+    private DepartmentTotals totals(String department) {
+        DepartmentTotals totals = new DepartmentTotals(department, departments.get(department),
+                majors.getOrDefault(department, Map.of()));
+        courses.getOrDefault(department, Map.of()).forEach((courseKey, course) -> {
+            int split = courseKey.lastIndexOf('#');
+            totals.addCourse(courseKey.substring(0, split), courseKey.substring(split + 1), course);
+        });
+        return totals;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.lambda.streams;
+
+import com.example.lambda.dao.CourseAggregate;
+import com.example.lambda.models.Review;
+import com.example.lambda.util.CourseCodes;
+import com.example.lambda.util.DepartmentRollup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// What one stream record changes in the stored stats: rating totals for one course (courseCount is +1 or -1 when
+// the course itself appears or goes away) and review counts by reviewer major, both also added to its department
+public class StatsDelta {
+
+    private final String name;
+    private final String code;
+    private final CourseAggregate totals;
+    private final Map<String, Long> reviewsByMajor;
+
+    public StatsDelta(String name, String code, CourseAggregate totals, Map<String, Long> reviewsByMajor) {
+        this.name = name;
+        this.code = code;
+        this.totals = totals;
+        this.reviewsByMajor = reviewsByMajor;
+    }
+
+    // The difference between two states of a course's reviews. existedBefore/existsAfter say whether the course
+    // item itself was there, so an insert or a remove also moves the course count.
+    public static StatsDelta between(String name, String code, boolean existedBefore, List<Review> before,
+                                     boolean existsAfter, List<Review> after) {
+        Map<String, Long> majors = new TreeMap<>();
+        CourseAggregate added = sum(after, majors, 1);
+        CourseAggregate removed = sum(before, majors, -1);
+        // Each side is summed on its own, so reviews present in both cancel exactly
+        long courseCount = (existsAfter ? 1 : 0) - (existedBefore ? 1 : 0);
+        CourseAggregate totals = new CourseAggregate(courseCount, 0, 0, 0, 0, 0, 0, 0).plus(added.minus(removed));
+        majors.values().removeIf(count -> count == 0);
+        return new StatsDelta(name, code, totals, majors);
+    }
+
+    private static CourseAggregate sum(List<Review> reviews, Map<String, Long> majors, long sign) {
+        CourseAggregate totals = CourseAggregate.EMPTY;
+        if (reviews != null) {
+            for (Review review : reviews) {
+                totals = totals.plus(CourseAggregate.of(review));
+                addMajor(majors, review, sign);
+            }
+        }
+        return totals;
+    }
+
+    private static void addMajor(Map<String, Long> majors, Review review, long count) {
+        String major = review.getMajor() == null ? null : review.getMajor().trim();
+        if (major != null && !major.isEmpty()) {
+            majors.merge(major, count, Long::sum);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getCourseKey() {
+        return name + "#" + code;
+    }
+
+    // Department prefix of the code, or DepartmentRollup.OTHER for codes without one
+    public String getDepartment() {
+        String department = CourseCodes.departmentOf(code);
+        return department == null ? DepartmentRollup.OTHER : department;
+    }
+
+    public CourseAggregate getTotals() {
+        return totals;
+    }
+
+    public Map<String, Long> getReviewsByMajor() {
+        return reviewsByMajor;
+    }
+
+    // True when applying it would change nothing, e.g. a course edit that left its reviews alone
+    public boolean isZero() {
+        return totals.isZero() && reviewsByMajor.isEmpty();
+    }
+}
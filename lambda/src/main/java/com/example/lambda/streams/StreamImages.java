@@ -0,0 +1,81 @@
+package com.example.lambda.streams;
+
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.example.lambda.models.Review;
+import com.example.lambda.util.ReviewListAttributeConverter;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads the keys and reviews carried by Courses and CourseReviewShards stream records
+public class StreamImages {
+
+    private static final ReviewListAttributeConverter REVIEW_LISTS = new ReviewListAttributeConverter();
+    private static final Gson GSON = new Gson();
+
+    private StreamImages() {
+    }
+
+    // Primary key of the changed item as "name#code"
+    public static String courseKey(Map<String, AttributeValue> keys) {
+        return string(keys, "name") + "#" + string(keys, "code");
+    }
+
+    // The inline reviews of a Courses image, empty when there is no image or the course is sharded
+    public static List<Review> reviews(Map<String, AttributeValue> image) {
+        if (image == null || !image.containsKey("reviews")) {
+            return List.of();
+        }
+        // The attribute may be a native list or a legacy JSON string; the table converter reads both
+        List<Review> reviews = REVIEW_LISTS.transformTo(sdkValue(image.get("reviews")));
+        return reviews == null ? List.of() : reviews;
+    }
+
+    // The review held by a CourseReviewShards review image, or null when there is none
+    public static Review shardReview(Map<String, AttributeValue> image) {
+        String json = image == null ? null : string(image, "review");
+        return json == null ? null : GSON.fromJson(json, Review.class);
+    }
+
+    static String string(Map<String, AttributeValue> image, String name) {
+        AttributeValue value = image.get(name);
+        return value == null ? null : value.getS();
+    }
+
+    // Stream records use the Lambda events model; convert to the SDK's so the table converters can be reused
+    static software.amazon.awssdk.services.dynamodb.model.AttributeValue sdkValue(AttributeValue value) {
+        if (value == null) {
+            return null;
+        }
+        software.amazon.awssdk.services.dynamodb.model.AttributeValue.Builder sdk =
+                software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder();
+        if (value.getS() != null) {
+            return sdk.s(value.getS()).build();
+        }
+        if (value.getN() != null) {
+            return sdk.n(value.getN()).build();
+        }
+        if (value.getBOOL() != null) {
+            return sdk.bool(value.getBOOL()).build();
+        }
+        if (value.getSS() != null) {
+            return sdk.ss(value.getSS()).build();
+        }
+        if (value.getL() != null) {
+            List<software.amazon.awssdk.services.dynamodb.model.AttributeValue> list = new ArrayList<>(value.getL().size());
+            for (AttributeValue element : value.getL()) {
+                list.add(sdkValue(element));
+            }
+            return sdk.l(list).build();
+        }
+        if (value.getM() != null) {
+            Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue> map = new HashMap<>();
+            value.getM().forEach((name, element) -> map.put(name, sdkValue(element)));
+            return sdk.m(map).build();
+        }
+        return sdk.nul(true).build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.lambda.streams;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Replays captured DynamoDB stream events (the JSON Lambda receives) against an in-memory store,
+// so the processor can be exercised locally without a stream or a table.
+//
+// Usage: StreamReplayer event1.json [event2.json ...]
+public class StreamReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamReplayer.class);
+
+    private final InMemoryAggregateStore store = new InMemoryAggregateStore();
+    private final CourseStreamProcessor processor = new CourseStreamProcessor(store);
+
+    // Replay one event; returns the sequence number of the first failed record, or null
+    public String replay(DynamodbEvent event) {
+        return processor.process(event.getRecords());
+    }
+
+    public String replay(Reader json) {
+        return replay(readEvent(json));
+    }
+
+    public InMemoryAggregateStore getStore() {
+        return store;
+    }
+
+    public static DynamodbEvent readEvent(Reader json) {
+        JsonObject root = JsonParser.parseReader(json).getAsJsonObject();
+        List<DynamodbEvent.DynamodbStreamRecord> records = new ArrayList<>();
+
+        for (JsonElement element : root.getAsJsonArray("Records")) {
+            JsonObject source = element.getAsJsonObject();
+            DynamodbEvent.DynamodbStreamRecord record = new DynamodbEvent.DynamodbStreamRecord();
+            record.setEventID(stringOrNull(source, "eventID"));
+            record.setEventName(stringOrNull(source, "eventName"));
+            record.setEventSourceARN(stringOrNull(source, "eventSourceARN"));
+
+            JsonObject dynamodb = source.getAsJsonObject("dynamodb");
+            StreamRecord change = new StreamRecord();
+            change.setSequenceNumber(stringOrNull(dynamodb, "SequenceNumber"));
+            change.setKeys(image(dynamodb.getAsJsonObject("Keys")));
+            change.setNewImage(image(dynamodb.getAsJsonObject("NewImage")));
+            change.setOldImage(image(dynamodb.getAsJsonObject("OldImage")));
+            record.setDynamodb(change);
+
+            records.add(record);
+        }
+
+        DynamodbEvent event = new DynamodbEvent();
+        event.setRecords(records);
+        return event;
+    }
+
+    private static Map<String, AttributeValue> image(JsonObject json) {
+        if (json == null) {
+            return null;
+        }
+        Map<String, AttributeValue> image = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            image.put(entry.getKey(), attributeValue(entry.getValue().getAsJsonObject()));
+        }
+        return image;
+    }
+
+    // Stream JSON uses DynamoDB's typed attribute encoding, e.g. {"S": "CSDS 101"} or {"L": [...]}
+    private static AttributeValue attributeValue(JsonObject json) {
+        AttributeValue value = new AttributeValue();
+        if (json.has("S")) {
+            value.setS(json.get("S").getAsString());
+        } else if (json.has("N")) {
+            value.setN(json.get("N").getAsString());
+        } else if (json.has("BOOL")) {
+            value.setBOOL(json.get("BOOL").getAsBoolean());
+        } else if (json.has("NULL")) {
+            value.setNULL(json.get("NULL").getAsBoolean());
+        } else if (json.has("SS")) {
+            List<String> values = new ArrayList<>();
+            json.getAsJsonArray("SS").forEach(item -> values.add(item.getAsString()));
+            value.setSS(values);
+        } else if (json.has("L")) {
+            List<AttributeValue> values = new ArrayList<>();
+            JsonArray array = json.getAsJsonArray("L");
+            array.forEach(item -> values.add(attributeValue(item.getAsJsonObject())));
+            value.setL(values);
+        } else if (json.has("M")) {
+            value.setM(image(json.getAsJsonObject("M")));
+        }
+        return value;
+    }
+
+    private static String stringOrNull(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        StreamReplayer replayer = new StreamReplayer();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String failed = replayer.replay(reader);
+                if (failed != null) {
+                    logger.error("Replay of {} stopped at sequence {}", path, failed);
+                }
+            }
+        }
+        replayer.getStore().findChanges(CourseChange.positionAfter(0), System.currentTimeMillis(), Integer.MAX_VALUE)
+                .forEach(change -> logger.info("{} {}", change.isDeleted() ? "Deleted" : "Upserted", change.getCourseKey()));
+        replayer.getStore().getDepartmentStats().forEach(stats -> logger.info("{}: {} courses, {} reviews",
+                stats.getDepartment(), stats.getCourseCount(), stats.getReviewCount()));
+    }
+}
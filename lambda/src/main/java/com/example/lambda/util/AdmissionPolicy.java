@@ -0,0 +1,41 @@
+package com.example.lambda.util;
+
+// Token cost of a request, by route. Search scans the in-memory catalog or the table and costs
+// the most; writes cost more than reads by key. Each cost can be overridden with an env variable.
+public class AdmissionPolicy {
+
+    public static final double DEFAULT_SEARCH_COST = 10;
+    public static final double DEFAULT_WRITE_COST = 2;
+    public static final double DEFAULT_READ_COST = 1;
+
+    private final double searchCost;
+    private final double writeCost;
+    private final double readCost;
+
+    public AdmissionPolicy(double searchCost, double writeCost, double readCost) {
+        this.searchCost = searchCost;
+        this.writeCost = writeCost;
+        this.readCost = readCost;
+    }
+
+    // RATE_LIMIT_COST_SEARCH, RATE_LIMIT_COST_WRITE and RATE_LIMIT_COST_READ
+    public static AdmissionPolicy fromEnv() {
+        return new AdmissionPolicy(
+                RateLimiter.doubleFromEnv("RATE_LIMIT_COST_SEARCH", DEFAULT_SEARCH_COST),
+                RateLimiter.doubleFromEnv("RATE_LIMIT_COST_WRITE", DEFAULT_WRITE_COST),
+                RateLimiter.doubleFromEnv("RATE_LIMIT_COST_READ", DEFAULT_READ_COST));
+    }
+
+    public double costOf(String httpMethod, String path) {
+        if ("OPTIONS".equalsIgnoreCase(httpMethod)) {
+            return 0;  // CORS preflight never reaches DynamoDB
+        }
+        if (path != null && path.startsWith("/search")) {
+            return searchCost;
+        }
+        if ("GET".equalsIgnoreCase(httpMethod) || "HEAD".equalsIgnoreCase(httpMethod)) {
+            return readCost;
+        }
+        return writeCost;
+    }
+}
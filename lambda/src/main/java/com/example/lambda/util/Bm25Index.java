@@ -0,0 +1,183 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// BM25F full-text ranking over each course's title, aliases and description, built once per catalog state.
+// Every field is analyzed with TextAnalyzer and its term counts are normalized by the field's length relative
+// to the catalog average, then boosted and summed into one pseudo frequency per (term, course). That value is
+// fixed for the catalog state, so it is stored in the postings and a query only sums idf * tf / (k1 + tf).
+public class Bm25Index {
+
+    private static final String KEY = "bm25Index";
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    private static final float K1 = 1.2f;
+
+    // Field boosts and length normalization; a long description should not drown out a short title
+    private static final int TITLE = 0, ALIASES = 1, DESCRIPTION = 2;
+    private static final float[] BOOST = {3.0f, 2.0f, 1.0f};
+    private static final float[] B = {0.5f, 0.5f, 0.75f};
+
+    private final List<CourseOutput> courses;
+    private final Map<String, Integer> termIds;
+    private final int[][] postings;       // term -> course positions, ascending
+    private final float[][] frequencies;  // term -> normalized, boosted frequency for each posting
+    private final float[] idf;
+
+    private Bm25Index(List<CourseOutput> courses, Map<String, Integer> termIds, int[][] postings,
+                      float[][] frequencies, float[] idf) {
+        this.courses = courses;
+        this.termIds = termIds;
+        this.postings = postings;
+        this.frequencies = frequencies;
+        this.idf = idf;
+    }
+
+    // The index for a catalog, built once per catalog state
+    public static Bm25Index of(CatalogSnapshot catalog) {
+        return catalog.derived(KEY, snapshot -> build(snapshot.getCourses()));
+    }
+
+    public static Bm25Index build(List<CourseOutput> courses) {
+        int n = courses.size();
+        List<List<List<String>>> analyzed = new ArrayList<>(n);
+        double[] totalLength = new double[3];
+        for (CourseOutput course : courses) {
+            List<List<String>> fields = List.of(
+                    TextAnalyzer.analyze(course.getTitle()),
+                    TextAnalyzer.analyze(aliasText(course)),
+                    TextAnalyzer.analyze(course.getDescription()));
+            for (int f = 0; f < 3; f++) {
+                totalLength[f] += fields.get(f).size();
+            }
+            analyzed.add(fields);
+        }
+        double[] averageLength = new double[3];
+        for (int f = 0; f < 3; f++) {
+            averageLength[f] = n == 0 || totalLength[f] == 0 ? 1 : totalLength[f] / n;
+        }
+
+        Map<String, Integer> termIds = new HashMap<>();
+        List<int[]> postingLists = new ArrayList<>();
+        List<float[]> frequencyLists = new ArrayList<>();
+        List<int[]> sizes = new ArrayList<>();
+
+        for (int doc = 0; doc < n; doc++) {
+            Map<String, Float> weighted = new HashMap<>();
+            List<List<String>> fields = analyzed.get(doc);
+            for (int f = 0; f < 3; f++) {
+                List<String> terms = fields.get(f);
+                float norm = (float) (1 - B[f] + B[f] * terms.size() / averageLength[f]);
+                for (String term : terms) {
+                    weighted.merge(term, BOOST[f] / norm, Float::sum);
+                }
+            }
+            for (Map.Entry<String, Float> entry : weighted.entrySet()) {
+                Integer id = termIds.get(entry.getKey());
+                if (id == null) {
+                    id = termIds.size();
+                    termIds.put(entry.getKey(), id);
+                    postingLists.add(new int[4]);
+                    frequencyLists.add(new float[4]);
+                    sizes.add(new int[1]);
+                }
+                int size = sizes.get(id)[0];
+                if (size == postingLists.get(id).length) {
+                    postingLists.set(id, Arrays.copyOf(postingLists.get(id), size * 2));
+                    frequencyLists.set(id, Arrays.copyOf(frequencyLists.get(id), size * 2));
+                }
+                postingLists.get(id)[size] = doc;
+                frequencyLists.get(id)[size] = entry.getValue();
+                sizes.get(id)[0] = size + 1;
+            }
+        }
+
+        int termCount = termIds.size();
+        int[][] postings = new int[termCount][];
+        float[][] frequencies = new float[termCount][];
+        float[] idf = new float[termCount];
+        for (int id = 0; id < termCount; id++) {
+            int df = sizes.get(id)[0];
+            postings[id] = Arrays.copyOf(postingLists.get(id), df);
+            frequencies[id] = Arrays.copyOf(frequencyLists.get(id), df);
+            idf[id] = (float) Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        }
+        return new Bm25Index(courses, termIds, postings, frequencies, idf);
+    }
+
+    // Courses matching any query term, best first, as copies carrying their score; empty if nothing matches
+    public List<CourseOutput> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+        float[] scores = null;
+        for (String term : terms) {
+            Integer id = termIds.get(term);
+            if (id == null) {
+                continue;
+            }
+            if (scores == null) {
+                scores = new float[courses.size()];
+            }
+            int[] docs = postings[id];
+            float[] tf = frequencies[id];
+            for (int i = 0; i < docs.length; i++) {
+                scores[docs[i]] += idf[id] * tf[i] * (K1 + 1) / (tf[i] + K1);
+            }
+        }
+        if (scores == null) {
+            return new ArrayList<>();
+        }
+
+        // Top-k by score, ties in catalog order
+        int[] best = new int[Math.max(0, limit)];
+        int count = 0;
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] <= 0) {
+                continue;
+            }
+            int position = count;
+            while (position > 0 && scores[best[position - 1]] < scores[doc]) {
+                position--;
+            }
+            if (position >= best.length) {
+                continue;
+            }
+            int end = Math.min(count, best.length - 1);
+            System.arraycopy(best, position, best, position + 1, end - position);
+            best[position] = doc;
+            count = Math.min(count + 1, best.length);
+        }
+
+        List<CourseOutput> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(scored(courses.get(best[i]), Math.round(scores[best[i]] * 10000) / 10000.0));
+        }
+        return results;
+    }
+
+    private static String aliasText(CourseOutput course) {
+        if (course.getAliases() == null) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        for (Object alias : course.getAliases()) {
+            text.append(alias).append(' ');
+        }
+        return text.toString();
+    }
+
+    // Catalog entries are shared with other requests, so the score goes on a shallow copy
+    private static CourseOutput scored(CourseOutput course, double score) {
+        CourseOutput copy = CourseConverter.shallowCopy(course);
+        copy.setScore(score);
+        return copy;
+    }
+}
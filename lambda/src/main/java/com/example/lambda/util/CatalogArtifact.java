@@ -0,0 +1,104 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.google.gson.Gson;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+// GET /courses, fully rendered: the catalog JSON and the binary encoding (base64, as API Gateway wants binary
+// bodies), plus a content hash of the JSON used as the ETag. Gzip is applied on the way out by API Gateway or
+// ServerApp, so JSON never has to be a binary media type.
+// One is derived from each CatalogSnapshot, so it is rebuilt whenever a write or the cache TTL replaces the
+// snapshot, and serving the catalog in between is handing out these strings.
+public class CatalogArtifact {
+
+    private static final Gson gson = new Gson();
+
+    private final int courseCount;
+    private final String version;
+    private final String json;
+    private final String binaryBase64;
+
+    private CatalogArtifact(int courseCount, String version, String json, String binaryBase64) {
+        this.courseCount = courseCount;
+        this.version = version;
+        this.json = json;
+        this.binaryBase64 = binaryBase64;
+    }
+
+    // For CatalogSnapshot.derived
+    public static CatalogArtifact of(CatalogSnapshot catalog) {
+        return build(catalog.getCourses());
+    }
+
+    // Courses are sorted by code and name first, so the same catalog renders to the same bytes (and ETag)
+    // no matter what order a container scanned or patched it in
+    public static CatalogArtifact build(List<CourseOutput> courses) {
+        List<CourseOutput> sorted = new ArrayList<>(courses);
+        sorted.sort(Comparator.comparing(CourseOutput::getCode, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(CourseOutput::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+        String json = gson.toJson(sorted);
+        byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return new CatalogArtifact(sorted.size(), contentHash(utf8), json,
+                base64.encodeToString(CatalogCodec.encode(sorted)));
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    // Hex SHA-256 prefix of the JSON; identical catalogs get identical versions in every container
+    public String getVersion() {
+        return version;
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    public String getBinaryBase64() {
+        return binaryBase64;
+    }
+
+    // Strong ETag of one representation; each encoding gets its own, as HTTP requires
+    public String etag(String encoding) {
+        return "\"" + version + (encoding == null ? "" : "-" + encoding) + "\"";
+    }
+
+    // True if an If-None-Match header names the ETag (or is "*")
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String contentHash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Compact binary encoding of the course catalog, served instead of JSON to clients that ask for MEDIA_TYPE.
+//
+// The schema is fixed, so no field names are sent, and every string goes through one dictionary written up
+// front, most frequent first: professors, majors, department prefixes and the like are sent once and then
+// referenced by a one- or two-byte index. List fields are real lists rather than JSON inside a string.
+//
+//   "CRSC" version:u8 dictionarySize:varint (length:varint utf8)* courseCount:varint course*
+//   course: courseId department codeRest name createdBy createdAt description : str
+//           updatedAt:optLong aliases prerequisites professors : strList  reviews:reviewList
+//   review: reviewId createdBy major professor createdAt additionalComments tips : str
+//           overall difficulty usefulness : num  anonymous:bool
+//
+// str is a dictionary index (0 = null), lists are varint size + 1 (0 = null), optLong is varint value + 1,
+// num is a tag (0 null, 1 quarter steps as varint, 2 raw IEEE double) and bool is 0 null, 1 false, 2 true.
+// Codes are split into department and remainder ("CSDS" + "101") so the prefix is shared across courses.
+// The title is always "<code> <name>" (see CourseOutput.getTitle) and is rebuilt rather than sent. Detail-only
+// fields (reviewCount, nextReviewCursor) are not part of the catalog and are not encoded.
+public class CatalogCodec {
+
+    public static final String MEDIA_TYPE = "application/x-course-catalog";
+
+    private static final byte[] MAGIC = {'C', 'R', 'S', 'C'};
+    private static final int VERSION = 1;
+
+    private CatalogCodec() {
+    }
+
+    // True if the Accept header asks for the binary format (with a non-zero q)
+    public static boolean isAccepted(String accept) {
+        return accepts(accept, MEDIA_TYPE);
+    }
+
+    // True if a list header such as Accept or Accept-Encoding names value with a non-zero q
+    public static boolean accepts(String header, String value) {
+        if (header == null) {
+            return false;
+        }
+        for (String range : header.split(",")) {
+            String[] parts = range.split(";");
+            if (!parts[0].trim().equalsIgnoreCase(value)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && parameter.substring(2).trim().matches("0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public static byte[] encode(List<CourseOutput> courses) {
+        // First pass: count every string so the dictionary can be ordered by frequency
+        Map<String, Integer> counts = new HashMap<>();
+        for (CourseOutput course : courses) {
+            forEachString(course, value -> counts.merge(value, 1, Integer::sum));
+        }
+        List<String> dictionary = new ArrayList<>(counts.keySet());
+        dictionary.sort((a, b) -> counts.get(b) - counts.get(a));
+        Map<String, Integer> index = new HashMap<>(dictionary.size() * 2);
+        for (int i = 0; i < dictionary.size(); i++) {
+            index.put(dictionary.get(i), i + 1);
+        }
+
+        Writer out = new Writer(index);
+        out.bytes.write(MAGIC, 0, MAGIC.length);
+        out.bytes.write(VERSION);
+        out.varint(dictionary.size());
+        for (String value : dictionary) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.varint(utf8.length);
+            out.bytes.write(utf8, 0, utf8.length);
+        }
+
+        out.varint(courses.size());
+        for (CourseOutput course : courses) {
+            out.str(course.getCourseId());
+            out.str(departmentOf(course.getCode()));
+            out.str(codeRest(course.getCode()));
+            out.str(course.getName());
+            out.str(course.getCreatedBy());
+            out.str(course.getCreatedAt());
+            out.str(course.getDescription());
+            out.varlong(course.getUpdatedAt() == null ? 0 : course.getUpdatedAt() + 1);
+            out.strList(course.getAliases());
+            out.strList(course.getPrerequisites());
+            out.strList(course.getProfessors());
+
+            List<Review> reviews = course.getReviews();
+            out.varint(reviews == null ? 0 : reviews.size() + 1);
+            if (reviews != null) {
+                for (Review review : reviews) {
+                    out.str(review.getReviewId());
+                    out.str(review.getCreatedBy());
+                    out.str(review.getMajor());
+                    out.str(review.getProfessor());
+                    out.str(review.getCreatedAt());
+                    out.str(review.getAdditionalComments());
+                    out.str(review.getTips());
+                    out.num(review.getOverall());
+                    out.num(review.getDifficulty());
+                    out.num(review.getUsefulness());
+                    out.bytes.write(review.getAnonymous() == null ? 0 : review.getAnonymous() ? 2 : 1);
+                }
+            }
+        }
+        return out.bytes.toByteArray();
+    }
+
+    public static List<CourseOutput> decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        try {
+            for (byte b : MAGIC) {
+                if (in.get() != b) {
+                    throw new IllegalArgumentException("Not a course catalog");
+                }
+            }
+            int version = in.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported catalog version " + version);
+            }
+
+            String[] dictionary = new String[varint(in) + 1];
+            for (int i = 1; i < dictionary.length; i++) {
+                byte[] utf8 = new byte[varint(in)];
+                in.get(utf8);
+                dictionary[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+
+            int courseCount = varint(in);
+            List<CourseOutput> courses = new ArrayList<>(courseCount);
+            for (int c = 0; c < courseCount; c++) {
+                CourseOutput course = new CourseOutput();
+                course.setCourseId(dictionary[varint(in)]);
+                String department = dictionary[varint(in)];
+                String rest = dictionary[varint(in)];
+                course.setCode(department == null ? rest : department + " " + rest);
+                course.setName(dictionary[varint(in)]);
+                course.setTitle(course.getTitle());
+                course.setCreatedBy(dictionary[varint(in)]);
+                course.setCreatedAt(dictionary[varint(in)]);
+                course.setDescription(dictionary[varint(in)]);
+                long updatedAt = varlong(in);
+                course.setUpdatedAt(updatedAt == 0 ? null : updatedAt - 1);
+                course.setAliases(strList(in, dictionary));
+                course.setPrerequisites(strList(in, dictionary));
+                course.setProfessors(strList(in, dictionary));
+
+                int reviewCount = varint(in) - 1;
+                if (reviewCount >= 0) {
+                    List<Review> reviews = new ArrayList<>(reviewCount);
+                    for (int r = 0; r < reviewCount; r++) {
+                        Review review = new Review();
+                        review.setReviewId(dictionary[varint(in)]);
+                        review.setCreatedBy(dictionary[varint(in)]);
+                        review.setMajor(dictionary[varint(in)]);
+                        review.setProfessor(dictionary[varint(in)]);
+                        review.setCreatedAt(dictionary[varint(in)]);
+                        review.setAdditionalComments(dictionary[varint(in)]);
+                        review.setTips(dictionary[varint(in)]);
+                        review.setOverall(num(in));
+                        review.setDifficulty(num(in));
+                        review.setUsefulness(num(in));
+                        int anonymous = in.get();
+                        review.setAnonymous(anonymous == 0 ? null : anonymous == 2);
+                        reviews.add(review);
+                    }
+                    course.setReviews(reviews);
+                }
+                courses.add(course);
+            }
+            return courses;
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or corrupt course catalog", e);
+        }
+    }
+
+    // The department prefix when the code is "<prefix> <rest>", otherwise null (the whole code goes in codeRest)
+    private static String departmentOf(String code) {
+        int space = code == null ? -1 : code.indexOf(' ');
+        return space > 0 ? code.substring(0, space) : null;
+    }
+
+    private static String codeRest(String code) {
+        int space = code == null ? -1 : code.indexOf(' ');
+        return space > 0 ? code.substring(space + 1) : code;
+    }
+
+    private static void forEachString(CourseOutput course, Consumer<String> action) {
+        List<String> values = new ArrayList<>();
+        values.add(course.getCourseId());
+        values.add(departmentOf(course.getCode()));
+        values.add(codeRest(course.getCode()));
+        values.add(course.getName());
+        values.add(course.getCreatedBy());
+        values.add(course.getCreatedAt());
+        values.add(course.getDescription());
+        addAll(values, course.getAliases());
+        addAll(values, course.getPrerequisites());
+        addAll(values, course.getProfessors());
+        if (course.getReviews() != null) {
+            for (Review review : course.getReviews()) {
+                values.add(review.getReviewId());
+                values.add(review.getCreatedBy());
+                values.add(review.getMajor());
+                values.add(review.getProfessor());
+                values.add(review.getCreatedAt());
+                values.add(review.getAdditionalComments());
+                values.add(review.getTips());
+            }
+        }
+        for (String value : values) {
+            if (value != null) {
+                action.accept(value);
+            }
+        }
+    }
+
+    // List fields come from untyped Gson parsing, so elements are stringified rather than cast
+    private static void addAll(List<String> values, List<String> list) {
+        if (list != null) {
+            for (Object item : list) {
+                values.add(item == null ? null : String.valueOf(item));
+            }
+        }
+    }
+
+    private static List<String> strList(ByteBuffer in, String[] dictionary) {
+        int size = varint(in) - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(dictionary[varint(in)]);
+        }
+        return list;
+    }
+
+    private static Double num(ByteBuffer in) {
+        int tag = in.get();
+        if (tag == 0) {
+            return null;
+        }
+        return tag == 1 ? varlong(in) / 4.0 : in.getDouble();
+    }
+
+    private static int varint(ByteBuffer in) {
+        long value = varlong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint out of range");
+        }
+        return (int) value;
+    }
+
+    private static long varlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        private final Map<String, Integer> index;
+
+        private Writer(Map<String, Integer> index) {
+            this.index = index;
+        }
+
+        private void str(String value) {
+            varint(value == null ? 0 : index.get(value));
+        }
+
+        private void strList(List<String> list) {
+            varint(list == null ? 0 : list.size() + 1);
+            if (list != null) {
+                for (Object item : list) {
+                    str(item == null ? null : String.valueOf(item));
+                }
+            }
+        }
+
+        // Ratings are almost always whole or half points, which fit in one byte as quarter steps
+        private void num(Double value) {
+            if (value == null) {
+                bytes.write(0);
+                return;
+            }
+            double quarters = value * 4;
+            if (quarters >= 0 && quarters <= Integer.MAX_VALUE && quarters == Math.rint(quarters)) {
+                bytes.write(1);
+                varlong((long) quarters);
+            } else {
+                bytes.write(2);
+                long bits = Double.doubleToLongBits(value);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    bytes.write((int) (bits >>> shift));
+                }
+            }
+        }
+
+        private void varint(int value) {
+            varlong(value);
+        }
+
+        private void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+    }
+}
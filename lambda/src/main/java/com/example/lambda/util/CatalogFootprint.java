@@ -0,0 +1,182 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+// Estimated heap footprint of a cached catalog's object graph, logged when a catalog is loaded so the effect of
+// string pooling (and headroom against the Lambda's memory size) can be read from CloudWatch.
+// Sizes assume a 64-bit JVM with compressed references: 12-byte headers, 4-byte references, 8-byte alignment,
+// and compact (one byte per char) strings for Latin-1 text. Shared instances are counted once; "duplicate"
+// bytes are strings equal to one already seen but held as a separate instance, i.e. what pooling could still save.
+public class CatalogFootprint {
+
+    private static final String KEY = "catalogFootprint";
+
+    private static final long COURSE_BYTES = objectBytes(CourseOutput.class);
+    private static final long REVIEW_BYTES = objectBytes(Review.class);
+    private static final long LIST_BYTES = align(12 + 4 + 4 + 4);   // ArrayList: size, modCount, elementData
+    private static final long BOXED_BYTES = 16;                     // Double
+
+    private long courses;
+    private long reviews;
+    private long stringInstances;
+    private long distinctStrings;
+    private long totalBytes;
+    private long stringBytes;
+    private long duplicateBytes;
+
+    private CatalogFootprint() {
+    }
+
+    // The report for a catalog, computed once per catalog state
+    public static CatalogFootprint of(CatalogSnapshot catalog) {
+        return catalog.derived(KEY, snapshot -> measure(snapshot.getCourses()));
+    }
+
+    public static CatalogFootprint measure(List<CourseOutput> catalog) {
+        CatalogFootprint footprint = new CatalogFootprint();
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> values = new HashSet<>();
+
+        footprint.totalBytes += listBytes(catalog.size());
+        for (CourseOutput course : catalog) {
+            footprint.courses++;
+            footprint.totalBytes += COURSE_BYTES;
+            footprint.string(course.getCourseId(), seen, values);
+            footprint.string(course.getCode(), seen, values);
+            footprint.string(course.getName(), seen, values);
+            footprint.string(course.getTitle(), seen, values);
+            footprint.string(course.getCreatedBy(), seen, values);
+            footprint.string(course.getCreatedAt(), seen, values);
+            footprint.string(course.getDescription(), seen, values);
+            footprint.boxed(course.getUpdatedAt(), seen);
+            footprint.strings(course.getAliases(), seen, values);
+            footprint.strings(course.getPrerequisites(), seen, values);
+            footprint.strings(course.getProfessors(), seen, values);
+
+            List<Review> courseReviews = course.getReviews();
+            if (courseReviews == null || !seen.add(courseReviews)) {
+                continue;
+            }
+            footprint.totalBytes += listBytes(courseReviews.size());
+            for (Review review : courseReviews) {
+                footprint.reviews++;
+                footprint.totalBytes += REVIEW_BYTES;
+                footprint.string(review.getReviewId(), seen, values);
+                footprint.string(review.getCreatedBy(), seen, values);
+                footprint.string(review.getMajor(), seen, values);
+                footprint.string(review.getAdditionalComments(), seen, values);
+                footprint.string(review.getTips(), seen, values);
+                footprint.string(review.getCreatedAt(), seen, values);
+                footprint.string(review.getProfessor(), seen, values);
+                footprint.boxed(review.getOverall(), seen);
+                footprint.boxed(review.getDifficulty(), seen);
+                footprint.boxed(review.getUsefulness(), seen);
+            }
+        }
+        footprint.distinctStrings = values.size();
+        return footprint;
+    }
+
+    public long getCourses() {
+        return courses;
+    }
+
+    public long getReviews() {
+        return reviews;
+    }
+
+    public long getStringInstances() {
+        return stringInstances;
+    }
+
+    public long getDistinctStrings() {
+        return distinctStrings;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getStringBytes() {
+        return stringBytes;
+    }
+
+    public long getDuplicateBytes() {
+        return duplicateBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("courses=%d reviews=%d strings=%d (distinct %d) estimatedHeap=%.1fMB strings=%.1fMB duplicateStrings=%.1fMB",
+                courses, reviews, stringInstances, distinctStrings,
+                totalBytes / 1048576.0, stringBytes / 1048576.0, duplicateBytes / 1048576.0);
+    }
+
+    private void strings(List<String> list, Set<Object> seen, Set<String> values) {
+        if (list == null || !seen.add(list)) {
+            return;
+        }
+        totalBytes += listBytes(list.size());
+        for (Object item : list) {
+            if (item instanceof String) {
+                string((String) item, seen, values);
+            }
+        }
+    }
+
+    private void string(String value, Set<Object> seen, Set<String> values) {
+        if (value == null || !seen.add(value)) {
+            return;
+        }
+        long bytes = stringBytes(value);
+        stringInstances++;
+        totalBytes += bytes;
+        stringBytes += bytes;
+        if (!values.add(value)) {
+            duplicateBytes += bytes;
+        }
+    }
+
+    private void boxed(Object value, Set<Object> seen) {
+        if (value != null && seen.add(value)) {
+            totalBytes += BOXED_BYTES;
+        }
+    }
+
+    // String object (hash, coder, hashIsZero, value) plus its byte[]
+    static long stringBytes(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) <= 0xFF;
+        }
+        return 24 + align(16 + (long) value.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long listBytes(int size) {
+        return LIST_BYTES + align(16 + 4L * size);
+    }
+
+    // Header plus one reference per instance field (every field of the models is a reference)
+    private static long objectBytes(Class<?> type) {
+        int fields = 0;
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields++;
+            }
+        }
+        return align(12 + 4L * fields);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+// Compact binary image of the course catalog and its trigram search index.
+//
+// Layout (big-endian):
+//   int magic, int format, long version
+//   int stringCount, then per string: int byteLength + UTF-8 bytes
+//   int courseCount, int[courseCount + 1] record offsets, then per course: string refs, long updatedAt,
+//   int reviewShards, string-ref lists and reviews
+//   int termCount, long[termCount] keys, int[termCount + 1] offsets, int postingBytes + delta-encoded varint postings
+//
+// Every string is written once and referenced by index, so repeated professors, majors and
+// authors cost four bytes per occurrence. A reference of -1 means null.
+//
+// A decoded snapshot keeps the course records in the mapping too: a course and its reviews are built the
+// first time the course is asked for, so a cold start that only serves searches builds just the hits.
+public class CatalogSnapshot {
+
+    private static final int MAGIC = 0x43525353; // "CRSS"
+    // 2 added updatedAt, 3 the record offsets, 4 reviewShards; older files are rejected and rebuilt from a scan
+    private static final int FORMAT = 4;
+
+    private final long version;
+    private final List<CourseOutput> courses;
+    private final TrigramIndex index;
+
+    // Views derived from this exact catalog state (professor index, graphs, stats...), built on first use
+    private final Map<Object, Object> derived = new ConcurrentHashMap<>();
+
+    public CatalogSnapshot(long version, List<CourseOutput> courses, TrigramIndex index) {
+        this.version = version;
+        this.courses = courses;
+        this.index = index;
+    }
+
+    // Epoch millis of the catalog state captured in this snapshot
+    public long getVersion() {
+        return version;
+    }
+
+    public List<CourseOutput> getCourses() {
+        return courses;
+    }
+
+    public TrigramIndex getIndex() {
+        return index;
+    }
+
+    // Returns the view registered under key, building it from this catalog the first time it is asked for.
+    // A new snapshot is created whenever the catalog changes, so derived views are refreshed along with it.
+    @SuppressWarnings("unchecked")
+    public <T> T derived(Object key, Function<CatalogSnapshot, T> builder) {
+        Object view = derived.get(key);
+        if (view == null) {
+            // Not computeIfAbsent: builders may themselves ask for other derived views
+            view = builder.apply(this);
+            Object existing = derived.putIfAbsent(key, view);
+            if (existing != null) {
+                view = existing;
+            }
+        }
+        return (T) view;
+    }
+
+    // Write the snapshot atomically so a concurrent reader never maps a half-written file
+    public void writeTo(Path path) throws IOException {
+        byte[] bytes = encode();
+        Path parent = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, "catalog", ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public byte[] encode() throws IOException {
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream courseBytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(courseBytes);
+
+        int[] recordOffsets = new int[courses.size() + 1];
+        for (int i = 0; i < courses.size(); i++) {
+            CourseOutput course = courses.get(i);
+            recordOffsets[i] = out.size();
+            out.writeInt(strings.ref(course.getCourseId()));
+            out.writeInt(strings.ref(course.getCode()));
+            out.writeInt(strings.ref(course.getName()));
+            out.writeInt(strings.ref(course.getCreatedBy()));
+            out.writeInt(strings.ref(course.getCreatedAt()));
+            out.writeInt(strings.ref(course.getDescription()));
+            out.writeLong(course.getUpdatedAt() == null ? Long.MIN_VALUE : course.getUpdatedAt());
+            out.writeInt(course.getReviewShards() == null ? -1 : course.getReviewShards());
+            writeStringList(out, strings, course.getAliases());
+            writeStringList(out, strings, course.getPrerequisites());
+            writeStringList(out, strings, course.getProfessors());
+
+            List<Review> reviews = course.getReviews();
+            out.writeInt(reviews == null ? -1 : reviews.size());
+            if (reviews != null) {
+                for (Review review : reviews) {
+                    out.writeInt(strings.ref(review.getReviewId()));
+                    out.writeInt(strings.ref(review.getCreatedBy()));
+                    out.writeInt(strings.ref(review.getMajor()));
+                    out.writeInt(strings.ref(review.getAdditionalComments()));
+                    out.writeInt(strings.ref(review.getTips()));
+                    out.writeInt(strings.ref(review.getCreatedAt()));
+                    out.writeInt(strings.ref(review.getProfessor()));
+                    out.writeDouble(review.getOverall() == null ? Double.NaN : review.getOverall());
+                    out.writeDouble(review.getDifficulty() == null ? Double.NaN : review.getDifficulty());
+                    out.writeDouble(review.getUsefulness() == null ? Double.NaN : review.getUsefulness());
+                    out.writeByte(review.getAnonymous() == null ? 2 : review.getAnonymous() ? 1 : 0);
+                }
+            }
+        }
+        out.flush();
+        recordOffsets[courses.size()] = out.size();
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(courseBytes.size() * 2);
+        DataOutputStream header = new DataOutputStream(result);
+        header.writeInt(MAGIC);
+        header.writeInt(FORMAT);
+        header.writeLong(version);
+
+        header.writeInt(strings.values.size());
+        for (String value : strings.values) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            header.writeInt(utf8.length);
+            header.write(utf8);
+        }
+        header.writeInt(courses.size());
+        for (int offset : recordOffsets) {
+            header.writeInt(offset);
+        }
+        header.write(courseBytes.toByteArray());
+
+        long[] keys = index.keys();
+        int[] offsets = index.offsets();
+        header.writeInt(keys.length);
+        for (long key : keys) {
+            header.writeLong(key);
+        }
+        for (int offset : offsets) {
+            header.writeInt(offset);
+        }
+        ByteBuffer postings = index.postings();
+        postings.position(0);
+        byte[] postingBytes = new byte[postings.remaining()];
+        postings.get(postingBytes);
+        header.writeInt(postingBytes.length);
+        header.write(postingBytes);
+        header.flush();
+
+        return result.toByteArray();
+    }
+
+    // Memory-map a snapshot file; the posting lists stay in the mapping and are decoded on demand
+    public static CatalogSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        }
+    }
+
+    public static CatalogSnapshot decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        int format = buffer.getInt();
+        if (format != FORMAT) {
+            throw new IOException("Unsupported catalog snapshot format: " + format);
+        }
+        long version = buffer.getLong();
+
+        int stringCount = buffer.getInt();
+        String[] strings = new String[stringCount];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < stringCount; i++) {
+            int length = buffer.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int courseCount = buffer.getInt();
+        int[] recordOffsets = new int[courseCount + 1];
+        for (int i = 0; i <= courseCount; i++) {
+            recordOffsets[i] = buffer.getInt();
+        }
+        ByteBuffer records = buffer.slice();
+        records.limit(recordOffsets[courseCount]);
+        buffer.position(buffer.position() + recordOffsets[courseCount]);
+        List<CourseOutput> courses = new MappedCourses(strings, recordOffsets, records);
+
+        int termCount = buffer.getInt();
+        long[] keys = new long[termCount];
+        for (int i = 0; i < termCount; i++) {
+            keys[i] = buffer.getLong();
+        }
+        int[] offsets = new int[termCount + 1];
+        for (int i = 0; i <= termCount; i++) {
+            offsets[i] = buffer.getInt();
+        }
+        int postingLength = buffer.getInt();
+        ByteBuffer postings = buffer.slice();
+        postings.limit(postingLength);
+
+        return new CatalogSnapshot(version, courses, new TrigramIndex(keys, offsets, postings));
+    }
+
+    private static CourseOutput decodeCourse(ByteBuffer buffer, String[] strings) {
+        CourseOutput course = new CourseOutput();
+        course.setCourseId(string(strings, buffer.getInt()));
+        course.setCode(string(strings, buffer.getInt()));
+        course.setName(string(strings, buffer.getInt()));
+        course.setTitle(course.getTitle());  // Derived from code and name, so it is not stored
+        course.setCreatedBy(string(strings, buffer.getInt()));
+        course.setCreatedAt(string(strings, buffer.getInt()));
+        course.setDescription(string(strings, buffer.getInt()));
+        long updatedAt = buffer.getLong();
+        course.setUpdatedAt(updatedAt == Long.MIN_VALUE ? null : updatedAt);
+        int reviewShards = buffer.getInt();
+        course.setReviewShards(reviewShards < 0 ? null : reviewShards);
+        course.setAliases(readStringList(buffer, strings));
+        course.setPrerequisites(readStringList(buffer, strings));
+        course.setProfessors(readStringList(buffer, strings));
+
+        int reviewCount = buffer.getInt();
+        if (reviewCount >= 0) {
+            List<Review> reviews = new ArrayList<>(reviewCount);
+            for (int r = 0; r < reviewCount; r++) {
+                Review review = new Review();
+                review.setReviewId(string(strings, buffer.getInt()));
+                review.setCreatedBy(string(strings, buffer.getInt()));
+                review.setMajor(string(strings, buffer.getInt()));
+                review.setAdditionalComments(string(strings, buffer.getInt()));
+                review.setTips(string(strings, buffer.getInt()));
+                review.setCreatedAt(string(strings, buffer.getInt()));
+                review.setProfessor(string(strings, buffer.getInt()));
+                review.setOverall(rating(buffer.getDouble()));
+                review.setDifficulty(rating(buffer.getDouble()));
+                review.setUsefulness(rating(buffer.getDouble()));
+                byte anonymous = buffer.get();
+                review.setAnonymous(anonymous == 2 ? null : anonymous == 1);
+                reviews.add(review);
+            }
+            course.setReviews(reviews);
+        }
+        return course;
+    }
+
+    private static void writeStringList(DataOutputStream out, StringTable strings, List<String> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : values) {
+                out.writeInt(strings.ref(value));
+            }
+        }
+    }
+
+    private static List<String> readStringList(ByteBuffer buffer, String[] strings) {
+        int size = buffer.getInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(string(strings, buffer.getInt()));
+        }
+        return values;
+    }
+
+    private static String string(String[] strings, int ref) {
+        return ref < 0 ? null : strings[ref];
+    }
+
+    private static Double rating(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    // The courses of a decoded snapshot, each built from its record on first access and kept from then on
+    private static final class MappedCourses extends AbstractList<CourseOutput> implements RandomAccess {
+        private final String[] strings;
+        private final int[] recordOffsets;
+        private final ByteBuffer records;
+        private final AtomicReferenceArray<CourseOutput> decoded;
+
+        MappedCourses(String[] strings, int[] recordOffsets, ByteBuffer records) {
+            this.strings = strings;
+            this.recordOffsets = recordOffsets;
+            this.records = records;
+            this.decoded = new AtomicReferenceArray<>(recordOffsets.length - 1);
+        }
+
+        @Override
+        public CourseOutput get(int index) {
+            CourseOutput course = decoded.get(index);
+            if (course == null) {
+                // Each caller reads through its own view of the mapping, so concurrent decodes do not interfere
+                ByteBuffer record = records.duplicate();
+                record.position(recordOffsets[index]);
+                course = decodeCourse(record, strings);
+                if (!decoded.compareAndSet(index, null, course)) {
+                    course = decoded.get(index);
+                }
+            }
+            return course;
+        }
+
+        @Override
+        public int size() {
+            return decoded.length();
+        }
+    }
+
+    // Assigns each distinct string a stable index in first-seen order
+    private static class StringTable {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ref(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer ref = refs.get(value);
+            if (ref == null) {
+                ref = values.size();
+                refs.put(value, ref);
+                values.add(value);
+            }
+            return ref;
+        }
+    }
+}
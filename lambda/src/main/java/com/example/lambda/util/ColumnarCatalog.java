@@ -0,0 +1,210 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable column-oriented copy of one catalog state for full-catalog loops (search verification, rollups).
+// Course i's fields sit at index i of parallel arrays; its reviews are the rows reviewStart(i) .. reviewEnd(i)
+// of the review columns. Ratings are double columns with NaN for "not rated", and departments and majors are
+// dictionary ids, so a scan reads contiguous primitive arrays instead of chasing CourseOutput -> List -> Review
+// -> Double pointers. Search keys are normalized once here instead of on every comparison.
+public class ColumnarCatalog {
+
+    private static final String KEY = "columnarCatalog";
+
+    public static final int NONE = -1;
+
+    private final String[] codes;
+    private final String[] names;
+    private final String[] codeKeys;      // TrigramIndex.normalizeCode form
+    private final String[] nameKeys;      // Lowercased
+    private final int[] departments;      // Dictionary id, NONE for codes without a letter prefix
+    private final String[] departmentNames;
+    private final int[] reviewStart;      // courseCount + 1 offsets into the review columns
+
+    private final double[] overall;
+    private final double[] difficulty;
+    private final double[] usefulness;
+    private final int[] majors;           // Dictionary id, NONE when blank
+    private final String[] majorNames;
+
+    private ColumnarCatalog(String[] codes, String[] names, String[] codeKeys, String[] nameKeys, int[] departments,
+                            String[] departmentNames, int[] reviewStart, double[] overall, double[] difficulty,
+                            double[] usefulness, int[] majors, String[] majorNames) {
+        this.codes = codes;
+        this.names = names;
+        this.codeKeys = codeKeys;
+        this.nameKeys = nameKeys;
+        this.departments = departments;
+        this.departmentNames = departmentNames;
+        this.reviewStart = reviewStart;
+        this.overall = overall;
+        this.difficulty = difficulty;
+        this.usefulness = usefulness;
+        this.majors = majors;
+        this.majorNames = majorNames;
+    }
+
+    // The columns for a catalog, built once per catalog state
+    public static ColumnarCatalog of(CatalogSnapshot catalog) {
+        return catalog.derived(KEY, snapshot -> build(snapshot.getCourses()));
+    }
+
+    public static ColumnarCatalog build(List<CourseOutput> courses) {
+        int n = courses.size();
+        String[] codes = new String[n];
+        String[] names = new String[n];
+        String[] codeKeys = new String[n];
+        String[] nameKeys = new String[n];
+        int[] departments = new int[n];
+        int[] reviewStart = new int[n + 1];
+        Map<String, Integer> departmentIds = new HashMap<>();
+        List<String> departmentNames = new ArrayList<>();
+
+        for (int i = 0; i < n; i++) {
+            CourseOutput course = courses.get(i);
+            codes[i] = course.getCode();
+            names[i] = course.getName();
+            codeKeys[i] = course.getCode() == null ? null : TrigramIndex.normalizeCode(course.getCode());
+            nameKeys[i] = course.getName() == null ? null : course.getName().toLowerCase();
+            departments[i] = id(CourseCodes.departmentOf(course.getCode()), departmentIds, departmentNames);
+            reviewStart[i + 1] = reviewStart[i] + (course.getReviews() == null ? 0 : course.getReviews().size());
+        }
+
+        int reviewCount = reviewStart[n];
+        double[] overall = new double[reviewCount];
+        double[] difficulty = new double[reviewCount];
+        double[] usefulness = new double[reviewCount];
+        int[] majors = new int[reviewCount];
+        Map<String, Integer> majorIds = new HashMap<>();
+        List<String> majorNames = new ArrayList<>();
+
+        for (int i = 0; i < n; i++) {
+            List<Review> reviews = courses.get(i).getReviews();
+            if (reviews == null) {
+                continue;
+            }
+            int row = reviewStart[i];
+            for (Review review : reviews) {
+                overall[row] = rating(review.getOverall());
+                difficulty[row] = rating(review.getDifficulty());
+                usefulness[row] = rating(review.getUsefulness());
+                String major = review.getMajor() == null ? null : review.getMajor().trim();
+                majors[row] = id(major == null || major.isEmpty() ? null : major, majorIds, majorNames);
+                row++;
+            }
+        }
+
+        return new ColumnarCatalog(codes, names, codeKeys, nameKeys, departments, departmentNames.toArray(new String[0]),
+                reviewStart, overall, difficulty, usefulness, majors, majorNames.toArray(new String[0]));
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public int reviewCount() {
+        return overall.length;
+    }
+
+    public String code(int course) {
+        return codes[course];
+    }
+
+    public String name(int course) {
+        return names[course];
+    }
+
+    public int department(int course) {
+        return departments[course];
+    }
+
+    public String departmentName(int department) {
+        return departmentNames[department];
+    }
+
+    public int departmentCount() {
+        return departmentNames.length;
+    }
+
+    public int reviewStart(int course) {
+        return reviewStart[course];
+    }
+
+    public int reviewEnd(int course) {
+        return reviewStart[course + 1];
+    }
+
+    // Rating columns are indexed by review row; NaN means the review left it blank
+    public double overall(int review) {
+        return overall[review];
+    }
+
+    public double difficulty(int review) {
+        return difficulty[review];
+    }
+
+    public double usefulness(int review) {
+        return usefulness[review];
+    }
+
+    public int major(int review) {
+        return majors[review];
+    }
+
+    public String majorName(int major) {
+        return majorNames[major];
+    }
+
+    public int majorCount() {
+        return majorNames.length;
+    }
+
+    // Positions (ascending) among candidates, or among all courses when candidates is null, whose normalized
+    // code contains the normalized query
+    public int[] codesContaining(String normalizedQuery, int[] candidates) {
+        return containing(codeKeys, normalizedQuery, candidates);
+    }
+
+    // Same for lowercased names and a lowercased query
+    public int[] namesContaining(String lowercaseQuery, int[] candidates) {
+        return containing(nameKeys, lowercaseQuery, candidates);
+    }
+
+    private static int[] containing(String[] keys, String query, int[] candidates) {
+        int count = candidates == null ? keys.length : candidates.length;
+        int[] matches = new int[count];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            int position = candidates == null ? i : candidates[i];
+            String key = keys[position];
+            if (key != null && key.contains(query)) {
+                matches[found++] = position;
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    private static double rating(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static int id(String value, Map<String, Integer> ids, List<String> names) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = names.size();
+            ids.put(value, id);
+            names.add(value);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.lambda.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class CourseCodes {
+
+    // Department prefix followed by a three digit number and an optional suffix letter, e.g. "CSDS 101", "csds101", "MATH 121H"
+    private static final Pattern CODE_PATTERN =
+            Pattern.compile("^([A-Za-z]{2,5})[\\s\\u00A0-]*(\\d{3}[A-Za-z]?)$");
+
+    // A course code followed by free text, e.g. "CSDS 101 Discrete Mathematics"
+    private static final Pattern TITLE_PATTERN =
+            Pattern.compile("^([A-Za-z]{2,5})[\\s\\u00A0-]*(\\d{3}[A-Za-z]?)[\\s\\u00A0]+(.+)$");
+
+    // Course codes embedded in free text, e.g. "CSDS 132 or MATH 122"
+    private static final Pattern EMBEDDED_CODE_PATTERN =
+            Pattern.compile("\\b([A-Za-z]{2,5})[\\s\\u00A0-]*(\\d{3}[A-Za-z]?)\\b");
+
+    private CourseCodes() {
+    }
+
+    // Returns the canonical "DEPT 123" form of a code-shaped string, or null if it is not a course code
+    public static String canonicalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        Matcher matcher = CODE_PATTERN.matcher(raw.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        return matcher.group(1).toUpperCase(Locale.ROOT) + " " + matcher.group(2).toUpperCase(Locale.ROOT);
+    }
+
+    // Returns the canonical title ("DEPT 123 Name") for a string that starts with a course code, or null
+    public static String canonicalTitle(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        Matcher matcher = TITLE_PATTERN.matcher(raw.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String rest = matcher.group(3).replaceAll("[\\s\\u00A0]+", " ").trim();
+        return matcher.group(1).toUpperCase(Locale.ROOT) + " " + matcher.group(2).toUpperCase(Locale.ROOT) + " " + rest;
+    }
+
+    // Returns every course code mentioned in the text, canonicalized, in order of appearance
+    public static List<String> extractAll(String text) {
+        List<String> codes = new ArrayList<>();
+        if (text == null) {
+            return codes;
+        }
+        Matcher matcher = EMBEDDED_CODE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String code = matcher.group(1).toUpperCase(Locale.ROOT) + " " + matcher.group(2).toUpperCase(Locale.ROOT);
+            if (!codes.contains(code)) {
+                codes.add(code);
+            }
+        }
+        return codes;
+    }
+
+    // Returns the department prefix of a course code ("CSDS 101" -> "CSDS"), or null if there is none
+    public static String departmentOf(String code) {
+        if (code == null) {
+            return null;
+        }
+        String trimmed = code.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? null : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+}
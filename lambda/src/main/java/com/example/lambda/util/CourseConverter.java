@@ -3,16 +3,11 @@ package com.example.lambda.util;
 import com.example.lambda.models.Course;
 import com.example.lambda.models.CourseOutput;
 import com.example.lambda.models.Review;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
-import java.lang.reflect.Type;
 import java.util.List;
 
 public class CourseConverter {
 
-    private static final Gson gson = new Gson();
-
     // Convert Course to CourseOutput
     public static CourseOutput convertToCourseOutput(Course course) {
         CourseOutput courseOutput = new CourseOutput();
@@ -24,26 +19,68 @@ public class CourseConverter {
         courseOutput.setCode(course.getCode());
         courseOutput.setName(course.getName());
         courseOutput.setTitle(course.getTitle());
+        courseOutput.setReviewShards(course.getReviewShards());
+        courseOutput.setUpdatedAt(course.getUpdatedAt());
 
-        // Deserialize JSON strings back to lists
-        if (course.getAliases() != null) {
-            courseOutput.setAliases(gson.fromJson(course.getAliases(), List.class));
-        }
-        if (course.getPrerequisites() != null) {
-            courseOutput.setPrerequisites(gson.fromJson(course.getPrerequisites(), List.class));
-        }
-        if (course.getReviews() != null) {
-            Type reviewListType = new TypeToken<List<Review>>() {}.getType();
-            courseOutput.setReviews(gson.fromJson(course.getReviews(), reviewListType));
-        }
-        if(course.getProfessors() != null) {
-            Type professorListType = new TypeToken<List<String>>() {}.getType();
-            courseOutput.setProfessors(gson.fromJson(course.getProfessors(), professorListType));
-        }
+        courseOutput.setAliases(course.getAliases());
+        courseOutput.setPrerequisites(course.getPrerequisites());
+        courseOutput.setReviews(course.getReviews());
+        courseOutput.setProfessors(course.getProfessors());
 
         return courseOutput;
     }
 
+    // A new CourseOutput sharing the course's field values, for changing a catalog entry's copy without
+    // touching the entry other requests see
+    public static CourseOutput shallowCopy(CourseOutput course) {
+        CourseOutput copy = new CourseOutput();
+        copy.setCourseId(course.getCourseId());
+        copy.setCode(course.getCode());
+        copy.setName(course.getName());
+        copy.setTitle(course.getTitle());
+        copy.setCreatedBy(course.getCreatedBy());
+        copy.setCreatedAt(course.getCreatedAt());
+        copy.setDescription(course.getDescription());
+        copy.setAliases(course.getAliases());
+        copy.setPrerequisites(course.getPrerequisites());
+        copy.setProfessors(course.getProfessors());
+        copy.setReviews(course.getReviews());
+        copy.setReviewShards(course.getReviewShards());
+        copy.setUpdatedAt(course.getUpdatedAt());
+        return copy;
+    }
+
+    // Same as above, with the repeated low-cardinality values shared through the pool; used for cached courses
+    public static CourseOutput convertToCourseOutput(Course course, StringPool pool) {
+        return canonicalize(convertToCourseOutput(course), pool);
+    }
+
+    // Replace repeated values in a decoded course with the pool's instances. Free text and IDs are left alone:
+    // they are unique, so pooling them would only add map entries.
+    public static CourseOutput canonicalize(CourseOutput course, StringPool pool) {
+        course.setCode(pool.canonical(course.getCode()));
+        course.setCreatedBy(pool.canonical(course.getCreatedBy()));
+        course.setAliases(pool.canonicalList(course.getAliases()));
+        course.setPrerequisites(pool.canonicalList(course.getPrerequisites()));
+        course.setProfessors(pool.canonicalList(course.getProfessors()));
+        canonicalizeReviews(course.getReviews(), pool);
+        return course;
+    }
+
+    public static void canonicalizeReviews(List<Review> reviews, StringPool pool) {
+        if (reviews == null) {
+            return;
+        }
+        for (Review review : reviews) {
+            review.setCreatedBy(pool.canonical(review.getCreatedBy()));
+            review.setMajor(pool.canonical(review.getMajor()));
+            review.setProfessor(pool.canonical(review.getProfessor()));
+            review.setOverall(pool.canonical(review.getOverall()));
+            review.setDifficulty(pool.canonical(review.getDifficulty()));
+            review.setUsefulness(pool.canonical(review.getUsefulness()));
+        }
+    }
+
     // Convert CourseOutput back to Course
     public static Course convertToCourse(CourseOutput courseOutput) {
         Course course = new Course();
@@ -55,22 +92,14 @@ public class CourseConverter {
         course.setCode(courseOutput.getCode());
         course.setName(courseOutput.getName());
         course.setTitle(courseOutput.getTitle());
+        course.setReviewShards(courseOutput.getReviewShards());
+        course.setUpdatedAt(courseOutput.getUpdatedAt());
 
-        // Convert lists to JSON strings before setting them in the Course object
-        if (courseOutput.getAliases() != null) {
-            course.setAliases(gson.toJson(courseOutput.getAliases()));
-        }
-        if (courseOutput.getPrerequisites() != null) {
-            course.setPrerequisites(gson.toJson(courseOutput.getPrerequisites()));
-        }
-        if (courseOutput.getReviews() != null) {
-            Type reviewListType = new TypeToken<List<Review>>() {}.getType();
-            course.setReviews(gson.toJson(courseOutput.getReviews(), reviewListType));
-        }
-        if (courseOutput.getProfessors() != null) {
-            Type professorListType = new TypeToken<List<String>>() {}.getType();
-            course.setProfessors(gson.toJson(courseOutput.getProfessors(), professorListType));
-        }
+        // Lists are mapped to native list attributes by the table schema (see ListAttributeConverter)
+        course.setAliases(courseOutput.getAliases());
+        course.setPrerequisites(courseOutput.getPrerequisites());
+        course.setReviews(courseOutput.getReviews());
+        course.setProfessors(courseOutput.getProfessors());
         return course;
     }
 }
@@ -13,6 +13,23 @@ public class CourseSearch {
 
     // A method to search for courses based on a search query, prioritizing code > name > professor
     public static List<CourseOutput> searchCourses(List<CourseOutput> courses, String searchQuery) {
+        return searchCourses(courses, searchQuery, null);
+    }
+
+    // Same as above, but only verifies the candidates the trigram index reports for each pass
+    public static List<CourseOutput> searchCourses(List<CourseOutput> courses, String searchQuery, TrigramIndex index) {
+        return searchCourses(courses, searchQuery, index, null, null, null);
+    }
+
+    // Search a cached catalog: trigram candidates for code and name verified against the columnar catalog,
+    // BM25 over title, aliases and description, and the professor index for professors
+    public static List<CourseOutput> searchCourses(CatalogSnapshot catalog, String searchQuery) {
+        return searchCourses(catalog.getCourses(), searchQuery, catalog.getIndex(), ProfessorIndex.of(catalog),
+                Bm25Index.of(catalog), ColumnarCatalog.of(catalog));
+    }
+
+    private static List<CourseOutput> searchCourses(List<CourseOutput> courses, String searchQuery, TrigramIndex index,
+                                                    ProfessorIndex professorIndex, Bm25Index bm25, ColumnarCatalog columns) {
         if (searchQuery == null || searchQuery.trim().isEmpty()) {
             logger.warn("Search query is null or empty. Returning empty list.");
             return Collections.emptyList();
@@ -20,26 +37,64 @@ public class CourseSearch {
 
         logger.info("Searching for: {}", searchQuery);
 
-        // Filter courses based on the priority order: code > name > professor
-        List<CourseOutput> filteredCourses = courses.stream()
-                .filter(course -> matchesCode(course, searchQuery))
-                .collect(Collectors.toList());
+        // Filter courses based on the priority order: code > ranked full text > name > professor
+        List<CourseOutput> filteredCourses;
+        if (columns != null) {
+            // Pre-normalized code column: one contains() per candidate instead of two regex replacements
+            String normalizedCode = TrigramIndex.normalizeCode(searchQuery);
+            filteredCourses = TrigramIndex.select(courses,
+                    columns.codesContaining(normalizedCode, positions(index, TrigramIndex.FIELD_CODE, normalizedCode)));
+        } else {
+            filteredCourses = candidates(courses, index, TrigramIndex.FIELD_CODE, TrigramIndex.normalizeCode(searchQuery)).stream()
+                    .filter(course -> matchesCode(course, searchQuery))
+                    .collect(Collectors.toList());
+        }
+
+        // Relevance-ordered matches on whole words; the substring passes below still catch partial words ("calc")
+        if (filteredCourses.isEmpty() && bm25 != null) {
+            filteredCourses = bm25.search(searchQuery, Bm25Index.DEFAULT_LIMIT);
+        }
 
         if (filteredCourses.isEmpty()) {
-            filteredCourses = courses.stream()
-                    .filter(course -> matchesName(course, searchQuery))
-                    .collect(Collectors.toList());
+            String lowercaseQuery = searchQuery.toLowerCase();
+            if (columns != null) {
+                filteredCourses = TrigramIndex.select(courses,
+                        columns.namesContaining(lowercaseQuery, positions(index, TrigramIndex.FIELD_NAME, lowercaseQuery)));
+            } else {
+                filteredCourses = candidates(courses, index, TrigramIndex.FIELD_NAME, lowercaseQuery).stream()
+                        .filter(course -> matchesName(course, searchQuery))
+                        .collect(Collectors.toList());
+            }
         }
 
         if (filteredCourses.isEmpty()) {
-            filteredCourses = courses.stream()
-                    .filter(course -> matchesProfessor(course, searchQuery))
-                    .collect(Collectors.toList());
+            if (professorIndex != null) {
+                // Only the distinct professor names are checked instead of every course
+                filteredCourses = TrigramIndex.select(courses, professorIndex.search(searchQuery));
+            } else {
+                filteredCourses = candidates(courses, index, TrigramIndex.FIELD_PROFESSOR, searchQuery.toLowerCase()).stream()
+                        .filter(course -> matchesProfessor(course, searchQuery))
+                        .collect(Collectors.toList());
+            }
         }
 
         return filteredCourses;
     }
 
+    // Candidate positions for one pass, or null to check every course
+    private static int[] positions(TrigramIndex index, char field, String normalizedQuery) {
+        return index == null ? null : index.candidates(field, normalizedQuery);
+    }
+
+    // Narrow the courses to check for one pass; without an index (or for very short queries) every course is checked
+    private static List<CourseOutput> candidates(List<CourseOutput> courses, TrigramIndex index, char field, String normalizedQuery) {
+        if (index == null) {
+            return courses;
+        }
+        int[] positions = index.candidates(field, normalizedQuery);
+        return positions == null ? courses : TrigramIndex.select(courses, positions);
+    }
+
     // Check if the course code matches the search query
     private static boolean matchesCode(CourseOutput course, String searchQuery) {
         if (course.getCode() == null || searchQuery == null) {
@@ -56,8 +111,8 @@ public class CourseSearch {
                 .replaceAll("\\u00A0", "")     // Remove non-breaking spaces
                 .toLowerCase();
 
-        logger.info("query: {}", normalizedQuery);
-        logger.info("courseCode: {}", normalizedCode);
+        logger.debug("query: {}", normalizedQuery);
+        logger.debug("courseCode: {}", normalizedCode);
 
         // Check for an exact match
         if (normalizedCode.equals(normalizedQuery)) {
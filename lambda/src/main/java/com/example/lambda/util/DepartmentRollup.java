@@ -0,0 +1,251 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseDifficulty;
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.DepartmentStats;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+// Per-department rollups (rating averages, review volume by major, hardest courses) over one catalog state.
+// Courses are folded from the columnar catalog into per-department running totals of primitive sums and counts,
+// in parallel for large catalogs, and the partial totals are merged; nothing per review is kept. The JSON for the full report is
+// rendered once here, so repeated GET /stats calls for the same catalog state just return the string.
+public class DepartmentRollup {
+
+    private static final String KEY = "departmentRollup";
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    // Departments for codes without a letter prefix
+    public static final String OTHER = "OTHER";
+    public static final int HARDEST_LIMIT = 5;
+    // A course needs this many difficulty ratings to be ranked, so one harsh review does not top the list
+    public static final int MIN_RATINGS_TO_RANK = 3;
+
+    // Hardest first; the remaining keys make the ranking independent of how the work was split
+    private static final Comparator<CourseDifficulty> HARDEST_FIRST = Comparator
+            .comparingDouble(CourseDifficulty::getAverageDifficulty).reversed()
+            .thenComparing(Comparator.comparingInt(CourseDifficulty::getReviewCount).reversed())
+            .thenComparing(CourseDifficulty::getCode, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CourseDifficulty::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<String, DepartmentStats> byDepartment;
+    private final String json;
+
+    private DepartmentRollup(Map<String, DepartmentStats> byDepartment, String json) {
+        this.byDepartment = byDepartment;
+        this.json = json;
+    }
+
+    // The rollup for a catalog, built once per catalog state
+    public static DepartmentRollup of(CatalogSnapshot catalog) {
+        return catalog.derived(KEY, snapshot -> build(ColumnarCatalog.of(snapshot)));
+    }
+
+    public static DepartmentRollup build(List<CourseOutput> courses) {
+        return build(ColumnarCatalog.build(courses));
+    }
+
+    public static DepartmentRollup build(ColumnarCatalog columns) {
+        IntStream indexes = IntStream.range(0, columns.size());
+        if (columns.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        // One extra department slot for codes without a prefix
+        int departmentSlots = columns.departmentCount() + 1;
+        Totals totals = indexes.collect(() -> new Totals(departmentSlots, columns.majorCount()),
+                (partial, course) -> partial.add(columns, course),
+                Totals::merge);
+
+        // Sorted by department so the report is stable across catalog states
+        Map<String, DepartmentStats> byDepartment = new TreeMap<>();
+        for (int department = 0; department < departmentSlots; department++) {
+            if (totals.courseCount[department] > 0) {
+                String name = department < columns.departmentCount() ? columns.departmentName(department) : OTHER;
+                byDepartment.put(name, totals.toStats(department, name, columns));
+            }
+        }
+        String json = new Gson().toJson(new ArrayList<>(byDepartment.values()));
+        return new DepartmentRollup(byDepartment, json);
+    }
+
+    // The HARDEST_LIMIT hardest of the given courses, hardest first; for rollups kept outside the catalog
+    public static List<CourseDifficulty> hardest(Collection<CourseDifficulty> candidates) {
+        List<CourseDifficulty> ranked = new ArrayList<>(candidates);
+        ranked.sort(HARDEST_FIRST);
+        return ranked.size() > HARDEST_LIMIT ? new ArrayList<>(ranked.subList(0, HARDEST_LIMIT)) : ranked;
+    }
+
+    // Stats for every department, in department order
+    public List<DepartmentStats> getDepartments() {
+        return new ArrayList<>(byDepartment.values());
+    }
+
+    // Stats for one department prefix (any case), or null if no course has it
+    public DepartmentStats get(String department) {
+        return department == null ? null : byDepartment.get(department.trim().toUpperCase(Locale.ROOT));
+    }
+
+    // getDepartments() as JSON, rendered once per catalog state
+    public String getJson() {
+        return json;
+    }
+
+    // Running sums per department slot, in primitive arrays indexed by department id. Averages are computed
+    // from the sums only at the end, so partial totals from different threads merge exactly.
+    private static final class Totals {
+        private final int majorCount;
+        private final int[] courseCount;
+        private final long[] reviewCount;
+        private final double[] overallSum, difficultySum, usefulnessSum;
+        private final long[] overallCount, difficultyCount, usefulnessCount;
+        private final long[][] reviewsByMajor;    // department -> counts by major id, allocated on first review
+        // Min-heaps of the current top HARDEST_LIMIT, easiest at the head so it is the one evicted
+        private final List<PriorityQueue<CourseDifficulty>> hardest;
+
+        private Totals(int departments, int majorCount) {
+            this.majorCount = majorCount;
+            courseCount = new int[departments];
+            reviewCount = new long[departments];
+            overallSum = new double[departments];
+            difficultySum = new double[departments];
+            usefulnessSum = new double[departments];
+            overallCount = new long[departments];
+            difficultyCount = new long[departments];
+            usefulnessCount = new long[departments];
+            reviewsByMajor = new long[departments][];
+            hardest = new ArrayList<>(departments);
+            for (int i = 0; i < departments; i++) {
+                hardest.add(null);
+            }
+        }
+
+        private void add(ColumnarCatalog columns, int course) {
+            int department = columns.department(course);
+            if (department == ColumnarCatalog.NONE) {
+                department = courseCount.length - 1;
+            }
+            courseCount[department]++;
+            int start = columns.reviewStart(course);
+            int end = columns.reviewEnd(course);
+            if (start == end) {
+                return;
+            }
+            if (reviewsByMajor[department] == null) {
+                reviewsByMajor[department] = new long[majorCount];
+            }
+            long[] majors = reviewsByMajor[department];
+
+            double courseDifficultySum = 0;
+            int courseDifficultyCount = 0;
+            for (int review = start; review < end; review++) {
+                double overall = columns.overall(review);
+                double difficulty = columns.difficulty(review);
+                double usefulness = columns.usefulness(review);
+                if (!Double.isNaN(overall)) {
+                    overallSum[department] += overall;
+                    overallCount[department]++;
+                }
+                if (!Double.isNaN(difficulty)) {
+                    courseDifficultySum += difficulty;
+                    courseDifficultyCount++;
+                }
+                if (!Double.isNaN(usefulness)) {
+                    usefulnessSum[department] += usefulness;
+                    usefulnessCount[department]++;
+                }
+                int major = columns.major(review);
+                if (major != ColumnarCatalog.NONE) {
+                    majors[major]++;
+                }
+            }
+            reviewCount[department] += end - start;
+            difficultySum[department] += courseDifficultySum;
+            difficultyCount[department] += courseDifficultyCount;
+            if (courseDifficultyCount >= MIN_RATINGS_TO_RANK) {
+                offer(department, new CourseDifficulty(columns.name(course), columns.code(course), end - start,
+                        courseDifficultySum / courseDifficultyCount));
+            }
+        }
+
+        private void offer(int department, CourseDifficulty candidate) {
+            PriorityQueue<CourseDifficulty> top = hardest.get(department);
+            if (top == null) {
+                top = new PriorityQueue<>(HARDEST_LIMIT + 1, HARDEST_FIRST.reversed());
+                hardest.set(department, top);
+            }
+            top.add(candidate);
+            if (top.size() > HARDEST_LIMIT) {
+                top.poll();
+            }
+        }
+
+        private void merge(Totals other) {
+            for (int d = 0; d < courseCount.length; d++) {
+                courseCount[d] += other.courseCount[d];
+                reviewCount[d] += other.reviewCount[d];
+                overallSum[d] += other.overallSum[d];
+                overallCount[d] += other.overallCount[d];
+                difficultySum[d] += other.difficultySum[d];
+                difficultyCount[d] += other.difficultyCount[d];
+                usefulnessSum[d] += other.usefulnessSum[d];
+                usefulnessCount[d] += other.usefulnessCount[d];
+                if (other.reviewsByMajor[d] != null) {
+                    if (reviewsByMajor[d] == null) {
+                        reviewsByMajor[d] = other.reviewsByMajor[d];
+                    } else {
+                        for (int m = 0; m < majorCount; m++) {
+                            reviewsByMajor[d][m] += other.reviewsByMajor[d][m];
+                        }
+                    }
+                }
+                if (other.hardest.get(d) != null) {
+                    for (CourseDifficulty candidate : other.hardest.get(d)) {
+                        offer(d, candidate);
+                    }
+                }
+            }
+        }
+
+        private DepartmentStats toStats(int d, String department, ColumnarCatalog columns) {
+            DepartmentStats stats = new DepartmentStats();
+            stats.setDepartment(department);
+            stats.setCourseCount(courseCount[d]);
+            stats.setReviewCount(reviewCount[d]);
+            stats.setAverageOverall(overallCount[d] == 0 ? null : overallSum[d] / overallCount[d]);
+            stats.setAverageDifficulty(difficultyCount[d] == 0 ? null : difficultySum[d] / difficultyCount[d]);
+            stats.setAverageUsefulness(usefulnessCount[d] == 0 ? null : usefulnessSum[d] / usefulnessCount[d]);
+
+            // Most reviewed major first, ties by name
+            List<Integer> majors = new ArrayList<>();
+            long[] counts = reviewsByMajor[d];
+            for (int m = 0; counts != null && m < majorCount; m++) {
+                if (counts[m] > 0) {
+                    majors.add(m);
+                }
+            }
+            majors.sort((a, b) -> counts[a] != counts[b]
+                    ? Long.compare(counts[b], counts[a])
+                    : columns.majorName(a).compareTo(columns.majorName(b)));
+            Map<String, Long> byMajor = new LinkedHashMap<>();
+            for (int major : majors) {
+                byMajor.put(columns.majorName(major), counts[major]);
+            }
+            stats.setReviewsByMajor(byMajor);
+
+            List<CourseDifficulty> ranked = hardest.get(d) == null ? new ArrayList<>() : new ArrayList<>(hardest.get(d));
+            ranked.sort(HARDEST_FIRST);
+            stats.setHardestCourses(ranked);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.lambda.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Counts writes per key in fixed one-minute windows to spot keys that are being written hot.
+// Each key's counter packs (window number << 32 | count) into one AtomicLong, so recording is a CAS.
+// The map is bounded: when it grows past maxKeys, counters from earlier windows are dropped.
+public class HotKeyTracker {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    public HotKeyTracker(int maxKeys, LongSupplier clock) {
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    // Record one write and return how many writes the key has seen in the current window, this one included
+    public int record(String key) {
+        long window = clock.getAsLong() / WINDOW_MILLIS;
+        AtomicLong counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() >= maxKeys) {
+                evictOlderThan(window);
+            }
+            counter = counters.computeIfAbsent(key, ignored -> new AtomicLong());
+        }
+
+        while (true) {
+            long state = counter.get();
+            long count = (state >>> 32) == window ? (state & 0xFFFFFFFFL) + 1 : 1;
+            if (counter.compareAndSet(state, (window << 32) | Math.min(count, 0xFFFFFFFFL))) {
+                return (int) Math.min(count, Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    private void evictOlderThan(long window) {
+        counters.values().removeIf(counter -> (counter.get() >>> 32) < window);
+        if (counters.size() >= maxKeys) {
+            // Every key is active this minute; start over rather than grow without bound
+            counters.clear();
+        }
+    }
+}
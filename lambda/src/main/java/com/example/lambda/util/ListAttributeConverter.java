@@ -0,0 +1,90 @@
+package com.example.lambda.util;
+
+import com.google.gson.Gson;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+// Maps a Course list attribute (aliases, prerequisites, professors, reviews) to a native DynamoDB list.
+//
+// Items written before the native mapping hold the list as a Gson JSON string (S); newer items hold a list (L).
+// Reads accept either, so old and new items coexist while the table is rolled over. Writes are native unless
+// COURSE_LIST_FORMAT=json, which keeps writing strings until every reader of the table understands both.
+public abstract class ListAttributeConverter<T> implements AttributeConverter<List<T>> {
+
+    public static final String FORMAT_ENV = "COURSE_LIST_FORMAT";
+
+    static final Gson gson = new Gson();
+
+    private final boolean writeJson;
+
+    protected ListAttributeConverter() {
+        this("json".equalsIgnoreCase(System.getenv(FORMAT_ENV)));
+    }
+
+    protected ListAttributeConverter(boolean writeJson) {
+        this.writeJson = writeJson;
+    }
+
+    protected abstract Type jsonType();
+
+    protected abstract AttributeValue toElement(T element);
+
+    protected abstract T fromElement(AttributeValue value);
+
+    @Override
+    public AttributeValue transformFrom(List<T> list) {
+        if (writeJson) {
+            return AttributeValue.builder().s(gson.toJson(list, jsonType())).build();
+        }
+        List<AttributeValue> elements = new ArrayList<>(list.size());
+        for (T element : list) {
+            elements.add(element == null ? AttributeValue.builder().nul(true).build() : toElement(element));
+        }
+        return AttributeValue.builder().l(elements).build();
+    }
+
+    @Override
+    public List<T> transformTo(AttributeValue value) {
+        if (value == null || Boolean.TRUE.equals(value.nul())) {
+            return null;
+        }
+        if (value.s() != null) {
+            // Legacy item: the list is a JSON string
+            return gson.fromJson(value.s(), jsonType());
+        }
+        if (value.hasL()) {
+            List<T> list = new ArrayList<>(value.l().size());
+            for (AttributeValue element : value.l()) {
+                list.add(element == null || Boolean.TRUE.equals(element.nul()) ? null : fromElement(element));
+            }
+            return list;
+        }
+        if (value.hasSs()) {
+            List<T> list = new ArrayList<>(value.ss().size());
+            for (String element : value.ss()) {
+                list.add(fromElement(AttributeValue.builder().s(element).build()));
+            }
+            return list;
+        }
+        throw new IllegalArgumentException("Expected a list or JSON string attribute, got " + value.type());
+    }
+
+    @Override
+    public AttributeValueType attributeValueType() {
+        return writeJson ? AttributeValueType.S : AttributeValueType.L;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public EnhancedType<List<T>> type() {
+        return (EnhancedType<List<T>>) (EnhancedType<?>) EnhancedType.listOf(elementClass());
+    }
+
+    protected abstract Class<T> elementClass();
+}
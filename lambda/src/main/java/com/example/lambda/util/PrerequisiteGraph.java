@@ -0,0 +1,430 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Directed prerequisite graph over canonical course codes.
+// Edges are kept as primitive int adjacency rows in both directions; transitive closures are
+// computed on demand as bitsets and cached until the graph changes. A reloaded catalog is caught up to
+// by patching only the courses whose declared prerequisites differ, so the closures survive reloads.
+public class PrerequisiteGraph {
+
+    private static final int[] EMPTY = new int[0];
+
+    private volatile long catalogVersion;
+    private final Map<String, Integer> ids = new HashMap<>();
+    // The prerequisite entries each code was last given, compared on catch-up to find changed courses
+    private final Map<String, List<String>> declared = new HashMap<>();
+    private String[] codes = new String[16];
+    private int[][] prerequisites = new int[16][];  // node -> its direct prerequisites
+    private int[][] unlocks = new int[16][];        // node -> courses that list it directly
+    private BitSet[] requiredClosure = new BitSet[16];
+    private BitSet[] unlockClosure = new BitSet[16];
+    private int size;
+
+    private PrerequisiteGraph(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    public static PrerequisiteGraph build(List<CourseOutput> courses, long catalogVersion) {
+        PrerequisiteGraph graph = new PrerequisiteGraph(catalogVersion);
+
+        graph.declared.putAll(declaredByCode(courses));
+        for (Map.Entry<String, List<String>> entry : graph.declared.entrySet()) {
+            int node = graph.node(entry.getKey());
+            // Resolved first: new nodes can grow the arrays, and the store must land in the grown one
+            int[] edges = graph.nodes(parse(entry.getValue()), node);
+            graph.prerequisites[node] = edges;
+        }
+        graph.rebuildUnlocks();
+        return graph;
+    }
+
+    // Version of the catalog this graph was built from or last caught up to; saveCourse patches do not change it
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    // Bring the graph to a reloaded catalog: only codes whose declared prerequisites changed, appeared or went
+    // away are patched, so closures cached for the rest stay valid. Returns how many codes' edges changed.
+    public synchronized int catchUp(List<CourseOutput> courses, long catalogVersion) {
+        Map<String, List<String>> current = declaredByCode(courses);
+        int patched = 0;
+        for (Map.Entry<String, List<String>> entry : current.entrySet()) {
+            if (!entry.getValue().equals(declared.get(entry.getKey())) && updateCourse(entry.getKey(), entry.getValue())) {
+                patched++;
+            }
+        }
+        for (String code : new ArrayList<>(declared.keySet())) {
+            if (!current.containsKey(code)) {
+                if (removeCourse(code)) {
+                    patched++;
+                }
+                declared.remove(code);
+            }
+        }
+        this.catalogVersion = catalogVersion;
+        return patched;
+    }
+
+    // The raw prerequisite entries of every course by canonical code; courses sharing a code are merged
+    private static Map<String, List<String>> declaredByCode(List<CourseOutput> courses) {
+        Map<String, List<String>> byCode = new HashMap<>();
+        for (CourseOutput course : courses) {
+            String code = canonical(course.getCode());
+            if (code == null) {
+                continue;
+            }
+            List<String> entries = course.getPrerequisites() == null ? List.of() : course.getPrerequisites();
+            List<String> previous = byCode.putIfAbsent(code, entries);
+            if (previous != null && !entries.isEmpty()) {
+                List<String> merged = new ArrayList<>(previous);
+                merged.addAll(entries);
+                byCode.put(code, merged);
+            }
+        }
+        return byCode;
+    }
+
+    // Replace one course's prerequisites in place; returns false when nothing changed
+    public synchronized boolean updateCourse(String rawCode, List<String> rawPrerequisites) {
+        String code = canonical(rawCode);
+        if (code == null) {
+            return false;
+        }
+        declared.put(code, rawPrerequisites == null ? List.of() : rawPrerequisites);
+        int node = node(code);
+        int[] updated = nodes(parse(rawPrerequisites), node);
+        int[] previous = prerequisites[node] == null ? EMPTY : prerequisites[node];
+        if (Arrays.equals(sorted(previous), sorted(updated))) {
+            return false;
+        }
+
+        for (int prerequisite : previous) {
+            unlocks[prerequisite] = without(unlocks[prerequisite], node);
+        }
+        for (int prerequisite : updated) {
+            unlocks[prerequisite] = with(unlocks[prerequisite], node);
+        }
+        prerequisites[node] = updated;
+
+        // Any closure may pass through this node, so drop them all; they are rebuilt lazily
+        Arrays.fill(requiredClosure, null);
+        Arrays.fill(unlockClosure, null);
+        return true;
+    }
+
+    // Forget a deleted course's own prerequisites; it stays a node while other courses still require it
+    public synchronized boolean removeCourse(String rawCode) {
+        return updateCourse(rawCode, List.of());
+    }
+
+    public synchronized boolean contains(String rawCode) {
+        String code = canonical(rawCode);
+        return code != null && ids.containsKey(code);
+    }
+
+    public synchronized List<String> directPrerequisites(String rawCode) {
+        Integer node = id(rawCode);
+        return node == null ? List.of() : names(prerequisites[node]);
+    }
+
+    public synchronized List<String> directUnlocks(String rawCode) {
+        Integer node = id(rawCode);
+        return node == null ? List.of() : names(unlocks[node]);
+    }
+
+    // Everything that must be completed before the course, transitively
+    public synchronized List<String> allPrerequisites(String rawCode) {
+        Integer node = id(rawCode);
+        return node == null ? List.of() : names(closure(node, prerequisites, requiredClosure));
+    }
+
+    // Everything the course eventually leads to
+    public synchronized List<String> allUnlocks(String rawCode) {
+        Integer node = id(rawCode);
+        return node == null ? List.of() : names(closure(node, unlocks, unlockClosure));
+    }
+
+    // Semester-by-semester plan for reaching the target, taking at most maxPerSemester courses per term.
+    // Courses with the longest chain still ahead of them are scheduled first.
+    public synchronized List<List<String>> plan(String rawCode, int maxPerSemester, Collection<String> completed) {
+        Integer target = id(rawCode);
+        if (target == null) {
+            throw new IllegalArgumentException("Unknown course: " + rawCode);
+        }
+        if (maxPerSemester < 1) {
+            throw new IllegalArgumentException("maxPerSemester must be at least 1");
+        }
+
+        BitSet done = new BitSet(size);
+        for (String code : completed) {
+            Integer node = id(code);
+            if (node != null) {
+                done.set(node);
+            }
+        }
+
+        BitSet needed = (BitSet) closure(target, prerequisites, requiredClosure).clone();
+        needed.set(target);
+        needed.andNot(done);
+
+        // Remaining-chain length of each needed node, used as scheduling priority
+        int[] depth = chainLengths(needed);
+
+        List<List<String>> semesters = new ArrayList<>();
+        BitSet remaining = (BitSet) needed.clone();
+        while (!remaining.isEmpty()) {
+            List<Integer> available = new ArrayList<>();
+            for (int node = remaining.nextSetBit(0); node >= 0; node = remaining.nextSetBit(node + 1)) {
+                boolean ready = true;
+                for (int prerequisite : orEmpty(prerequisites[node])) {
+                    if (remaining.get(prerequisite)) {
+                        ready = false;
+                        break;
+                    }
+                }
+                if (ready) {
+                    available.add(node);
+                }
+            }
+            if (available.isEmpty()) {
+                throw new IllegalStateException("Prerequisite cycle among " + cycleMembers(remaining));
+            }
+
+            available.sort((a, b) -> depth[a] != depth[b] ? Integer.compare(depth[b], depth[a]) : codes[a].compareTo(codes[b]));
+            List<String> semester = new ArrayList<>();
+            for (int i = 0; i < available.size() && i < maxPerSemester; i++) {
+                semester.add(codes[available.get(i)]);
+            }
+            // Clear after choosing so a course never shares a semester with its own prerequisite
+            for (String code : semester) {
+                remaining.clear(ids.get(code));
+            }
+            semesters.add(semester);
+        }
+        return semesters;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Iterative DFS so long chains cannot overflow the stack
+    private BitSet closure(int start, int[][] edges, BitSet[] cache) {
+        BitSet cached = cache[start];
+        if (cached != null) {
+            return cached;
+        }
+        BitSet seen = new BitSet(size);
+        int[] stack = new int[Math.max(size, 1)];
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int node = stack[--top];
+            for (int next : orEmpty(edges[node])) {
+                if (!seen.get(next)) {
+                    seen.set(next);
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = next;
+                }
+            }
+        }
+        seen.clear(start);
+        cache[start] = seen;
+        return seen;
+    }
+
+    // For each needed node, the longest run of needed courses that depend on it, ending at the target.
+    // Dynamic programming in reverse topological order (Kahn's algorithm from the target back), so long
+    // chains cannot overflow the stack; nodes on a cycle are never reached and keep 0.
+    private int[] chainLengths(BitSet needed) {
+        int[] depth = new int[size];
+        int[] pendingUnlocks = new int[size];
+        int[] queue = new int[Math.max(needed.cardinality(), 1)];
+        int head = 0, tail = 0;
+        for (int node = needed.nextSetBit(0); node >= 0; node = needed.nextSetBit(node + 1)) {
+            for (int next : orEmpty(unlocks[node])) {
+                if (needed.get(next)) {
+                    pendingUnlocks[node]++;
+                }
+            }
+            if (pendingUnlocks[node] == 0) {
+                queue[tail++] = node;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int prerequisite : orEmpty(prerequisites[node])) {
+                if (needed.get(prerequisite)) {
+                    depth[prerequisite] = Math.max(depth[prerequisite], depth[node] + 1);
+                    if (--pendingUnlocks[prerequisite] == 0) {
+                        queue[tail++] = prerequisite;
+                    }
+                }
+            }
+        }
+        return depth;
+    }
+
+    // The nodes that lie on a cycle themselves, as opposed to merely depending on one: those reachable
+    // again from one of their own prerequisites
+    private List<String> cycleMembers(BitSet nodes) {
+        BitSet cyclic = new BitSet(size);
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            for (int prerequisite : orEmpty(prerequisites[node])) {
+                if (closure(prerequisite, prerequisites, requiredClosure).get(node)) {
+                    cyclic.set(node);
+                    break;
+                }
+            }
+        }
+        return names(cyclic);
+    }
+
+    private void rebuildUnlocks() {
+        int[] counts = new int[size];
+        for (int node = 0; node < size; node++) {
+            for (int prerequisite : orEmpty(prerequisites[node])) {
+                counts[prerequisite]++;
+            }
+        }
+        for (int node = 0; node < size; node++) {
+            unlocks[node] = new int[counts[node]];
+        }
+        int[] fill = new int[size];
+        for (int node = 0; node < size; node++) {
+            for (int prerequisite : orEmpty(prerequisites[node])) {
+                unlocks[prerequisite][fill[prerequisite]++] = node;
+            }
+        }
+    }
+
+    private Integer id(String rawCode) {
+        String code = canonical(rawCode);
+        return code == null ? null : ids.get(code);
+    }
+
+    private int node(String code) {
+        Integer existing = ids.get(code);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == codes.length) {
+            int capacity = size * 2;
+            codes = Arrays.copyOf(codes, capacity);
+            prerequisites = Arrays.copyOf(prerequisites, capacity);
+            unlocks = Arrays.copyOf(unlocks, capacity);
+            requiredClosure = Arrays.copyOf(requiredClosure, capacity);
+            unlockClosure = Arrays.copyOf(unlockClosure, capacity);
+        }
+        int node = size++;
+        codes[node] = code;
+        ids.put(code, node);
+        return node;
+    }
+
+    private int[] nodes(List<String> codeList, int self) {
+        int[] result = new int[codeList.size()];
+        int n = 0;
+        for (String code : codeList) {
+            int node = node(code);
+            if (node != self && indexOf(result, n, node) < 0) {
+                result[n++] = node;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private List<String> names(int[] nodes) {
+        List<String> result = new ArrayList<>();
+        for (int node : orEmpty(nodes)) {
+            result.add(codes[node]);
+        }
+        result.sort(null);
+        return result;
+    }
+
+    private List<String> names(BitSet nodes) {
+        List<String> result = new ArrayList<>(nodes.cardinality());
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            result.add(codes[node]);
+        }
+        result.sort(null);
+        return result;
+    }
+
+    // Every code mentioned in the prerequisite entries; "A or B" is treated as requiring both
+    private static List<String> parse(List<String> entries) {
+        List<String> codes = new ArrayList<>();
+        if (entries == null) {
+            return codes;
+        }
+        for (String entry : entries) {
+            for (String code : CourseCodes.extractAll(entry)) {
+                if (!codes.contains(code)) {
+                    codes.add(code);
+                }
+            }
+        }
+        return codes;
+    }
+
+    private static String canonical(String rawCode) {
+        return CourseCodes.canonicalize(rawCode);
+    }
+
+    private static int[] with(int[] row, int value) {
+        int[] current = orEmpty(row);
+        if (indexOf(current, current.length, value) >= 0) {
+            return current;
+        }
+        int[] result = Arrays.copyOf(current, current.length + 1);
+        result[current.length] = value;
+        return result;
+    }
+
+    private static int[] without(int[] row, int value) {
+        int[] current = orEmpty(row);
+        int index = indexOf(current, current.length, value);
+        if (index < 0) {
+            return current;
+        }
+        int[] result = new int[current.length - 1];
+        System.arraycopy(current, 0, result, 0, index);
+        System.arraycopy(current, index + 1, result, index, current.length - index - 1);
+        return result;
+    }
+
+    private static int indexOf(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] sorted(int[] values) {
+        int[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private static int length(int[] row) {
+        return row == null ? 0 : row.length;
+    }
+
+    private static int[] orEmpty(int[] row) {
+        return row == null ? EMPTY : row;
+    }
+}
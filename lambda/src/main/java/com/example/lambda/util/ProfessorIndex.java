@@ -0,0 +1,117 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Professor -> course positions multimaps over one catalog state.
+//
+// Lookups by name (GET /professors/{name}/courses) see every professor of a course: those in its professors
+// list and those named only on its reviews, which older courses never copied into the list. Free-text search
+// matches only the professors list, exactly as CourseSearch.matchesProfessor does, so adding the index did
+// not change which courses a search returns.
+public class ProfessorIndex {
+
+    private static final String KEY = "professorIndex";
+
+    private final List<CourseOutput> courses;
+    private final Map<String, int[]> coursesByProfessor;
+    // Lower-cased professors-list entries, for search
+    private final Map<String, int[]> coursesByListedProfessor;
+    // Display form of each professor, as first seen in the catalog
+    private final Map<String, String> displayNames;
+
+    private ProfessorIndex(List<CourseOutput> courses, Map<String, int[]> coursesByProfessor,
+                           Map<String, int[]> coursesByListedProfessor, Map<String, String> displayNames) {
+        this.courses = courses;
+        this.coursesByProfessor = coursesByProfessor;
+        this.coursesByListedProfessor = coursesByListedProfessor;
+        this.displayNames = displayNames;
+    }
+
+    // The index for a catalog, built once per catalog state
+    public static ProfessorIndex of(CatalogSnapshot catalog) {
+        return catalog.derived(KEY, snapshot -> build(snapshot.getCourses()));
+    }
+
+    public static ProfessorIndex build(List<CourseOutput> courses) {
+        Map<String, TreeSet<Integer>> positions = new HashMap<>();
+        Map<String, TreeSet<Integer>> listed = new HashMap<>();
+        Map<String, String> displayNames = new HashMap<>();
+
+        for (int i = 0; i < courses.size(); i++) {
+            CourseOutput course = courses.get(i);
+            if (course.getProfessors() != null) {
+                for (String professor : course.getProfessors()) {
+                    add(positions, displayNames, professor, i);
+                    if (professor != null) {
+                        listed.computeIfAbsent(professor.toLowerCase(), ignored -> new TreeSet<>()).add(i);
+                    }
+                }
+            }
+            if (course.getReviews() != null) {
+                for (Review review : course.getReviews()) {
+                    add(positions, displayNames, review.getProfessor(), i);
+                }
+            }
+        }
+
+        return new ProfessorIndex(courses, toArrays(positions), toArrays(listed), displayNames);
+    }
+
+    // Case- and whitespace-insensitive form used as the index key
+    public static String normalize(String professor) {
+        if (professor == null) {
+            return "";
+        }
+        return professor.trim().replaceAll("[\\s\\u00A0]+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Courses taught by exactly this professor (ignoring case and spacing)
+    public List<CourseOutput> coursesFor(String professor) {
+        int[] found = coursesByProfessor.get(normalize(professor));
+        return found == null ? new ArrayList<>() : TrigramIndex.select(courses, found);
+    }
+
+    public String displayName(String professor) {
+        return displayNames.get(normalize(professor));
+    }
+
+    // Sorted positions of courses whose professors list has a name containing the query, ignoring case.
+    // Only the distinct professor names are checked, not every course.
+    public int[] search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return new int[0];
+        }
+        String needle = query.toLowerCase();
+        TreeSet<Integer> matches = new TreeSet<>();
+        for (Map.Entry<String, int[]> entry : coursesByListedProfessor.entrySet()) {
+            if (entry.getKey().contains(needle)) {
+                Arrays.stream(entry.getValue()).forEach(matches::add);
+            }
+        }
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, TreeSet<Integer>> positions) {
+        Map<String, int[]> arrays = new HashMap<>(positions.size() * 2);
+        positions.forEach((professor, set) -> arrays.put(professor, set.stream().mapToInt(Integer::intValue).toArray()));
+        return arrays;
+    }
+
+    private static void add(Map<String, TreeSet<Integer>> positions, Map<String, String> displayNames, String professor, int position) {
+        String key = normalize(professor);
+        if (key.isEmpty()) {
+            return;
+        }
+        positions.computeIfAbsent(key, ignored -> new TreeSet<>()).add(position);
+        displayNames.putIfAbsent(key, professor.trim());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.lambda.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+// Per-client token buckets for admission control.
+//
+// Buckets live in a fixed AtomicLongArray, so memory is bounded no matter how many clients show up.
+// A client hashes to one slot, and each slot packs the bucket into one long:
+//   high 23 bits: available tokens in thousandths
+//   low 41 bits:  millis since this limiter was created of the last refill
+// Updates are a single compare-and-set on that slot. Two clients that hash to the same slot share a
+// bucket; that only ever makes the limit stricter, and with thousands of slots it is rare.
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    public static final int DEFAULT_SLOTS = 1 << 14;
+    public static final double DEFAULT_CAPACITY = 60;
+    public static final double DEFAULT_REFILL_PER_SECOND = 10;
+
+    private static final int TIME_BITS = 41;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long MAX_MILLI_TOKENS = (1L << (Long.SIZE - TIME_BITS)) - 1;
+
+    private final AtomicLongArray slots;
+    private final long capacityMilli;
+    private final double refillMilliPerMilli;   // Tokens per second is the same number as milli-tokens per milli
+    private final LongSupplier clock;
+    private final long start;
+
+    public RateLimiter(int slotCount, double capacity, double refillPerSecond, LongSupplier clock) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("slotCount must be a power of two");
+        }
+        if (capacity <= 0 || capacity * 1000 > MAX_MILLI_TOKENS || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity must be in (0, " + MAX_MILLI_TOKENS / 1000 + "] and refill positive");
+        }
+        this.slots = new AtomicLongArray(slotCount);
+        this.capacityMilli = Math.round(capacity * 1000);
+        this.refillMilliPerMilli = refillPerSecond;
+        this.clock = clock;
+        this.start = clock.getAsLong();
+    }
+
+    // Capacity and refill rate from RATE_LIMIT_CAPACITY / RATE_LIMIT_REFILL_PER_SECOND
+    public static RateLimiter fromEnv() {
+        return new RateLimiter(DEFAULT_SLOTS,
+                doubleFromEnv("RATE_LIMIT_CAPACITY", DEFAULT_CAPACITY),
+                doubleFromEnv("RATE_LIMIT_REFILL_PER_SECOND", DEFAULT_REFILL_PER_SECOND),
+                System::currentTimeMillis);
+    }
+
+    // Take cost tokens from the client's bucket. Returns 0 when admitted, otherwise how many
+    // milliseconds until enough tokens will have accumulated. Rejected calls consume nothing.
+    public long tryAcquire(String client, double cost) {
+        long costMilli = Math.min(capacityMilli, Math.max(0, Math.round(cost * 1000)));
+        int slot = slotOf(client);
+        // Never 0, so a zero slot always means "unused" (a full bucket)
+        long now = Math.min(TIME_MASK, clock.getAsLong() - start + 1);
+
+        while (true) {
+            long state = slots.get(slot);
+            long tokens = state == 0 ? capacityMilli : refilled(state, now);
+
+            if (tokens < costMilli) {
+                return (long) Math.ceil((costMilli - tokens) / refillMilliPerMilli);
+            }
+            long next = ((tokens - costMilli) << TIME_BITS) | now;
+            if (slots.compareAndSet(slot, state, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private long refilled(long state, long now) {
+        long tokens = state >>> TIME_BITS;
+        long elapsed = Math.max(0, now - (state & TIME_MASK));
+        return Math.min(capacityMilli, tokens + (long) (elapsed * refillMilliPerMilli));
+    }
+
+    private int slotOf(String client) {
+        int hash = client == null ? 0 : client.hashCode();
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash & (slots.length() - 1);
+    }
+
+    static double doubleFromEnv(String name, double defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid {} '{}', using default", name, value);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.Review;
+import com.google.gson.reflect.TypeToken;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Inline reviews as a list of M, one map per review with null fields left out (see ListAttributeConverter).
+// Ratings are N and anonymous is BOOL, so nested fields can be projected and updated in place.
+public class ReviewListAttributeConverter extends ListAttributeConverter<Review> {
+
+    private static final Type JSON_TYPE = new TypeToken<List<Review>>() {}.getType();
+
+    public ReviewListAttributeConverter() {
+    }
+
+    public ReviewListAttributeConverter(boolean writeJson) {
+        super(writeJson);
+    }
+
+    @Override
+    protected Type jsonType() {
+        return JSON_TYPE;
+    }
+
+    @Override
+    protected AttributeValue toElement(Review review) {
+        Map<String, AttributeValue> map = new HashMap<>();
+        putString(map, "reviewId", review.getReviewId());
+        putString(map, "createdBy", review.getCreatedBy());
+        putNumber(map, "overall", review.getOverall());
+        putNumber(map, "difficulty", review.getDifficulty());
+        putNumber(map, "usefulness", review.getUsefulness());
+        putString(map, "major", review.getMajor());
+        if (review.getAnonymous() != null) {
+            map.put("anonymous", AttributeValue.builder().bool(review.getAnonymous()).build());
+        }
+        putString(map, "additionalComments", review.getAdditionalComments());
+        putString(map, "tips", review.getTips());
+        putString(map, "createdAt", review.getCreatedAt());
+        putString(map, "professor", review.getProfessor());
+        return AttributeValue.builder().m(map).build();
+    }
+
+    @Override
+    protected Review fromElement(AttributeValue value) {
+        if (value.s() != null) {
+            // A review that was appended as a JSON string by an old writer
+            return gson.fromJson(value.s(), Review.class);
+        }
+        Map<String, AttributeValue> map = value.m();
+        Review review = new Review();
+        review.setReviewId(string(map, "reviewId"));
+        review.setCreatedBy(string(map, "createdBy"));
+        review.setOverall(number(map, "overall"));
+        review.setDifficulty(number(map, "difficulty"));
+        review.setUsefulness(number(map, "usefulness"));
+        review.setMajor(string(map, "major"));
+        AttributeValue anonymous = map.get("anonymous");
+        review.setAnonymous(anonymous == null ? null : anonymous.bool());
+        review.setAdditionalComments(string(map, "additionalComments"));
+        review.setTips(string(map, "tips"));
+        review.setCreatedAt(string(map, "createdAt"));
+        review.setProfessor(string(map, "professor"));
+        return review;
+    }
+
+    @Override
+    protected Class<Review> elementClass() {
+        return Review.class;
+    }
+
+    private static void putString(Map<String, AttributeValue> map, String name, String value) {
+        if (value != null) {
+            map.put(name, AttributeValue.builder().s(value).build());
+        }
+    }
+
+    private static void putNumber(Map<String, AttributeValue> map, String name, Double value) {
+        if (value != null && !value.isNaN() && !value.isInfinite()) {
+            map.put(name, AttributeValue.builder().n(value.toString()).build());
+        }
+    }
+
+    private static String string(Map<String, AttributeValue> map, String name) {
+        AttributeValue value = map.get(name);
+        return value == null ? null : value.s();
+    }
+
+    private static Double number(Map<String, AttributeValue> map, String name) {
+        AttributeValue value = map.get(name);
+        return value == null || value.n() == null ? null : Double.valueOf(value.n());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.Review;
+import com.example.lambda.models.ReviewPage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+// Keyset pagination over a course's reviews.
+// A cursor names the last review returned (its sort key and reviewId) rather than an offset,
+// so reviews added or removed between requests never shift or repeat entries on later pages.
+public class ReviewPager {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    public enum Sort {
+        // Newest first; createdAt is an ISO-8601 string, so lexical order is chronological
+        CREATED_AT("createdAt", Comparator.comparing(Review::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))),
+        // Highest rated first
+        OVERALL("overall", Comparator.comparing(Review::getOverall, Comparator.nullsLast(Comparator.reverseOrder()))),
+        // Hardest first
+        DIFFICULTY("difficulty", Comparator.comparing(Review::getDifficulty, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        private final String parameter;
+        private final Comparator<Review> order;
+
+        Sort(String parameter, Comparator<Review> byKey) {
+            this.parameter = parameter;
+            // reviewId breaks ties so the order is total and a cursor identifies exactly one position
+            this.order = byKey.thenComparing(review -> review.getReviewId() == null ? "" : review.getReviewId());
+        }
+
+        public String getParameter() {
+            return parameter;
+        }
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return CREATED_AT;
+            }
+            for (Sort sort : values()) {
+                if (sort.parameter.equalsIgnoreCase(value.trim())) {
+                    return sort;
+                }
+            }
+            throw new IllegalArgumentException("sort must be one of createdAt, overall, difficulty");
+        }
+
+        private String key(Review review) {
+            Object key = this == CREATED_AT ? review.getCreatedAt() : this == OVERALL ? review.getOverall() : review.getDifficulty();
+            return key == null ? "" : key.toString();
+        }
+
+        // A stand-in review positioned where the cursor points, for comparing against real ones
+        private Review probe(String key, String reviewId) {
+            Review probe = new Review();
+            probe.setReviewId(reviewId);
+            if (!key.isEmpty()) {
+                switch (this) {
+                    case CREATED_AT:
+                        probe.setCreatedAt(key);
+                        break;
+                    case OVERALL:
+                        probe.setOverall(Double.valueOf(key));
+                        break;
+                    default:
+                        probe.setDifficulty(Double.valueOf(key));
+                        break;
+                }
+            }
+            return probe;
+        }
+    }
+
+    private ReviewPager() {
+    }
+
+    public static int parseLimit(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT_LIMIT;
+        }
+        int limit;
+        try {
+            limit = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit must be a number");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // Returns up to limit reviews that come after the cursor (or from the start when it is null)
+    public static ReviewPage page(List<Review> reviews, Sort sort, int limit, String cursor) {
+        return pageSorted(sorted(reviews, sort), sort, limit, cursor);
+    }
+
+    // A copy of the reviews in the sort's order, for pageSorted
+    public static List<Review> sorted(List<Review> reviews, Sort sort) {
+        List<Review> sorted = reviews == null ? new ArrayList<>() : new ArrayList<>(reviews);
+        sorted.sort(sort.order);
+        return sorted;
+    }
+
+    // Same as page() over reviews already in the sort's order: only the cursor search and the page itself
+    // touch the list, so a caller that keeps the sorted list pays O(log n + limit) per page
+    public static ReviewPage pageSorted(List<Review> sorted, Sort sort, int limit, String cursor) {
+        Review after = cursor == null || cursor.isBlank() ? null : decodeCursor(sort, cursor);
+
+        int start = 0;
+        if (after != null) {
+            // First review strictly after the cursor position
+            int low = 0, high = sorted.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sort.order.compare(sorted.get(mid), after) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            start = low;
+        }
+
+        int end = Math.min(start + limit, sorted.size());
+        List<Review> page = new ArrayList<>(sorted.subList(start, end));
+        String next = end < sorted.size() ? encodeCursor(sort, page.get(page.size() - 1)) : null;
+        return new ReviewPage(page, sorted.size(), sort.getParameter(), next);
+    }
+
+    static String encodeCursor(Sort sort, Review last) {
+        String id = last.getReviewId() == null ? "" : last.getReviewId();
+        String raw = sort.getParameter() + "\n" + sort.key(last) + "\n" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Review decodeCursor(Sort sort, String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8).split("\n", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!sort.getParameter().equals(parts[0])) {
+            throw new IllegalArgumentException("Cursor was issued for sort=" + parts[0]);
+        }
+        try {
+            return sort.probe(parts[1], parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
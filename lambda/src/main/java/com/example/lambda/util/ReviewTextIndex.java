@@ -0,0 +1,380 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import com.example.lambda.models.ReviewSearchHit;
+import com.example.lambda.models.ReviewSearchResults;
+import com.example.lambda.models.ReviewSnippet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Positional inverted index over review text (tips, then additionalComments) for one catalog state.
+// Each review with text is a document; documents are numbered in catalog order, so a document maps back to its
+// (course, review) pair with two int lookups. Postings hold, per term, the documents and the token positions in
+// each, which is enough for phrase and proximity queries without touching the reviews themselves; the review
+// text is only read again to cut snippets for the page being returned.
+//
+// Query syntax: bare words must all appear (stop words are ignored), "quoted words" must appear as a phrase,
+// and "quoted words"~N allows up to N other words between consecutive phrase words.
+public class ReviewTextIndex {
+
+    private static final String KEY = "reviewTextIndex";
+
+    public static final int MAX_SNIPPETS_PER_COURSE = 3;
+    public static final int MAX_SLOP = 10;
+
+    // Gap between the tips and additionalComments positions, so a phrase cannot span the two fields
+    private static final int FIELD_GAP = MAX_SLOP + 2;
+    private static final int SNIPPET_CHARS = 160;
+    private static final int SNIPPET_CONTEXT = 40;
+    private static final Pattern CLAUSE = Pattern.compile("\"([^\"]*)\"(?:~(\\d+))?|([^\\s\"]+)");
+
+    private final List<CourseOutput> courses;
+    private final int[] documentCourse;     // document -> course position
+    private final int[] documentReview;     // document -> index into that course's reviews
+    private final int[] commentsStart;      // document -> first position of additionalComments
+    private final Map<String, Postings> postings;
+
+    // Words that must appear together, each within 1 + slop positions of the previous one
+    private static final class Clause {
+        private final String[] terms;
+        private final int slop;
+
+        private Clause(String[] terms, int slop) {
+            this.terms = terms;
+            this.slop = slop;
+        }
+    }
+
+    private static final class Postings {
+        private int[] documents = new int[2];
+        private int[] offsets = new int[3];    // documents[i]'s positions are positions[offsets[i] .. offsets[i + 1])
+        private int[] positions = new int[4];
+        private int documentCount;
+        private int positionCount;
+
+        private void add(int document, int position) {
+            if (documentCount == 0 || documents[documentCount - 1] != document) {
+                if (documentCount + 1 == documents.length) {
+                    documents = Arrays.copyOf(documents, documents.length * 2);
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                documents[documentCount] = document;
+                offsets[documentCount] = positionCount;
+                documentCount++;
+            }
+            if (positionCount == positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+            positions[positionCount++] = position;
+            offsets[documentCount] = positionCount;
+        }
+
+        private void trim() {
+            documents = Arrays.copyOf(documents, documentCount);
+            offsets = Arrays.copyOf(offsets, documentCount + 1);
+            positions = Arrays.copyOf(positions, positionCount);
+        }
+
+        private int find(int document) {
+            return Arrays.binarySearch(documents, 0, documentCount, document);
+        }
+
+        private boolean hasPosition(int index, int from, int to) {
+            int i = Arrays.binarySearch(positions, offsets[index], offsets[index + 1], from);
+            if (i >= 0) {
+                return true;
+            }
+            int insertion = -i - 1;
+            return insertion < offsets[index + 1] && positions[insertion] <= to;
+        }
+
+        // First position in [from, to] for documents[index], or -1
+        private int firstPosition(int index, int from, int to) {
+            int i = Arrays.binarySearch(positions, offsets[index], offsets[index + 1], from);
+            int at = i >= 0 ? i : -i - 1;
+            return at < offsets[index + 1] && positions[at] <= to ? positions[at] : -1;
+        }
+    }
+
+    private ReviewTextIndex(List<CourseOutput> courses, int[] documentCourse, int[] documentReview,
+                            int[] commentsStart, Map<String, Postings> postings) {
+        this.courses = courses;
+        this.documentCourse = documentCourse;
+        this.documentReview = documentReview;
+        this.commentsStart = commentsStart;
+        this.postings = postings;
+    }
+
+    // The index for a catalog, built once per catalog state
+    public static ReviewTextIndex of(CatalogSnapshot catalog) {
+        return catalog.derived(KEY, snapshot -> build(snapshot.getCourses()));
+    }
+
+    public static ReviewTextIndex build(List<CourseOutput> courses) {
+        Map<String, Postings> postings = new HashMap<>();
+        int[] documentCourse = new int[64];
+        int[] documentReview = new int[64];
+        int[] commentsStart = new int[64];
+        int documents = 0;
+
+        for (int c = 0; c < courses.size(); c++) {
+            List<Review> reviews = courses.get(c).getReviews();
+            if (reviews == null) {
+                continue;
+            }
+            for (int r = 0; r < reviews.size(); r++) {
+                Review review = reviews.get(r);
+                if (isBlank(review.getTips()) && isBlank(review.getAdditionalComments())) {
+                    continue;
+                }
+                int document = documents++;
+                if (document == documentCourse.length) {
+                    documentCourse = Arrays.copyOf(documentCourse, document * 2);
+                    documentReview = Arrays.copyOf(documentReview, document * 2);
+                    commentsStart = Arrays.copyOf(commentsStart, document * 2);
+                }
+                documentCourse[document] = c;
+                documentReview[document] = r;
+
+                int[] next = {0};
+                TextAnalyzer.tokenize(review.getTips(), (term, position, start, end) -> {
+                    postings.computeIfAbsent(term, ignored -> new Postings()).add(document, position);
+                    next[0] = position + 1;
+                });
+                int base = next[0] + FIELD_GAP;
+                commentsStart[document] = base;
+                TextAnalyzer.tokenize(review.getAdditionalComments(), (term, position, start, end) ->
+                        postings.computeIfAbsent(term, ignored -> new Postings()).add(document, base + position));
+            }
+        }
+
+        postings.values().forEach(Postings::trim);
+        return new ReviewTextIndex(courses, Arrays.copyOf(documentCourse, documents),
+                Arrays.copyOf(documentReview, documents), Arrays.copyOf(commentsStart, documents), postings);
+    }
+
+    public int documentCount() {
+        return documentCourse.length;
+    }
+
+    // Courses whose reviews match the query, most matching reviews first, one page at a time
+    public ReviewSearchResults search(String query, int offset, int limit) {
+        List<Clause> clauses = new ArrayList<>();
+        Set<String> highlightTerms = new HashSet<>();
+        parse(query, clauses, highlightTerms);
+        if (clauses.isEmpty()) {
+            throw new IllegalArgumentException("Query has no searchable words");
+        }
+
+        // Rarest clause first, so the candidate set starts small
+        clauses.sort((a, b) -> Integer.compare(rarity(a.terms), rarity(b.terms)));
+
+        int[][] matched = null;   // {documents, first matching position}
+        for (Clause clause : clauses) {
+            int[][] clauseMatches = match(clause.terms, clause.slop);
+            matched = matched == null ? clauseMatches : intersect(matched, clauseMatches);
+            if (matched[0].length == 0) {
+                break;
+            }
+        }
+
+        // Group by course; documents are numbered in catalog order, so a course's documents are contiguous
+        List<int[]> groups = new ArrayList<>();   // {course, first document index in matched, match count}
+        for (int i = 0; i < matched[0].length; i++) {
+            int course = documentCourse[matched[0][i]];
+            if (groups.isEmpty() || groups.get(groups.size() - 1)[0] != course) {
+                groups.add(new int[]{course, i, 0});
+            }
+            groups.get(groups.size() - 1)[2]++;
+        }
+        groups.sort((a, b) -> a[2] != b[2] ? Integer.compare(b[2], a[2]) : Integer.compare(a[0], b[0]));
+
+        List<ReviewSearchHit> page = new ArrayList<>();
+        for (int g = offset; g < groups.size() && page.size() < limit; g++) {
+            int[] group = groups.get(g);
+            CourseOutput course = courses.get(group[0]);
+            List<ReviewSnippet> snippets = new ArrayList<>();
+            for (int i = group[1]; i < group[1] + Math.min(group[2], MAX_SNIPPETS_PER_COURSE); i++) {
+                snippets.add(snippet(matched[0][i], matched[1][i], highlightTerms));
+            }
+            ReviewSearchHit hit = new ReviewSearchHit();
+            hit.setName(course.getName());
+            hit.setCode(course.getCode());
+            hit.setTitle(course.getTitle());
+            hit.setMatchCount(group[2]);
+            hit.setSnippets(snippets);
+            page.add(hit);
+        }
+        Integer nextOffset = offset + page.size() < groups.size() ? offset + page.size() : null;
+        return new ReviewSearchResults(query, groups.size(), page, nextOffset);
+    }
+
+    private static void parse(String query, List<Clause> clauses, Set<String> highlightTerms) {
+        Matcher matcher = CLAUSE.matcher(query == null ? "" : query);
+        while (matcher.find()) {
+            if (matcher.group(3) != null) {
+                // A bare word; punctuation inside it ("e.g.", "pre-req") still splits into separate terms
+                TextAnalyzer.tokenize(matcher.group(3), (term, position, start, end) -> {
+                    String word = matcher.group(3).substring(start, end).toLowerCase(Locale.ROOT);
+                    if (!TextAnalyzer.isStopWord(word)) {
+                        clauses.add(new Clause(new String[]{term}, 0));
+                        highlightTerms.add(term);
+                    }
+                });
+                continue;
+            }
+            List<String> phrase = new ArrayList<>();
+            TextAnalyzer.tokenize(matcher.group(1), (term, position, start, end) -> phrase.add(term));
+            if (phrase.isEmpty()) {
+                continue;
+            }
+            int slop = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+            if (slop > MAX_SLOP) {
+                throw new IllegalArgumentException("Proximity must be at most ~" + MAX_SLOP);
+            }
+            clauses.add(new Clause(phrase.toArray(new String[0]), slop));
+            highlightTerms.addAll(phrase);
+        }
+    }
+
+    private int rarity(String[] terms) {
+        int rarest = Integer.MAX_VALUE;
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            rarest = Math.min(rarest, list == null ? 0 : list.documentCount);
+        }
+        return rarest;
+    }
+
+    // Documents matching one clause, ascending, with the position where the first match starts
+    private int[][] match(String[] terms, int slop) {
+        Postings[] lists = new Postings[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            lists[t] = postings.get(terms[t]);
+            if (lists[t] == null) {
+                return new int[][]{new int[0], new int[0]};
+            }
+        }
+
+        Postings first = lists[0];
+        int[] documents = new int[first.documentCount];
+        int[] starts = new int[first.documentCount];
+        int count = 0;
+        int[] indexes = new int[terms.length];
+        for (int d = 0; d < first.documentCount; d++) {
+            int document = first.documents[d];
+            indexes[0] = d;
+            boolean present = true;
+            for (int t = 1; t < terms.length && present; t++) {
+                indexes[t] = lists[t].find(document);
+                present = indexes[t] >= 0;
+            }
+            if (!present) {
+                continue;
+            }
+            for (int p = first.offsets[d]; p < first.offsets[d + 1]; p++) {
+                if (phraseAt(lists, indexes, first.positions[p], slop)) {
+                    documents[count] = document;
+                    starts[count] = first.positions[p];
+                    count++;
+                    break;
+                }
+            }
+        }
+        return new int[][]{Arrays.copyOf(documents, count), Arrays.copyOf(starts, count)};
+    }
+
+    // Each next phrase word follows the previous one within 1 + slop positions
+    private static boolean phraseAt(Postings[] lists, int[] indexes, int start, int slop) {
+        int previous = start;
+        for (int t = 1; t < lists.length; t++) {
+            if (slop == 0) {
+                if (!lists[t].hasPosition(indexes[t], previous + 1, previous + 1)) {
+                    return false;
+                }
+                previous++;
+            } else {
+                int next = lists[t].firstPosition(indexes[t], previous + 1, previous + 1 + slop);
+                if (next < 0) {
+                    return false;
+                }
+                previous = next;
+            }
+        }
+        return true;
+    }
+
+    private static int[][] intersect(int[][] a, int[][] b) {
+        int[] documents = new int[Math.min(a[0].length, b[0].length)];
+        int[] starts = new int[documents.length];
+        int count = 0;
+        for (int i = 0, j = 0; i < a[0].length && j < b[0].length; ) {
+            if (a[0][i] < b[0][j]) {
+                i++;
+            } else if (a[0][i] > b[0][j]) {
+                j++;
+            } else {
+                documents[count] = a[0][i];
+                starts[count] = Math.min(a[1][i], b[1][j]);
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return new int[][]{Arrays.copyOf(documents, count), Arrays.copyOf(starts, count)};
+    }
+
+    // Excerpt of the field holding the first match, with the query words marked
+    private ReviewSnippet snippet(int document, int position, Set<String> highlightTerms) {
+        Review review = courses.get(documentCourse[document]).getReviews().get(documentReview[document]);
+        boolean inComments = position >= commentsStart[document];
+        String text = inComments ? review.getAdditionalComments() : review.getTips();
+        int target = inComments ? position - commentsStart[document] : position;
+
+        List<int[]> matches = new ArrayList<>();
+        int[] anchor = {0};
+        TextAnalyzer.tokenize(text, (term, at, start, end) -> {
+            if (at == target) {
+                anchor[0] = start;
+            }
+            if (highlightTerms.contains(term)) {
+                matches.add(new int[]{start, end});
+            }
+        });
+
+        int from = Math.max(0, anchor[0] - SNIPPET_CONTEXT);
+        if (from > 0) {
+            int space = text.indexOf(' ', from);
+            from = space < 0 || space >= anchor[0] ? from : space + 1;
+        }
+        int to = Math.min(text.length(), from + SNIPPET_CHARS);
+        if (to < text.length()) {
+            int space = text.lastIndexOf(' ', to);
+            to = space > anchor[0] ? space : to;
+        }
+
+        String prefix = from > 0 ? "\u2026" : "";
+        String excerpt = prefix + text.substring(from, to) + (to < text.length() ? "\u2026" : "");
+        List<int[]> highlights = new ArrayList<>();
+        for (int[] match : matches) {
+            if (match[0] >= from && match[1] <= to) {
+                highlights.add(new int[]{match[0] - from + prefix.length(), match[1] - from + prefix.length()});
+            }
+        }
+        return new ReviewSnippet(review.getReviewId(), inComments ? "additionalComments" : "tips", excerpt, highlights);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cached courses' reviews in each page order, sorted on first use and kept for the life of one catalog snapshot
+// (see CatalogSnapshot.derived). Paging a popular course then costs a binary search and a sublist per request
+// instead of a copy and sort of every review.
+public class ReviewViews {
+
+    private static final class View {
+        private final CourseOutput course;
+        private final List<Review> reviews;
+
+        private View(CourseOutput course, List<Review> reviews) {
+            this.course = course;
+            this.reviews = reviews;
+        }
+    }
+
+    private final Map<String, View> views = new ConcurrentHashMap<>();
+
+    // For CatalogSnapshot.derived
+    public static ReviewViews of(CatalogSnapshot catalog) {
+        return new ReviewViews();
+    }
+
+    // The course's reviews in the sort's order. A view is tied to the course instance it was built from, so a
+    // course replaced by a write is sorted again rather than served from its old reviews.
+    public List<Review> sorted(CourseOutput course, ReviewPager.Sort sort) {
+        String key = course.getName() + "#" + course.getCode() + "#" + sort.getParameter();
+        View view = views.get(key);
+        if (view == null || view.course != course) {
+            view = new View(course, Collections.unmodifiableList(ReviewPager.sorted(course.getReviews(), sort)));
+            views.put(key, view);
+        }
+        return view.reviews;
+    }
+}
@@ -1,28 +1,128 @@
 package com.example.lambda.util;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+// Class roster of unique student names, kept in enrollment order.
+// Names are held in a hash-indexed linked set, so lookup, add and remove are O(1) and
+// splitting into sections is a single pass; nothing recurses or copies the list per operation.
 public class Roster {
-    public int maxCount = 24;
-    public List<String> studentNames = new ArrayList<>();
 
-    public List<String> organizeRoster(List<String> studentNames, int maxCount) {
+    public static final int DEFAULT_MAX_COUNT = 24;
 
-        return new ArrayList<>(studentNames);
+    private final int maxCount;
+    private final Set<String> studentNames = new LinkedHashSet<>();
+
+    public Roster() {
+        this(DEFAULT_MAX_COUNT);
+    }
+
+    public Roster(int maxCount) {
+        if (maxCount < 1) {
+            throw new IllegalArgumentException("maxCount must be at least 1");
+        }
+        this.maxCount = maxCount;
+    }
+
+    public Roster(Collection<String> studentNames, int maxCount) {
+        this(maxCount);
+        addAll(studentNames);
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public int size() {
+        return studentNames.size();
+    }
+
+    // Names in enrollment order; read-only view
+    public Set<String> getStudentNames() {
+        return Collections.unmodifiableSet(studentNames);
+    }
+
+    // Returns false if the name was already on the roster; null and blank names are ignored
+    public boolean add(String name) {
+        return name != null && !name.isBlank() && studentNames.add(name);
+    }
+
+    public boolean remove(String name) {
+        return name != null && studentNames.remove(name);
+    }
+
+    public boolean contains(String name) {
+        return name != null && studentNames.contains(name);
     }
 
-    public String findName(List<String> roster, String name) {
-        return find(roster, name, 0);
+    // Returns how many names were actually added
+    public int addAll(Collection<String> names) {
+        int added = 0;
+        for (String name : names) {
+            if (add(name)) {
+                added++;
+            }
+        }
+        return added;
     }
 
-    private String find(List<String> roster, String name, int index) {
-        if (index >= roster.size()) {
-            return null;
+    // Returns how many names were actually removed
+    public int removeAll(Collection<String> names) {
+        int removed = 0;
+        for (String name : names) {
+            if (remove(name)) {
+                removed++;
+            }
         }
-        if(name.equals(roster.get(index))) {
-            return name;
+        return removed;
+    }
+
+    // Returns the name if it is on the roster, otherwise null
+    public String findName(String name) {
+        return contains(name) ? name : null;
+    }
+
+    // Split the roster into the fewest sections of at most maxCount students, balanced so that
+    // section sizes differ by at most one (50 students, maxCount 24 -> 17, 17, 16 rather than 24, 24, 2)
+    public List<List<String>> sections() {
+        int total = studentNames.size();
+        if (total == 0) {
+            return new ArrayList<>();
+        }
+        int sectionCount = (total + maxCount - 1) / maxCount;
+        int baseSize = total / sectionCount;
+        int larger = total % sectionCount;   // The first `larger` sections take one extra student
+
+        List<List<String>> sections = new ArrayList<>(sectionCount);
+        Iterator<String> names = studentNames.iterator();
+        for (int section = 0; section < sectionCount; section++) {
+            int size = baseSize + (section < larger ? 1 : 0);
+            List<String> members = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                members.add(names.next());
+            }
+            sections.add(members);
+        }
+        return sections;
+    }
+
+    // Deduplicate the names and split them into sections of at most maxCount students
+    public static List<List<String>> organizeRoster(List<String> studentNames, int maxCount) {
+        return new Roster(studentNames, maxCount).sections();
+    }
+
+    // Linear lookup in a plain list, for callers that do not hold a Roster
+    public static String findName(List<String> roster, String name) {
+        for (String entry : roster) {
+            if (entry != null && entry.equals(name)) {
+                return name;
+            }
         }
-        return find(roster, name, index + 1);
+        return null;
     }
- }
+}
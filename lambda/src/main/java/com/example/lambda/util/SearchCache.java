@@ -0,0 +1,125 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public class SearchCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchCache.class);
+
+    // Default number of distinct queries kept per container
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    // Entries older than this are dropped even if the local generation is unchanged,
+    // because writes made through other Lambda containers do not bump our counter
+    public static final long DEFAULT_MAX_AGE_MILLIS = 60_000;
+
+    private final int maxEntries;
+    private final long maxAgeMillis;
+    private final LongSupplier clock;
+    private final Map<String, Cached> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SearchCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_AGE_MILLIS, System::currentTimeMillis);
+    }
+
+    public SearchCache(int maxEntries, long maxAgeMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+        // Access-ordered LinkedHashMap gives us LRU eviction for free
+        this.entries = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > SearchCache.this.maxEntries;
+            }
+        };
+    }
+
+    // Cache key for a query. Only surrounding whitespace is dropped, exactly as the search itself does;
+    // "CSDS 101" and "csds 101" may match different courses, so they are cached separately.
+    public static String normalize(String query) {
+        return query == null ? "" : query.trim();
+    }
+
+    // Returns the cached results for the query, or null if absent or stale for this generation
+    public List<CourseOutput> get(String query, long generation) {
+        String key = normalize(query);
+        long now = clock.getAsLong();
+
+        synchronized (entries) {
+            Cached entry = entries.get(key);
+            if (entry != null && entry.generation == generation && now - entry.storedAt <= maxAgeMillis) {
+                hits.incrementAndGet();
+                return entry.results;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String query, long generation, List<CourseOutput> results) {
+        Cached entry = new Cached(generation, clock.getAsLong(), List.copyOf(results));
+        synchronized (entries) {
+            entries.put(normalize(query), entry);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // Log the current cache metrics so they can be picked up from CloudWatch
+    public void logMetrics() {
+        logger.info("Search cache metrics: hits={}, misses={}, hitRatio={}, size={}",
+                getHits(), getMisses(), String.format("%.3f", getHitRatio()), size());
+    }
+
+    private static class Cached {
+        private final long generation;
+        private final long storedAt;
+        private final List<CourseOutput> results;
+
+        private Cached(long generation, long storedAt, List<CourseOutput> results) {
+            this.generation = generation;
+            this.storedAt = storedAt;
+            this.results = results;
+        }
+    }
+}
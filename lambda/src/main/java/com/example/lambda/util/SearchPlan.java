@@ -0,0 +1,62 @@
+package com.example.lambda.util;
+
+// Describes how a search query should be executed against the Courses table
+public class SearchPlan {
+
+    public enum Type {
+        CODE,       // Exact course code, answered from the CodeIndex GSI. Only that code matches: "CSDS 101"
+                    // no longer also returns "CSDS 101H" the way the scan's substring match did, unless the
+                    // index has no "CSDS 101" and the search falls back to the scan.
+        TITLE,      // Course code followed by a name, answered from the TitleIndex GSI
+        FREE_TEXT   // Anything else, answered by scanning the catalog
+    }
+
+    private final Type type;
+    private final String key;
+    private final String query;
+
+    private SearchPlan(Type type, String key, String query) {
+        this.type = type;
+        this.key = key;
+        this.query = query;
+    }
+
+    // Classify a raw search query
+    public static SearchPlan plan(String query) {
+        String trimmed = query == null ? "" : query.trim();
+
+        String code = CourseCodes.canonicalize(trimmed);
+        if (code != null) {
+            return new SearchPlan(Type.CODE, code, trimmed);
+        }
+
+        String title = CourseCodes.canonicalTitle(trimmed);
+        if (title != null) {
+            return new SearchPlan(Type.TITLE, title, trimmed);
+        }
+
+        return new SearchPlan(Type.FREE_TEXT, null, trimmed);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // Index key for CODE and TITLE plans, null for free text
+    public String getKey() {
+        return key;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchPlan{" +
+                "type=" + type +
+                ", key='" + key + '\'' +
+                ", query='" + query + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,421 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.SimilarCourse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// "Similar courses" over TF-IDF vectors of each course's name, aliases and description.
+// Vectors are sparse (sorted int term ids + float weights, L2-normalized) and an inverted index of int postings
+// is used to score one course against all others without comparing every pair. The top NEIGHBORS matches of
+// every course are precomputed, so a lookup is just a read of that list.
+//
+// A saved or deleted course is patched in place: its vector and postings are replaced, its own row is rescored,
+// and only rows it enters or leaves are touched. A reloaded catalog is caught up to the same way, patching only
+// courses whose text changed. Vectors already in the index keep the IDF they were built with, which is close
+// enough for ranking neighbors until patches pile up past MAX_DRIFT of the catalog; then the caller rebuilds.
+public class SimilarityIndex {
+
+    public static final int NEIGHBORS = 10;
+    // Share of the catalog that may be patched since the last build before IDF is considered stale
+    private static final double MAX_DRIFT = 0.25;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float ALIAS_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final int[] NO_TERMS = new int[0];
+    private static final float[] NO_WEIGHTS = new float[0];
+
+    private volatile long catalogVersion;
+    private int patchedSinceBuild;
+
+    // Vocabulary
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private int[] documentFrequency = new int[256];
+    private int[][] postings = new int[256][];   // term -> slots containing it (first postingSizes[term] entries)
+    private int[] postingSizes = new int[256];
+
+    // Courses, by slot; a deleted course leaves its slot empty (terms == null)
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] names = new String[64];
+    private String[] codes = new String[64];
+    private Object[] sources = new Object[64];     // The aliases and description the vector was built from
+    private int[][] terms = new int[64][];
+    private float[][] weights = new float[64][];
+    private int[][] neighbors = new int[64][];     // Most similar first
+    private float[][] neighborScores = new float[64][];
+    private int slotCount;
+    private int liveCount;
+
+    // Scratch for scoring one row
+    private float[] scores = new float[64];
+
+    private SimilarityIndex(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    public static SimilarityIndex build(List<CourseOutput> courses, long catalogVersion) {
+        SimilarityIndex index = new SimilarityIndex(catalogVersion);
+
+        // Document frequencies first, so every vector is weighted against the whole catalog
+        List<Map<String, Float>> frequencies = new ArrayList<>(courses.size());
+        for (CourseOutput course : courses) {
+            Map<String, Float> frequency = termFrequencies(course);
+            frequencies.add(frequency);
+            for (String term : frequency.keySet()) {
+                int id = index.termId(term);
+                index.documentFrequency[id]++;
+            }
+        }
+        index.liveCount = courses.size();
+
+        for (int i = 0; i < courses.size(); i++) {
+            CourseOutput course = courses.get(i);
+            int slot = index.slot(course.getName(), course.getCode());
+            index.setVector(slot, frequencies.get(i));
+            index.sources[slot] = source(course);
+        }
+        index.liveCount = index.slotCount;
+        for (int slot = 0; slot < index.slotCount; slot++) {
+            index.rescore(slot);
+        }
+        return index;
+    }
+
+    // Version of the catalog this index was built from or last caught up to; saveCourse patches do not change it
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    // Bring the index to a reloaded catalog by patching only the courses whose text changed, appeared or went
+    // away. Returns false, changing nothing, when that would leave more than MAX_DRIFT of the catalog patched
+    // since the build; a fresh build is both cheaper than that many patches and refreshes the IDF.
+    public synchronized boolean catchUp(List<CourseOutput> courses, long catalogVersion) {
+        List<CourseOutput> changed = new ArrayList<>();
+        Set<String> present = new HashSet<>(courses.size() * 2);
+        for (CourseOutput course : courses) {
+            String key = key(course.getName(), course.getCode());
+            present.add(key);
+            Integer slot = slots.get(key);
+            if (slot == null || terms[slot] == null || !source(course).equals(sources[slot])) {
+                changed.add(course);
+            }
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : slots.entrySet()) {
+            if (terms[entry.getValue()] != null && !present.contains(entry.getKey())) {
+                removed.add(entry.getValue());
+            }
+        }
+        if (patchedSinceBuild + changed.size() + removed.size() > MAX_DRIFT * Math.max(liveCount, courses.size())) {
+            return false;
+        }
+
+        for (CourseOutput course : changed) {
+            updateCourse(course);
+        }
+        for (int slot : removed) {
+            removeCourse(names[slot], codes[slot]);
+        }
+        this.catalogVersion = catalogVersion;
+        return true;
+    }
+
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    // Courses most similar to (name, code), best first, or null if the course is not in the index
+    public synchronized List<SimilarCourse> similarTo(String name, String code, int limit) {
+        Integer slot = slots.get(key(name, code));
+        if (slot == null || terms[slot] == null) {
+            return null;
+        }
+        int[] row = neighbors[slot];
+        List<SimilarCourse> similar = new ArrayList<>(Math.min(limit, row.length));
+        for (int i = 0; i < row.length && similar.size() < limit; i++) {
+            int other = row[i];
+            similar.add(new SimilarCourse(names[other], codes[other], codes[other] + " " + names[other], neighborScores[slot][i]));
+        }
+        return similar;
+    }
+
+    // Replace one course's vector and patch the neighbor lists it affects; returns false when its text is unchanged
+    public synchronized boolean updateCourse(CourseOutput course) {
+        String key = key(course.getName(), course.getCode());
+        Integer existing = slots.get(key);
+        Map<String, Float> frequency = termFrequencies(course);
+
+        int slot;
+        if (existing != null && terms[existing] != null) {
+            slot = existing;
+            int[] previousTerms = terms[slot];
+            float[] previousWeights = weights[slot];
+            removePostings(slot);
+            for (String term : frequency.keySet()) {
+                documentFrequency[termId(term)]++;
+            }
+            setVector(slot, frequency);
+            sources[slot] = source(course);
+            if (Arrays.equals(previousTerms, terms[slot]) && Arrays.equals(previousWeights, weights[slot])) {
+                return false;
+            }
+        } else {
+            slot = existing != null ? existing : slot(course.getName(), course.getCode());
+            liveCount++;
+            for (String term : frequency.keySet()) {
+                documentFrequency[termId(term)]++;
+            }
+            setVector(slot, frequency);
+            sources[slot] = source(course);
+        }
+
+        patchedSinceBuild++;
+        // Copied because refilling other rows below reuses the scratch row
+        float[] row = Arrays.copyOf(rescore(slot), slotCount);
+        for (int other = 0; other < slotCount; other++) {
+            if (other == slot || terms[other] == null) {
+                continue;
+            }
+            if (contains(neighbors[other], slot)) {
+                // Its score to this course changed and may have dropped out of the top list, so refill the row
+                rescore(other);
+            } else if (row[other] > 0) {
+                offer(other, slot, row[other]);
+            }
+        }
+        return true;
+    }
+
+    // Drop a deleted course and refill the rows that listed it; returns false if it was not indexed
+    public synchronized boolean removeCourse(String name, String code) {
+        Integer slot = slots.get(key(name, code));
+        if (slot == null || terms[slot] == null) {
+            return false;
+        }
+        patchedSinceBuild++;
+        removePostings(slot);
+        terms[slot] = null;
+        weights[slot] = null;
+        sources[slot] = null;
+        neighbors[slot] = NO_TERMS;
+        neighborScores[slot] = NO_WEIGHTS;
+        liveCount--;
+        for (int other = 0; other < slotCount; other++) {
+            if (terms[other] != null && contains(neighbors[other], slot)) {
+                rescore(other);
+            }
+        }
+        return true;
+    }
+
+    // Weighted term counts over the fields used for similarity; the code is left out so that sharing a
+    // department alone does not make two courses similar
+    private static Map<String, Float> termFrequencies(CourseOutput course) {
+        Map<String, Float> frequency = new HashMap<>();
+        add(frequency, course.getName(), NAME_WEIGHT);
+        if (course.getAliases() != null) {
+            for (Object alias : course.getAliases()) {
+                add(frequency, alias == null ? null : String.valueOf(alias), ALIAS_WEIGHT);
+            }
+        }
+        add(frequency, course.getDescription(), DESCRIPTION_WEIGHT);
+        return frequency;
+    }
+
+    // The fields termFrequencies reads besides the name, which is part of the slot key
+    private static List<Object> source(CourseOutput course) {
+        return Arrays.asList(course.getAliases(), course.getDescription());
+    }
+
+    private static void add(Map<String, Float> frequency, String text, float weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequency.merge(term, weight, Float::sum);
+        }
+    }
+
+    // Sublinear TF times smoothed IDF, normalized to unit length; also adds the slot to each term's postings
+    private void setVector(int slot, Map<String, Float> frequency) {
+        int[] ids = new int[frequency.size()];
+        int n = 0;
+        for (String term : frequency.keySet()) {
+            ids[n++] = termIds.get(term);
+        }
+        Arrays.sort(ids);
+
+        String[] byId = new String[ids.length];
+        for (Map.Entry<String, Float> entry : frequency.entrySet()) {
+            byId[Arrays.binarySearch(ids, termIds.get(entry.getKey()))] = entry.getKey();
+        }
+        float[] vector = new float[ids.length];
+        double norm = 0;
+        for (int i = 0; i < ids.length; i++) {
+            double idf = Math.log((1.0 + liveCount) / (1.0 + documentFrequency[ids[i]])) + 1;
+            double weight = (1 + Math.log(frequency.get(byId[i]))) * idf;
+            vector[i] = (float) weight;
+            norm += weight * weight;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+
+        terms[slot] = ids;
+        weights[slot] = vector;
+        for (int id : ids) {
+            addPosting(id, slot);
+        }
+    }
+
+    private void removePostings(int slot) {
+        for (int id : terms[slot]) {
+            documentFrequency[id]--;
+            int[] list = postings[id];
+            int size = postingSizes[id];
+            for (int i = 0; i < size; i++) {
+                if (list[i] == slot) {
+                    System.arraycopy(list, i + 1, list, i, size - i - 1);
+                    postingSizes[id] = size - 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    // Score one course against every other through the postings of its terms, keep the best NEIGHBORS,
+    // and return the full score row (valid until the next call)
+    private float[] rescore(int slot) {
+        if (scores.length < slotCount) {
+            scores = new float[names.length];
+        }
+        Arrays.fill(scores, 0, slotCount, 0f);
+        int[] ids = terms[slot];
+        float[] vector = weights[slot];
+        for (int t = 0; t < ids.length; t++) {
+            int[] list = postings[ids[t]];
+            int size = postingSizes[ids[t]];
+            for (int i = 0; i < size; i++) {
+                scores[list[i]] += vector[t] * weightOf(list[i], ids[t]);
+            }
+        }
+        scores[slot] = 0;
+
+        int[] best = new int[NEIGHBORS];
+        float[] bestScores = new float[NEIGHBORS];
+        int count = 0;
+        for (int other = 0; other < slotCount; other++) {
+            if (scores[other] > 0) {
+                count = insert(best, bestScores, count, other, scores[other]);
+            }
+        }
+        neighbors[slot] = Arrays.copyOf(best, count);
+        neighborScores[slot] = Arrays.copyOf(bestScores, count);
+        return scores;
+    }
+
+    // Put candidate into slot's neighbor list if it scores high enough
+    private void offer(int slot, int candidate, float score) {
+        int[] best = Arrays.copyOf(neighbors[slot], NEIGHBORS);
+        float[] bestScores = Arrays.copyOf(neighborScores[slot], NEIGHBORS);
+        int count = insert(best, bestScores, neighbors[slot].length, candidate, score);
+        neighbors[slot] = Arrays.copyOf(best, count);
+        neighborScores[slot] = Arrays.copyOf(bestScores, count);
+    }
+
+    // Insertion into a descending top list of at most NEIGHBORS entries; ties keep the earlier slot first
+    private static int insert(int[] best, float[] bestScores, int count, int candidate, float score) {
+        int position = count;
+        while (position > 0 && (bestScores[position - 1] < score
+                || (bestScores[position - 1] == score && best[position - 1] > candidate))) {
+            position--;
+        }
+        if (position >= NEIGHBORS) {
+            return count;
+        }
+        int end = Math.min(count, NEIGHBORS - 1);
+        System.arraycopy(best, position, best, position + 1, end - position);
+        System.arraycopy(bestScores, position, bestScores, position + 1, end - position);
+        best[position] = candidate;
+        bestScores[position] = score;
+        return Math.min(count + 1, NEIGHBORS);
+    }
+
+    private float weightOf(int slot, int termId) {
+        int i = Arrays.binarySearch(terms[slot], termId);
+        return i < 0 ? 0f : weights[slot][i];
+    }
+
+    private static boolean contains(int[] row, int slot) {
+        for (int value : row) {
+            if (value == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) {
+            return id;
+        }
+        id = termIds.size();
+        if (id == documentFrequency.length) {
+            documentFrequency = Arrays.copyOf(documentFrequency, id * 2);
+            postings = Arrays.copyOf(postings, id * 2);
+            postingSizes = Arrays.copyOf(postingSizes, id * 2);
+        }
+        termIds.put(term, id);
+        return id;
+    }
+
+    private void addPosting(int termId, int slot) {
+        int[] list = postings[termId];
+        int size = postingSizes[termId];
+        if (list == null) {
+            list = new int[4];
+        } else if (size == list.length) {
+            list = Arrays.copyOf(list, size * 2);
+        }
+        list[size] = slot;
+        postings[termId] = list;
+        postingSizes[termId] = size + 1;
+    }
+
+    private int slot(String name, String code) {
+        String key = key(name, code);
+        Integer existing = slots.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int slot = slotCount++;
+        if (slot == names.length) {
+            int capacity = slot * 2;
+            names = Arrays.copyOf(names, capacity);
+            codes = Arrays.copyOf(codes, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            terms = Arrays.copyOf(terms, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+            neighborScores = Arrays.copyOf(neighborScores, capacity);
+        }
+        names[slot] = name;
+        codes[slot] = code;
+        neighbors[slot] = NO_TERMS;
+        neighborScores[slot] = NO_WEIGHTS;
+        slots.put(key, slot);
+        return slot;
+    }
+
+    private static String key(String name, String code) {
+        return name + "#" + code;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.lambda.util;
+
+import com.google.gson.reflect.TypeToken;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+// Aliases, prerequisites and professors as a list of S (see ListAttributeConverter). A string set would lose
+// the order and reject empty lists, so sets are only accepted on read.
+public class StringListAttributeConverter extends ListAttributeConverter<String> {
+
+    private static final Type JSON_TYPE = new TypeToken<List<String>>() {}.getType();
+
+    public StringListAttributeConverter() {
+    }
+
+    public StringListAttributeConverter(boolean writeJson) {
+        super(writeJson);
+    }
+
+    // List fields come from untyped Gson parsing, so elements are stringified rather than cast
+    @Override
+    public AttributeValue transformFrom(List<String> list) {
+        for (Object element : list) {
+            if (element != null && !(element instanceof String)) {
+                return super.transformFrom(stringified(list));
+            }
+        }
+        return super.transformFrom(list);
+    }
+
+    private static List<String> stringified(List<String> list) {
+        List<String> strings = new ArrayList<>(list.size());
+        for (Object element : list) {
+            strings.add(element == null ? null : String.valueOf(element));
+        }
+        return strings;
+    }
+
+    @Override
+    protected Type jsonType() {
+        return JSON_TYPE;
+    }
+
+    @Override
+    protected AttributeValue toElement(String element) {
+        return AttributeValue.builder().s(element).build();
+    }
+
+    @Override
+    protected String fromElement(AttributeValue value) {
+        return value.s() != null ? value.s() : value.n();
+    }
+
+    @Override
+    protected Class<String> elementClass() {
+        return String.class;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.lambda.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Canonicalizing pool for the low-cardinality values repeated across the cached catalog: professor names,
+// majors, author IDs, course codes in prerequisite lists and the rating values Gson boxes one by one.
+// Every equal value decoded through the same pool ends up as one shared instance instead of a fresh copy.
+// The pool never evicts. Instead the DAO starts a new one with every full catalog scan and drops the old one,
+// so a pool holds the vocabulary of one scan plus whatever writes added until the next. Unique text
+// (descriptions, comments, IDs) should not be pooled.
+public class StringPool {
+
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Double, Double> numbers = new ConcurrentHashMap<>();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    public String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        lookups.incrementAndGet();
+        String existing = strings.putIfAbsent(value, value);
+        if (existing == null) {
+            return value;
+        }
+        hits.incrementAndGet();
+        return existing;
+    }
+
+    public Double canonical(Double value) {
+        if (value == null) {
+            return null;
+        }
+        Double existing = numbers.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
+    // A copy of the list with canonical elements; list fields come from untyped Gson parsing, so they are stringified
+    public List<String> canonicalList(List<?> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> canonical = new ArrayList<>(values.size());
+        for (Object value : values) {
+            canonical.add(value == null ? null : canonical(String.valueOf(value)));
+        }
+        return canonical;
+    }
+
+    public int size() {
+        return strings.size();
+    }
+
+    // Lookups answered with an existing instance, i.e. duplicate strings that were not kept
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getLookups() {
+        return lookups.get();
+    }
+}
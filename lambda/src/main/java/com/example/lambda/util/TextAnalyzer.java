@@ -0,0 +1,99 @@
+package com.example.lambda.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Turns free text (titles, descriptions, aliases, queries) into index terms: lowercased runs of letters and
+// digits, common English stop words dropped, and a light suffix-stripping stemmer so "networks" and
+// "networking" meet "network". Indexing and querying must go through the same analyzer.
+public class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "can", "for", "from", "has", "have",
+            "how", "in", "into", "is", "it", "its", "not", "of", "on", "or", "our", "such", "that", "the", "their",
+            "then", "there", "these", "they", "this", "to", "was", "we", "what", "which", "will", "with", "you", "your",
+            "course", "courses", "students", "student", "topics", "include", "including", "introduction");
+
+    private TextAnalyzer() {
+    }
+
+    // Receives each token of a text: its stemmed term, its position among all tokens, and its character span
+    public interface TokenSink {
+        void accept(String term, int position, int start, int end);
+    }
+
+    // Terms in order of appearance, duplicates kept (callers count them)
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, (term, position, start, end) -> {
+            if (!isStopWord(text.substring(start, end).toLowerCase(Locale.ROOT))) {
+                terms.add(term);
+            }
+        });
+        return terms;
+    }
+
+    // Every token, stop words included, with positions and offsets; used where phrases and highlighting matter
+    public static void tokenize(String text, TokenSink sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int position = 0;
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i - start < 2) {
+                continue;
+            }
+            sink.accept(stem(text.substring(start, i).toLowerCase(Locale.ROOT)), position++, start, i);
+        }
+    }
+
+    public static boolean isStopWord(String token) {
+        return STOP_WORDS.contains(token);
+    }
+
+    // Plural and -ing/-ed stripping only; aggressive stemmers conflate too many short technical terms
+    static String stem(String token) {
+        int length = token.length();
+        if (length <= 3 || Character.isDigit(token.charAt(length - 1))) {
+            return token;
+        }
+        String stem = token;
+        if (token.endsWith("ies") && length > 4) {
+            stem = token.substring(0, length - 3) + "y";
+        } else if (token.endsWith("sses")) {
+            stem = token.substring(0, length - 2);
+        } else if (token.endsWith("ing") && length > 6) {
+            stem = undouble(token.substring(0, length - 3));
+        } else if (token.endsWith("ed") && length > 5 && !token.endsWith("eed")) {
+            stem = undouble(token.substring(0, length - 2));
+        } else if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")) {
+            stem = token.substring(0, length - 1);
+        }
+        // A silent final e is dropped so "curve", "curves" and "curved" all become "curv"
+        if (stem.length() > 4 && stem.endsWith("e") && !stem.endsWith("ee")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    // "programm" -> "program", "modell" -> "model", so the stem matches the plain form
+    private static String undouble(String stem) {
+        int length = stem.length();
+        if (length > 3 && stem.charAt(length - 1) == stem.charAt(length - 2)
+                && "lmnprt".indexOf(stem.charAt(length - 1)) >= 0) {
+            return stem.substring(0, length - 1);
+        }
+        return stem;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Trigram index over the fields CourseSearch matches with "contains".
+// Every course containing a query must contain all of the query's trigrams, so intersecting
+// their posting lists yields an exact candidate superset and CourseSearch only verifies those.
+public class TrigramIndex {
+
+    public static final char FIELD_CODE = 'c';
+    public static final char FIELD_NAME = 'n';
+    public static final char FIELD_PROFESSOR = 'p';
+
+    // Sorted trigram keys, with offsets[i]..offsets[i + 1] delimiting key i's postings
+    private final long[] keys;
+    private final int[] offsets;
+    // Delta-encoded varint course positions; may be a slice of a memory-mapped snapshot
+    private final ByteBuffer postings;
+
+    TrigramIndex(long[] keys, int[] offsets, ByteBuffer postings) {
+        this.keys = keys;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    public static TrigramIndex build(List<CourseOutput> courses) {
+        Map<Long, IntList> lists = new HashMap<>();
+
+        for (int i = 0; i < courses.size(); i++) {
+            CourseOutput course = courses.get(i);
+            if (course.getCode() != null) {
+                addTrigrams(lists, FIELD_CODE, normalizeCode(course.getCode()), i);
+            }
+            if (course.getName() != null) {
+                addTrigrams(lists, FIELD_NAME, course.getName().toLowerCase(), i);
+            }
+            if (course.getProfessors() != null) {
+                for (String professor : course.getProfessors()) {
+                    if (professor != null) {
+                        addTrigrams(lists, FIELD_PROFESSOR, professor.toLowerCase(), i);
+                    }
+                }
+            }
+        }
+
+        long[] keys = new long[lists.size()];
+        int k = 0;
+        for (Long key : lists.keySet()) {
+            keys[k++] = key;
+        }
+        Arrays.sort(keys);
+
+        int[] offsets = new int[keys.length + 1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < keys.length; i++) {
+            offsets[i] = out.size();
+            IntList list = lists.get(keys[i]);
+            int previous = 0;
+            for (int j = 0; j < list.size; j++) {
+                writeVarInt(out, list.values[j] - previous);
+                previous = list.values[j];
+            }
+        }
+        offsets[keys.length] = out.size();
+
+        return new TrigramIndex(keys, offsets, ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    // Same normalization CourseSearch applies to course codes and code queries
+    public static String normalizeCode(String code) {
+        return code.replaceAll("\\s+", "").replaceAll("\\u00A0", "").toLowerCase();
+    }
+
+    // Returns the sorted positions of courses whose field may contain the (already normalized) query,
+    // or null if the query is too short to narrow the search
+    public int[] candidates(char field, String normalizedQuery) {
+        if (normalizedQuery == null || normalizedQuery.length() < 3) {
+            return null;
+        }
+
+        int[] result = null;
+        for (int i = 0; i + 3 <= normalizedQuery.length(); i++) {
+            int slot = Arrays.binarySearch(keys, key(field, normalizedQuery, i));
+            if (slot < 0) {
+                return new int[0];
+            }
+            int[] list = decode(slot);
+            result = result == null ? list : intersect(result, list);
+            if (result.length == 0) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    public int termCount() {
+        return keys.length;
+    }
+
+    long[] keys() {
+        return keys;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    ByteBuffer postings() {
+        return postings.duplicate();
+    }
+
+    private int[] decode(int slot) {
+        ByteBuffer buffer = postings.duplicate();
+        buffer.position(offsets[slot]);
+        int end = offsets[slot + 1];
+
+        IntList list = new IntList();
+        int value = 0;
+        while (buffer.position() < end) {
+            value += readVarInt(buffer);
+            list.add(value);
+        }
+        return Arrays.copyOf(list.values, list.size);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                out[n++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static void addTrigrams(Map<Long, IntList> lists, char field, String text, int position) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            IntList list = lists.computeIfAbsent(key(field, text, i), ignored -> new IntList());
+            // Positions arrive in increasing order, so only the tail needs checking for duplicates
+            if (list.size == 0 || list.values[list.size - 1] != position) {
+                list.add(position);
+            }
+        }
+    }
+
+    // Pack the field tag and three UTF-16 chars into one sortable long
+    private static long key(char field, String text, int start) {
+        return ((long) field << 48)
+                | ((long) text.charAt(start) << 32)
+                | ((long) text.charAt(start + 1) << 16)
+                | text.charAt(start + 2);
+    }
+
+    static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    // Minimal growable int array to avoid boxing while building postings
+    static class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    // Convenience for callers that want the candidate courses rather than positions
+    public static List<CourseOutput> select(List<CourseOutput> courses, int[] positions) {
+        List<CourseOutput> selected = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            selected.add(courses.get(position));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.lambda.validators;
+
+import java.util.List;
+
+public class BatchValidationResult {
+    private final int itemCount;
+    private final List<ValidationError> errors;   // Ordered by item index, then rule order
+    private final boolean truncated;              // True when validation stopped after maxErrors
+
+    public BatchValidationResult(int itemCount, List<ValidationError> errors, boolean truncated) {
+        this.itemCount = itemCount;
+        this.errors = errors;
+        this.truncated = truncated;
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -1,52 +1,43 @@
 package com.example.lambda.validators;
 
-import com.example.lambda.models.Course;
+import com.example.lambda.models.CourseOutput;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class CourseValidator {
 
-    // Method to validate the provided course object
-    public List<String> validateCourse(Course course) {
-        List<String> errors = new ArrayList<>();
-
-        // Check if the courseId is provided
-        if (course.getCourseId() == null || course.getCourseId().trim().isEmpty()) {
-            errors.add("Course ID is required.");
-        }
-
-        // Check if the title is provided
-        if (course.getTitle() == null || course.getTitle().trim().isEmpty()) {
-            errors.add("Course title is required.");
-        }
-
-        // Check if createdBy is provided
-        if (course.getCreatedBy() == null || course.getCreatedBy().trim().isEmpty()) {
-            errors.add("Created By field is required.");
-        }
-
-        // Check if description is provided (optional, if required, uncomment the below check)
-        /*
-        if (course.getDescription() == null || course.getDescription().trim().isEmpty()) {
-            errors.add("Course description is required.");
-        }
-        */
-
-        return errors;  // Return the list of validation errors (empty if no errors)
-    }
+    // Largest number of errors reported for a bulk import before the rest of the payload is skipped
+    public static final int MAX_BATCH_ERRORS = 100;
 
-    // Optional: Method to check if the course object has valid fields for update operations
-    public List<String> validateForUpdate(Course course) {
-        List<String> errors = new ArrayList<>();
+    // Rules are compiled once per container and shared by every request
+    private static final RuleSet<CourseOutput> CREATE_RULES = RuleSet.<CourseOutput>builder()
+            .requiredText("courseId", CourseOutput::getCourseId, "Course ID is required.")
+            .requiredText("code", CourseOutput::getCode, "Course code is required.")
+            .requiredText("name", CourseOutput::getName, "Course name is required.")
+            .requiredText("createdBy", CourseOutput::getCreatedBy, "Created By field is required.")
+            .compile();
+
+    private static final RuleSet<CourseOutput> UPDATE_RULES = RuleSet.<CourseOutput>builder()
+            .requiredText("courseId", CourseOutput::getCourseId, "Course ID is required for updates.")
+            .compile();
+
+    // Method to validate the provided course; returns the list of validation errors (empty if none)
+    public List<String> validateCourse(CourseOutput course) {
+        return CREATE_RULES.messages(course);
+    }
 
-        // Check if the courseId is provided (required for updating a course)
-        if (course.getCourseId() == null || course.getCourseId().trim().isEmpty()) {
-            errors.add("Course ID is required for updates.");
-        }
+    // Structured errors (field and error code) for a single course
+    public List<ValidationError> checkCourse(CourseOutput course) {
+        return CREATE_RULES.validate(course);
+    }
 
-        // Additional update-specific validations can be added here
+    // Validate every course in a bulk payload, stopping after MAX_BATCH_ERRORS errors
+    public BatchValidationResult validateBatch(List<CourseOutput> courses) {
+        return CREATE_RULES.validateBatch(courses, MAX_BATCH_ERRORS);
+    }
 
-        return errors;  // Return the list of validation errors for update operations
+    // Optional: Method to check if the course object has valid fields for update operations
+    public List<String> validateForUpdate(CourseOutput course) {
+        return UPDATE_RULES.messages(course);
     }
 }
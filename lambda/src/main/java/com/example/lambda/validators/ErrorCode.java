@@ -0,0 +1,7 @@
+package com.example.lambda.validators;
+
+// Machine-readable reason a field failed validation, returned alongside the human-readable message
+public enum ErrorCode {
+    REQUIRED,
+    OUT_OF_RANGE
+}
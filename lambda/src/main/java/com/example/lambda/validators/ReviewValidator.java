@@ -1,63 +1,42 @@
 package com.example.lambda.validators;
 
-import com.example.lambda.models.Course;
 import com.example.lambda.models.Review;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ReviewValidator {
 
+    public static final int MAX_BATCH_ERRORS = 100;
+
+    private static final RuleSet<Review> CREATE_RULES = RuleSet.<Review>builder()
+            .requiredText("reviewId", Review::getReviewId, "Review ID is required.")
+            .requiredText("createdBy", Review::getCreatedBy, "Created By field is required.")
+            .range("overall", Review::getOverall, 1, 10, "Overall rating must be between 1 and 10.")
+            .range("difficulty", Review::getDifficulty, 1, 10, "Difficulty rating must be between 1 and 10.")
+            .range("usefulness", Review::getUsefulness, 1, 10, "Usefulness rating must be between 1 and 10.")
+            .required("anonymous", Review::getAnonymous, "Anonymous field is required.")
+            .requiredText("createdAt", Review::getCreatedAt, "Creation date is required.")
+            .compile();
+
+    private static final RuleSet<Review> UPDATE_RULES = RuleSet.<Review>builder()
+            .requiredText("reviewId", Review::getReviewId, "Review ID is required for updates.")
+            .compile();
+
     public List<String> validateReview(Review review) {
-        List<String> errors = new ArrayList<>();
-
-        // Validate reviewId
-        if (review.getReviewId() == null || review.getReviewId().trim().isEmpty()) {
-            errors.add("Review ID is required.");
-        }
-
-        // Validate createdBy
-        if (review.getCreatedBy() == null || review.getCreatedBy().trim().isEmpty()) {
-            errors.add("Created By field is required.");
-        }
-
-        // Validate overall rating
-        if (review.getOverall() == null || review.getOverall() < 1 || review.getOverall() > 10) {
-            errors.add("Overall rating must be between 1 and 10.");
-        }
-
-        // Validate difficulty
-        if (review.getDifficulty() == null || review.getDifficulty() < 1 || review.getDifficulty() > 10) {
-            errors.add("Difficulty rating must be between 1 and 10.");
-        }
-
-        // Validate usefulness
-        if (review.getUsefulness() == null || review.getUsefulness() < 1 || review.getUsefulness() > 10) {
-            errors.add("Usefulness rating must be between 1 and 10.");
-        }
-
-        // Validate anonymous
-        if (review.getAnonymous() == null) {
-            errors.add("Anonymous field is required.");
-        }
-
-        // Validate createdAt (optional, based on String or LocalDateTime)
-        if (review.getCreatedAt() == null || review.getCreatedAt().trim().isEmpty()) {
-            errors.add("Creation date is required.");
-        }
-
-        return errors;
+        return CREATE_RULES.messages(review);
     }
 
-    public List<String> validateForUpdate(Review review) {
-        List<String> errors = new ArrayList<>();
+    // Structured errors (field and error code) for a single review
+    public List<ValidationError> checkReview(Review review) {
+        return CREATE_RULES.validate(review);
+    }
 
-        // Validate reviewId for update
-        if (review.getReviewId() == null || review.getReviewId().trim().isEmpty()) {
-            errors.add("Review ID is required for updates.");
-        }
+    // Validate every review in a bulk payload, stopping after MAX_BATCH_ERRORS errors
+    public BatchValidationResult validateBatch(List<Review> reviews) {
+        return CREATE_RULES.validateBatch(reviews, MAX_BATCH_ERRORS);
+    }
 
-        // Additional validations for updates can be added here
-        return errors;
+    public List<String> validateForUpdate(Review review) {
+        return UPDATE_RULES.messages(review);
     }
 }
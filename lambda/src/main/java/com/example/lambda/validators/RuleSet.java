@@ -0,0 +1,162 @@
+package com.example.lambda.validators;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+// Declarative field rules compiled once into a flat array and evaluated in a single pass per object.
+// Valid objects allocate nothing; an error list is only created when the first rule fails.
+public final class RuleSet<T> {
+
+    // Batches smaller than this are validated on the calling thread
+    static final int PARALLEL_THRESHOLD = 256;
+
+    private enum Kind { REQUIRED, REQUIRED_TEXT, RANGE }
+
+    private static final class Rule<T> {
+        final Kind kind;
+        final String field;
+        final Function<T, ?> getter;
+        final ErrorCode code;
+        final String message;
+        final double min;
+        final double max;
+
+        Rule(Kind kind, String field, Function<T, ?> getter, ErrorCode code, String message, double min, double max) {
+            this.kind = kind;
+            this.field = field;
+            this.getter = getter;
+            this.code = code;
+            this.message = message;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private final Rule<T>[] rules;
+
+    private RuleSet(Rule<T>[] rules) {
+        this.rules = rules;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    // Validate one object; returns an empty immutable list when every rule passes
+    public List<ValidationError> validate(T target) {
+        return validate(target, null);
+    }
+
+    // Messages only, in rule order, for callers that report a single combined string
+    public List<String> messages(T target) {
+        List<ValidationError> errors = validate(target, null);
+        if (errors.isEmpty()) {
+            return List.of();
+        }
+        List<String> messages = new ArrayList<>(errors.size());
+        for (ValidationError error : errors) {
+            messages.add(error.getMessage());
+        }
+        return messages;
+    }
+
+    // Validate a whole payload, in parallel for large batches. Once maxErrors errors have been found
+    // the remaining items are skipped, so a badly formed import is rejected without checking all of it.
+    public BatchValidationResult validateBatch(List<T> items, int maxErrors) {
+        ConcurrentLinkedQueue<ValidationError> found = new ConcurrentLinkedQueue<>();
+        AtomicInteger errorCount = new AtomicInteger();
+        AtomicBoolean skipped = new AtomicBoolean();
+
+        IntStream indexes = IntStream.range(0, items.size());
+        if (items.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            if (errorCount.get() >= maxErrors) {
+                skipped.set(true);
+                return;
+            }
+            T item = items.get(i);
+            List<ValidationError> errors = item == null
+                    ? List.of(new ValidationError(i, "item", ErrorCode.REQUIRED, "Item is required."))
+                    : validate(item, i);
+            if (!errors.isEmpty()) {
+                errorCount.addAndGet(errors.size());
+                found.addAll(errors);
+            }
+        });
+
+        List<ValidationError> errors = new ArrayList<>(found);
+        errors.sort(Comparator.comparingInt(ValidationError::getIndex));  // Stable: keeps rule order per item
+        boolean truncated = skipped.get() || errors.size() > maxErrors;
+        if (errors.size() > maxErrors) {
+            errors = new ArrayList<>(errors.subList(0, maxErrors));
+        }
+        return new BatchValidationResult(items.size(), errors, truncated);
+    }
+
+    private List<ValidationError> validate(T target, Integer index) {
+        List<ValidationError> errors = null;
+        for (Rule<T> rule : rules) {
+            if (!passes(rule, rule.getter.apply(target))) {
+                if (errors == null) {
+                    errors = new ArrayList<>(2);
+                }
+                errors.add(new ValidationError(index, rule.field, rule.code, rule.message));
+            }
+        }
+        return errors == null ? List.of() : errors;
+    }
+
+    private static boolean passes(Rule<?> rule, Object value) {
+        switch (rule.kind) {
+            case REQUIRED:
+                return value != null;
+            case REQUIRED_TEXT:
+                return value != null && !value.toString().isBlank();
+            default:
+                if (value == null) {
+                    return false;
+                }
+                double number = ((Number) value).doubleValue();
+                return number >= rule.min && number <= rule.max;
+        }
+    }
+
+    public static final class Builder<T> {
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        // Field must be present
+        public Builder<T> required(String field, Function<T, ?> getter, String message) {
+            rules.add(new Rule<>(Kind.REQUIRED, field, getter, ErrorCode.REQUIRED, message, 0, 0));
+            return this;
+        }
+
+        // Field must be present and not blank
+        public Builder<T> requiredText(String field, Function<T, String> getter, String message) {
+            rules.add(new Rule<>(Kind.REQUIRED_TEXT, field, getter, ErrorCode.REQUIRED, message, 0, 0));
+            return this;
+        }
+
+        // Field must be present and within [min, max]
+        public Builder<T> range(String field, Function<T, ? extends Number> getter, double min, double max, String message) {
+            rules.add(new Rule<>(Kind.RANGE, field, getter, ErrorCode.OUT_OF_RANGE, message, min, max));
+            return this;
+        }
+
+        // Java has no generic array creation; every element was added as a Rule<T>, so the cast is safe
+        @SuppressWarnings("unchecked")
+        public RuleSet<T> compile() {
+            return new RuleSet<>((Rule<T>[]) rules.toArray(new Rule<?>[0]));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.lambda.validators;
+
+public class ValidationError {
+    private final Integer index;     // Position in a batch payload; null for single-object validation
+    private final String field;
+    private final ErrorCode code;
+    private final String message;
+
+    public ValidationError(Integer index, String field, ErrorCode code, String message) {
+        this.index = index;
+        this.field = field;
+        this.code = code;
+        this.message = message;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return (index == null ? "" : "[" + index + "] ") + field + " " + code + ": " + message;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.lambda;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ServerAppTest {
+
+    @Test
+    public void queryStringIsDecodedLikeApiGateway() {
+        Map<String, String> parameters = ServerApp.parseQuery("name=Intro%20to%20CS&code=CSDS+101&flag");
+
+        assertEquals("Intro to CS", parameters.get("name"));
+        assertEquals("CSDS 101", parameters.get("code"));
+        assertEquals("", parameters.get("flag"));
+        assertNull(ServerApp.parseQuery(null));
+        assertNull(ServerApp.parseQuery(""));
+    }
+
+    @Test
+    public void professorNameIsExtractedFromTheTemplatedPath() {
+        assertEquals(Map.of("name", "Ada Lovelace"), ServerApp.pathParameters("/professors/Ada Lovelace/courses"));
+        assertNull(ServerApp.pathParameters("/professors"));
+        assertNull(ServerApp.pathParameters("/courses"));
+    }
+
+    @Test
+    public void sourceIpPrefersTheAddressTheLoadBalancerAppended() {
+        InetSocketAddress balancer = new InetSocketAddress("10.0.0.5", 443);
+
+        assertEquals("203.0.113.9", ServerApp.sourceIp("198.51.100.1, 203.0.113.9", balancer, true));
+        assertEquals("10.0.0.5", ServerApp.sourceIp(null, balancer, true));
+    }
+
+    @Test
+    public void forwardedForIsIgnoredUnlessTrusted() {
+        InetSocketAddress client = new InetSocketAddress("198.51.100.7", 50000);
+
+        // Without a balancer in front, anyone could rotate this header to dodge the rate limiter
+        assertEquals("198.51.100.7", ServerApp.sourceIp("203.0.113.9", client, false));
+        assertEquals("198.51.100.7", ServerApp.sourceIp(null, client, false));
+    }
+
+    @Test
+    public void largeResponsesAreGzippedForClientsThatAcceptIt() throws Exception {
+        byte[] body = "x".repeat(ServerApp.MIN_COMPRESSION_SIZE).getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(ServerApp.shouldCompress("gzip, deflate", Map.of(), body.length));
+        assertFalse(ServerApp.shouldCompress("gzip;q=0", Map.of(), body.length));
+        assertFalse(ServerApp.shouldCompress("gzip", Map.of(), body.length - 1));
+        assertFalse(ServerApp.shouldCompress("gzip", Map.of("Content-Encoding", "br"), body.length));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(ServerApp.gzip(body)))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void platformExecutorShedsWhatItHasNoRoomFor() throws Exception {
+        ExecutorService executor = ServerApp.newPlatformExecutor(1);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Boolean> shedding = new CopyOnWriteArrayList<>();
+        try {
+            // Two threads and one queue slot
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    shedding.add(ServerApp.SHEDDING.get());
+                    started.countDown();
+                    await(release);
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CountDownLatch shed = new CountDownLatch(1);
+            executor.execute(() -> {
+                shedding.add(ServerApp.SHEDDING.get());
+                shed.countDown();
+            });
+
+            assertTrue(shed.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of(false, false, true), shedding);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(false, false, true, false), shedding);
+    }
+
+    @Test
+    public void platformExecutorShedsOnTheCallerOnceEverythingIsFull() throws Exception {
+        ExecutorService executor = ServerApp.newPlatformExecutor(1);
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch shedQueued = new CountDownLatch(1);
+        List<String> shedOn = new CopyOnWriteArrayList<>();
+        Runnable recordShedding = () -> {
+            if (ServerApp.SHEDDING.get()) {
+                shedOn.add(Thread.currentThread().getName());
+            }
+        };
+        try {
+            // Two pool threads, then the shedding thread, all held; one queued behind each
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    await(release);
+                });
+                if (i == 1) {
+                    executor.execute(recordShedding);
+                }
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute(() -> {
+                recordShedding.run();
+                shedQueued.countDown();
+            });
+
+            // Nowhere left to queue: the exchange is answered on the calling thread rather than dropped
+            executor.execute(recordShedding);
+            assertEquals(List.of(Thread.currentThread().getName()), shedOn);
+            assertFalse(ServerApp.SHEDDING.get());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        // The shedding thread drains its own queue after the pool terminates
+        assertTrue(shedQueued.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Thread.currentThread().getName(), "server-shed"), shedOn);
+
+        // After shutdown a late exchange is still answered, on the calling thread
+        executor.execute(recordShedding);
+        assertEquals(3, shedOn.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
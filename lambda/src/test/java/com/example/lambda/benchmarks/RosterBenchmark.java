@@ -0,0 +1,70 @@
+package com.example.lambda.benchmarks;
+
+import com.example.lambda.util.Roster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Roster lookup, bulk updates and sectioning at classroom through registrar scale.
+// Run with: mvn -P benchmarks test-compile exec:exec -Dbenchmark=RosterBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosterBenchmark {
+
+    @Param({"100", "10000", "50000"})
+    public int size;
+
+    private List<String> names;
+    private List<String> half;
+    private Roster roster;
+    private String lastName;
+
+    @Setup
+    public void createNames() {
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add("Student " + i);
+        }
+        half = new ArrayList<>(names.subList(0, size / 2));
+        lastName = names.get(size - 1);
+        roster = new Roster(names, 24);
+    }
+
+    @Benchmark
+    public String findLast() {
+        return roster.findName(lastName);
+    }
+
+    @Benchmark
+    public Roster bulkAdd() {
+        return new Roster(names, 24);
+    }
+
+    // Removes half the roster and enrolls it again, leaving the roster the same size for the next call
+    @Benchmark
+    public int bulkRemoveAndRestoreHalf() {
+        return roster.removeAll(half) + roster.addAll(half);
+    }
+
+    @Benchmark
+    public void sections(Blackhole blackhole) {
+        blackhole.consume(roster.sections());
+    }
+}
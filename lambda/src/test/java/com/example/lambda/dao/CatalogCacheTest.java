@@ -0,0 +1,120 @@
+package com.example.lambda.dao;
+
+import com.example.lambda.models.CourseChanges;
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.CourseTombstone;
+import com.example.lambda.util.CatalogSnapshot;
+import com.example.lambda.util.TrigramIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CatalogCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void batchSaveReplacesAndAddsInOneSnapshot() {
+        List<CourseOutput> loaded = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            loaded.add(course("Course " + i, "CSDS " + i, "old"));
+        }
+        CatalogCache cache = new CatalogCache(() -> loaded, null, 60_000, 0, List.of(), null, () -> 1_000L);
+        CatalogSnapshot before = cache.get();
+
+        CourseOutput replaced = course("Course 2", "CSDS 2", "new");
+        CourseOutput added = course("Course 9", "CSDS 9", "new");
+        cache.applySaves(List.of(replaced, added));
+
+        CatalogSnapshot after = cache.get();
+        assertEquals(6, after.getCourses().size());
+        assertSame(replaced, after.getCourses().get(2));
+        assertSame(added, after.getCourses().get(5));
+        assertEquals(before.getVersion(), after.getVersion());
+        assertSame(added, cache.peek("Course 9", "CSDS 9"));
+        assertNull(cache.peek("Course 9", "MATH 9"));
+        assertNotSame(before.getIndex(), after.getIndex());
+    }
+
+    @Test
+    public void staleSnapshotCatchesUpFromTheChangeLog() throws Exception {
+        Path path = writeSnapshot(1_000L);
+        List<String> cursors = new ArrayList<>();
+        CatalogCache cache = new CatalogCache(() -> {
+            throw new AssertionError("caught-up snapshot must not scan");
+        }, since -> {
+            cursors.add(since);
+            if (cursors.size() == 1) {
+                return new CourseChanges(since, "0000000005000#Course 1#CSDS 1", true,
+                        List.of(course("Course 1", "CSDS 1", "new")), List.of());
+            }
+            return new CourseChanges(since, "95000", false,
+                    List.of(course("Course 7", "CSDS 7", "new")), List.of(new CourseTombstone("Course 0", "CSDS 0", 6_000L)));
+        }, 60_000, 10_000, List.of(path), path, () -> 100_000L);
+
+        CatalogSnapshot catalog = cache.get();
+        assertEquals(List.of("1000", "0000000005000#Course 1#CSDS 1"), cursors);
+        assertEquals(95_000L, catalog.getVersion());
+        assertEquals(3, catalog.getCourses().size());
+        assertEquals("Course 1", catalog.getCourses().get(0).getName());
+        assertEquals("new", catalog.getCourses().get(0).getDescription());
+        assertEquals("old", catalog.getCourses().get(1).getDescription());
+        assertEquals("Course 7", catalog.getCourses().get(2).getName());
+        // The caught-up catalog replaces the file for the next cold start
+        assertEquals(95_000L, CatalogSnapshot.read(path).getVersion());
+    }
+
+    @Test
+    public void snapshotOlderThanTheChangeLogFallsBackToAScan() throws Exception {
+        Path path = writeSnapshot(1_000L);
+        List<CourseOutput> scanned = List.of(course("Course 9", "CSDS 9", "scanned"));
+        CatalogCache cache = new CatalogCache(() -> scanned, since -> {
+            throw new IllegalStateException("since is older than the change log");
+        }, 60_000, 10_000, List.of(path), null, () -> 100_000L);
+
+        CatalogSnapshot catalog = cache.get();
+        assertEquals(100_000L, catalog.getVersion());
+        assertEquals(scanned, catalog.getCourses());
+    }
+
+    @Test
+    public void freshSnapshotIsServedWithoutCatchingUp() throws Exception {
+        Path path = writeSnapshot(95_000L);
+        CatalogCache cache = new CatalogCache(() -> {
+            throw new AssertionError("fresh snapshot must not scan");
+        }, since -> {
+            throw new AssertionError("fresh snapshot must not catch up");
+        }, 60_000, 10_000, List.of(path), null, () -> 100_000L);
+
+        CatalogSnapshot catalog = cache.get();
+        assertEquals(95_000L, catalog.getVersion());
+        assertFalse(catalog.getCourses().isEmpty());
+    }
+
+    private Path writeSnapshot(long version) throws Exception {
+        List<CourseOutput> courses = List.of(course("Course 0", "CSDS 0", "old"),
+                course("Course 1", "CSDS 1", "old"), course("Course 2", "CSDS 2", "old"));
+        Path path = folder.getRoot().toPath().resolve("catalog.snapshot");
+        new CatalogSnapshot(version, courses, TrigramIndex.build(courses)).writeTo(path);
+        return path;
+    }
+
+    private static CourseOutput course(String name, String code, String description) {
+        CourseOutput course = new CourseOutput();
+        course.setName(name);
+        course.setCode(code);
+        course.setDescription(description);
+        return course;
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.lambda.dao;
+
+import com.example.lambda.models.CourseChanges;
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.CourseTombstone;
+import com.example.lambda.models.Review;
+import com.example.lambda.streams.CourseChange;
+import com.example.lambda.streams.InMemoryAggregateStore;
+import com.example.lambda.util.ReviewListAttributeConverter;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CourseDaoTest {
+
+    private static final String NAME = "Discrete Mathematics";
+    private static final String CODE = "CSDS 101";
+    private static final String COURSE_KEY = ReviewShardStore.courseKey(NAME, CODE);
+
+    private final FakeDynamoDb ddb = new FakeDynamoDb();
+    private final InMemoryAggregateStore changeLog = new InMemoryAggregateStore();
+    private final CourseDao dao = new CourseDao(ddb, changeLog);
+
+    @Test
+    public void testFirstShardedReviewPromotesTheCourse() {
+        storeCourse(new ReviewListAttributeConverter(false).transformFrom(List.of(review("r1", 4.0))), null);
+        CourseOutput course = cachedCourse(List.of(review("r1", 4.0)));
+
+        assertTrue(dao.addShardedReview(course, review("r2", 2.0)));
+
+        int shards = course.getReviewShards();
+        Map<String, AttributeValue> stored = ddb.item(ReviewShardStore.COURSES_TABLE, NAME, CODE);
+        assertEquals(Integer.toString(shards), stored.get("reviewShards").n());
+        assertNull(stored.get("reviews"));
+        assertEquals(List.of("r1", "r2"), ids(course.getReviews()));
+        assertEquals(List.of("r1", "r2"), sorted(ids(new ReviewShardStore(ddb).getReviews(COURSE_KEY, shards))));
+        assertEquals(2, new ReviewShardStore(ddb).getTotals(COURSE_KEY, shards).getReviewCount());
+    }
+
+    @Test
+    public void testPromotionIsConditionalOnLegacyJsonReviews() {
+        storeCourse(AttributeValue.builder().s("[{\"reviewId\":\"r1\",\"overall\":4.0}]").build(), null);
+        CourseOutput course = cachedCourse(List.of(review("r1", 4.0)));
+
+        assertTrue(dao.addShardedReview(course, review("r2", 2.0)));
+
+        assertEquals(List.of("r1", "r2"), sorted(ids(new ReviewShardStore(ddb).getReviews(COURSE_KEY, course.getReviewShards()))));
+        assertNull(ddb.item(ReviewShardStore.COURSES_TABLE, NAME, CODE).get("reviews"));
+    }
+
+    @Test
+    public void testCourseShardedByAnotherContainerIsNotPromotedAgain() {
+        storeCourse(null, 4);
+        new ReviewShardStore(ddb).putReview(COURSE_KEY, 4, review("r1", 4.0));
+        CourseOutput course = cachedCourse(List.of());
+        int transactionsBefore = ddb.calls("TransactWriteItems");
+
+        assertTrue(dao.addShardedReview(course, review("r2", 2.0)));
+
+        assertEquals(Integer.valueOf(4), course.getReviewShards());
+        assertEquals(List.of("r1", "r2"), sorted(ids(course.getReviews())));
+        // Only the review's own transaction; no promotion
+        assertEquals(transactionsBefore + 1, ddb.calls("TransactWriteItems"));
+    }
+
+    @Test
+    public void testInlineWriteDuringPromotionIsKept() {
+        ReviewListAttributeConverter reviews = new ReviewListAttributeConverter(false);
+        storeCourse(reviews.transformFrom(List.of(review("r1", 4.0))), null);
+        CourseOutput course = cachedCourse(List.of(review("r1", 4.0)));
+        // Another container appends an inline review between the read and the first promotion attempt
+        ddb.beforeTransact = () -> {
+            ddb.beforeTransact = () -> { };
+            ddb.item(ReviewShardStore.COURSES_TABLE, NAME, CODE)
+                    .put("reviews", reviews.transformFrom(List.of(review("r1", 4.0), review("late", 3.0))));
+        };
+
+        assertTrue(dao.addShardedReview(course, review("r2", 2.0)));
+
+        assertEquals(List.of("late", "r1", "r2"),
+                sorted(ids(new ReviewShardStore(ddb).getReviews(COURSE_KEY, course.getReviewShards()))));
+        assertEquals(List.of("r1", "late", "r2"), ids(course.getReviews()));
+    }
+
+    @Test
+    public void testReviewOnAShardedCourseNeverGathersItsShards() {
+        storeCourse(null, 4);
+        ReviewShardStore shards = new ReviewShardStore(ddb);
+        shards.putReview(COURSE_KEY, 4, review("r1", 4.0));
+        int queriesBefore = ddb.calls("Query");
+
+        CourseOutput course = dao.getCourseWithoutReviews(NAME, CODE);
+        assertEquals(Integer.valueOf(4), course.getReviewShards());
+        assertNull(course.getReviews());
+        assertTrue(dao.routesReviewsToShards(course));
+        assertTrue(dao.addShardedReview(course, review("r2", 2.0)));
+
+        assertEquals(queriesBefore, ddb.calls("Query"));
+        assertEquals(List.of("r1", "r2"), sorted(ids(shards.getReviews(COURSE_KEY, 4))));
+        assertNull(dao.getCourseWithoutReviews(NAME, "CSDS 999"));
+    }
+
+    @Test
+    public void testCourseWithoutReviewsLeavesInlineReviewsOut() {
+        storeCourse(new ReviewListAttributeConverter(false).transformFrom(List.of(review("r1", 4.0))), null);
+
+        CourseOutput course = dao.getCourseWithoutReviews(NAME, CODE);
+
+        assertEquals(CODE, course.getCode());
+        assertNull(course.getReviews());
+        assertNull(course.getReviewShards());
+    }
+
+    @Test
+    public void testShardedReviewOnAMissingCourseFails() {
+        try {
+            dao.addShardedReview(cachedCourse(List.of()), review("r1", 4.0));
+            fail("Expected the missing course to be reported");
+        } catch (RuntimeException e) {
+            assertEquals("No course Found", e.getMessage());
+        }
+        assertTrue(ddb.table(ReviewShardStore.TABLE_NAME).isEmpty());
+    }
+
+    @Test
+    public void testEachScanSharesRepeatedValuesThroughItsOwnPool() {
+        for (String code : List.of("CSDS 101", "CSDS 102")) {
+            Map<String, AttributeValue> item = new HashMap<>();
+            item.put("name", AttributeValue.builder().s("Course " + code).build());
+            item.put("code", AttributeValue.builder().s(code).build());
+            // A distinct String instance per item, as the SDK would unmarshal them
+            item.put("professors", AttributeValue.builder().l(AttributeValue.builder().s(new String("Jane Doe")).build()).build());
+            ddb.put(ReviewShardStore.COURSES_TABLE, item);
+        }
+
+        List<CourseOutput> first = dao.getAllCourses();
+        assertSame(first.get(0).getProfessors().get(0), first.get(1).getProfessors().get(0));
+
+        // The rescan starts over with a new pool, so it does not hand back the previous scan's instances
+        ddb.item(ReviewShardStore.COURSES_TABLE, "Course CSDS 101", "CSDS 101").put("professors",
+                AttributeValue.builder().l(AttributeValue.builder().s(new String("Jane Doe")).build()).build());
+        List<CourseOutput> second = dao.getAllCourses();
+        assertSame(second.get(0).getProfessors().get(0), second.get(1).getProfessors().get(0));
+        assertNotSame(first.get(0).getProfessors().get(0), second.get(0).getProfessors().get(0));
+    }
+
+    @Test
+    public void testDeletingAMissingCourseReportsNothingDeleted() {
+        putCourse("Linear Algebra", "MATH 201");
+
+        assertFalse(dao.deleteCourse(NAME, CODE));
+
+        assertEquals(1, ddb.table(ReviewShardStore.COURSES_TABLE).size());
+        assertEquals(0, dao.getCatalogGeneration());
+    }
+
+    @Test
+    public void testDeletingAShardedCourseRemovesItsShards() {
+        storeCourse(null, 4);
+        ReviewShardStore shards = new ReviewShardStore(ddb);
+        shards.putReview(COURSE_KEY, 4, review("r1", 4.0));
+        shards.putReview(COURSE_KEY, 4, review("r2", 2.0));
+        String otherKey = ReviewShardStore.courseKey("Linear Algebra", "MATH 201");
+        shards.putReview(otherKey, 4, review("r3", 3.0));
+
+        assertTrue(dao.deleteCourse(NAME, CODE));
+
+        assertNull(ddb.item(ReviewShardStore.COURSES_TABLE, NAME, CODE));
+        assertNull(shards.scanAll().get(COURSE_KEY));
+        assertEquals(List.of("r3"), ids(shards.getReviews(otherKey, 4)));
+        assertEquals(1, dao.getCatalogGeneration());
+        // A second delete finds nothing
+        assertFalse(dao.deleteCourse(NAME, CODE));
+    }
+
+    @Test
+    public void testFailedShardCleanupStillDeletesTheCourse() {
+        FakeDynamoDb failing = new FakeDynamoDb() {
+            @Override
+            public QueryResponse query(QueryRequest request) {
+                throw new IllegalStateException("throttled");
+            }
+        };
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("name", AttributeValue.builder().s(NAME).build());
+        item.put("code", AttributeValue.builder().s(CODE).build());
+        item.put("reviewShards", AttributeValue.builder().n("4").build());
+        failing.put(ReviewShardStore.COURSES_TABLE, item);
+
+        assertTrue(new CourseDao(failing, changeLog).deleteCourse(NAME, CODE));
+        assertNull(failing.item(ReviewShardStore.COURSES_TABLE, NAME, CODE));
+    }
+
+    @Test
+    public void testDeletingAnInlineCourseLeavesTheShardTableAlone() {
+        storeCourse(new ReviewListAttributeConverter(false).transformFrom(List.of(review("r1", 4.0))), null);
+
+        assertTrue(dao.deleteCourse(NAME, CODE));
+
+        assertTrue(ddb.table(ReviewShardStore.COURSES_TABLE).isEmpty());
+        assertEquals(0, ddb.calls("Query") + ddb.calls("BatchWriteItem"));
+    }
+
+    @Test
+    public void testChangesFoldToEachCoursesLatestChange() {
+        long start = System.currentTimeMillis();
+        storeCourse(null, null);
+        putCourse("Linear Algebra", "MATH 201");
+        changeLog.recordChange(new CourseChange(NAME, CODE, true, start - 60_000));
+        changeLog.recordChange(new CourseChange(NAME, CODE, false, start - 50_000));
+        changeLog.recordChange(new CourseChange("Linear Algebra", "MATH 201", false, start - 40_000));
+        changeLog.recordChange(new CourseChange("Linear Algebra", "MATH 201", true, start - 30_000));
+        // Upserted in the log, but deleted again after the settle window closed
+        changeLog.recordChange(new CourseChange("Calculus", "MATH 121", false, start - 20_000));
+
+        CourseChanges changes = dao.getChangesSince(Long.toString(start - 120_000), 10);
+        long end = System.currentTimeMillis();
+
+        assertEquals(List.of(CODE), changes.getUpserted().stream().map(CourseOutput::getCode).collect(Collectors.toList()));
+        assertEquals(List.of("MATH 201", "MATH 121"),
+                changes.getDeleted().stream().map(CourseTombstone::getCode).collect(Collectors.toList()));
+        assertEquals(start - 30_000, changes.getDeleted().get(0).getDeletedAt());
+        assertFalse(changes.isHasMore());
+        // A settled cursor: the end of the window the log was read up to
+        long nextSince = Long.parseLong(changes.getNextSince());
+        assertTrue(nextSince >= start - 5_000 && nextSince <= end - 5_000);
+    }
+
+    @Test
+    public void testChangesInsideTheSettleWindowWaitForTheNextSync() {
+        long start = System.currentTimeMillis();
+        changeLog.recordChange(new CourseChange(NAME, CODE, true, start - 1_000));
+
+        CourseChanges changes = dao.getChangesSince(Long.toString(start - 60_000), 10);
+        assertTrue(changes.getDeleted().isEmpty());
+
+        // A cursor already inside the window is handed back unchanged
+        String recent = Long.toString(start - 1_000);
+        CourseChanges unsettled = dao.getChangesSince(recent, 10);
+        assertEquals(recent, unsettled.getNextSince());
+        assertTrue(unsettled.getDeleted().isEmpty() && unsettled.getUpserted().isEmpty());
+    }
+
+    @Test
+    public void testFullPageResumesFromItsLastPosition() {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            changeLog.recordChange(new CourseChange("Course " + i, "CSDS 10" + i, true, start - 60_000 + i));
+        }
+
+        CourseChanges first = dao.getChangesSince(Long.toString(start - 120_000), 2);
+        assertTrue(first.isHasMore());
+        assertEquals(new CourseChange("Course 1", "CSDS 101", true, start - 59_999).getPosition(), first.getNextSince());
+        assertEquals(2, first.getDeleted().size());
+
+        CourseChanges second = dao.getChangesSince(first.getNextSince(), 2);
+        assertFalse(second.isHasMore());
+        assertEquals(List.of("CSDS 102"), second.getDeleted().stream().map(CourseTombstone::getCode).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSinceOutsideTheChangeLogIsRejected() {
+        try {
+            dao.getChangesSince("0", 10);
+            fail("Expected a cursor older than the change log to be rejected");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("older than the change log"));
+        }
+        try {
+            dao.getChangesSince("-1", 10);
+            fail("Expected a negative cursor to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("since must not be negative", e.getMessage());
+        }
+    }
+
+    private void storeCourse(AttributeValue reviews, Integer reviewShards) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("name", AttributeValue.builder().s(NAME).build());
+        item.put("code", AttributeValue.builder().s(CODE).build());
+        if (reviews != null) {
+            item.put("reviews", reviews);
+        }
+        if (reviewShards != null) {
+            item.put("reviewShards", AttributeValue.builder().n(reviewShards.toString()).build());
+        }
+        ddb.put(ReviewShardStore.COURSES_TABLE, item);
+    }
+
+    private void putCourse(String name, String code) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("name", AttributeValue.builder().s(name).build());
+        item.put("code", AttributeValue.builder().s(code).build());
+        ddb.put(ReviewShardStore.COURSES_TABLE, item);
+    }
+
+    // The course as the handler would have it from the catalog, not yet known to be sharded
+    private static CourseOutput cachedCourse(List<Review> reviews) {
+        CourseOutput course = new CourseOutput();
+        course.setName(NAME);
+        course.setCode(CODE);
+        course.setReviews(new ArrayList<>(reviews));
+        return course;
+    }
+
+    private static Review review(String reviewId, double overall) {
+        Review review = new Review();
+        review.setReviewId(reviewId);
+        review.setOverall(overall);
+        return review;
+    }
+
+    private static List<String> ids(List<Review> reviews) {
+        return reviews.stream().map(Review::getReviewId).collect(Collectors.toList());
+    }
+
+    private static List<String> sorted(List<String> values) {
+        return values.stream().sorted().collect(Collectors.toList());
+    }
+}
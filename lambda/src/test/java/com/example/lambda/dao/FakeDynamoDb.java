@@ -0,0 +1,337 @@
+package com.example.lambda.dao;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Just enough of DynamoDB for the DAO tests: item CRUD, batches and transactions on the Courses,
+// CourseReviewShards and IdempotencyKeys tables, with the equality, less-than, existence and begins_with
+// conditions (AND within OR) and the SET/REMOVE/ADD updates the stores issue. Every request is counted by
+// operation name.
+class FakeDynamoDb implements DynamoDbClient {
+
+    private static final Map<String, List<String>> KEYS = Map.of(
+            ReviewShardStore.COURSES_TABLE, List.of("name", "code"),
+            ReviewShardStore.TABLE_NAME, List.of("pk", "sk"),
+            IdempotencyStore.TABLE_NAME, List.of("pk"));
+
+    final Map<String, Map<String, Map<String, AttributeValue>>> tables = new HashMap<>();
+    final Map<String, Integer> calls = new TreeMap<>();
+    // Runs before each transaction is checked, e.g. to land a concurrent write
+    volatile Runnable beforeTransact = () -> { };
+
+    Map<String, Map<String, AttributeValue>> table(String name) {
+        return tables.computeIfAbsent(name, ignored -> new TreeMap<>());
+    }
+
+    Map<String, AttributeValue> item(String table, String... key) {
+        return table(table).get(String.join("|", key));
+    }
+
+    void put(String table, Map<String, AttributeValue> item) {
+        table(table).put(keyOf(table, item), new HashMap<>(item));
+    }
+
+    int calls(String operation) {
+        return calls.getOrDefault(operation, 0);
+    }
+
+    @Override
+    public synchronized GetItemResponse getItem(GetItemRequest request) {
+        count("GetItem");
+        Map<String, AttributeValue> item = table(request.tableName()).get(keyOf(request.tableName(), request.key()));
+        return GetItemResponse.builder()
+                .item(item == null ? null : project(item, request.projectionExpression(), request.expressionAttributeNames()))
+                .build();
+    }
+
+    @Override
+    public synchronized PutItemResponse putItem(PutItemRequest request) {
+        count("PutItem");
+        Map<String, AttributeValue> current = table(request.tableName()).get(keyOf(request.tableName(), request.item()));
+        if (!holds(request.conditionExpression(), current, request.expressionAttributeNames(), request.expressionAttributeValues())) {
+            ConditionalCheckFailedException.Builder failed = ConditionalCheckFailedException.builder()
+                    .message("The conditional request failed");
+            if (request.returnValuesOnConditionCheckFailure() == ReturnValuesOnConditionCheckFailure.ALL_OLD && current != null) {
+                failed.item(new HashMap<>(current));
+            }
+            throw failed.build();
+        }
+        put(request.tableName(), request.item());
+        return PutItemResponse.builder().build();
+    }
+
+    @Override
+    public synchronized UpdateItemResponse updateItem(UpdateItemRequest request) {
+        count("UpdateItem");
+        Map<String, AttributeValue> current = table(request.tableName()).get(keyOf(request.tableName(), request.key()));
+        if (!holds(request.conditionExpression(), current, request.expressionAttributeNames(), request.expressionAttributeValues())) {
+            throw conditionFailed();
+        }
+        update(request.tableName(), request.key(), request.updateExpression(),
+                request.expressionAttributeNames(), request.expressionAttributeValues());
+        return UpdateItemResponse.builder().build();
+    }
+
+    @Override
+    public synchronized DeleteItemResponse deleteItem(DeleteItemRequest request) {
+        count("DeleteItem");
+        Map<String, AttributeValue> current = table(request.tableName()).get(keyOf(request.tableName(), request.key()));
+        if (!holds(request.conditionExpression(), current, request.expressionAttributeNames(), request.expressionAttributeValues())) {
+            throw conditionFailed();
+        }
+        table(request.tableName()).remove(keyOf(request.tableName(), request.key()));
+        DeleteItemResponse.Builder response = DeleteItemResponse.builder();
+        if (request.returnValues() == ReturnValue.ALL_OLD && current != null) {
+            response.attributes(current);
+        }
+        return response.build();
+    }
+
+    @Override
+    public synchronized BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+        count("BatchGetItem");
+        Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+        for (Map.Entry<String, KeysAndAttributes> entry : request.requestItems().entrySet()) {
+            List<Map<String, AttributeValue>> items = new ArrayList<>();
+            for (Map<String, AttributeValue> key : entry.getValue().keys()) {
+                Map<String, AttributeValue> item = table(entry.getKey()).get(keyOf(entry.getKey(), key));
+                if (item != null) {
+                    items.add(new HashMap<>(item));
+                }
+            }
+            responses.put(entry.getKey(), items);
+        }
+        return BatchGetItemResponse.builder().responses(responses).build();
+    }
+
+    @Override
+    public synchronized BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+        count("BatchWriteItem");
+        for (Map.Entry<String, List<WriteRequest>> entry : request.requestItems().entrySet()) {
+            for (WriteRequest write : entry.getValue()) {
+                if (write.putRequest() != null) {
+                    put(entry.getKey(), write.putRequest().item());
+                } else {
+                    table(entry.getKey()).remove(keyOf(entry.getKey(), write.deleteRequest().key()));
+                }
+            }
+        }
+        return BatchWriteItemResponse.builder().build();
+    }
+
+    @Override
+    public synchronized TransactWriteItemsResponse transactWriteItems(TransactWriteItemsRequest request) {
+        count("TransactWriteItems");
+        beforeTransact.run();
+        List<CancellationReason> reasons = new ArrayList<>();
+        boolean failed = false;
+        for (TransactWriteItem write : request.transactItems()) {
+            boolean holds;
+            if (write.put() != null) {
+                Put put = write.put();
+                holds = holds(put.conditionExpression(), table(put.tableName()).get(keyOf(put.tableName(), put.item())),
+                        put.expressionAttributeNames(), put.expressionAttributeValues());
+            } else if (write.update() != null) {
+                Update update = write.update();
+                holds = holds(update.conditionExpression(), table(update.tableName()).get(keyOf(update.tableName(), update.key())),
+                        update.expressionAttributeNames(), update.expressionAttributeValues());
+            } else {
+                Delete delete = write.delete();
+                holds = holds(delete.conditionExpression(), table(delete.tableName()).get(keyOf(delete.tableName(), delete.key())),
+                        delete.expressionAttributeNames(), delete.expressionAttributeValues());
+            }
+            failed |= !holds;
+            reasons.add(CancellationReason.builder().code(holds ? "None" : "ConditionalCheckFailed").build());
+        }
+        if (failed) {
+            throw TransactionCanceledException.builder().message("Transaction cancelled").cancellationReasons(reasons).build();
+        }
+        for (TransactWriteItem write : request.transactItems()) {
+            if (write.put() != null) {
+                put(write.put().tableName(), write.put().item());
+            } else if (write.update() != null) {
+                Update update = write.update();
+                update(update.tableName(), update.key(), update.updateExpression(),
+                        update.expressionAttributeNames(), update.expressionAttributeValues());
+            } else {
+                table(write.delete().tableName()).remove(keyOf(write.delete().tableName(), write.delete().key()));
+            }
+        }
+        return TransactWriteItemsResponse.builder().build();
+    }
+
+    @Override
+    public synchronized QueryResponse query(QueryRequest request) {
+        count("Query");
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (Map<String, AttributeValue> item : table(request.tableName()).values()) {
+            if (holds(request.keyConditionExpression(), item, request.expressionAttributeNames(), request.expressionAttributeValues())) {
+                items.add(project(item, request.projectionExpression(), request.expressionAttributeNames()));
+            }
+        }
+        return QueryResponse.builder().items(items).count(items.size()).build();
+    }
+
+    @Override
+    public synchronized ScanResponse scan(ScanRequest request) {
+        count("Scan");
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (Map<String, AttributeValue> item : table(request.tableName()).values()) {
+            if (holds(request.filterExpression(), item, request.expressionAttributeNames(), request.expressionAttributeValues())) {
+                items.add(project(item, request.projectionExpression(), request.expressionAttributeNames()));
+            }
+        }
+        return ScanResponse.builder().items(items).count(items.size()).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return "dynamodb";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void count(String operation) {
+        calls.merge(operation, 1, Integer::sum);
+    }
+
+    private void update(String table, Map<String, AttributeValue> key, String expression,
+                        Map<String, String> names, Map<String, AttributeValue> values) {
+        Map<String, AttributeValue> item = table(table).computeIfAbsent(keyOf(table, key), ignored -> new HashMap<>(key));
+        for (String clause : expression.trim().split("\\s+(?=(SET|REMOVE|ADD) )")) {
+            String action = clause.substring(0, clause.indexOf(' '));
+            for (String part : clause.substring(action.length()).trim().split(",\\s*")) {
+                if (action.equals("SET")) {
+                    String[] sides = part.split("\\s*=\\s*");
+                    item.put(name(sides[0], names), values.get(sides[1]));
+                } else if (action.equals("REMOVE")) {
+                    item.remove(name(part, names));
+                } else {
+                    String[] sides = part.trim().split("\\s+");
+                    String attribute = name(sides[0], names);
+                    BigDecimal sum = new BigDecimal(values.get(sides[1]).n());
+                    if (item.get(attribute) != null) {
+                        sum = sum.add(new BigDecimal(item.get(attribute).n()));
+                    }
+                    item.put(attribute, AttributeValue.builder().n(sum.toPlainString()).build());
+                }
+            }
+        }
+    }
+
+    private static boolean holds(String expression, Map<String, AttributeValue> item,
+                                 Map<String, String> names, Map<String, AttributeValue> values) {
+        if (expression == null || expression.isBlank()) {
+            return true;
+        }
+        for (String alternative : expression.split(" OR ")) {
+            if (holdsAll(alternative, item, names, values)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean holdsAll(String expression, Map<String, AttributeValue> item,
+                                    Map<String, String> names, Map<String, AttributeValue> values) {
+        for (String condition : expression.split(" AND ")) {
+            condition = condition.trim();
+            boolean holds;
+            if (condition.startsWith("attribute_exists(")) {
+                holds = item != null && item.containsKey(name(argument(condition), names));
+            } else if (condition.startsWith("attribute_not_exists(")) {
+                holds = item == null || !item.containsKey(name(argument(condition), names));
+            } else if (condition.startsWith("begins_with(")) {
+                String[] arguments = argument(condition).split(",\\s*");
+                AttributeValue value = item == null ? null : item.get(name(arguments[0], names));
+                holds = value != null && value.s() != null && value.s().startsWith(values.get(arguments[1]).s());
+            } else if (condition.contains(" < ")) {
+                String[] sides = condition.split("\\s*<\\s*");
+                AttributeValue value = item == null ? null : item.get(name(sides[0], names));
+                holds = value != null && value.n() != null
+                        && new BigDecimal(value.n()).compareTo(new BigDecimal(values.get(sides[1]).n())) < 0;
+            } else {
+                String[] sides = condition.split("\\s*=\\s*");
+                holds = item != null && values.get(sides[1]).equals(item.get(name(sides[0], names)));
+            }
+            if (!holds) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String argument(String call) {
+        return call.substring(call.indexOf('(') + 1, call.lastIndexOf(')'));
+    }
+
+    private static String name(String token, Map<String, String> names) {
+        token = token.trim();
+        return token.startsWith("#") ? names.get(token) : token;
+    }
+
+    private static Map<String, AttributeValue> project(Map<String, AttributeValue> item, String projection,
+                                                       Map<String, String> names) {
+        if (projection == null) {
+            return new HashMap<>(item);
+        }
+        Map<String, AttributeValue> projected = new HashMap<>();
+        for (String token : projection.split(",\\s*")) {
+            String attribute = name(token, names);
+            if (item.containsKey(attribute)) {
+                projected.put(attribute, item.get(attribute));
+            }
+        }
+        return projected;
+    }
+
+    private static String keyOf(String table, Map<String, AttributeValue> item) {
+        List<String> parts = new ArrayList<>();
+        for (String attribute : KEYS.get(table)) {
+            parts.add(item.get(attribute).s());
+        }
+        return String.join("|", parts);
+    }
+
+    private static ConditionalCheckFailedException conditionFailed() {
+        return ConditionalCheckFailedException.builder().message("The conditional request failed").build();
+    }
+}
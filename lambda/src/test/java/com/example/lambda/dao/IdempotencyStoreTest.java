@@ -0,0 +1,112 @@
+package com.example.lambda.dao;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.dao.IdempotencyStore.Claim;
+import com.example.lambda.dao.IdempotencyStore.Outcome;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IdempotencyStoreTest {
+
+    private static final long TTL_SECONDS = 3600;
+    private static final String SCOPE = "/courses";
+    private static final String FINGERPRINT = IdempotencyStore.fingerprint("Discrete Mathematics", "CSDS 101", null, "{}");
+
+    private final FakeDynamoDb ddb = new FakeDynamoDb();
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final IdempotencyStore store = new IdempotencyStore(ddb, TTL_SECONDS, now::get);
+
+    @Test
+    public void testFirstClaimRunsAndCompletedResponseIsReplayed() {
+        Claim claim = store.claim(SCOPE, "k1", FINGERPRINT);
+        assertEquals(Outcome.CLAIMED, claim.getOutcome());
+
+        store.complete(claim, response(201, "Course created", Map.of("Vary", "Accept")));
+        now.addAndGet(1000);
+        Claim retry = store.claim(SCOPE, "k1", FINGERPRINT);
+
+        assertEquals(Outcome.REPLAY, retry.getOutcome());
+        assertEquals(Integer.valueOf(201), retry.getResponse().getStatusCode());
+        assertEquals("Course created", retry.getResponse().getBody());
+        assertEquals(Map.of("Vary", "Accept"), retry.getResponse().getHeaders());
+    }
+
+    @Test
+    public void testKeyReusedForADifferentRequestIsAMismatch() {
+        store.complete(store.claim(SCOPE, "k1", FINGERPRINT), response(201, "Course created", null));
+
+        Claim reused = store.claim(SCOPE, "k1", IdempotencyStore.fingerprint("Linear Algebra", "MATH 201", null, "{}"));
+
+        assertEquals(Outcome.MISMATCH, reused.getOutcome());
+        assertNull(reused.getResponse());
+    }
+
+    @Test
+    public void testKeyIsScopedToThePath() {
+        store.claim(SCOPE, "k1", FINGERPRINT);
+
+        assertEquals(Outcome.CLAIMED, store.claim("/reviews", "k1", FINGERPRINT).getOutcome());
+    }
+
+    @Test
+    public void testRetryWhileTheFirstAttemptRunsIsInProgress() {
+        store.claim(SCOPE, "k1", FINGERPRINT);
+
+        assertEquals(Outcome.IN_PROGRESS, store.claim(SCOPE, "k1", FINGERPRINT).getOutcome());
+    }
+
+    @Test
+    public void testLapsedLeaseCanBeClaimedAgain() {
+        store.claim(SCOPE, "k1", FINGERPRINT);
+
+        now.addAndGet(IdempotencyStore.LEASE_SECONDS * 1000);
+        assertEquals(Outcome.IN_PROGRESS, store.claim(SCOPE, "k1", FINGERPRINT).getOutcome());
+        now.addAndGet(1000);
+        assertEquals(Outcome.CLAIMED, store.claim(SCOPE, "k1", FINGERPRINT).getOutcome());
+    }
+
+    @Test
+    public void testExpiredResponseIsNotReplayed() {
+        store.complete(store.claim(SCOPE, "k1", FINGERPRINT), response(201, "Course created", null));
+
+        now.addAndGet((TTL_SECONDS + 1) * 1000);
+
+        assertEquals(Outcome.CLAIMED, store.claim(SCOPE, "k1", FINGERPRINT).getOutcome());
+    }
+
+    @Test
+    public void testServerErrorReleasesTheKey() {
+        store.complete(store.claim(SCOPE, "k1", FINGERPRINT), response(500, "Error creating course.", null));
+        assertTrue(ddb.table(IdempotencyStore.TABLE_NAME).isEmpty());
+        assertEquals(Outcome.CLAIMED, store.claim(SCOPE, "k1", FINGERPRINT).getOutcome());
+
+        // A response without a status is treated the same way
+        store.complete(store.claim(SCOPE, "k2", FINGERPRINT), new APIGatewayProxyResponseEvent());
+        assertEquals(Outcome.CLAIMED, store.claim(SCOPE, "k2", FINGERPRINT).getOutcome());
+    }
+
+    @Test
+    public void testClientErrorIsReplayed() {
+        store.complete(store.claim(SCOPE, "k1", FINGERPRINT), response(400, "Invalid course", null));
+
+        Claim retry = store.claim(SCOPE, "k1", FINGERPRINT);
+
+        assertEquals(Outcome.REPLAY, retry.getOutcome());
+        assertEquals(Integer.valueOf(400), retry.getResponse().getStatusCode());
+        assertNull(retry.getResponse().getHeaders());
+    }
+
+    private static APIGatewayProxyResponseEvent response(int status, String body, Map<String, String> headers) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        response.setStatusCode(status);
+        response.setBody(body);
+        response.setHeaders(headers);
+        return response;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.lambda.dao;
+
+import com.example.lambda.models.Review;
+import com.example.lambda.util.ReviewListAttributeConverter;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReviewShardStoreTest {
+
+    private static final String NAME = "Discrete Mathematics";
+    private static final String CODE = "CSDS 101";
+    private static final String COURSE_KEY = ReviewShardStore.courseKey(NAME, CODE);
+    private static final int SHARDS = 4;
+
+    private final FakeDynamoDb ddb = new FakeDynamoDb();
+    private final ReviewShardStore store = new ReviewShardStore(ddb);
+
+    @Test
+    public void testPromoteMovesInlineReviewsIntoShards() {
+        List<Review> inline = new ArrayList<>(List.of(review("r1", 4.0), review("r2", 2.0), review("r2", 3.0), review(null, 5.0)));
+        AttributeValue observed = storeCourse(inline);
+
+        assertTrue(store.promote(NAME, CODE, observed, inline, SHARDS));
+
+        Map<String, AttributeValue> course = ddb.item(ReviewShardStore.COURSES_TABLE, NAME, CODE);
+        assertEquals("4", course.get("reviewShards").n());
+        assertNull(course.get("reviews"));
+        // The later copy of a duplicate id wins, and a review without an id is given one
+        List<Review> sharded = store.getReviews(COURSE_KEY, SHARDS);
+        assertEquals(3, sharded.size());
+        assertEquals(3.0, byId(sharded).get("r2").getOverall(), 0.0);
+        assertTrue(sharded.stream().allMatch(review -> review.getReviewId() != null));
+
+        CourseAggregate totals = store.getTotals(COURSE_KEY, SHARDS);
+        assertEquals(3, totals.getReviewCount());
+        assertEquals(4.0, totals.getAverageOverall(), 1e-9);
+    }
+
+    @Test
+    public void testPromoteLosingToAnInlineWriteWithdrawsTheCopies() {
+        List<Review> inline = List.of(review("r1", 4.0));
+        AttributeValue observed = storeCourse(inline);
+        // Another container adds an inline review after the course was read
+        storeCourse(List.of(review("r1", 4.0), review("r2", 1.0)));
+
+        assertFalse(store.promote(NAME, CODE, observed, new ArrayList<>(inline), SHARDS));
+
+        assertTrue(ddb.table(ReviewShardStore.TABLE_NAME).isEmpty());
+        Map<String, AttributeValue> course = ddb.item(ReviewShardStore.COURSES_TABLE, NAME, CODE);
+        assertNull(course.get("reviewShards"));
+        assertEquals(2, course.get("reviews").l().size());
+    }
+
+    @Test
+    public void testPutReviewRejectsADuplicateId() {
+        assertTrue(store.putReview(COURSE_KEY, SHARDS, review("r1", 4.0)));
+        assertFalse(store.putReview(COURSE_KEY, SHARDS, review("r1", 1.0)));
+
+        assertEquals(4.0, store.getReviews(COURSE_KEY, SHARDS).get(0).getOverall(), 0.0);
+        assertEquals(1, store.getTotals(COURSE_KEY, SHARDS).getReviewCount());
+    }
+
+    @Test
+    public void testReplaceReviewAdjustsTheCounterByTheDifference() {
+        store.putReview(COURSE_KEY, SHARDS, review("r1", 4.0));
+        store.putReview(COURSE_KEY, SHARDS, review("r2", 2.0));
+
+        Review edited = review("r1", 1.0);
+        edited.setDifficulty(3.0);
+        assertTrue(store.replaceReview(COURSE_KEY, SHARDS, edited));
+        assertFalse(store.replaceReview(COURSE_KEY, SHARDS, review("r9", 5.0)));
+
+        CourseAggregate totals = store.getTotals(COURSE_KEY, SHARDS);
+        assertEquals(2, totals.getReviewCount());
+        assertEquals(1.5, totals.getAverageOverall(), 1e-9);
+        assertEquals(3.0, totals.getAverageDifficulty(), 1e-9);
+        assertEquals(1.0, byId(store.getReviews(COURSE_KEY, SHARDS)).get("r1").getOverall(), 0.0);
+    }
+
+    @Test
+    public void testRemoveReviewTakesItOutOfTheCounter() {
+        store.putReview(COURSE_KEY, SHARDS, review("r1", 4.0));
+        store.putReview(COURSE_KEY, SHARDS, review("r2", 2.0));
+
+        assertTrue(store.removeReview(COURSE_KEY, SHARDS, "r1"));
+        assertFalse(store.removeReview(COURSE_KEY, SHARDS, "r1"));
+
+        CourseAggregate totals = store.getTotals(COURSE_KEY, SHARDS);
+        assertEquals(1, totals.getReviewCount());
+        assertEquals(2.0, totals.getAverageOverall(), 1e-9);
+        assertEquals(List.of("r2"), ids(store.getReviews(COURSE_KEY, SHARDS)));
+    }
+
+    @Test
+    public void testGetTotalsOfAnUnknownCourseIsEmpty() {
+        CourseAggregate totals = store.getTotals(COURSE_KEY, SHARDS);
+        assertTrue(totals.isZero());
+        assertNull(totals.getAverageOverall());
+    }
+
+    @Test
+    public void testDeleteAllRemovesReviewsAndCounters() {
+        store.putReview(COURSE_KEY, SHARDS, review("r1", 4.0));
+        store.putReview(COURSE_KEY, SHARDS, review("r2", 2.0));
+        store.putReview(ReviewShardStore.courseKey("Linear Algebra", "MATH 201"), SHARDS, review("r3", 3.0));
+
+        int deleted = store.deleteAll(COURSE_KEY, SHARDS);
+
+        // Two reviews plus one counter per shard they landed on
+        assertTrue(deleted >= 3 && deleted <= 4);
+        assertTrue(store.getReviews(COURSE_KEY, SHARDS).isEmpty());
+        assertNotNull(store.scanAll().get(ReviewShardStore.courseKey("Linear Algebra", "MATH 201")));
+        assertNull(store.scanAll().get(COURSE_KEY));
+    }
+
+    // Put the course item with the given inline reviews and return the reviews attribute as stored
+    private AttributeValue storeCourse(List<Review> reviews) {
+        AttributeValue stored = new ReviewListAttributeConverter(false).transformFrom(reviews);
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("name", AttributeValue.builder().s(NAME).build());
+        item.put("code", AttributeValue.builder().s(CODE).build());
+        item.put("reviews", stored);
+        ddb.put(ReviewShardStore.COURSES_TABLE, item);
+        return stored;
+    }
+
+    private static Review review(String reviewId, double overall) {
+        Review review = new Review();
+        review.setReviewId(reviewId);
+        review.setOverall(overall);
+        return review;
+    }
+
+    private static Map<String, Review> byId(List<Review> reviews) {
+        return reviews.stream().collect(Collectors.toMap(Review::getReviewId, review -> review));
+    }
+
+    private static List<String> ids(List<Review> reviews) {
+        return reviews.stream().map(Review::getReviewId).collect(Collectors.toList());
+    }
+}
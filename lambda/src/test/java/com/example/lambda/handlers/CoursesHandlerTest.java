@@ -0,0 +1,171 @@
+package com.example.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.dao.CourseDao;
+import com.example.lambda.models.Course;
+import com.example.lambda.models.CourseChanges;
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import com.example.lambda.streams.CourseChange;
+import com.example.lambda.streams.InMemoryAggregateStore;
+import com.example.lambda.util.ReviewPager;
+import com.example.lambda.validators.BatchValidationResult;
+import com.google.gson.Gson;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CoursesHandlerTest {
+
+    private final InMemoryAggregateStore changeLog = new InMemoryAggregateStore();
+    // Only deletes are logged below, so the DAO never has to read a course back
+    private final CoursesHandler handler = new CoursesHandler(new CourseDao(unusedClient(), changeLog));
+
+    @Test
+    public void testChangesPageThroughTheLog() {
+        long start = System.currentTimeMillis();
+        changeLog.recordChange(new CourseChange("Discrete Mathematics", "CSDS 101", true, start - 30_000));
+        changeLog.recordChange(new CourseChange("Linear Algebra", "MATH 201", true, start - 20_000));
+
+        APIGatewayProxyResponseEvent response = changes(Map.of("since", " " + (start - 60_000) + " ", "limit", "1"));
+
+        assertEquals(Integer.valueOf(200), response.getStatusCode());
+        CourseChanges first = new Gson().fromJson(response.getBody(), CourseChanges.class);
+        assertTrue(first.isHasMore());
+        assertEquals("CSDS 101", first.getDeleted().get(0).getCode());
+        assertEquals(start - 30_000, first.getDeleted().get(0).getDeletedAt());
+
+        CourseChanges second = new Gson().fromJson(changes(Map.of("since", first.getNextSince())).getBody(), CourseChanges.class);
+        assertFalse(second.isHasMore());
+        assertEquals("MATH 201", second.getDeleted().get(0).getCode());
+        assertTrue(second.getUpserted().isEmpty());
+    }
+
+    @Test
+    public void testSinceOlderThanTheChangeLogIsGone() {
+        APIGatewayProxyResponseEvent response = changes(Map.of("since", "0"));
+
+        assertEquals(Integer.valueOf(410), response.getStatusCode());
+        assertTrue(response.getBody().contains("download the full catalog"));
+    }
+
+    @Test
+    public void testInvalidChangesRequests() {
+        String recent = Long.toString(System.currentTimeMillis() - 60_000);
+
+        assertEquals(Integer.valueOf(400), changes(Map.of()).getStatusCode());
+        assertEquals(Integer.valueOf(400), changes(Map.of("since", " ")).getStatusCode());
+        assertEquals(Integer.valueOf(400), changes(Map.of("since", "-1")).getStatusCode());
+        assertEquals(Integer.valueOf(400), changes(Map.of("since", "yesterday")).getStatusCode());
+        assertEquals(Integer.valueOf(400), changes(Map.of("since", recent, "limit", "0")).getStatusCode());
+        assertEquals(Integer.valueOf(400),
+                changes(Map.of("since", recent, "limit", Integer.toString(CoursesHandler.MAX_CHANGES_LIMIT + 1))).getStatusCode());
+    }
+
+    @Test
+    public void testCourseDetailInlinesTheFirstReviewPage() {
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < ReviewPager.DEFAULT_LIMIT + 2; i++) {
+            reviews.add(ReviewsHandlerTest.review("r" + i, String.format("2024-01-%02d", i + 1), 4.0, 3.0));
+        }
+        CourseOutput cached = ReviewsHandlerTest.course(reviews.toArray(new Review[0]));
+        CoursesHandler detail = new CoursesHandler(ReviewsHandlerTest.catalogDao(cached));
+
+        APIGatewayProxyResponseEvent response = detail.handleCoursesRequest("GET", "/courses", null,
+                cached.getName(), cached.getCode(), null, new HashMap<>());
+
+        assertEquals(Integer.valueOf(200), response.getStatusCode());
+        CourseOutput course = new Gson().fromJson(response.getBody(), CourseOutput.class);
+        assertEquals(ReviewPager.DEFAULT_LIMIT, course.getReviews().size());
+        assertEquals("r11", course.getReviews().get(0).getReviewId());
+        assertEquals(Integer.valueOf(ReviewPager.DEFAULT_LIMIT + 2), course.getReviewCount());
+        assertNotNull(course.getNextReviewCursor());
+        // The page went on a copy; the catalog's course keeps every review
+        assertEquals(ReviewPager.DEFAULT_LIMIT + 2, cached.getReviews().size());
+        assertNull(cached.getReviewCount());
+    }
+
+    @Test
+    public void testDeleteAnswersFromTheConditionalDelete() {
+        Set<String> stored = new HashSet<>(Set.of("Discrete Mathematics#CSDS 101"));
+        CoursesHandler deleting = new CoursesHandler(new CourseDao(unusedClient(), changeLog) {
+            @Override
+            public boolean deleteCourse(String name, String code) {
+                if (code.equals("FAIL 100")) {
+                    throw new IllegalStateException("throttled");
+                }
+                return stored.remove(name + "#" + code);
+            }
+        });
+
+        assertEquals(Integer.valueOf(200), delete(deleting, "Discrete Mathematics", "CSDS 101").getStatusCode());
+        APIGatewayProxyResponseEvent again = delete(deleting, "Discrete Mathematics", "CSDS 101");
+        assertEquals(Integer.valueOf(404), again.getStatusCode());
+        assertEquals("Course not found", again.getBody());
+        assertEquals(Integer.valueOf(400), delete(deleting, "Discrete Mathematics", null).getStatusCode());
+        assertEquals(Integer.valueOf(500), delete(deleting, "Broken", "FAIL 100").getStatusCode());
+    }
+
+    @Test
+    public void testInvalidImportIsRejectedWithoutWritingAnything() {
+        List<Course> saved = new ArrayList<>();
+        CoursesHandler importing = new CoursesHandler(new CourseDao(unusedClient(), changeLog) {
+            @Override
+            public void saveCourses(List<Course> courses) {
+                saved.addAll(courses);
+            }
+        });
+        String invalid = "[{\"courseId\":\"c0\",\"code\":\"CSDS 101\",\"name\":\"Discrete Mathematics\",\"createdBy\":\"abc123\"},"
+                + " {\"courseId\":\"c1\",\"code\":\" \",\"name\":\"Calculus I\",\"createdBy\":\"abc123\"}]";
+
+        APIGatewayProxyResponseEvent rejected = post(importing, invalid);
+
+        assertEquals(Integer.valueOf(400), rejected.getStatusCode());
+        BatchValidationResult result = new Gson().fromJson(rejected.getBody(), BatchValidationResult.class);
+        assertEquals(1, result.getErrors().size());
+        assertEquals(Integer.valueOf(1), result.getErrors().get(0).getIndex());
+        assertEquals("code", result.getErrors().get(0).getField());
+        assertTrue(saved.isEmpty());
+
+        assertEquals(Integer.valueOf(400), post(importing, "[]").getStatusCode());
+        assertEquals(Integer.valueOf(201), post(importing, invalid.replace("\" \"", "\"MATH 121\"")).getStatusCode());
+        assertEquals(2, saved.size());
+    }
+
+    private static APIGatewayProxyResponseEvent post(CoursesHandler handler, String body) {
+        return handler.handleCoursesRequest("POST", "/courses", body, null, null, null, new HashMap<>());
+    }
+
+    private static APIGatewayProxyResponseEvent delete(CoursesHandler handler, String name, String code) {
+        return handler.handleCoursesRequest("DELETE", "/courses", null, name, code, null, new HashMap<>());
+    }
+
+    private APIGatewayProxyResponseEvent changes(Map<String, String> parameters) {
+        return handler.handleCoursesRequest("GET", "/courses/changes", null, null, null, parameters, new HashMap<>());
+    }
+
+    private static DynamoDbClient unusedClient() {
+        return new DynamoDbClient() {
+            @Override
+            public String serviceName() {
+                return "dynamodb";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.dao.CourseDao;
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.ProfessorCourse;
+import com.example.lambda.models.ProfessorCourses;
+import com.example.lambda.models.Review;
+import com.example.lambda.streams.InMemoryAggregateStore;
+import com.example.lambda.util.CatalogSnapshot;
+import com.example.lambda.util.TrigramIndex;
+import com.google.gson.Gson;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ProfessorsHandlerTest {
+
+    private final List<CourseOutput> courses = List.of(
+            course("CSDS 101", List.of("Jane Doe"), review("Jane Doe", 4.0), review("John Roe", 1.0), review("jane doe", 2.0)),
+            course("CSDS 233", List.of("John Roe")),
+            course("MATH 122", List.of(), review("Jane Doe", 5.0)));
+    private final ProfessorsHandler handler = new ProfessorsHandler(catalogDao(courses));
+
+    @Test
+    public void testCoursesComeWithThatProfessorsRatingsOnly() {
+        APIGatewayProxyResponseEvent response = handler.handleProfessorsRequest("GET", "/professors/jane%20doe/courses", null);
+
+        assertEquals(Integer.valueOf(200), response.getStatusCode());
+        ProfessorCourses result = new Gson().fromJson(response.getBody(), ProfessorCourses.class);
+        assertEquals("Jane Doe", result.getProfessor());
+        assertEquals(2, result.getCourses().size());
+        ProfessorCourse discrete = result.getCourses().get(0);
+        assertEquals("CSDS 101", discrete.getCode());
+        assertEquals(2, discrete.getReviewCount());
+        assertEquals(3.0, discrete.getAverageOverall(), 1e-9);
+        assertNull(discrete.getAverageDifficulty());
+        // Listed on no course, but reviewed as teaching this one
+        assertEquals("MATH 122", result.getCourses().get(1).getCode());
+        assertEquals(1, result.getCourses().get(1).getReviewCount());
+    }
+
+    @Test
+    public void testPathParameterWinsOverThePath() {
+        APIGatewayProxyResponseEvent response = handler.handleProfessorsRequest("GET", "/professors/x/courses", "John Roe");
+
+        ProfessorCourses result = new Gson().fromJson(response.getBody(), ProfessorCourses.class);
+        assertEquals(2, result.getCourses().size());
+        assertEquals(0, result.getCourses().get(1).getReviewCount());
+        assertNull(result.getCourses().get(1).getAverageOverall());
+    }
+
+    @Test
+    public void testErrors() {
+        assertEquals(Integer.valueOf(404), handler.handleProfessorsRequest("GET", null, "Nobody").getStatusCode());
+        assertEquals(Integer.valueOf(400), handler.handleProfessorsRequest("GET", "/professors/%20/courses", null).getStatusCode());
+        assertEquals(Integer.valueOf(400), handler.handleProfessorsRequest("GET", "/courses", null).getStatusCode());
+        assertEquals(Integer.valueOf(405), handler.handleProfessorsRequest("POST", null, "Jane Doe").getStatusCode());
+    }
+
+    // A DAO serving a fixed catalog; nothing reaches DynamoDB
+    private static CourseDao catalogDao(List<CourseOutput> courses) {
+        CatalogSnapshot catalog = new CatalogSnapshot(1L, courses, TrigramIndex.build(courses));
+        DynamoDbClient unused = new DynamoDbClient() {
+            @Override
+            public String serviceName() {
+                return "dynamodb";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return new CourseDao(unused, new InMemoryAggregateStore()) {
+            @Override
+            public CatalogSnapshot getCatalog() {
+                return catalog;
+            }
+        };
+    }
+
+    private static CourseOutput course(String code, List<String> professors, Review... reviews) {
+        CourseOutput course = new CourseOutput();
+        course.setCode(code);
+        course.setName("Course " + code);
+        course.setProfessors(professors);
+        course.setReviews(List.of(reviews));
+        return course;
+    }
+
+    private static Review review(String professor, double overall) {
+        Review review = new Review();
+        review.setProfessor(professor);
+        review.setOverall(overall);
+        return review;
+    }
+}
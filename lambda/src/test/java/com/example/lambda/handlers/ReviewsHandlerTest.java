@@ -0,0 +1,139 @@
+package com.example.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.dao.CourseDao;
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import com.example.lambda.models.ReviewPage;
+import com.example.lambda.streams.InMemoryAggregateStore;
+import com.example.lambda.util.CatalogSnapshot;
+import com.example.lambda.util.TrigramIndex;
+import com.google.gson.Gson;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReviewsHandlerTest {
+
+    private static final String NAME = "Discrete Mathematics";
+    private static final String CODE = "CSDS 101";
+
+    private final CourseOutput course = course(
+            review("r1", "2024-01-01", 3.0, 2.0),
+            review("r2", "2024-01-03", 5.0, 4.0),
+            review("r3", "2024-01-02", 1.0, 5.0),
+            review("r4", "2024-01-05", 4.0, 1.0),
+            review("r5", "2024-01-04", 2.0, 3.0));
+    private final ReviewsHandler handler = new ReviewsHandler(catalogDao(course));
+
+    @Test
+    public void testCursorWalksTheReviewsNewestFirst() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Map<String, String> params = new HashMap<>(Map.of("limit", "2"));
+            if (cursor != null) {
+                params.put("cursor", cursor);
+            }
+            ReviewPage page = page(params);
+            assertEquals(5, page.getReviewCount());
+            assertEquals("createdAt", page.getSort());
+            seen.addAll(ids(page.getReviews()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("r4", "r5", "r2", "r3", "r1"), seen);
+        // Paging reads the catalog's course without changing it
+        assertEquals(5, course.getReviews().size());
+    }
+
+    @Test
+    public void testSortOrders() {
+        assertEquals(List.of("r2", "r4", "r1"), ids(page(Map.of("sort", "overall", "limit", "3")).getReviews()));
+        ReviewPage hardest = page(Map.of("sort", "DIFFICULTY"));
+        assertEquals(List.of("r3", "r2", "r5", "r1", "r4"), ids(hardest.getReviews()));
+        assertNull(hardest.getNextCursor());
+
+        ReviewPage first = page(Map.of("sort", "overall", "limit", "4"));
+        ReviewPage rest = page(Map.of("sort", "overall", "limit", "4", "cursor", first.getNextCursor()));
+        assertEquals(List.of("r3"), ids(rest.getReviews()));
+    }
+
+    @Test
+    public void testInvalidRequests() {
+        String createdAtCursor = page(Map.of("limit", "1")).getNextCursor();
+
+        assertEquals(Integer.valueOf(400), get(NAME, CODE, Map.of("sort", "newest")).getStatusCode());
+        assertEquals(Integer.valueOf(400), get(NAME, CODE, Map.of("limit", "0")).getStatusCode());
+        assertEquals(Integer.valueOf(400), get(NAME, CODE, Map.of("limit", "ten")).getStatusCode());
+        assertEquals(Integer.valueOf(400), get(NAME, CODE, Map.of("cursor", "not a cursor")).getStatusCode());
+        assertEquals(Integer.valueOf(400), get(NAME, CODE, Map.of("sort", "overall", "cursor", createdAtCursor)).getStatusCode());
+        assertEquals(Integer.valueOf(400), get(NAME, null, Map.of()).getStatusCode());
+        assertEquals(Integer.valueOf(404), get(NAME, "CSDS 999", Map.of()).getStatusCode());
+    }
+
+    private ReviewPage page(Map<String, String> params) {
+        APIGatewayProxyResponseEvent response = get(NAME, CODE, params);
+        assertEquals(Integer.valueOf(200), response.getStatusCode());
+        return new Gson().fromJson(response.getBody(), ReviewPage.class);
+    }
+
+    private APIGatewayProxyResponseEvent get(String name, String code, Map<String, String> params) {
+        return handler.handleReviewsRequest("GET", null, name, code, null, params);
+    }
+
+    // A DAO serving a fixed catalog; a course missing from it fails on the unused client, as a missing item would
+    static CourseDao catalogDao(CourseOutput... courses) {
+        List<CourseOutput> catalogCourses = List.of(courses);
+        CatalogSnapshot catalog = new CatalogSnapshot(1L, catalogCourses, TrigramIndex.build(catalogCourses));
+        DynamoDbClient unused = new DynamoDbClient() {
+            @Override
+            public String serviceName() {
+                return "dynamodb";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return new CourseDao(unused, new InMemoryAggregateStore()) {
+            @Override
+            public CatalogSnapshot getCatalog() {
+                return catalog;
+            }
+        };
+    }
+
+    static CourseOutput course(Review... reviews) {
+        CourseOutput course = new CourseOutput();
+        course.setName(NAME);
+        course.setCode(CODE);
+        course.setTitle(CODE + " " + NAME);
+        course.setReviews(List.of(reviews));
+        return course;
+    }
+
+    static Review review(String reviewId, String createdAt, double overall, double difficulty) {
+        Review review = new Review();
+        review.setReviewId(reviewId);
+        review.setCreatedAt(createdAt);
+        review.setOverall(overall);
+        review.setDifficulty(difficulty);
+        return review;
+    }
+
+    private static List<String> ids(List<Review> reviews) {
+        return reviews.stream().map(Review::getReviewId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.lambda.dao.CourseAggregate;
+import com.example.lambda.dao.CourseDao;
+import com.example.lambda.models.DepartmentStats;
+import com.example.lambda.streams.InMemoryAggregateStore;
+import com.example.lambda.streams.StatsDelta;
+import com.google.gson.Gson;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class StatsHandlerTest {
+
+    private final InMemoryAggregateStore aggregates = new InMemoryAggregateStore();
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    // Stats come from the stream aggregates alone, so the DAO never reads the catalog
+    private final StatsHandler handler = new StatsHandler(new CourseDao(unusedClient(), aggregates), now::get);
+
+    @Test
+    public void testDepartmentStatsComeFromTheStreamAggregates() {
+        aggregates.applyStats("Courses#Discrete Mathematics#CSDS 101", "1", course("Discrete Mathematics", "CSDS 101", 8.0));
+        aggregates.applyStats("Courses#Calculus I#MATH 121", "1", course("Calculus I", "MATH 121", 6.0));
+
+        APIGatewayProxyResponseEvent response = handler.handleStatsRequest("GET", Map.of("department", " csds "));
+
+        assertEquals(Integer.valueOf(200), response.getStatusCode());
+        DepartmentStats csds = new Gson().fromJson(response.getBody(), DepartmentStats.class);
+        assertEquals(1, csds.getCourseCount());
+        assertEquals(8.0, csds.getAverageOverall(), 1e-9);
+        assertEquals(Integer.valueOf(404), handler.handleStatsRequest("GET", Map.of("department", "PHYS")).getStatusCode());
+        assertEquals(Integer.valueOf(405), handler.handleStatsRequest("POST", null).getStatusCode());
+    }
+
+    @Test
+    public void testFullReportIsReadAgainOnlyAfterTheTtl() {
+        aggregates.applyStats("Courses#Discrete Mathematics#CSDS 101", "1", course("Discrete Mathematics", "CSDS 101", 8.0));
+        assertEquals(1, report().length);
+
+        aggregates.applyStats("Courses#Calculus I#MATH 121", "1", course("Calculus I", "MATH 121", 6.0));
+        assertEquals(1, report().length);
+
+        now.addAndGet(StatsHandler.REPORT_TTL_MILLIS + 1);
+        DepartmentStats[] departments = report();
+        assertEquals(2, departments.length);
+        assertEquals("MATH", departments[1].getDepartment());
+    }
+
+    private DepartmentStats[] report() {
+        APIGatewayProxyResponseEvent response = handler.handleStatsRequest("GET", null);
+        assertEquals(Integer.valueOf(200), response.getStatusCode());
+        return new Gson().fromJson(response.getBody(), DepartmentStats[].class);
+    }
+
+    // A new course with one review rated `overall`
+    private static StatsDelta course(String name, String code, double overall) {
+        return new StatsDelta(name, code, new CourseAggregate(1, 1, overall, 1, 0, 0, 0, 0), Map.of());
+    }
+
+    private static DynamoDbClient unusedClient() {
+        return new DynamoDbClient() {
+            @Override
+            public String serviceName() {
+                return "dynamodb";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
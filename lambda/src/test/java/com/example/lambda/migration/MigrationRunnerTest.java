@@ -0,0 +1,223 @@
+package com.example.lambda.migration;
+
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MigrationRunnerTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Test
+    public void testMigratesEveryItemAndSkipsFinishedSegmentsOnRerun() {
+        FakeTable table = new FakeTable(25);
+        table.items.get("Course 3#CSDS 3").put("updatedAt", number(7));
+        InMemoryCheckpointStore checkpoints = new InMemoryCheckpointStore();
+
+        MigrationReport report = runner(table, checkpoints, false).run("updated-at", Migrations.backfillUpdatedAt(42));
+        assertEquals(25, report.getScanned());
+        assertEquals(24, report.getWritten());
+        assertTrue(report.isComplete());
+        assertEquals("7", table.items.get("Course 3#CSDS 3").get("updatedAt").n());
+        assertEquals("42", table.items.get("Course 4#CSDS 4").get("updatedAt").n());
+        for (int segment = 0; segment < 4; segment++) {
+            assertTrue(checkpoints.load("updated-at", segment).isDone());
+        }
+
+        MigrationReport rerun = runner(table, checkpoints, false).run("updated-at", Migrations.backfillUpdatedAt(99));
+        assertEquals(0, rerun.getScanned());
+        assertEquals(4, rerun.getSegmentsSkipped());
+    }
+
+    @Test
+    public void testFailedSegmentResumesFromItsCheckpoint() {
+        FakeTable table = new FakeTable(40);
+        InMemoryCheckpointStore checkpoints = new InMemoryCheckpointStore();
+        ItemTransform backfill = Migrations.backfillUpdatedAt(42);
+        ItemTransform crashing = item -> {
+            if (item.get("name").s().equals("Course 17")) {
+                throw new IllegalStateException("crash");
+            }
+            return backfill.apply(item);
+        };
+
+        MigrationReport first = runner(table, checkpoints, false).run("updated-at", crashing);
+        assertEquals(1, first.getSegmentsFailed());
+        assertFalse(first.isComplete());
+
+        MigrationReport second = runner(table, checkpoints, false).run("updated-at", backfill);
+        assertEquals(3, second.getSegmentsSkipped());
+        assertTrue(second.getScanned() < 40);
+        assertEquals(40, first.getWritten() + second.getWritten());
+        for (Map<String, AttributeValue> item : table.items.values()) {
+            assertEquals("42", item.get("updatedAt").n());
+        }
+    }
+
+    @Test
+    public void testLiveWriteIsNotClobbered() {
+        FakeTable table = new FakeTable(6);
+        for (Map<String, AttributeValue> item : table.items.values()) {
+            item.put("reviews", string("[{\"reviewId\":\"r1\",\"overall\":4.0}]"));
+        }
+        // A review is added through the API between the scan and the migration's write
+        table.beforeUpdate = key -> {
+            if (key.equals("Course 2#CSDS 2") && table.items.get(key).get("reviews").s() != null) {
+                table.items.get(key).put("reviews", string("[{\"reviewId\":\"r1\",\"overall\":4.0},{\"reviewId\":\"r2\"}]"));
+            }
+        };
+
+        MigrationReport report = runner(table, new InMemoryCheckpointStore(), false).run("native-lists", Migrations.nativeLists());
+        assertEquals(1, report.getRetried());
+        assertEquals(6, report.getWritten());
+        List<AttributeValue> reviews = table.items.get("Course 2#CSDS 2").get("reviews").l();
+        assertEquals(2, reviews.size());
+        assertEquals("r2", reviews.get(1).m().get("reviewId").s());
+        assertEquals("4.0", table.items.get("Course 5#CSDS 5").get("reviews").l().get(0).m().get("overall").n());
+    }
+
+    @Test
+    public void testDryRunWritesNothing() {
+        FakeTable table = new FakeTable(10);
+        InMemoryCheckpointStore checkpoints = new InMemoryCheckpointStore();
+
+        MigrationReport report = runner(table, checkpoints, true).run("updated-at", Migrations.backfillUpdatedAt(42));
+        assertEquals(10, report.getScanned());
+        assertEquals(10, report.getChanged());
+        assertEquals(0, report.getWritten());
+        assertEquals(0, table.updates);
+        assertNull(checkpoints.load("updated-at", 0));
+    }
+
+    private static MigrationRunner runner(FakeTable table, CheckpointStore checkpoints, boolean dryRun) {
+        return new MigrationRunner(table, "Courses", Migrations.COURSE_KEY, checkpoints, 4, PAGE_SIZE, 1000, 1000, dryRun);
+    }
+
+    private static AttributeValue string(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue number(long value) {
+        return AttributeValue.builder().n(Long.toString(value)).build();
+    }
+
+    // Just enough of DynamoDB for the runner: segmented scans in key order, consistent reads, and the
+    // SET/REMOVE updates with equality conditions it issues
+    private static final class FakeTable implements DynamoDbClient {
+        final Map<String, Map<String, AttributeValue>> items = new ConcurrentSkipListMap<>();
+        volatile Consumer<String> beforeUpdate = key -> { };
+        volatile int updates;
+
+        FakeTable(int count) {
+            for (int i = 0; i < count; i++) {
+                Map<String, AttributeValue> item = new HashMap<>();
+                item.put("name", string("Course " + i));
+                item.put("code", string("CSDS " + i));
+                items.put(keyOf(item), item);
+            }
+        }
+
+        @Override
+        public synchronized ScanResponse scan(ScanRequest request) {
+            String after = request.hasExclusiveStartKey() ? keyOf(request.exclusiveStartKey()) : null;
+            List<Map<String, AttributeValue>> page = new ArrayList<>();
+            String last = null;
+            boolean more = false;
+            for (Map.Entry<String, Map<String, AttributeValue>> entry : items.entrySet()) {
+                if (Math.floorMod(entry.getKey().hashCode(), request.totalSegments()) != request.segment()
+                        || (after != null && entry.getKey().compareTo(after) <= 0)) {
+                    continue;
+                }
+                if (page.size() == request.limit()) {
+                    more = true;
+                    break;
+                }
+                page.add(new HashMap<>(entry.getValue()));
+                last = entry.getKey();
+            }
+            ScanResponse.Builder response = ScanResponse.builder().items(page).count(page.size());
+            if (more) {
+                Map<String, AttributeValue> item = items.get(last);
+                response.lastEvaluatedKey(Map.of("name", item.get("name"), "code", item.get("code")));
+            }
+            return response.build();
+        }
+
+        @Override
+        public synchronized GetItemResponse getItem(GetItemRequest request) {
+            Map<String, AttributeValue> item = items.get(keyOf(request.key()));
+            return GetItemResponse.builder().item(item == null ? null : new HashMap<>(item)).build();
+        }
+
+        @Override
+        public synchronized UpdateItemResponse updateItem(UpdateItemRequest request) {
+            String key = keyOf(request.key());
+            beforeUpdate.accept(key);
+            Map<String, AttributeValue> item = items.get(key);
+            Map<String, String> names = request.expressionAttributeNames();
+            Map<String, AttributeValue> values = request.expressionAttributeValues();
+            for (String condition : request.conditionExpression().split(" AND ")) {
+                boolean holds;
+                if (condition.startsWith("attribute_exists(")) {
+                    holds = item != null;
+                } else if (condition.startsWith("attribute_not_exists(")) {
+                    holds = item != null && !item.containsKey(names.get(condition.substring(21, condition.length() - 1)));
+                } else {
+                    String[] sides = condition.split(" = ");
+                    holds = item != null && values.get(sides[1]).equals(item.get(names.get(sides[0])));
+                }
+                if (!holds) {
+                    throw ConditionalCheckFailedException.builder().message("The conditional request failed").build();
+                }
+            }
+            String expression = request.updateExpression();
+            int remove = expression.indexOf("REMOVE ");
+            String set = (remove < 0 ? expression : expression.substring(0, remove)).trim();
+            if (set.startsWith("SET ")) {
+                for (String assignment : set.substring(4).split(", ")) {
+                    String[] sides = assignment.split(" = ");
+                    item.put(names.get(sides[0]), values.get(sides[1]));
+                }
+            }
+            if (remove >= 0) {
+                for (String name : expression.substring(remove + 7).split(", ")) {
+                    item.remove(names.get(name));
+                }
+            }
+            updates++;
+            return UpdateItemResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static String keyOf(Map<String, AttributeValue> key) {
+            return key.get("name").s() + "#" + key.get("code").s();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.lambda.streams;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import com.example.lambda.models.DepartmentStats;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CourseStreamProcessorTest {
+
+    @Test
+    public void testReplayRecordsEveryChange() throws Exception {
+        StreamReplayer replayer = new StreamReplayer();
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/streams/course-events.json"), StandardCharsets.UTF_8)) {
+            assertNull(replayer.replay(reader));
+        }
+
+        List<CourseChange> changes = replayer.getStore()
+                .findChanges(CourseChange.positionAfter(0), System.currentTimeMillis(), 100);
+        Set<String> deleted = new HashSet<>();
+        changes.stream().filter(CourseChange::isDeleted).forEach(change -> deleted.add(change.getCourseKey()));
+        assertEquals(Set.of("Data Structures#CSDS 233"), deleted);
+    }
+
+    @Test
+    public void testReplayMaintainsDepartmentStats() throws Exception {
+        StreamReplayer replayer = new StreamReplayer();
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/streams/course-events.json"), StandardCharsets.UTF_8)) {
+            assertNull(replayer.replay(reader));
+        }
+
+        // The redelivered MODIFY must not be counted twice, and the removed course leaves the count
+        DepartmentStats csds = replayer.getStore().getDepartmentStats("csds");
+        assertEquals(1, csds.getCourseCount());
+        assertEquals(2, csds.getReviewCount());
+        assertEquals(6.0, csds.getAverageOverall(), 1e-9);
+        assertEquals(8.0, csds.getAverageDifficulty(), 1e-9);
+        assertEquals(List.of("CSDS"), List.of(replayer.getStore().getDepartmentStats().get(0).getDepartment()));
+    }
+
+    @Test
+    public void testShardedReviewsAreCountedFromTheShardStream() {
+        InMemoryAggregateStore store = new InMemoryAggregateStore();
+        CourseStreamProcessor processor = new CourseStreamProcessor(store);
+        String inline = "[{\"reviewId\":\"r1\",\"difficulty\":6.0,\"major\":\"Math\"},"
+                + "{\"reviewId\":\"r2\",\"difficulty\":8.0,\"major\":\"CS\"}]";
+
+        assertNull(processor.process(List.of(
+                courseRecord("INSERT", "1", null, Map.of("reviews", string(inline))),
+                // Promotion moves the inline reviews out of the course item and into shard items
+                courseRecord("MODIFY", "2", Map.of("reviews", string(inline)), Map.of("reviewShards", number("8"))),
+                shardRecord("INSERT", "10", "R#r1", null, "{\"reviewId\":\"r1\",\"difficulty\":6.0,\"major\":\"Math\"}"),
+                shardRecord("INSERT", "11", "R#r2", null, "{\"reviewId\":\"r2\",\"difficulty\":8.0,\"major\":\"CS\"}"),
+                shardRecord("INSERT", "12", "R#r3", null, "{\"reviewId\":\"r3\",\"difficulty\":10.0,\"major\":\"CS\"}"),
+                shardRecord("INSERT", "12", "R#r3", null, "{\"reviewId\":\"r3\",\"difficulty\":10.0,\"major\":\"CS\"}"),
+                shardRecord("MODIFY", "13", "R#r1",
+                        "{\"reviewId\":\"r1\",\"difficulty\":6.0,\"major\":\"Math\"}",
+                        "{\"reviewId\":\"r1\",\"difficulty\":9.0,\"major\":\"CS\"}"),
+                shardRecord("MODIFY", "14", "COUNTER", null, null))));
+
+        DepartmentStats csds = store.getDepartmentStats("CSDS");
+        assertEquals(1, csds.getCourseCount());
+        assertEquals(3, csds.getReviewCount());
+        assertEquals(9.0, csds.getAverageDifficulty(), 1e-9);
+        assertEquals(Map.of("CS", 3L), csds.getReviewsByMajor());
+        assertEquals("CSDS 101", csds.getHardestCourses().get(0).getCode());
+
+        // Deleting a sharded course removes its item from Courses and each review from its shard
+        assertNull(processor.process(List.of(
+                courseRecord("REMOVE", "3", Map.of("reviewShards", number("8")), null),
+                shardRecord("REMOVE", "15", "R#r1", "{\"reviewId\":\"r1\",\"difficulty\":9.0,\"major\":\"CS\"}", null))));
+        assertNull(store.getDepartmentStats("CSDS"));
+        assertTrue(store.getDepartmentStats().isEmpty());
+    }
+
+    @Test
+    public void testChangeLogRecordsUpsertsAndTombstones() throws Exception {
+        InMemoryAggregateStore store = new InMemoryAggregateStore();
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        CourseStreamProcessor processor = new CourseStreamProcessor(store, () -> clock.addAndGet(1000));
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/streams/course-events.json"), StandardCharsets.UTF_8)) {
+            assertNull(processor.process(StreamReplayer.readEvent(reader).getRecords()));
+        }
+
+        List<CourseChange> all = store.findChanges(CourseChange.positionAfter(0), clock.get(), 100);
+        assertEquals(5, all.size());
+        CourseChange last = all.get(4);
+        assertEquals("Data Structures#CSDS 233", last.getCourseKey());
+        assertTrue(last.isDeleted());
+        assertFalse(all.get(0).isDeleted());
+
+        // A cursor resumes strictly after its entry, and until caps what is returned
+        List<CourseChange> resumed = store.findChanges(all.get(1).getPosition(), all.get(3).getChangedAt(), 100);
+        assertEquals(List.of(all.get(2).getPosition(), all.get(3).getPosition()),
+                List.of(resumed.get(0).getPosition(), resumed.get(1).getPosition()));
+        assertEquals(2, resumed.size());
+        assertTrue(CourseChange.isPosition(last.getPosition()));
+        assertFalse(CourseChange.isPosition("1700000000000"));
+    }
+
+    private static DynamodbEvent.DynamodbStreamRecord courseRecord(String eventName, String sequence,
+                                                                   Map<String, AttributeValue> oldFields,
+                                                                   Map<String, AttributeValue> newFields) {
+        Map<String, AttributeValue> keys = Map.of("name", string("Discrete Mathematics"), "code", string("CSDS 101"));
+        return record(eventName, "arn:aws:dynamodb:us-east-1:000000000000:table/Courses/stream/1", sequence, keys,
+                image(keys, oldFields), image(keys, newFields));
+    }
+
+    private static DynamodbEvent.DynamodbStreamRecord shardRecord(String eventName, String sequence, String sk,
+                                                                  String oldReview, String newReview) {
+        Map<String, AttributeValue> keys = Map.of("pk", string("Discrete Mathematics#CSDS 101#3"), "sk", string(sk));
+        return record(eventName, "arn:aws:dynamodb:us-east-1:000000000000:table/CourseReviewShards/stream/1",
+                sequence, keys,
+                oldReview == null ? null : image(keys, Map.of("review", string(oldReview))),
+                newReview == null ? null : image(keys, Map.of("review", string(newReview))));
+    }
+
+    private static DynamodbEvent.DynamodbStreamRecord record(String eventName, String arn, String sequence,
+                                                             Map<String, AttributeValue> keys,
+                                                             Map<String, AttributeValue> oldImage,
+                                                             Map<String, AttributeValue> newImage) {
+        StreamRecord change = new StreamRecord();
+        change.setSequenceNumber(sequence);
+        change.setKeys(keys);
+        change.setOldImage(oldImage);
+        change.setNewImage(newImage);
+        DynamodbEvent.DynamodbStreamRecord record = new DynamodbEvent.DynamodbStreamRecord();
+        record.setEventName(eventName);
+        record.setEventSourceARN(arn);
+        record.setDynamodb(change);
+        return record;
+    }
+
+    private static Map<String, AttributeValue> image(Map<String, AttributeValue> keys, Map<String, AttributeValue> fields) {
+        if (fields == null) {
+            return null;
+        }
+        Map<String, AttributeValue> image = new HashMap<>(keys);
+        image.putAll(fields);
+        return image;
+    }
+
+    private static AttributeValue string(String value) {
+        return new AttributeValue().withS(value);
+    }
+
+    private static AttributeValue number(String value) {
+        return new AttributeValue().withN(value);
+    }
+}
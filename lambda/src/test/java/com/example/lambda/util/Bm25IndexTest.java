@@ -0,0 +1,42 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class Bm25IndexTest {
+
+    @Test
+    public void testTitleMatchOutranksDescriptionMentionAndStemsQuery() {
+        CourseOutput ml = course("Machine Learning", "CSDS 440", List.of("ML"), "Supervised and unsupervised methods.");
+        CourseOutput vision = course("Computer Vision", "CSDS 465", null,
+                "Image understanding with machine learning models, from filters and features to convolutional networks.");
+        CourseOutput history = course("Medieval History", "HSTY 210", null, "Kings and castles.");
+        Bm25Index index = Bm25Index.build(List.of(history, vision, ml));
+
+        List<CourseOutput> results = index.search("machine learned", 10);
+        assertEquals(2, results.size());
+        assertEquals("CSDS 440", results.get(0).getCode());
+        assertEquals("CSDS 465", results.get(1).getCode());
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        // Scores go on copies; the catalog entries stay untouched
+        assertNull(ml.getScore());
+
+        assertEquals("CSDS 440", index.search("ml", 10).get(0).getCode());
+        assertTrue(index.search("the of and", 10).isEmpty());
+    }
+
+    private static CourseOutput course(String name, String code, List<String> aliases, String description) {
+        CourseOutput course = new CourseOutput();
+        course.setName(name);
+        course.setCode(code);
+        course.setAliases(aliases);
+        course.setDescription(description);
+        return course;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogArtifactTest {
+
+    @Test
+    public void versionDependsOnContentNotOrder() {
+        List<CourseOutput> courses = List.of(course("CSDS 101", "Discrete Mathematics"), course("MATH 121", "Calculus I"));
+        List<CourseOutput> reversed = new ArrayList<>(courses);
+        Collections.reverse(reversed);
+
+        CatalogArtifact artifact = CatalogArtifact.build(courses);
+        assertEquals(artifact.getVersion(), CatalogArtifact.build(reversed).getVersion());
+
+        List<CourseOutput> changed = new ArrayList<>(courses);
+        changed.set(1, course("MATH 121", "Calculus 1"));
+        assertNotEquals(artifact.getVersion(), CatalogArtifact.build(changed).getVersion());
+    }
+
+    @Test
+    public void ifNoneMatchIsCheckedPerRepresentation() {
+        CatalogArtifact artifact = CatalogArtifact.build(List.of(course("CSDS 101", "Discrete Mathematics")));
+        String json = artifact.etag(null);
+        String bin = artifact.etag("bin");
+
+        assertTrue(CatalogArtifact.matches("\"other\", " + json, json));
+        assertTrue(CatalogArtifact.matches("W/" + json, json));
+        assertTrue(CatalogArtifact.matches("*", bin));
+        assertFalse(CatalogArtifact.matches(json, bin));
+        assertFalse(CatalogArtifact.matches(null, json));
+    }
+
+    private static CourseOutput course(String code, String name) {
+        CourseOutput course = new CourseOutput();
+        course.setCode(code);
+        course.setName(name);
+        course.setProfessors(List.of("Ada Lovelace"));
+        return course;
+    }
+}
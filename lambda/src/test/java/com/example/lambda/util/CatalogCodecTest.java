@@ -0,0 +1,88 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import com.google.gson.Gson;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogCodecTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void roundTripsTheCatalog() {
+        List<CourseOutput> courses = catalog(40);
+        courses.get(3).setCode("ORPHAN");
+        courses.get(3).setTitle("ORPHAN Course 3");
+        courses.get(4).setReviews(null);
+        courses.get(5).getReviews().get(0).setOverall(7.3);
+
+        List<CourseOutput> decoded = CatalogCodec.decode(CatalogCodec.encode(courses));
+
+        assertEquals(gson.toJson(courses), gson.toJson(decoded));
+        assertNull(decoded.get(4).getReviews());
+    }
+
+    @Test
+    public void isSmallerThanJson() {
+        List<CourseOutput> courses = catalog(200);
+        int json = gson.toJson(courses).getBytes(StandardCharsets.UTF_8).length;
+        int binary = CatalogCodec.encode(courses).length;
+        assertTrue("binary " + binary + " vs json " + json, binary * 2 < json);
+    }
+
+    @Test
+    public void negotiatesOnlyWhenAskedFor() {
+        assertTrue(CatalogCodec.isAccepted("application/x-course-catalog"));
+        assertTrue(CatalogCodec.isAccepted("application/json;q=0.5, application/x-course-catalog"));
+        assertFalse(CatalogCodec.isAccepted("application/x-course-catalog;q=0"));
+        assertFalse(CatalogCodec.isAccepted("application/json, */*"));
+        assertFalse(CatalogCodec.isAccepted(null));
+    }
+
+    private static List<CourseOutput> catalog(int size) {
+        String[] professors = {"Ada Lovelace", "Alan Turing", "Grace Hopper", "Edsger Dijkstra"};
+        String[] departments = {"CSDS", "MATH", "PHYS"};
+        List<CourseOutput> courses = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            CourseOutput course = new CourseOutput();
+            String code = departments[i % departments.length] + " " + (100 + i);
+            course.setCourseId("course-" + i);
+            course.setCode(code);
+            course.setName("Course " + i);
+            course.setTitle(code + " Course " + i);
+            course.setCreatedBy("admin");
+            course.setCreatedAt("2024-09-01");
+            course.setUpdatedAt(1_700_000_000_000L + i);
+            course.setAliases(List.of());
+            course.setPrerequisites(i > 0 ? List.of(departments[(i - 1) % departments.length] + " " + (99 + i)) : List.of());
+            course.setProfessors(List.of(professors[i % professors.length], professors[(i + 1) % professors.length]));
+            List<Review> reviews = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                Review review = new Review();
+                review.setReviewId("r-" + i + "-" + r);
+                review.setCreatedBy("student" + r);
+                review.setMajor(r % 2 == 0 ? "Computer Science" : "Mathematics");
+                review.setProfessor(professors[(i + r) % professors.length]);
+                review.setCreatedAt("2024-12-0" + (r + 1));
+                review.setOverall(5.0 + r);
+                review.setDifficulty(6.5);
+                review.setUsefulness(8.0);
+                review.setAnonymous(r == 1);
+                reviews.add(review);
+            }
+            course.setReviews(reviews);
+            courses.add(course);
+        }
+        return courses;
+    }
+}
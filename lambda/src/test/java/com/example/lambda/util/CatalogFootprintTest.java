@@ -0,0 +1,59 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.Course;
+import com.example.lambda.models.CourseOutput;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogFootprintTest {
+
+    private static final StringListAttributeConverter STRINGS = new StringListAttributeConverter();
+
+    @Test
+    public void testPooledConversionSharesRepeatedValues() {
+        StringPool pool = new StringPool();
+        List<CourseOutput> pooled = new ArrayList<>();
+        List<CourseOutput> plain = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pooled.add(CourseConverter.convertToCourseOutput(course(i), pool));
+            plain.add(CourseConverter.convertToCourseOutput(course(i)));
+        }
+
+        assertSame(pooled.get(0).getProfessors().get(0), pooled.get(49).getProfessors().get(0));
+        assertSame(pooled.get(0).getReviews().get(0).getMajor(), pooled.get(49).getReviews().get(1).getMajor());
+        assertSame(pooled.get(0).getReviews().get(0).getOverall(), pooled.get(49).getReviews().get(0).getOverall());
+        assertEquals("CSDS 132", pooled.get(7).getPrerequisites().get(0));
+
+        CatalogFootprint before = CatalogFootprint.measure(plain);
+        CatalogFootprint after = CatalogFootprint.measure(pooled);
+        assertEquals(100, after.getReviews());
+        assertEquals(before.getDistinctStrings(), after.getDistinctStrings());
+        assertTrue(after.getStringInstances() < before.getStringInstances());
+        assertTrue(after.getDuplicateBytes() < before.getDuplicateBytes() / 4);
+        assertTrue(after.getTotalBytes() < before.getTotalBytes());
+    }
+
+    private static Course course(int i) {
+        Course course = new Course();
+        course.setName("Course " + i);
+        course.setCode("CSDS " + (200 + i));
+        course.setCreatedBy("admin");
+        // Decoded from legacy JSON strings so every course holds its own copies, as loading from the table would
+        course.setProfessors(STRINGS.transformTo(json("[\"Ada Lovelace\",\"Alan Turing\"]")));
+        course.setPrerequisites(STRINGS.transformTo(json("[\"CSDS 132\"]")));
+        course.setReviews(new ReviewListAttributeConverter().transformTo(json("[{\"reviewId\":\"r" + i + "a\",\"createdBy\":\"u1\",\"major\":\"Computer Science\",\"overall\":4.0,\"professor\":\"Ada Lovelace\"},"
+                + "{\"reviewId\":\"r" + i + "b\",\"createdBy\":\"u2\",\"major\":\"Computer Science\",\"overall\":3.5,\"professor\":\"Alan Turing\"}]")));
+        return course;
+    }
+
+    private static AttributeValue json(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CatalogSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTripThroughMappedFile() throws Exception {
+        List<CourseOutput> courses = sampleCatalog();
+        Path path = folder.getRoot().toPath().resolve("catalog.snapshot");
+        new CatalogSnapshot(42L, courses, TrigramIndex.build(courses)).writeTo(path);
+
+        CatalogSnapshot loaded = CatalogSnapshot.read(path);
+
+        assertEquals(42L, loaded.getVersion());
+        assertEquals(2, loaded.getCourses().size());
+        CourseOutput first = loaded.getCourses().get(0);
+        assertEquals("CSDS 101", first.getCode());
+        assertEquals(List.of("Jane Doe"), first.getProfessors());
+        assertEquals(8.0, first.getReviews().get(0).getOverall(), 0.0);
+        assertNull(first.getReviews().get(0).getDifficulty());
+        assertNull(loaded.getCourses().get(1).getReviews());
+        assertNull(first.getReviewShards());
+        assertEquals(Integer.valueOf(8), loaded.getCourses().get(1).getReviewShards());
+    }
+
+    @Test
+    public void testIndexedSearchMatchesLinearSearch() throws Exception {
+        List<CourseOutput> courses = sampleCatalog();
+        CatalogSnapshot loaded = CatalogSnapshot.decode(ByteBuffer.wrap(
+                new CatalogSnapshot(1L, courses, TrigramIndex.build(courses)).encode()));
+
+        for (String query : List.of("csds 1", "CSDS101", "discrete", "Linear Alg", "doe", "xyz", "ma")) {
+            assertEquals(query,
+                    CourseSearch.searchCourses(courses, query).size(),
+                    CourseSearch.searchCourses(loaded.getCourses(), query, loaded.getIndex()).size());
+        }
+    }
+
+    @Test
+    public void testCoursesAreDecodedOnceInAnyOrder() throws Exception {
+        List<CourseOutput> courses = sampleCatalog();
+        CatalogSnapshot loaded = CatalogSnapshot.decode(ByteBuffer.wrap(
+                new CatalogSnapshot(1L, courses, TrigramIndex.build(courses)).encode()));
+
+        CourseOutput linear = loaded.getCourses().get(1);
+        assertEquals("MATH 201", linear.getCode());
+        assertEquals(List.of("John Roe"), linear.getProfessors());
+        assertEquals("r1", loaded.getCourses().get(0).getReviews().get(0).getReviewId());
+        assertSame(linear, loaded.getCourses().get(1));
+    }
+
+    private static List<CourseOutput> sampleCatalog() {
+        CourseOutput discrete = new CourseOutput();
+        discrete.setCode("CSDS 101");
+        discrete.setName("Discrete Mathematics");
+        discrete.setProfessors(List.of("Jane Doe"));
+        Review review = new Review();
+        review.setReviewId("r1");
+        review.setOverall(8.0);
+        review.setAnonymous(true);
+        discrete.setReviews(new ArrayList<>(List.of(review)));
+
+        CourseOutput linear = new CourseOutput();
+        linear.setCode("MATH 201");
+        linear.setName("Linear Algebra");
+        linear.setProfessors(List.of("John Roe"));
+        linear.setReviewShards(8);
+
+        return List.of(discrete, linear);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarCatalogTest {
+
+    @Test
+    public void testColumnsMirrorTheCourseGraph() {
+        List<CourseOutput> courses = List.of(
+                course("CSDS 132", "Intro to Java", review(4.0, "CS"), review(null, "Math")),
+                course("MATH 121", "Calculus", review(5.0, "CS")),
+                course("CSDS 101", "Discrete Math"));
+        ColumnarCatalog columns = ColumnarCatalog.build(courses);
+
+        assertEquals(3, columns.size());
+        assertEquals(3, columns.reviewCount());
+        assertEquals(2, columns.departmentCount());
+        assertEquals(columns.department(0), columns.department(2));
+        assertEquals(2, columns.reviewStart(1));
+        assertEquals(columns.reviewEnd(2), columns.reviewStart(2));
+        assertEquals(5.0, columns.overall(columns.reviewStart(1)), 0);
+        assertTrue(Double.isNaN(columns.overall(1)));
+        assertEquals("Math", columns.majorName(columns.major(1)));
+
+        assertArrayEquals(new int[]{0, 2}, columns.codesContaining(TrigramIndex.normalizeCode("csds 1"), null));
+        assertArrayEquals(new int[]{2}, columns.namesContaining("math", new int[]{1, 2}));
+        assertEquals(CourseSearch.searchCourses(courses, "math").size(),
+                CourseSearch.searchCourses(new CatalogSnapshot(1L, courses, TrigramIndex.build(courses)), "math").size());
+    }
+
+    private static CourseOutput course(String code, String name, Review... reviews) {
+        CourseOutput course = new CourseOutput();
+        course.setCode(code);
+        course.setName(name);
+        course.setReviews(new ArrayList<>(List.of(reviews)));
+        return course;
+    }
+
+    private static Review review(Double overall, String major) {
+        Review review = new Review();
+        review.setOverall(overall);
+        review.setMajor(major);
+        return review;
+    }
+}
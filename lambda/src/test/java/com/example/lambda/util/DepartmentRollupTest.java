@@ -0,0 +1,58 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.DepartmentStats;
+import com.example.lambda.models.Review;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DepartmentRollupTest {
+
+    @Test
+    public void testParallelRollupMatchesSmallCatalogTotals() {
+        // Enough courses to take the parallel path; every CSDS course has difficulty i % 5 from three reviews
+        List<CourseOutput> courses = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            courses.add(course("CSDS " + (100 + i), (double) (i % 5), i % 2 == 0 ? "Computer Science" : "Math"));
+        }
+        courses.add(course("math 121", 1.0, "Math"));
+
+        DepartmentRollup rollup = DepartmentRollup.build(courses);
+
+        DepartmentStats csds = rollup.get("csds");
+        assertEquals(600, csds.getCourseCount());
+        assertEquals(1800, csds.getReviewCount());
+        assertEquals(2.0, csds.getAverageDifficulty(), 1e-9);
+        assertEquals(Long.valueOf(900), csds.getReviewsByMajor().get("Computer Science"));
+        assertEquals(DepartmentRollup.HARDEST_LIMIT, csds.getHardestCourses().size());
+        // Ties on difficulty fall back to code order, so the result does not depend on the split
+        assertEquals("CSDS 104", csds.getHardestCourses().get(0).getCode());
+        assertEquals("CSDS 124", csds.getHardestCourses().get(4).getCode());
+
+        assertEquals(List.of("CSDS", "MATH"), List.of(rollup.getDepartments().get(0).getDepartment(),
+                rollup.getDepartments().get(1).getDepartment()));
+        assertNull(rollup.get("PHYS"));
+    }
+
+    private static CourseOutput course(String code, double difficulty, String major) {
+        CourseOutput course = new CourseOutput();
+        course.setName("Course " + code);
+        course.setCode(code);
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Review review = new Review();
+            review.setReviewId(code + "-" + i);
+            review.setMajor(major);
+            review.setDifficulty(difficulty);
+            review.setOverall(4.0);
+            reviews.add(review);
+        }
+        course.setReviews(reviews);
+        return course;
+    }
+}
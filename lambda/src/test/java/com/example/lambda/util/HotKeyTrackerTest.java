@@ -0,0 +1,26 @@
+package com.example.lambda.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class HotKeyTrackerTest {
+
+    @Test
+    public void testCountsResetEachWindowAndStayBounded() {
+        AtomicLong now = new AtomicLong(0);
+        HotKeyTracker tracker = new HotKeyTracker(2, now::get);
+
+        assertEquals(1, tracker.record("a"));
+        assertEquals(2, tracker.record("a"));
+        assertEquals(1, tracker.record("b"));
+
+        now.set(60_000);
+        assertEquals(1, tracker.record("a"));
+        // Map is full; "b" is from the previous window and makes room for "c"
+        assertEquals(1, tracker.record("c"));
+        assertEquals(2, tracker.record("a"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.Course;
+import com.example.lambda.models.Review;
+import org.junit.Test;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ListAttributeConverterTest {
+
+    private static final TableSchema<Course> SCHEMA = TableSchema.fromBean(Course.class);
+
+    @Test
+    public void testCourseListsAreWrittenAsNativeAttributes() {
+        Course course = new Course();
+        course.setName("Discrete Mathematics");
+        course.setCode("CSDS 302");
+        course.setAliases(List.of("Discrete", "Discrete Math"));
+        course.setPrerequisites(List.of());
+        course.setReviews(List.of(review("r1", 4.5, true), review("r2", null, null)));
+
+        Map<String, AttributeValue> item = SCHEMA.itemToMap(course, true);
+        assertEquals("Discrete Math", item.get("aliases").l().get(1).s());
+        assertTrue(item.get("prerequisites").hasL());
+        assertTrue(item.get("prerequisites").l().isEmpty());
+        Map<String, AttributeValue> first = item.get("reviews").l().get(0).m();
+        assertEquals("4.5", first.get("overall").n());
+        assertEquals(Boolean.TRUE, first.get("anonymous").bool());
+        assertFalse(item.get("reviews").l().get(1).m().containsKey("overall"));
+        assertFalse(item.containsKey("professors"));
+
+        Course read = SCHEMA.mapToItem(item);
+        assertEquals(List.of("Discrete", "Discrete Math"), read.getAliases());
+        assertEquals(4.5, read.getReviews().get(0).getOverall(), 0.0);
+        assertNull(read.getReviews().get(1).getOverall());
+        assertNull(read.getProfessors());
+    }
+
+    @Test
+    public void testLegacyJsonStringsAndSetsAreStillRead() {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("name", AttributeValue.builder().s("Discrete Mathematics").build());
+        item.put("code", AttributeValue.builder().s("CSDS 302").build());
+        item.put("aliases", AttributeValue.builder().s("[\"Discrete\"]").build());
+        item.put("professors", AttributeValue.builder().ss("Ada Lovelace").build());
+        item.put("reviews", AttributeValue.builder().s("[{\"reviewId\":\"r1\",\"overall\":3.0,\"anonymous\":false}]").build());
+
+        Course read = SCHEMA.mapToItem(item);
+        assertEquals(List.of("Discrete"), read.getAliases());
+        assertEquals(List.of("Ada Lovelace"), read.getProfessors());
+        assertEquals("r1", read.getReviews().get(0).getReviewId());
+        assertEquals(Boolean.FALSE, read.getReviews().get(0).getAnonymous());
+    }
+
+    @Test
+    public void testJsonFormatKeepsWritingStrings() {
+        ReviewListAttributeConverter json = new ReviewListAttributeConverter(true);
+        AttributeValue written = json.transformFrom(List.of(review("r1", 2.0, null)));
+        assertTrue(written.s().startsWith("[{"));
+        assertEquals(2.0, new ReviewListAttributeConverter(false).transformTo(written).get(0).getOverall(), 0.0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Test
+    public void testUntypedElementsAreStringified() {
+        // Request bodies are parsed into untyped lists, so numbers can reach the converter as Doubles
+        List untyped = new ArrayList();
+        untyped.add("CSDS 132");
+        untyped.add(101.0);
+        AttributeValue written = new StringListAttributeConverter(false).transformFrom(untyped);
+        assertEquals("101.0", written.l().get(1).s());
+    }
+
+    private static Review review(String id, Double overall, Boolean anonymous) {
+        Review review = new Review();
+        review.setReviewId(id);
+        review.setOverall(overall);
+        review.setAnonymous(anonymous);
+        review.setMajor("Computer Science");
+        return review;
+    }
+}
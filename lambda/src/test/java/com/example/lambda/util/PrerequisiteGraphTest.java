@@ -0,0 +1,108 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class PrerequisiteGraphTest {
+
+    @Test
+    public void testClosuresAndPlan() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                course("CSDS 132", null),
+                course("CSDS 233", "CSDS 132"),
+                course("MATH 122", null),
+                course("CSDS 310", "CSDS 233 and MATH 122")), 1L);
+
+        assertEquals(List.of("CSDS 132", "CSDS 233", "MATH 122"), graph.allPrerequisites("csds310"));
+        assertEquals(List.of("CSDS 233", "CSDS 310"), graph.allUnlocks("CSDS 132"));
+
+        List<List<String>> plan = graph.plan("CSDS 310", 2, List.of("MATH 122"));
+        assertEquals(List.of(List.of("CSDS 132"), List.of("CSDS 233"), List.of("CSDS 310")), plan);
+    }
+
+    @Test
+    public void testIncrementalUpdateDetectsCycle() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                course("CSDS 132", null),
+                course("CSDS 233", "CSDS 132"),
+                course("CSDS 310", "CSDS 233")), 1L);
+        assertEquals(3, graph.plan("CSDS 310", 1, List.of()).size());
+
+        graph.updateCourse("CSDS 132", List.of("CSDS 233"));
+
+        assertEquals(List.of("CSDS 132"), graph.allPrerequisites("CSDS 233"));
+        try {
+            graph.plan("CSDS 310", 1, List.of());
+            fail("Expected the cycle to stop planning");
+        } catch (IllegalStateException e) {
+            // Only the courses on the cycle are named, not CSDS 310, which just depends on it
+            assertEquals("Prerequisite cycle among [CSDS 132, CSDS 233]", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCatchUpPatchesOnlyChangedCourses() {
+        List<CourseOutput> courses = List.of(
+                course("CSDS 132", null),
+                course("CSDS 233", "CSDS 132"),
+                course("MATH 122", null),
+                course("CSDS 310", "CSDS 233"));
+        PrerequisiteGraph graph = PrerequisiteGraph.build(courses, 1L);
+        assertEquals(List.of("CSDS 132", "CSDS 233"), graph.allPrerequisites("CSDS 310"));
+
+        // A reload hands over fresh, equal copies of every course but one edit and one deletion; the deleted
+        // course had no prerequisites of its own, so only the edit changes edges
+        assertEquals(1, graph.catchUp(List.of(
+                course("CSDS 132", null),
+                course("CSDS 233", "CSDS 132"),
+                course("CSDS 310", "CSDS 233 and MATH 122")), 2L));
+
+        assertEquals(2L, graph.getCatalogVersion());
+        assertEquals(List.of("CSDS 132", "CSDS 233", "MATH 122"), graph.allPrerequisites("CSDS 310"));
+        assertEquals(0, graph.catchUp(List.of(
+                course("CSDS 132", null),
+                course("CSDS 233", "CSDS 132"),
+                course("CSDS 310", "CSDS 233 and MATH 122")), 3L));
+
+        // Catching up ends where a fresh build of the same catalog would
+        PrerequisiteGraph rebuilt = PrerequisiteGraph.build(List.of(
+                course("CSDS 132", null),
+                course("CSDS 233", "CSDS 132"),
+                course("CSDS 310", "CSDS 233 and MATH 122")), 3L);
+        assertEquals(rebuilt.allUnlocks("CSDS 132"), graph.allUnlocks("CSDS 132"));
+        assertEquals(rebuilt.plan("CSDS 310", 2, List.of()), graph.plan("CSDS 310", 2, List.of()));
+    }
+
+    @Test
+    public void testLongChainIsPlannedInOrder() {
+        List<CourseOutput> courses = new ArrayList<>();
+        courses.add(course(chainCode(0), null));
+        for (int i = 1; i < 3000; i++) {
+            courses.add(course(chainCode(i), chainCode(i - 1)));
+        }
+        PrerequisiteGraph graph = PrerequisiteGraph.build(courses, 1L);
+
+        List<List<String>> plan = graph.plan(chainCode(2999), 3, List.of());
+        assertEquals(3000, plan.size());
+        assertEquals(List.of(chainCode(0)), plan.get(0));
+        assertEquals(List.of(chainCode(2999)), plan.get(2999));
+    }
+
+    // A distinct valid code per position: departments CAS, CBS, CCS... with numbers 100-999
+    private static String chainCode(int i) {
+        return "C" + (char) ('A' + i / 900) + "S " + (100 + i % 900);
+    }
+
+    private static CourseOutput course(String code, String prerequisites) {
+        CourseOutput course = new CourseOutput();
+        course.setCode(code);
+        course.setPrerequisites(prerequisites == null ? new ArrayList<>() : List.of(prerequisites));
+        return course;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ProfessorIndexTest {
+
+    private static final List<CourseOutput> COURSES = List.of(
+            course("CSDS 101", List.of("Jane Doe"), null),
+            course("CSDS 233", List.of("John Roe", "jane  doe"), null),
+            course("MATH 122", List.of(), "Ada Lovelace"),
+            course("MATH 201", null, null));
+
+    @Test
+    public void testLookupIgnoresCaseAndSpacingAndIncludesReviewedProfessors() {
+        ProfessorIndex index = ProfessorIndex.build(COURSES);
+
+        assertEquals(List.of("CSDS 101", "CSDS 233"), codes(index.coursesFor(" JANE DOE ")));
+        assertEquals("Jane Doe", index.displayName("jane doe"));
+        // Named only on a review, never added to the professors list
+        assertEquals(List.of("MATH 122"), codes(index.coursesFor("Ada Lovelace")));
+        assertEquals(List.of(), index.coursesFor("Nobody"));
+        assertNull(index.displayName("Nobody"));
+    }
+
+    @Test
+    public void testSearchMatchesTheProfessorsListLikeTheLinearScan() {
+        ProfessorIndex index = ProfessorIndex.build(COURSES);
+
+        assertArrayEquals(new int[]{0, 1}, index.search("doe"));
+        assertArrayEquals(new int[]{1}, index.search("e  d"));
+        assertArrayEquals(new int[]{1}, index.search("ROE"));
+        // Review-only professors are left to GET /professors/{name}/courses
+        assertArrayEquals(new int[0], index.search("lovelace"));
+        assertArrayEquals(new int[0], index.search("  "));
+        for (String query : List.of("doe", "Jane", "e  d", "roe", "lovelace", "x")) {
+            assertEquals(query, CourseSearch.searchCourses(COURSES, query).size(),
+                    TrigramIndex.select(COURSES, index.search(query)).size());
+        }
+    }
+
+    @Test
+    public void testIndexIsSharedPerCatalogState() {
+        CatalogSnapshot catalog = new CatalogSnapshot(1L, COURSES, TrigramIndex.build(COURSES));
+        assertSame(ProfessorIndex.of(catalog), ProfessorIndex.of(catalog));
+    }
+
+    private static CourseOutput course(String code, List<String> professors, String reviewedProfessor) {
+        CourseOutput course = new CourseOutput();
+        course.setCode(code);
+        course.setName("Course " + code);
+        course.setProfessors(professors);
+        if (reviewedProfessor != null) {
+            Review review = new Review();
+            review.setProfessor(reviewedProfessor);
+            course.setReviews(List.of(review));
+        }
+        return course;
+    }
+
+    private static List<String> codes(List<CourseOutput> courses) {
+        return courses.stream().map(CourseOutput::getCode).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.lambda.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testBucketDrainsAndRefills() {
+        AtomicLong now = new AtomicLong(1_000);
+        RateLimiter limiter = new RateLimiter(1024, 20, 2, now::get);
+
+        assertEquals(0, limiter.tryAcquire("ip:1.2.3.4", 10));
+        assertEquals(0, limiter.tryAcquire("ip:1.2.3.4", 10));
+        // Empty: 10 tokens at 2 per second is five seconds away
+        assertEquals(5_000, limiter.tryAcquire("ip:1.2.3.4", 10));
+        // Another client has its own bucket
+        assertEquals(0, limiter.tryAcquire("ip:5.6.7.8", 10));
+
+        now.addAndGet(2_500);
+        assertEquals(0, limiter.tryAcquire("ip:1.2.3.4", 5));
+        assertTrue(limiter.tryAcquire("ip:1.2.3.4", 1) > 0);
+    }
+
+    @Test
+    public void testConcurrentCallersNeverOverspend() throws Exception {
+        RateLimiter limiter = new RateLimiter(1024, 1_000, 0.001, () -> 5L);
+        AtomicLong admitted = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("key:shared", 1) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1_000, admitted.get());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.Review;
+import com.example.lambda.models.ReviewPage;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReviewPagerTest {
+
+    @Test
+    public void testCursorWalksEveryReviewOnceInOrder() {
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            reviews.add(review("r" + i, "2024-01-0" + (i + 1), (double) (i % 3)));
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReviewPage page = ReviewPager.page(reviews, ReviewPager.Sort.OVERALL, 3, cursor);
+            assertEquals(7, page.getReviewCount());
+            page.getReviews().forEach(review -> seen.add(review.getReviewId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("r2", "r5", "r1", "r4", "r0", "r3", "r6"), seen);
+    }
+
+    @Test
+    public void testNewReviewDoesNotShiftLaterPages() {
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reviews.add(review("r" + i, "2024-01-0" + (i + 1), 5.0));
+        }
+        ReviewPage first = ReviewPager.page(reviews, ReviewPager.Sort.CREATED_AT, 2, null);
+        assertEquals("r3", first.getReviews().get(0).getReviewId());
+
+        reviews.add(review("r9", "2024-02-01", 5.0));
+        ReviewPage second = ReviewPager.page(reviews, ReviewPager.Sort.CREATED_AT, 2, first.getNextCursor());
+
+        assertEquals(List.of("r1", "r0"), List.of(second.getReviews().get(0).getReviewId(), second.getReviews().get(1).getReviewId()));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCursorIsBoundToItsSortOrder() {
+        List<Review> reviews = List.of(review("a", "2024-01-01", 1.0), review("b", "2024-01-02", 2.0));
+        String cursor = ReviewPager.page(reviews, ReviewPager.Sort.CREATED_AT, 1, null).getNextCursor();
+        ReviewPager.page(reviews, ReviewPager.Sort.DIFFICULTY, 1, cursor);
+    }
+
+    private static Review review(String id, String createdAt, Double overall) {
+        Review review = new Review();
+        review.setReviewId(id);
+        review.setCreatedAt(createdAt);
+        review.setOverall(overall);
+        return review;
+    }
+}
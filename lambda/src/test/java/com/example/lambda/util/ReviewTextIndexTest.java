@@ -0,0 +1,60 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import com.example.lambda.models.ReviewSearchResults;
+import com.example.lambda.models.ReviewSnippet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReviewTextIndexTest {
+
+    @Test
+    public void testPhraseProximityAndPaging() {
+        ReviewTextIndex index = ReviewTextIndex.build(List.of(
+                course("CSDS 101", review("a", "Start the group project early.", null),
+                        review("b", null, "Big group for the final project.")),
+                course("MATH 121", review("c", "Exams are curved.", "Group projects too.")),
+                course("HSTY 210", review("d", "Attendance is mandatory.", null))));
+
+        // Exact phrase (stemmed: "projects" matches "project"), most matching reviews first
+        ReviewSearchResults phrase = index.search("\"group project\"", 0, 10);
+        assertEquals(2, phrase.getCourseCount());
+        assertEquals("CSDS 101", phrase.getResults().get(0).getCode());
+        assertEquals(1, phrase.getResults().get(0).getMatchCount());
+        assertEquals("MATH 121", phrase.getResults().get(1).getCode());
+        assertEquals("additionalComments", phrase.getResults().get(1).getSnippets().get(0).getField());
+
+        // Proximity lets "group ... project" match across up to three other words
+        ReviewSearchResults near = index.search("\"group project\"~3", 0, 1);
+        assertEquals(2, near.getResults().get(0).getMatchCount());
+        assertEquals(Integer.valueOf(1), near.getNextOffset());
+        assertNull(index.search("\"group project\"~3", 1, 1).getNextOffset());
+
+        ReviewSnippet snippet = index.search("curve", 0, 10).getResults().get(0).getSnippets().get(0);
+        int[] highlight = snippet.getHighlights().get(0);
+        assertEquals("curved", snippet.getText().substring(highlight[0], highlight[1]));
+        assertEquals(0, index.search("attendance curve", 0, 10).getCourseCount());
+    }
+
+    private static CourseOutput course(String code, Review... reviews) {
+        CourseOutput course = new CourseOutput();
+        course.setName("Course " + code);
+        course.setCode(code);
+        course.setReviews(new ArrayList<>(List.of(reviews)));
+        return course;
+    }
+
+    private static Review review(String id, String tips, String comments) {
+        Review review = new Review();
+        review.setReviewId(id);
+        review.setTips(tips);
+        review.setAdditionalComments(comments);
+        return review;
+    }
+}
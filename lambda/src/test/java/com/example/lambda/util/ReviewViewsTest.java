@@ -0,0 +1,54 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.Review;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ReviewViewsTest {
+
+    @Test
+    public void testViewIsSortedOnceAndReused() {
+        ReviewViews views = new ReviewViews();
+        CourseOutput course = course(review("a", 2.0), review("b", 5.0), review("c", 1.0));
+
+        List<Review> byOverall = views.sorted(course, ReviewPager.Sort.OVERALL);
+
+        assertEquals("b", byOverall.get(0).getReviewId());
+        assertEquals("c", byOverall.get(2).getReviewId());
+        assertSame(byOverall, views.sorted(course, ReviewPager.Sort.OVERALL));
+        assertNotSame(byOverall, views.sorted(course, ReviewPager.Sort.DIFFICULTY));
+    }
+
+    @Test
+    public void testReplacedCourseIsSortedAgain() {
+        ReviewViews views = new ReviewViews();
+        List<Review> before = views.sorted(course(review("a", 2.0)), ReviewPager.Sort.OVERALL);
+
+        // A write replaces the catalog entry with a new instance carrying the new review
+        List<Review> after = views.sorted(course(review("a", 2.0), review("b", 5.0)), ReviewPager.Sort.OVERALL);
+
+        assertEquals(1, before.size());
+        assertEquals("b", after.get(0).getReviewId());
+    }
+
+    private static CourseOutput course(Review... reviews) {
+        CourseOutput course = new CourseOutput();
+        course.setName("Discrete Mathematics");
+        course.setCode("CSDS 101");
+        course.setReviews(List.of(reviews));
+        return course;
+    }
+
+    private static Review review(String reviewId, double overall) {
+        Review review = new Review();
+        review.setReviewId(reviewId);
+        review.setOverall(overall);
+        return review;
+    }
+}
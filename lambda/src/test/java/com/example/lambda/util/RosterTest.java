@@ -0,0 +1,43 @@
+package com.example.lambda.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RosterTest {
+
+    @Test
+    public void testSectionsAreBalancedAndCapped() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            names.add("Student " + i);
+        }
+        names.add("Student 0"); // duplicates are enrolled once
+
+        List<List<String>> sections = Roster.organizeRoster(names, 24);
+
+        assertEquals(3, sections.size());
+        assertEquals(List.of(17, 17, 16), List.of(sections.get(0).size(), sections.get(1).size(), sections.get(2).size()));
+        assertEquals("Student 0", sections.get(0).get(0));
+        assertEquals("Student 49", sections.get(2).get(15));
+    }
+
+    @Test
+    public void testLargeRosterLookupAndBulkRemove() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            names.add("Student " + i);
+        }
+        Roster roster = new Roster(names, 30);
+
+        assertEquals("Student 99999", roster.findName("Student 99999"));
+        assertEquals(50_000, roster.removeAll(names.subList(0, 50_000)));
+        assertNull(roster.findName("Student 0"));
+        assertEquals(50_000, roster.size());
+        assertEquals("Student 99999", Roster.findName(names, "Student 99999"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class SearchCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    public void testHitForEquivalentQueries() {
+        SearchCache cache = new SearchCache(4, 60_000, now::get);
+        cache.put("CSDS 101", 0, List.of(new CourseOutput()));
+
+        assertNotNull(cache.get("  CSDS 101 ", 0));
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testQueriesTheSearchTellsApartAreCachedApart() {
+        SearchCache cache = new SearchCache(4, 60_000, now::get);
+        cache.put("CSDS 101", 0, List.of(new CourseOutput()));
+
+        assertNull(cache.get("csds 101", 0));
+        assertNull(cache.get("CSDS  101", 0));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testGenerationChangeInvalidates() {
+        SearchCache cache = new SearchCache(4, 60_000, now::get);
+        cache.put("csds", 0, List.of(new CourseOutput()));
+
+        assertNull(cache.get("csds", 1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiredEntriesAreDropped() {
+        SearchCache cache = new SearchCache(4, 60_000, now::get);
+        cache.put("csds", 0, List.of());
+        now.addAndGet(60_001);
+
+        assertNull(cache.get("csds", 0));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        SearchCache cache = new SearchCache(2, 60_000, now::get);
+        cache.put("a", 0, List.of());
+        cache.put("b", 0, List.of());
+        cache.get("a", 0);
+        cache.put("c", 0, List.of());
+
+        assertNotNull(cache.get("a", 0));
+        assertNull(cache.get("b", 0));
+        assertNotNull(cache.get("c", 0));
+    }
+}
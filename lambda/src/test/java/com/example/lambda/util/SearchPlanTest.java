@@ -0,0 +1,82 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.util.SearchPlan.Type;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SearchPlanTest {
+
+    // Raw query, expected plan type, expected index key
+    private static final Object[][] ROUTES = {
+            // Exact codes go to CodeIndex in their canonical "DEPT 123" form
+            {"CSDS 101", Type.CODE, "CSDS 101"},
+            {"csds101", Type.CODE, "CSDS 101"},
+            {"  Math-121h ", Type.CODE, "MATH 121H"},
+            {"CS\u00A0101", Type.CODE, "CS 101"},
+            {"ABCDE 999", Type.CODE, "ABCDE 999"},
+            // A code followed by a name goes to TitleIndex, with the name's whitespace collapsed
+            {"CSDS 101 Discrete Mathematics", Type.TITLE, "CSDS 101 Discrete Mathematics"},
+            {"csds101   Discrete\u00A0Mathematics", Type.TITLE, "CSDS 101 Discrete Mathematics"},
+            {"math 121H Calculus I", Type.TITLE, "MATH 121H Calculus I"},
+            // Anything else scans the catalog
+            {"Discrete Mathematics", Type.FREE_TEXT, null},
+            {"Discrete Mathematics CSDS 101", Type.FREE_TEXT, null},
+            {"C 101", Type.FREE_TEXT, null},
+            {"ABCDEF 101", Type.FREE_TEXT, null},
+            {"CSDS 10", Type.FREE_TEXT, null},
+            {"CSDS 1010", Type.FREE_TEXT, null},
+            {"CSDS 101HH", Type.FREE_TEXT, null},
+            {"", Type.FREE_TEXT, null},
+            {null, Type.FREE_TEXT, null},
+    };
+
+    @Test
+    public void testQueriesAreRoutedByShape() {
+        for (Object[] route : ROUTES) {
+            String query = (String) route[0];
+            SearchPlan plan = SearchPlan.plan(query);
+
+            assertEquals("type of '" + query + "'", route[1], plan.getType());
+            assertEquals("key of '" + query + "'", route[2], plan.getKey());
+        }
+    }
+
+    @Test
+    public void testCodeLookupIsExactAndOnlyTheScanMatchesVariants() {
+        // The index key never widens to lettered variants: "CSDS 101" is looked up as exactly that
+        assertEquals("CSDS 101", SearchPlan.plan("csds 101").getKey());
+        assertEquals("CSDS 101H", SearchPlan.plan("csds 101h").getKey());
+
+        // When the exact code is missing, the scan fallback still matches the variants by code substring
+        List<CourseOutput> courses = List.of(course("Discrete Mathematics", "CSDS 101"),
+                course("Discrete Mathematics (Honors)", "CSDS 101H"), course("Calculus I", "MATH 121"));
+        List<CourseOutput> scanned = CourseSearch.searchCourses(courses, SearchPlan.plan("csds 101").getQuery());
+        assertEquals(2, scanned.size());
+    }
+
+    @Test
+    public void testPlanKeepsTheTrimmedQueryForTheScan() {
+        assertEquals("csds101", SearchPlan.plan("  csds101\t").getQuery());
+        assertEquals("Discrete  Mathematics", SearchPlan.plan(" Discrete  Mathematics ").getQuery());
+        assertEquals("", SearchPlan.plan(null).getQuery());
+    }
+
+    @Test
+    public void testCodesEmbeddedInTextAreCanonicalizedOnce() {
+        assertEquals(List.of("CSDS 132", "MATH 122"), CourseCodes.extractAll("csds132 or MATH-122, or CSDS 132"));
+        assertEquals("CSDS", CourseCodes.departmentOf(" csds 101"));
+        assertNull(CourseCodes.departmentOf("101"));
+    }
+
+    private static CourseOutput course(String name, String code) {
+        CourseOutput course = new CourseOutput();
+        course.setName(name);
+        course.setCode(code);
+        return course;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.lambda.util;
+
+import com.example.lambda.models.CourseOutput;
+import com.example.lambda.models.SimilarCourse;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SimilarityIndexTest {
+
+    @Test
+    public void testNeighborsFollowSharedTopicsAndIncrementalUpdates() {
+        List<CourseOutput> courses = new ArrayList<>(List.of(
+                course("Machine Learning", "CSDS 440", "Supervised learning, neural networks and model evaluation."),
+                course("Deep Learning", "CSDS 441", "Neural networks trained with gradient descent."),
+                course("Medieval History", "HSTY 210", "Kings, castles and the feudal economy."),
+                course("Organic Chemistry", "CHEM 223", "Reactions of carbon compounds.")));
+        SimilarityIndex index = SimilarityIndex.build(courses, 1L);
+
+        List<SimilarCourse> similar = index.similarTo("Machine Learning", "CSDS 440", 5);
+        assertEquals("CSDS 441", similar.get(0).getCode());
+        assertTrue(similar.get(0).getScore() > 0);
+        assertTrue(index.similarTo("Medieval History", "HSTY 210", 5).isEmpty());
+
+        // A new course about castles becomes the history course's neighbor without a rebuild
+        assertTrue(index.updateCourse(course("Castle Architecture", "ARCH 301", "Castles of the feudal era.")));
+        assertEquals("ARCH 301", index.similarTo("Medieval History", "HSTY 210", 5).get(0).getCode());
+        assertFalse(index.updateCourse(course("Castle Architecture", "ARCH 301", "Castles of the feudal era.")));
+
+        assertTrue(index.removeCourse("Deep Learning", "CSDS 441"));
+        assertTrue(index.similarTo("Machine Learning", "CSDS 440", 5).isEmpty());
+        assertNull(index.similarTo("Deep Learning", "CSDS 441", 5));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testCatchUpPatchesChangedCoursesUntilTheIndexDrifts() {
+        List<CourseOutput> courses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            courses.add(course("Topic " + i, "CSDS " + (100 + i), "Lectures on subject" + i + " and more."));
+        }
+        courses.add(course("Machine Learning", "CSDS 440", "Supervised learning, neural networks and model evaluation."));
+        SimilarityIndex index = SimilarityIndex.build(courses, 1L);
+        assertTrue(index.similarTo("Machine Learning", "CSDS 440", 5).isEmpty());
+
+        // A reload with fresh copies of every course, one new course and one gone
+        List<CourseOutput> reloaded = new ArrayList<>();
+        for (CourseOutput course : courses.subList(1, courses.size())) {
+            reloaded.add(course(course.getName(), course.getCode(), course.getDescription()));
+        }
+        reloaded.add(course("Deep Learning", "CSDS 441", "Neural networks trained with gradient descent."));
+        assertTrue(index.catchUp(reloaded, 2L));
+
+        assertEquals(2L, index.getCatalogVersion());
+        assertEquals(9, index.size());
+        assertEquals("CSDS 441", index.similarTo("Machine Learning", "CSDS 440", 5).get(0).getCode());
+        assertNull(index.similarTo("Topic 0", "CSDS 100", 5));
+
+        // Rewriting most of the catalog is left to a fresh build
+        List<CourseOutput> rewritten = new ArrayList<>();
+        for (CourseOutput course : reloaded) {
+            rewritten.add(course(course.getName(), course.getCode(), "Rewritten"));
+        }
+        assertFalse(index.catchUp(rewritten, 3L));
+        assertEquals(2L, index.getCatalogVersion());
+    }
+
+    private static CourseOutput course(String name, String code, String description) {
+        CourseOutput course = new CourseOutput();
+        course.setName(name);
+        course.setCode(code);
+        course.setDescription(description);
+        return course;
+    }
+}
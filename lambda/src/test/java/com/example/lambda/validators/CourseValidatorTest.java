@@ -0,0 +1,94 @@
+package com.example.lambda.validators;
+
+import com.example.lambda.models.CourseOutput;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CourseValidatorTest {
+
+    private final CourseValidator validator = new CourseValidator();
+
+    @Test
+    public void testCodeAndNameAreRequiredWhateverTheTitle() {
+        CourseOutput course = valid("c1");
+        course.setCode(" ");
+        course.setName(null);
+        course.setTitle("CSDS 101 Discrete Mathematics");
+
+        List<ValidationError> errors = validator.checkCourse(course);
+
+        assertEquals(2, errors.size());
+        assertEquals("code", errors.get(0).getField());
+        assertEquals(ErrorCode.REQUIRED, errors.get(0).getCode());
+        assertEquals("name", errors.get(1).getField());
+        assertEquals(List.of("Course code is required.", "Course name is required."), validator.validateCourse(course));
+
+        // A missing title alone is fine; it is derived from code and name
+        CourseOutput untitled = valid("c2");
+        untitled.setTitle(null);
+        assertTrue(validator.validateCourse(untitled).isEmpty());
+    }
+
+    @Test
+    public void testBatchReportsEachInvalidCourseByIndex() {
+        CourseOutput noCode = valid("c1");
+        noCode.setCode("");
+        CourseOutput noCreator = valid("c3");
+        noCreator.setCreatedBy(null);
+
+        BatchValidationResult result = validator.validateBatch(List.of(valid("c0"), noCode, valid("c2"), noCreator));
+
+        assertFalse(result.isValid());
+        assertFalse(result.isTruncated());
+        assertEquals(4, result.getItemCount());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(Integer.valueOf(1), result.getErrors().get(0).getIndex());
+        assertEquals("code", result.getErrors().get(0).getField());
+        assertEquals(Integer.valueOf(3), result.getErrors().get(1).getIndex());
+        assertEquals("createdBy", result.getErrors().get(1).getField());
+        assertTrue(validator.validateBatch(List.of(valid("a"), valid("b"))).isValid());
+    }
+
+    @Test
+    public void testParallelBatchStopsAfterMaxErrors() {
+        List<CourseOutput> courses = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            CourseOutput course = valid("c" + i);
+            if (i % 5 == 0) {
+                course.setName(" ");
+            }
+            courses.add(course);
+        }
+
+        BatchValidationResult result = validator.validateBatch(courses);
+
+        assertEquals(CourseValidator.MAX_BATCH_ERRORS, result.getErrors().size());
+        assertTrue(result.isTruncated());
+        for (int i = 1; i < result.getErrors().size(); i++) {
+            assertTrue(result.getErrors().get(i - 1).getIndex() < result.getErrors().get(i).getIndex());
+        }
+    }
+
+    @Test
+    public void testUpdateOnlyNeedsTheCourseId() {
+        CourseOutput update = new CourseOutput();
+        assertEquals(List.of("Course ID is required for updates."), validator.validateForUpdate(update));
+        update.setCourseId("c1");
+        assertTrue(validator.validateForUpdate(update).isEmpty());
+    }
+
+    private static CourseOutput valid(String id) {
+        CourseOutput course = new CourseOutput();
+        course.setCourseId(id);
+        course.setCode("CSDS 101");
+        course.setName("Discrete Mathematics");
+        course.setCreatedBy("abc123");
+        return course;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.lambda.validators;
+
+import com.example.lambda.models.Review;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReviewValidatorTest {
+
+    private final ReviewValidator validator = new ReviewValidator();
+
+    @Test
+    public void testSingleReviewReportsCodesInRuleOrder() {
+        Review review = valid("r1");
+        review.setOverall(11.0);
+        review.setCreatedBy(" ");
+
+        List<ValidationError> errors = validator.checkReview(review);
+
+        assertEquals(2, errors.size());
+        assertEquals("createdBy", errors.get(0).getField());
+        assertEquals(ErrorCode.REQUIRED, errors.get(0).getCode());
+        assertEquals(ErrorCode.OUT_OF_RANGE, errors.get(1).getCode());
+        assertTrue(validator.validateReview(valid("r2")).isEmpty());
+    }
+
+    @Test
+    public void testParallelBatchIsOrderedAndStopsEarly() {
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Review review = valid("r" + i);
+            if (i % 10 == 3) {
+                review.setDifficulty(0.0);
+            }
+            reviews.add(review);
+        }
+
+        BatchValidationResult result = validator.validateBatch(reviews);
+
+        assertFalse(result.isValid());
+        assertEquals(ReviewValidator.MAX_BATCH_ERRORS, result.getErrors().size());
+        assertTrue(result.isTruncated());
+        for (int i = 1; i < result.getErrors().size(); i++) {
+            assertTrue(result.getErrors().get(i - 1).getIndex() < result.getErrors().get(i).getIndex());
+        }
+        assertTrue(validator.validateBatch(List.of(valid("a"), valid("b"))).isValid());
+    }
+
+    private static Review valid(String id) {
+        Review review = new Review();
+        review.setReviewId(id);
+        review.setCreatedBy("abc123");
+        review.setOverall(7.0);
+        review.setDifficulty(5.0);
+        review.setUsefulness(8.0);
+        review.setAnonymous(false);
+        review.setCreatedAt("2024-01-01");
+        return review;
+    }
+}